@@ -1,13 +1,18 @@
+import service.OutboxDispatcher;
 import ui.OpeningWindow;
+import ui.StartupOrchestrator;
 
 import javax.swing.SwingUtilities;
 
 /**
  * The main entry point of the application.
- * Simply launches the OpeningWindow, which then leads to Login.
+ * Simply launches the OpeningWindow, which then leads to Login once the startup warm-up is done.
+ * Also starts the alarm outbox dispatcher, so alarms left unsent by a previous run are delivered.
  */
 public class Main {
     public static void main(String[] args) {
+        StartupOrchestrator.start(); // Warming up in the background while the splash is being built
+        OutboxDispatcher.start();
         SwingUtilities.invokeLater(OpeningWindow::new);
     }
 }
@@ -0,0 +1,208 @@
+package database;
+
+import model.OutboxMessage;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Alarm Outbox Data Access Object (DAO)
+ * Encapsulates all access to the alarm_outbox table.
+ * Every method works on a connection supplied by the caller, because enqueueing must happen inside the
+ * log entry's transaction, and the dispatcher works on its own dedicated connection.
+ *
+ * Delivery follows claim/ack semantics: a dispatcher claims a batch of due rows with a random token, sends them,
+ * and then acknowledges each row by id AND token. A claim that is never acknowledged (e.g. the process died
+ * mid-send) expires after the lease time and the row becomes claimable again.
+ */
+public class AlarmOutboxDAO {
+
+    /**
+     * Enqueuer
+     * Inserts alarms into the outbox, ignoring any whose dedupKey is already present.
+     *
+     * @param conn     The connection (and transaction) to insert with; it is not closed here
+     * @param messages The alarms to enqueue
+     * @return int The number of rows actually inserted
+     * @throws SQLException If the insert fails, so the caller can roll back the whole transaction
+     */
+    public int enqueue(Connection conn, List<OutboxMessage> messages) throws SQLException {
+        // EARLY exit avoids preparing a statement for the common no-alarm case
+        if (messages == null || messages.isEmpty()) {
+            return 0;
+        }
+
+        // SQL statement relies on the UNIQUE dedupKey for idempotency
+        String sql = "INSERT OR IGNORE INTO alarm_outbox(dedupKey, userId, recipient, subject, body, notice, " +
+                "status, attempts, nextAttemptAt, createdAt) VALUES(?,?,?,?,?,?,'PENDING',0,?,?)";
+        long now = System.currentTimeMillis();
+        int inserted = 0;
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (OutboxMessage message : messages) {
+                // BINDING block: Sets all parameters for the insert
+                ps.setString(1, message.getDedupKey());
+                ps.setInt(2, message.getUserId());
+                ps.setString(3, message.getRecipient());
+                ps.setString(4, message.getSubject());
+                ps.setString(5, message.getBody());
+                ps.setString(6, message.getNotice());
+                ps.setLong(7, now);
+                ps.setLong(8, now);
+                // EXECUTION returns 0 when the key already exists
+                inserted += ps.executeUpdate();
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Batch Claimer
+     * Atomically claims up to {@code limit} due rows: pending rows whose retry time has passed, and claimed rows
+     * whose lease has expired. The claim is a single UPDATE, so two dispatchers can never claim the same row.
+     *
+     * @param conn         The dispatcher's connection
+     * @param limit        The maximum batch size
+     * @param now          The current time in epoch millis
+     * @param leaseMillis  How long a claim stays valid without an acknowledgement
+     * @return List<OutboxMessage> The claimed rows, all carrying the same new claim token
+     * @throws SQLException If the claim fails
+     */
+    public List<OutboxMessage> claimBatch(Connection conn, int limit, long now, long leaseMillis) throws SQLException {
+        // TOKEN generation identifies this batch for the later acknowledgements
+        String token = UUID.randomUUID().toString();
+
+        String claimSql = "UPDATE alarm_outbox SET status = 'CLAIMED', claimToken = ?, claimedAt = ? " +
+                "WHERE id IN (SELECT id FROM alarm_outbox " +
+                "WHERE (status = 'PENDING' AND nextAttemptAt <= ?) " +
+                "OR (status = 'CLAIMED' AND claimedAt < ?) " +
+                "ORDER BY id LIMIT ?)";
+        try (PreparedStatement ps = conn.prepareStatement(claimSql)) {
+            ps.setString(1, token);
+            ps.setLong(2, now);
+            ps.setLong(3, now);
+            ps.setLong(4, now - leaseMillis);
+            ps.setInt(5, limit);
+            // EMPTY claim means there is nothing due
+            if (ps.executeUpdate() == 0) {
+                return new ArrayList<>();
+            }
+        }
+
+        // RETRIEVAL of the rows that now carry our token
+        List<OutboxMessage> batch = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement("SELECT * FROM alarm_outbox WHERE claimToken = ? ORDER BY id")) {
+            ps.setString(1, token);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    batch.add(extractMessage(rs));
+                }
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Delivery Acknowledger
+     * Marks a claimed row as sent, provided the caller still holds the claim.
+     *
+     * @return boolean False if the claim had expired and been taken over by someone else
+     */
+    public boolean markSent(Connection conn, long id, String claimToken) throws SQLException {
+        String sql = "UPDATE alarm_outbox SET status = 'SENT', sentAt = ?, claimToken = NULL, lastError = NULL " +
+                "WHERE id = ? AND claimToken = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, System.currentTimeMillis());
+            ps.setLong(2, id);
+            ps.setString(3, claimToken);
+            return ps.executeUpdate() == 1;
+        }
+    }
+
+    /**
+     * Failure Recorder
+     * Releases a claimed row after a failed send: it goes back to PENDING until {@code nextAttemptAt},
+     * or to FAILED once {@code maxAttempts} attempts have been used.
+     *
+     * @return boolean False if the claim had expired and been taken over by someone else
+     */
+    public boolean markFailed(Connection conn, long id, String claimToken, String error,
+                              long nextAttemptAt, int maxAttempts) throws SQLException {
+        String sql = "UPDATE alarm_outbox SET attempts = attempts + 1, lastError = ?, nextAttemptAt = ?, " +
+                "claimToken = NULL, status = CASE WHEN attempts + 1 >= ? THEN 'FAILED' ELSE 'PENDING' END " +
+                "WHERE id = ? AND claimToken = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, error);
+            ps.setLong(2, nextAttemptAt);
+            ps.setInt(3, maxAttempts);
+            ps.setLong(4, id);
+            ps.setString(5, claimToken);
+            return ps.executeUpdate() == 1;
+        }
+    }
+
+    /**
+     * Deferral Recorder
+     * Releases a claimed row that could not be sent yet (rate limited or circuit open) without counting an attempt,
+     * so it is picked up again at {@code nextAttemptAt}.
+     *
+     * @return boolean False if the claim had expired and been taken over by someone else
+     */
+    public boolean release(Connection conn, long id, String claimToken, long nextAttemptAt) throws SQLException {
+        String sql = "UPDATE alarm_outbox SET status = 'PENDING', claimToken = NULL, nextAttemptAt = ? " +
+                "WHERE id = ? AND claimToken = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, nextAttemptAt);
+            ps.setLong(2, id);
+            ps.setString(3, claimToken);
+            return ps.executeUpdate() == 1;
+        }
+    }
+
+    /**
+     * Status Counter
+     * Counts the outbox rows in each status, for monitoring and tests.
+     */
+    public Map<OutboxMessage.Status, Integer> countByStatus(Connection conn) throws SQLException {
+        Map<OutboxMessage.Status, Integer> counts = new EnumMap<>(OutboxMessage.Status.class);
+        for (OutboxMessage.Status status : OutboxMessage.Status.values()) {
+            counts.put(status, 0);
+        }
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT status, COUNT(*) AS n FROM alarm_outbox GROUP BY status")) {
+            while (rs.next()) {
+                counts.put(OutboxMessage.Status.valueOf(rs.getString("status")), rs.getInt("n"));
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * ResultSet Processor
+     * Maps an alarm_outbox row to an OutboxMessage.
+     */
+    private OutboxMessage extractMessage(ResultSet rs) throws SQLException {
+        OutboxMessage m = new OutboxMessage();
+
+        // MAPPING block: Transfers database values to object fields
+        m.setId(rs.getLong("id"));
+        m.setDedupKey(rs.getString("dedupKey"));
+        m.setUserId(rs.getInt("userId"));
+        m.setRecipient(rs.getString("recipient"));
+        m.setSubject(rs.getString("subject"));
+        m.setBody(rs.getString("body"));
+        m.setNotice(rs.getString("notice"));
+        m.setStatus(OutboxMessage.Status.valueOf(rs.getString("status")));
+        m.setAttempts(rs.getInt("attempts"));
+        m.setClaimToken(rs.getString("claimToken"));
+        m.setNextAttemptAt(rs.getLong("nextAttemptAt"));
+        m.setLastError(rs.getString("lastError"));
+        m.setCreatedAt(rs.getLong("createdAt"));
+
+        return m;
+    }
+}
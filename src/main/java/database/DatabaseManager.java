@@ -1,9 +1,16 @@
 package database;
 
+import model.MealSlot;
+import org.sqlite.SQLiteConfig;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * DatabaseManager Class
@@ -13,12 +20,15 @@ import java.sql.Statement;
  */
 public class DatabaseManager {
     // DATABASE path string that defines the connection URL for our SQLite database
-    private static final String DB_URL = "jdbc:sqlite:diabetesapp.db";
+    // OVERRIDE via -Dsugarbyte.db.url lets benchmarks and tools point the app at a scratch database
+    private static final String DB_URL = System.getProperty("sugarbyte.db.url", "jdbc:sqlite:diabetesapp.db");
 
     // INSTANCE reference maintains the singleton pattern throughout the application
     private static DatabaseManager instance;
-    // CONNECTION object serves as our primary interface with the SQLite database
-    private Connection connection;
+    // CONNECTION objects serve as our primary interface with the SQLite database
+    // THREAD confinement gives every thread its own connection, so a background worker (graph loading, saving,
+    // alarm dispatch) never uses or closes the connection another thread is in the middle of using
+    private final ThreadLocal<Connection> connection = new ThreadLocal<>();
 
     /**
      * Private Constructor
@@ -42,7 +52,7 @@ public class DatabaseManager {
 
         try {
             // ESTABLISHMENT process creates a new connection to our database file
-            connection = DriverManager.getConnection(DB_URL);
+            connection.set(connect());
             // SUCCESS message confirms the database connection is ready
             System.out.println("Connection established to " + DB_URL);
             // INITIALIZATION call sets up our database schema
@@ -53,7 +63,7 @@ public class DatabaseManager {
             // ERROR message indicates connection problems
             System.err.println("Failed to connect to the database: " + DB_URL);
             // NULLIFICATION ensures we don't keep invalid connection references
-            connection = null;
+            connection.remove();
         }
     }
 
@@ -76,22 +86,24 @@ public class DatabaseManager {
 
     /**
      * Connection Provider
-     * Supplies the active database connection, attempting reconnection if needed.
+     * Supplies the calling thread's database connection, attempting reconnection if needed.
      * Implements connection recovery logic for resilient database operations.
      *
      * @return Connection The active database connection or null if unavailable
      */
     /* reference 1 - taken from https://docs.oracle.com/javase/tutorial/jdbc/basics/connecting.html */
     public Connection getConnection() {
+        Connection current = connection.get();
         try {
             // VALIDATION check ensures our connection is still valid
-            if (connection == null || connection.isClosed()) {
+            if (current == null || current.isClosed()) {
                 // WARNING message indicates connection loss
                 System.err.println("Database connection is closed. Attempting to reconnect...");
                 // RECONNECTION attempt establishes a fresh database connection
-                connection = DriverManager.getConnection(DB_URL);
+                current = connect();
+                connection.set(current);
                 // VERIFICATION process confirms successful reconnection
-                if (connection != null) {
+                if (current != null) {
                     // SUCCESS message indicates restored connectivity
                     System.out.println("Successfully reconnected to the database.");
                 } else {
@@ -107,21 +119,51 @@ public class DatabaseManager {
             System.err.println("Failed to reconnect to the database.");
         }
         // RETURN statement provides the current connection state
-        return connection;
+        return current;
+    }
+
+    /**
+     * Dedicated Connection Provider
+     * Opens a separate connection that is owned (and closed) by the caller.
+     * Background workers such as the alarm outbox dispatcher use this, so they never share
+     * (or close) the connection the UI thread is working with.
+     *
+     * @return Connection A new connection to the same database
+     * @throws SQLException If the connection cannot be opened
+     */
+    public Connection openConnection() throws SQLException {
+        return connect();
+    }
+
+    /**
+     * Connection Factory
+     * Opens a connection configured for several connections writing to the same file:
+     * a busy timeout, so a connection waits for another connection's lock instead of failing with SQLITE_BUSY,
+     * and IMMEDIATE transactions, so a transaction that starts with a read (like the upsert in LogEntryDAO)
+     * takes the write lock up front instead of failing when it later tries to upgrade its lock.
+     */
+    private static Connection connect() throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        // WAITING up to 5 seconds for a lock held by another connection
+        config.setBusyTimeout(5000);
+        // LOCKING for writing at the start of each explicit transaction
+        config.setTransactionMode(SQLiteConfig.TransactionMode.IMMEDIATE);
+        return DriverManager.getConnection(DB_URL, config.toProperties());
     }
 
     /**
      * Connection Terminator
-     * Safely closes the database connection and releases associated resources.
+     * Safely closes the calling thread's database connection and releases associated resources.
      * Implements proper cleanup procedures for database management.
      */
     /* reference 2- taken from https://stackoverflow.com/questions/2225221/closing-database-connections-in-java */
     public void closeConnection() {
+        Connection current = connection.get();
         // VALIDATION check ensures we have an active connection
-        if (connection != null) {
+        if (current != null) {
             try {
                 // TERMINATION process closes the database connection
-                connection.close();
+                current.close();
                 // CONFIRMATION message indicates successful closure
                 System.out.println("Database connection closed.");
             } catch (SQLException e) {
@@ -170,10 +212,45 @@ public class DatabaseManager {
                 "exerciseDuration INTEGER," +
                 "insulinDose REAL," +
                 "otherMedications TEXT," +
+                "slotOrder INTEGER," +
                 "FOREIGN KEY(userId) REFERENCES user(id) ON DELETE CASCADE" +
                 ");";
 
-        try (Statement stmt = connection.createStatement()) {
+        // DEFINITION string specifies the index behind the per-day and date range queries on log entries
+        String createLogEntryIndex = "CREATE INDEX IF NOT EXISTS idx_logentry_user_date " +
+                "ON logentry(userId, date);";
+
+        // DEFINITION string specifies the index behind the latest-reading lookup: only rows with a reading, newest first,
+        // so the latest reading is the first index entry of the user (one seek, however long the history)
+        String createLatestReadingIndex = "CREATE INDEX IF NOT EXISTS idx_logentry_latest_reading " +
+                "ON logentry(userId, date DESC, slotOrder DESC) WHERE bloodSugar > 0;";
+
+        // DEFINITION string specifies the alarm outbox table schema
+        // Alarms are written here in the same transaction as their log entry and delivered by the OutboxDispatcher.
+        // The UNIQUE dedupKey makes enqueueing idempotent (INSERT OR IGNORE), so re-saving an entry never duplicates an alarm.
+        String createAlarmOutboxTable = "CREATE TABLE IF NOT EXISTS alarm_outbox (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "dedupKey TEXT NOT NULL UNIQUE," +
+                "userId INTEGER," +
+                "recipient TEXT NOT NULL," +
+                "subject TEXT NOT NULL," +
+                "body TEXT NOT NULL," +
+                "notice TEXT," +
+                "status TEXT NOT NULL DEFAULT 'PENDING'," +
+                "attempts INTEGER NOT NULL DEFAULT 0," +
+                "claimToken TEXT," +
+                "claimedAt INTEGER," +
+                "nextAttemptAt INTEGER NOT NULL DEFAULT 0," +
+                "lastError TEXT," +
+                "createdAt INTEGER NOT NULL," +
+                "sentAt INTEGER" +
+                ");";
+
+        // DEFINITION string specifies the index the dispatcher uses to find due messages
+        String createAlarmOutboxIndex = "CREATE INDEX IF NOT EXISTS idx_alarm_outbox_due " +
+                "ON alarm_outbox(status, nextAttemptAt);";
+
+        try (Statement stmt = connection.get().createStatement()) {
             // EXECUTION process creates the user table
             stmt.execute(createUserTable);
             // CONFIRMATION message indicates successful user table creation
@@ -181,8 +258,19 @@ public class DatabaseManager {
 
             // EXECUTION process creates the log entry table
             stmt.execute(createLogEntryTable);
+            stmt.execute(createLogEntryIndex);
+            // MIGRATION adds the slotOrder column to databases created before it existed, then fills it in
+            addColumnIfMissing(stmt, "logentry", "slotOrder", "INTEGER");
+            fillSlotOrder();
+            stmt.execute(createLatestReadingIndex);
             // CONFIRMATION message indicates successful log entry table creation
             System.out.println("Ensured 'logentry' table exists.");
+
+            // EXECUTION process creates the alarm outbox table and its index
+            stmt.execute(createAlarmOutboxTable);
+            stmt.execute(createAlarmOutboxIndex);
+            // CONFIRMATION message indicates successful outbox table creation
+            System.out.println("Ensured 'alarm_outbox' table exists.");
         } catch (SQLException e) {
             // ERROR handling captures schema creation problems
             e.printStackTrace();
@@ -190,4 +278,46 @@ public class DatabaseManager {
             System.err.println("initDB() failed while creating/updating tables.");
         }
     }
+
+    /**
+     * Column Migrator
+     * Adds a column to an existing table if it does not have it yet (CREATE TABLE IF NOT EXISTS leaves old tables as they are).
+     */
+    private void addColumnIfMissing(Statement stmt, String table, String column, String type) throws SQLException {
+        // INSPECTION lists the table's current columns
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return;
+                }
+            }
+        }
+        stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + type);
+        System.out.println("Added column '" + column + "' to '" + table + "'.");
+    }
+
+    /**
+     * Slot Order Backfill
+     * Sets slotOrder (the hour of the entry's time of day, see MealSlot.hourOf) on entries saved before the column
+     * existed, one UPDATE per distinct time of day. Entries saved since have it set by LogEntryDAO.
+     */
+    private void fillSlotOrder() throws SQLException {
+        Connection conn = connection.get();
+        // COLLECTION of the time-of-day labels still missing an order
+        List<String> labels = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT DISTINCT timeOfDay FROM logentry WHERE slotOrder IS NULL")) {
+            while (rs.next()) {
+                labels.add(rs.getString(1));
+            }
+        }
+        // UPDATE of each label's rows with its order
+        try (PreparedStatement ps = conn.prepareStatement("UPDATE logentry SET slotOrder = ? WHERE slotOrder IS NULL AND timeOfDay = ?")) {
+            for (String label : labels) {
+                ps.setInt(1, MealSlot.hourOf(label));
+                ps.setString(2, label);
+                ps.executeUpdate();
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -1,9 +1,14 @@
 package database;
 
+import model.DailySummary;
 import model.LogEntry;
+import model.MealSlot;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleConsumer;
 
 /**
  * LogEntry Data Access Object (DAO)
@@ -17,6 +22,17 @@ import java.util.List;
  */
 public class LogEntryDAO {
 
+    // AGGREGATE columns shared by the daily summary queries; readings of 0 (rows without a glucose value) are excluded
+    private static final String DAILY_AGGREGATES = "COUNT(*) AS entries, " +
+            "COUNT(CASE WHEN bloodSugar > 0 THEN 1 END) AS readings, " +
+            "AVG(CASE WHEN bloodSugar > 0 THEN bloodSugar END) AS avgBloodSugar, " +
+            "MIN(CASE WHEN bloodSugar > 0 THEN bloodSugar END) AS minBloodSugar, " +
+            "MAX(CASE WHEN bloodSugar > 0 THEN bloodSugar END) AS maxBloodSugar, " +
+            "TOTAL(CASE WHEN bloodSugar > 0 THEN bloodSugar * bloodSugar END) AS sumOfSquares, " +
+            "COUNT(CASE WHEN bloodSugar > 0 AND bloodSugar < " + DailySummary.RANGE_LOW + " THEN 1 END) AS below, " +
+            "COUNT(CASE WHEN bloodSugar > " + DailySummary.RANGE_HIGH + " THEN 1 END) AS above, " +
+            "TOTAL(carbsEaten) AS carbs, TOTAL(insulinDose) AS insulin, TOTAL(exerciseDuration) AS exercise ";
+
     /**
      * Entry Creator and Updater
      * Implements an "upsert" pattern - attempts to update an existing entry,
@@ -27,12 +43,37 @@ public class LogEntryDAO {
      * @return LogEntry The processed entry with updated ID if newly created
      */
     public LogEntry createLogEntry(LogEntry entry) {
+        try (
+                // CONNECTION establishment leverages the DatabaseManager singleton
+                Connection conn = DatabaseManager.getInstance().getConnection()
+        ) {
+            // DELEGATION performs the upsert on this connection
+            createLogEntry(conn, entry);
+        } catch (SQLException e) {
+            // ERROR handling captures and logs database operation failures
+            e.printStackTrace();
+        }
+
+        // RETURN provides the processed entry back to the caller
+        return entry;
+    }
+
+    /**
+     * Transactional Entry Creator and Updater
+     * Performs the same upsert as createLogEntry(LogEntry), but on a connection owned by the caller,
+     * so it can be part of a larger transaction (e.g. together with the alarms in the outbox).
+     * The connection is neither committed nor closed here, and failures are thrown so the caller can roll back.
+     *
+     * @param conn  The connection (and transaction) to use
+     * @param entry The LogEntry object containing all entry details
+     * @return LogEntry The processed entry with updated ID if newly created
+     * @throws SQLException If the check, update or insert fails
+     */
+    public LogEntry createLogEntry(Connection conn, LogEntry entry) throws SQLException {
         // SQL query looks for existing entries with matching key fields
         String checkSql = "SELECT id FROM logentry WHERE userId = ? AND date = ? AND timeOfDay = ?";
 
         try (
-                // CONNECTION establishment leverages the DatabaseManager singleton
-                Connection conn = DatabaseManager.getInstance().getConnection();
                 // STATEMENT preparation creates a secure, parameterized query
                 PreparedStatement checkPs = conn.prepareStatement(checkSql)
         ) {
@@ -90,8 +131,8 @@ public class LogEntryDAO {
                     // SQL construction builds the insert statement with all fields
                     String insertSql = "INSERT INTO logentry(userId, date, timeOfDay, bloodSugar, " +
                             "carbsEaten, hoursSinceMeal, foodDetails, exerciseType, " +
-                            "exerciseDuration, insulinDose, otherMedications) " +
-                            "VALUES(?,?,?,?,?,?,?,?,?,?,?)";
+                            "exerciseDuration, insulinDose, otherMedications, slotOrder) " +
+                            "VALUES(?,?,?,?,?,?,?,?,?,?,?,?)";
 
                     try (
                             // STATEMENT preparation includes request for generated keys
@@ -110,6 +151,8 @@ public class LogEntryDAO {
                         insertPs.setInt(9, entry.getExerciseDuration());
                         insertPs.setDouble(10, entry.getInsulinDose());
                         insertPs.setString(11, entry.getOtherMedications());
+                        // ORDER of the time of day within the date, for the latest-reading index
+                        insertPs.setInt(12, MealSlot.hourOf(entry.getTimeOfDay()));
 
                         // EXECUTION performs the insert operation
                         int rowsInserted = insertPs.executeUpdate();
@@ -133,9 +176,6 @@ public class LogEntryDAO {
                     }
                 }
             }
-        } catch (SQLException e) {
-            // ERROR handling captures and logs database operation failures
-            e.printStackTrace();
         }
 
         // RETURN provides the processed entry back to the caller
@@ -186,6 +226,339 @@ public class LogEntryDAO {
         return list;
     }
 
+    /**
+     * Range Entry Retriever
+     * Fetches all log entries of a user over a date range in a single query (e.g. a whole week),
+     * instead of one getEntriesByDate call per day. Served by the idx_logentry_user_date index.
+     * Results are ordered by date, then by time of day (slotOrder) within each date.
+     *
+     * @param userId The ID of the user whose entries we want to retrieve
+     * @param startDate The first date of the range (inclusive, "yyyy-MM-dd")
+     * @param endDate The last date of the range (inclusive, "yyyy-MM-dd")
+     * @return List<LogEntry> Collection of all matching log entries
+     */
+    public List<LogEntry> getEntriesInRange(int userId, String startDate, String endDate) {
+        // SQL query selects the range and orders the entries along the days
+        String sql = "SELECT * FROM logentry WHERE userId = ? AND date BETWEEN ? AND ? ORDER BY date ASC, slotOrder ASC";
+        // LIST initialization prepares for collecting results
+        List<LogEntry> list = new ArrayList<>();
+
+        try (
+                // CONNECTION establishment uses the database manager
+                Connection conn = DatabaseManager.getInstance().getConnection();
+                // STATEMENT preparation creates a parameterized query
+                PreparedStatement ps = conn.prepareStatement(sql)
+        ) {
+            // PARAMETER binding sets the user and the range
+            ps.setInt(1, userId);
+            ps.setString(2, startDate);
+            ps.setString(3, endDate);
+
+            try (
+                    // EXECUTION retrieves matching entries
+                    ResultSet rs = ps.executeQuery()
+            ) {
+                // ITERATION processes each returned row
+                while (rs.next()) {
+                    // CONSTRUCTION creates LogEntry objects from results
+                    list.add(extractLogEntry(rs));
+                }
+            }
+        } catch (SQLException e) {
+            // ERROR handling captures database operation failures
+            e.printStackTrace();
+        }
+        // RETURN provides the collected entries
+        return list;
+    }
+
+    /**
+     * Daily Summary Retriever
+     * Aggregates a user's entries per day over a date range in a single query, instead of one
+     * getEntriesByDate call per day. Only days that have entries are returned, in date order.
+     * Readings of 0 (rows without a glucose value) are excluded from the glucose figures.
+     *
+     * @param userId The ID of the user whose entries we want to summarise
+     * @param startDate The first date of the range (inclusive, "yyyy-MM-dd")
+     * @param endDate The last date of the range (inclusive, "yyyy-MM-dd")
+     * @return List<DailySummary> One summary per day with entries
+     */
+    public List<DailySummary> getDailySummaries(int userId, String startDate, String endDate) {
+        // SQL query aggregates each day of the range; ISO dates compare correctly as text
+        String sql = "SELECT userId, date, " + DAILY_AGGREGATES +
+                "FROM logentry WHERE userId = ? AND date BETWEEN ? AND ? GROUP BY date ORDER BY date ASC";
+        // LIST initialization prepares for collecting results
+        List<DailySummary> list = new ArrayList<>();
+
+        try (
+                // CONNECTION establishment uses the database manager
+                Connection conn = DatabaseManager.getInstance().getConnection();
+                // STATEMENT preparation creates a parameterized query
+                PreparedStatement ps = conn.prepareStatement(sql)
+        ) {
+            // PARAMETER binding sets the user and the range
+            ps.setInt(1, userId);
+            ps.setString(2, startDate);
+            ps.setString(3, endDate);
+
+            try (
+                    // EXECUTION retrieves one row per day
+                    ResultSet rs = ps.executeQuery()
+            ) {
+                // ITERATION processes each returned day
+                while (rs.next()) {
+                    // CONSTRUCTION creates DailySummary objects from results
+                    list.add(extractDailySummary(rs));
+                }
+            }
+        } catch (SQLException e) {
+            // ERROR handling captures database operation failures
+            e.printStackTrace();
+        }
+        // RETURN provides the collected summaries
+        return list;
+    }
+
+    /**
+     * Earliest Entry Finder
+     * Looks up the date of a user's first logbook entry, e.g. to know how far back history can be browsed.
+     * Answered from the (userId, date) index without reading any rows.
+     *
+     * @param userId The ID of the user
+     * @return The earliest date ("yyyy-MM-dd"), or null if the user has no entries
+     */
+    public String getEarliestEntryDate(int userId) {
+        // SQL query asks for the smallest date of the user
+        String sql = "SELECT MIN(date) FROM logentry WHERE userId = ?";
+
+        try (
+                // CONNECTION establishment uses the database manager
+                Connection conn = DatabaseManager.getInstance().getConnection();
+                // STATEMENT preparation creates a parameterized query
+                PreparedStatement ps = conn.prepareStatement(sql)
+        ) {
+            // PARAMETER binding sets the user
+            ps.setInt(1, userId);
+
+            try (
+                    // EXECUTION returns a single row, with NULL when there are no entries
+                    ResultSet rs = ps.executeQuery()
+            ) {
+                if (rs.next()) {
+                    return rs.getString(1);
+                }
+            }
+        } catch (SQLException e) {
+            // ERROR handling captures database operation failures
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Latest Reading Finder
+     * Looks up a user's most recent blood glucose reading: the latest date, and on that date the latest time of day
+     * (by slotOrder, not by the label's alphabetical order). Answered by a single seek into the
+     * idx_logentry_latest_reading index, which only holds rows with a reading, newest first.
+     *
+     * @param userId The ID of the user
+     * @return LogEntry The reading with its date and time of day (other fields unset), or null if the user has no readings
+     */
+    public LogEntry getLatestReading(int userId) {
+        // SQL query walks the index from the newest reading and stops at the first
+        String sql = "SELECT date, timeOfDay, bloodSugar FROM logentry " +
+                "WHERE userId = ? AND bloodSugar > 0 ORDER BY date DESC, slotOrder DESC LIMIT 1";
+
+        try (
+                // CONNECTION establishment uses the database manager
+                Connection conn = DatabaseManager.getInstance().getConnection();
+                // STATEMENT preparation creates a parameterized query
+                PreparedStatement ps = conn.prepareStatement(sql)
+        ) {
+            // PARAMETER binding sets the user
+            ps.setInt(1, userId);
+
+            try (
+                    // EXECUTION returns at most one row
+                    ResultSet rs = ps.executeQuery()
+            ) {
+                if (rs.next()) {
+                    LogEntry reading = new LogEntry();
+                    reading.setUserId(userId);
+                    reading.setDate(rs.getString("date"));
+                    reading.setTimeOfDay(rs.getString("timeOfDay"));
+                    reading.setBloodSugar(rs.getDouble("bloodSugar"));
+                    return reading;
+                }
+            }
+        } catch (SQLException e) {
+            // ERROR handling captures database operation failures
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Streaming Reading Retriever
+     * Passes every blood glucose reading of a user in a date range to a callback, row by row,
+     * without building a list. Used for statistics over long ranges. Rows without a reading are skipped.
+     *
+     * @param userId The ID of the user whose readings we want
+     * @param startDate The first date of the range (inclusive, "yyyy-MM-dd")
+     * @param endDate The last date of the range (inclusive, "yyyy-MM-dd")
+     * @param consumer Receives each reading (mmol/L)
+     */
+    public void forEachReading(int userId, String startDate, String endDate, DoubleConsumer consumer) {
+        // SQL query selects only the column the callback needs
+        String sql = "SELECT bloodSugar FROM logentry WHERE userId = ? AND date BETWEEN ? AND ? AND bloodSugar > 0";
+
+        try (
+                // CONNECTION establishment uses the database manager
+                Connection conn = DatabaseManager.getInstance().getConnection();
+                // STATEMENT preparation creates a parameterized query
+                PreparedStatement ps = conn.prepareStatement(sql)
+        ) {
+            // PARAMETER binding sets the user and the range
+            ps.setInt(1, userId);
+            ps.setString(2, startDate);
+            ps.setString(3, endDate);
+
+            try (
+                    // EXECUTION streams the matching readings
+                    ResultSet rs = ps.executeQuery()
+            ) {
+                // ITERATION hands each reading straight to the callback
+                while (rs.next()) {
+                    consumer.accept(rs.getDouble(1));
+                }
+            }
+        } catch (SQLException e) {
+            // ERROR handling captures database operation failures
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Slot Reading Retriever
+     * Like forEachReading, but also passes the date and time of day of each reading, for views that group
+     * readings by day or meal slot (e.g. the ambulatory glucose profile).
+     *
+     * @param userId The ID of the user whose readings we want
+     * @param startDate The first date of the range (inclusive, "yyyy-MM-dd")
+     * @param endDate The last date of the range (inclusive, "yyyy-MM-dd")
+     * @param consumer Receives each reading with its date and time of day
+     */
+    public void forEachSlotReading(int userId, String startDate, String endDate, SlotReadingConsumer consumer) {
+        // SQL query selects only the columns the callback needs
+        String sql = "SELECT date, timeOfDay, bloodSugar FROM logentry WHERE userId = ? AND date BETWEEN ? AND ? AND bloodSugar > 0";
+
+        try (
+                // CONNECTION establishment uses the database manager
+                Connection conn = DatabaseManager.getInstance().getConnection();
+                // STATEMENT preparation creates a parameterized query
+                PreparedStatement ps = conn.prepareStatement(sql)
+        ) {
+            // PARAMETER binding sets the user and the range
+            ps.setInt(1, userId);
+            ps.setString(2, startDate);
+            ps.setString(3, endDate);
+
+            try (
+                    // EXECUTION streams the matching readings
+                    ResultSet rs = ps.executeQuery()
+            ) {
+                // ITERATION hands each reading straight to the callback
+                while (rs.next()) {
+                    consumer.accept(rs.getString(1), rs.getString(2), rs.getDouble(3));
+                }
+            }
+        } catch (SQLException e) {
+            // ERROR handling captures database operation failures
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Receives the readings streamed by forEachSlotReading.
+     */
+    public interface SlotReadingConsumer {
+        void accept(String date, String timeOfDay, double bloodSugar);
+    }
+
+    /**
+     * All-Users Daily Summary Retriever
+     * Aggregates the entries of every user per day over a date range in a single query,
+     * for batch jobs such as the weekly reports (one query instead of one per user and day).
+     *
+     * @param startDate The first date of the range (inclusive, "yyyy-MM-dd")
+     * @param endDate The last date of the range (inclusive, "yyyy-MM-dd")
+     * @return Map<Integer, List<DailySummary>> The days with entries of each user (by user ID), in date order
+     */
+    public Map<Integer, List<DailySummary>> getDailySummariesForAllUsers(String startDate, String endDate) {
+        // SQL query aggregates each user's days of the range
+        String sql = "SELECT userId, date, " + DAILY_AGGREGATES +
+                "FROM logentry WHERE date BETWEEN ? AND ? GROUP BY userId, date ORDER BY userId ASC, date ASC";
+        // MAP initialization prepares for collecting results per user
+        Map<Integer, List<DailySummary>> byUser = new HashMap<>();
+
+        try (
+                // CONNECTION establishment uses the database manager
+                Connection conn = DatabaseManager.getInstance().getConnection();
+                // STATEMENT preparation creates a parameterized query
+                PreparedStatement ps = conn.prepareStatement(sql)
+        ) {
+            // PARAMETER binding sets the range
+            ps.setString(1, startDate);
+            ps.setString(2, endDate);
+
+            try (
+                    // EXECUTION retrieves one row per user and day
+                    ResultSet rs = ps.executeQuery()
+            ) {
+                // ITERATION groups the returned days by user
+                while (rs.next()) {
+                    byUser.computeIfAbsent(rs.getInt("userId"), id -> new ArrayList<>()).add(extractDailySummary(rs));
+                }
+            }
+        } catch (SQLException e) {
+            // ERROR handling captures database operation failures
+            e.printStackTrace();
+        }
+        // RETURN provides the collected summaries
+        return byUser;
+    }
+
+    /**
+     * ResultSet Processor
+     * Maps an aggregate row (see DAILY_AGGREGATES) to a DailySummary object.
+     *
+     * @param rs The ResultSet positioned at the row to process
+     * @return DailySummary A new object populated with the row's data
+     * @throws SQLException If any database access errors occur
+     */
+    private DailySummary extractDailySummary(ResultSet rs) throws SQLException {
+        DailySummary day = new DailySummary(rs.getString("date"));
+
+        // MAPPING block: Transfers the aggregates to object fields
+        day.setEntryCount(rs.getInt("entries"));
+        day.setReadingCount(rs.getInt("readings"));
+        // NULL aggregates (no readings that day) stay NaN
+        if (day.hasReadings()) {
+            day.setAverageBloodSugar(rs.getDouble("avgBloodSugar"));
+            day.setMinBloodSugar(rs.getDouble("minBloodSugar"));
+            day.setMaxBloodSugar(rs.getDouble("maxBloodSugar"));
+        }
+        day.setSumOfSquares(rs.getDouble("sumOfSquares"));
+        day.setReadingsBelowRange(rs.getInt("below"));
+        day.setReadingsAboveRange(rs.getInt("above"));
+        day.setTotalCarbs(rs.getDouble("carbs"));
+        day.setTotalInsulin(rs.getDouble("insulin"));
+        day.setTotalExerciseMinutes(rs.getInt("exercise"));
+
+        // RETURN provides the populated summary
+        return day;
+    }
+
     /**
      * ResultSet Processor
      * Helper method that maps a database result row to a LogEntry object.
@@ -2,6 +2,8 @@ package database;
 
 import model.User;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -162,6 +164,38 @@ public class UserDAO {
         }
     }
 
+    /**
+     * All-Users Retriever
+     * Fetches every registered user, ordered by ID. Used by batch jobs such as the weekly reports.
+     *
+     * @return List<User> All users, or an empty list if the query fails
+     */
+    public List<User> getAllUsers() {
+        // QUERY definition selects every user
+        String sql = "SELECT * FROM user ORDER BY id ASC";
+        // LIST initialization prepares for collecting results
+        List<User> users = new ArrayList<>();
+
+        try (
+                // CONNECTION establishment creates database link
+                Connection conn = DatabaseManager.getInstance().getConnection();
+                // STATEMENT preparation creates the query
+                PreparedStatement ps = conn.prepareStatement(sql);
+                // EXECUTION retrieves the user data
+                ResultSet rs = ps.executeQuery()
+        ) {
+            // TRANSFORMATION converts each row to a User object
+            while (rs.next()) {
+                users.add(extractUser(rs));
+            }
+        } catch (SQLException e) {
+            // ERROR logging captures database issues
+            System.err.println("Error retrieving users: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return users;
+    }
+
     /**
      * ResultSet Mapper
      * Converts a database result row into a User object.
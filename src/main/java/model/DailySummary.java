@@ -0,0 +1,126 @@
+package model;
+
+/**
+ * Aggregated figures for one user and one day of logbook entries.
+ * Built by a single GROUP BY query (LogEntryDAO.getDailySummaries) instead of loading every entry of every day,
+ * so charts and overviews of long ranges cost one query and one small object per day.
+ * Readings of 0 are rows where no blood glucose was logged (e.g. a carbs-only row), so they are left out of the glucose figures.
+ * The sum of squares and the range counts let GlycemicStatistics merge days exactly, without reloading the readings.
+ */
+public class DailySummary {
+    public static final double RANGE_LOW = 3.9;   // mmol/L, lower bound of the standard target range (70 mg/dL)
+    public static final double RANGE_HIGH = 10.0; // mmol/L, upper bound of the standard target range (180 mg/dL)
+
+    private String date;            // e.g. "2024-12-23"
+    private int entryCount;         // All logbook rows of the day
+    private int readingCount;       // Rows with a blood glucose reading
+    private double averageBloodSugar = Double.NaN; // NaN when the day has no reading
+    private double minBloodSugar = Double.NaN;
+    private double maxBloodSugar = Double.NaN;
+    private double sumOfSquares;    // Sum of the squared readings
+    private int readingsBelowRange; // Readings under RANGE_LOW
+    private int readingsAboveRange; // Readings over RANGE_HIGH
+    private double totalCarbs;
+    private double totalInsulin;
+    private int totalExerciseMinutes;
+
+    public DailySummary() {
+        // No-arg constructor
+    }
+
+    public DailySummary(String date) {
+        this.date = date;
+    }
+
+    /**
+     * @return true if the day has at least one blood glucose reading to plot.
+     */
+    public boolean hasReadings() {
+        return readingCount > 0;
+    }
+
+    // Getters & Setters
+    public String getDate() {
+        return date;
+    }
+    public void setDate(String date) {
+        this.date = date;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+    public void setEntryCount(int entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public int getReadingCount() {
+        return readingCount;
+    }
+    public void setReadingCount(int readingCount) {
+        this.readingCount = readingCount;
+    }
+
+    public double getAverageBloodSugar() {
+        return averageBloodSugar;
+    }
+    public void setAverageBloodSugar(double averageBloodSugar) {
+        this.averageBloodSugar = averageBloodSugar;
+    }
+
+    public double getMinBloodSugar() {
+        return minBloodSugar;
+    }
+    public void setMinBloodSugar(double minBloodSugar) {
+        this.minBloodSugar = minBloodSugar;
+    }
+
+    public double getMaxBloodSugar() {
+        return maxBloodSugar;
+    }
+    public void setMaxBloodSugar(double maxBloodSugar) {
+        this.maxBloodSugar = maxBloodSugar;
+    }
+
+    public double getSumOfSquares() {
+        return sumOfSquares;
+    }
+    public void setSumOfSquares(double sumOfSquares) {
+        this.sumOfSquares = sumOfSquares;
+    }
+
+    public int getReadingsBelowRange() {
+        return readingsBelowRange;
+    }
+    public void setReadingsBelowRange(int readingsBelowRange) {
+        this.readingsBelowRange = readingsBelowRange;
+    }
+
+    public int getReadingsAboveRange() {
+        return readingsAboveRange;
+    }
+    public void setReadingsAboveRange(int readingsAboveRange) {
+        this.readingsAboveRange = readingsAboveRange;
+    }
+
+    public double getTotalCarbs() {
+        return totalCarbs;
+    }
+    public void setTotalCarbs(double totalCarbs) {
+        this.totalCarbs = totalCarbs;
+    }
+
+    public double getTotalInsulin() {
+        return totalInsulin;
+    }
+    public void setTotalInsulin(double totalInsulin) {
+        this.totalInsulin = totalInsulin;
+    }
+
+    public int getTotalExerciseMinutes() {
+        return totalExerciseMinutes;
+    }
+    public void setTotalExerciseMinutes(int totalExerciseMinutes) {
+        this.totalExerciseMinutes = totalExerciseMinutes;
+    }
+}
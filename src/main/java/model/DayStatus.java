@@ -0,0 +1,32 @@
+package model;
+
+/**
+ * The glucose status of one day, as shown on the calendar: whether any reading was logged and, if so, whether
+ * the readings stayed in the target range (DailySummary.RANGE_LOW to RANGE_HIGH).
+ * A day with both a low and a high reading counts as HYPO, as lows are the more urgent to notice.
+ */
+public enum DayStatus {
+    NO_DATA, // No blood glucose reading (there may still be carbs-only rows)
+    IN_RANGE, // Every reading in the target range
+    HYPO, // At least one reading under the range
+    HYPER; // At least one reading over the range, and none under it
+
+    /**
+     * Classifies a day from its aggregate figures.
+     *
+     * @param day The day's summary, or null if the day has no entries.
+     * @return The status of the day.
+     */
+    public static DayStatus of(DailySummary day) {
+        if (day == null || !day.hasReadings()) {
+            return NO_DATA;
+        }
+        if (day.getReadingsBelowRange() > 0) {
+            return HYPO;
+        }
+        if (day.getReadingsAboveRange() > 0) {
+            return HYPER;
+        }
+        return IN_RANGE;
+    }
+}
@@ -48,6 +48,15 @@ public class LogEntry {
         this.otherMedications = otherMedications;
     }
 
+    /**
+     * Copies another entry, e.g. to hand it on while its owner may still change the original.
+     */
+    public LogEntry(LogEntry other) {
+        this(other.userId, other.date, other.timeOfDay, other.bloodSugar, other.carbsEaten, other.hoursSinceMeal,
+                other.foodDetails, other.exerciseType, other.exerciseDuration, other.insulinDose, other.otherMedications);
+        this.id = other.id;
+    }
+
     // Getters & Setters
     public int getId() {
         return id;
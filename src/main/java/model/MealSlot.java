@@ -0,0 +1,81 @@
+package model;
+
+/**
+ * The fixed set of logbook rows ("time of day" slots) a LogEntry can belong to.
+ * The rest of the app stores the slot as a plain String (e.g. "Breakfast Pre"), so this enum
+ * mainly gives those strings an order and an approximate clock time, which is needed whenever
+ * readings have to be placed on a time line (trend detection, graphs, latest reading, etc.).
+ */
+public enum MealSlot {
+    BREAKFAST_PRE("Breakfast Pre", 7),
+    BREAKFAST_POST("Breakfast Post", 9),
+    LUNCH_PRE("Lunch Pre", 12),
+    LUNCH_POST("Lunch Post", 14),
+    DINNER_PRE("Dinner Pre", 18),
+    DINNER_POST("Dinner Post", 20),
+    BEDTIME("Bedtime", 22);
+
+    private final String label; // The exact string stored in logentry.timeOfDay
+    private final int hourOfDay; // Approximate hour at which a reading for this slot is taken
+
+    MealSlot(String label, int hourOfDay) {
+        this.label = label;
+        this.hourOfDay = hourOfDay;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getHourOfDay() {
+        return hourOfDay;
+    }
+
+    /**
+     * Looks up the slot for a stored timeOfDay string.
+     *
+     * @param label The timeOfDay value of a LogEntry (e.g. "Lunch Post").
+     * @return The matching slot, or null if the label is not one of the standard logbook rows.
+     */
+    public static MealSlot fromLabel(String label) {
+        if (label == null) {
+            return null;
+        }
+        for (MealSlot slot : values()) {
+            if (slot.label.equalsIgnoreCase(label.trim())) {
+                return slot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Approximate hour of day for any timeOfDay string.
+     * Non-standard labels (e.g. "Breakfast" or "Bedtime Pre" from the quick log) are matched on the meal name,
+     * so they still land at a sensible point of the day instead of being dropped.
+     *
+     * @param label The timeOfDay value of a LogEntry.
+     * @return The hour of the day (0-23), or -1 if the label cannot be placed at all.
+     */
+    public static int hourOf(String label) {
+        MealSlot slot = fromLabel(label);
+        if (slot != null) {
+            return slot.hourOfDay;
+        }
+        if (label == null) {
+            return -1;
+        }
+        String lower = label.toLowerCase();
+        int offset = lower.contains("post") ? 2 : 0; // "Post" readings are taken after the meal
+        if (lower.startsWith("breakfast")) {
+            return BREAKFAST_PRE.hourOfDay + offset;
+        } else if (lower.startsWith("lunch")) {
+            return LUNCH_PRE.hourOfDay + offset;
+        } else if (lower.startsWith("dinner")) {
+            return DINNER_PRE.hourOfDay + offset;
+        } else if (lower.startsWith("bedtime")) {
+            return BEDTIME.hourOfDay;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,138 @@
+package model;
+
+/**
+ * Represents one alarm waiting in (or delivered from) the alarm_outbox table.
+ * Alarms are stored in the same transaction as the log entry that triggered them and are delivered later by the
+ * OutboxDispatcher, so an alarm survives a crash or a failed send instead of being lost.
+ */
+public class OutboxMessage {
+
+    /**
+     * Delivery state of an outbox row.
+     */
+    public enum Status {
+        PENDING, // Waiting to be sent (or to be retried after nextAttemptAt)
+        CLAIMED, // Taken by a dispatcher, which holds the matching claimToken
+        SENT,    // Delivered
+        FAILED   // Gave up after the maximum number of attempts
+    }
+
+    private long id;
+    private String dedupKey; // Identifies the alarm (e.g. "bounds:12:2025-01-10:Lunch Pre"); enqueueing the same key twice is a no-op
+    private int userId;
+    private String recipient; // The doctor's email address
+    private String subject;
+    private String body;
+    private String notice; // Short message shown to the user once the alarm has been delivered
+    private Status status = Status.PENDING;
+    private int attempts; // Failed delivery attempts so far
+    private String claimToken; // Token of the dispatcher batch currently holding the row
+    private long nextAttemptAt; // Epoch millis before which the row is not retried
+    private String lastError;
+    private long createdAt; // Epoch millis
+
+    public OutboxMessage() {
+        // No-arg constructor
+    }
+
+    public OutboxMessage(String dedupKey, int userId, String recipient, String subject, String body, String notice) {
+        this.dedupKey = dedupKey;
+        this.userId = userId;
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.notice = notice;
+    }
+
+    // Getters & Setters
+    public long getId() {
+        return id;
+    }
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getDedupKey() {
+        return dedupKey;
+    }
+    public void setDedupKey(String dedupKey) {
+        this.dedupKey = dedupKey;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public String getNotice() {
+        return notice;
+    }
+    public void setNotice(String notice) {
+        this.notice = notice;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getClaimToken() {
+        return claimToken;
+    }
+    public void setClaimToken(String claimToken) {
+        this.claimToken = claimToken;
+    }
+
+    public long getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+    public void setNextAttemptAt(long nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,110 @@
+package notification;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for an unreliable dependency (here: the mail server).
+ * CLOSED: calls go through, consecutive failures are counted.
+ * OPEN: after {@code failureThreshold} consecutive failures, calls fail fast for {@code openMillis} instead of each
+ * waiting for a timeout.
+ * HALF_OPEN: after the open period, a single trial call is let through; success closes the circuit, failure re-opens it.
+ * Thread-safe.
+ */
+public class CircuitBreaker {
+
+    /**
+     * The states of the breaker.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier clock; // Nano-time source (replaceable in tests)
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight; // Only one trial call at a time while HALF_OPEN
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, System::nanoTime);
+    }
+
+    /**
+     * @param clock Nano-time source, replaceable so tests do not have to sleep.
+     */
+    public CircuitBreaker(int failureThreshold, long openMillis, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openMillis * 1_000_000L;
+        this.clock = clock;
+    }
+
+    /**
+     * Asks for permission to make a call.
+     *
+     * @return True if the call may go ahead; it must then be followed by recordSuccess or recordFailure.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN; // Open period over, time to probe the dependency
+        }
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Gives back a permission that was granted but not used (e.g. the call was rate limited afterwards).
+     */
+    public synchronized void releasePermission() {
+        trialInFlight = false;
+    }
+
+    public synchronized void recordSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+        }
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+            return State.HALF_OPEN; // Reported as it would be on the next call
+        }
+        return state;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * @return How long until the breaker lets a trial call through (0 unless it is OPEN).
+     */
+    public synchronized long millisUntilRetry() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        long remaining = openNanos - (clock.getAsLong() - openedAt);
+        return Math.max(0, (remaining + 999_999) / 1_000_000);
+    }
+}
@@ -0,0 +1,188 @@
+package notification;
+
+import javax.mail.MessagingException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decorator that protects a NotificationTransport (and the sender account behind it) from bursts and outages.
+ * Every message needs a token from its recipient's bucket and from the global bucket, so a misbehaving meter upload or
+ * a bulk import cannot flood one doctor or get the account throttled. A circuit breaker stops calling the transport
+ * after repeated failures, so saves fail fast instead of each waiting for an SMTP timeout.
+ *
+ * Messages that cannot go out right now are not failed: a TransportUnavailableException is thrown, and the caller
+ * queues the message in the alarm outbox for later.
+ */
+public class GuardedTransport implements NotificationTransport {
+
+    // Default limits, sized well below Gmail's sending limits
+    static final int GLOBAL_BURST = 20; // Messages that may go out back to back
+    static final long GLOBAL_REFILL_MILLIS = 2_000; // Then one message every 2 seconds (30 per minute)
+    static final int RECIPIENT_BURST = 5; // Messages one doctor may receive back to back
+    static final long RECIPIENT_REFILL_MILLIS = 60_000; // Then one per minute per doctor
+    static final int FAILURE_THRESHOLD = 5; // Consecutive failures before the circuit opens
+    static final long OPEN_MILLIS = 60_000; // How long the circuit stays open before a trial send
+    private static final int MAX_TRACKED_RECIPIENTS = 1_000; // Idle (full) recipient buckets are forgotten beyond this
+
+    private final NotificationTransport delegate;
+    private final TokenBucket globalBucket;
+    private final int recipientBurst;
+    private final long recipientRefillMillis;
+    private final Map<String, TokenBucket> recipientBuckets = new ConcurrentHashMap<>();
+    private final CircuitBreaker circuitBreaker;
+
+    // Counters exposed through getMetrics()
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong shortCircuited = new AtomicLong();
+
+    public GuardedTransport(NotificationTransport delegate) {
+        this(delegate, new TokenBucket(GLOBAL_BURST, GLOBAL_REFILL_MILLIS), RECIPIENT_BURST, RECIPIENT_REFILL_MILLIS,
+                new CircuitBreaker(FAILURE_THRESHOLD, OPEN_MILLIS));
+    }
+
+    public GuardedTransport(NotificationTransport delegate, TokenBucket globalBucket, int recipientBurst,
+                            long recipientRefillMillis, CircuitBreaker circuitBreaker) {
+        this.delegate = delegate;
+        this.globalBucket = globalBucket;
+        this.recipientBurst = recipientBurst;
+        this.recipientRefillMillis = recipientRefillMillis;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public void send(Notification notification) throws MessagingException {
+        // 1. Per-recipient limit
+        TokenBucket recipientBucket = bucketFor(notification.getRecipient());
+        if (!recipientBucket.tryAcquire()) {
+            rateLimited.incrementAndGet();
+            throw new TransportUnavailableException("Rate limit reached for " + notification.getRecipient(),
+                    recipientBucket.millisUntilAvailable(), notification.getRecipient());
+        }
+
+        // 2. Global limit
+        if (!globalBucket.tryAcquire()) {
+            recipientBucket.refund(); // Nothing was sent to this recipient after all
+            rateLimited.incrementAndGet();
+            throw new TransportUnavailableException("Global email rate limit reached", globalBucket.millisUntilAvailable());
+        }
+
+        // 3. Circuit breaker
+        if (!circuitBreaker.tryAcquirePermission()) {
+            recipientBucket.refund();
+            globalBucket.refund();
+            shortCircuited.incrementAndGet();
+            throw new TransportUnavailableException("Email transport is unavailable (circuit open)",
+                    Math.max(1_000, circuitBreaker.millisUntilRetry()));
+        }
+
+        try {
+            delegate.send(notification);
+        } catch (TransportUnavailableException e) {
+            // The delegate asked us to wait: nothing was sent, and the dependency did not fail either
+            circuitBreaker.releasePermission(); // Otherwise a half-open trial would never end
+            recipientBucket.refund();
+            globalBucket.refund();
+            throw e;
+        } catch (MessagingException | RuntimeException e) {
+            circuitBreaker.recordFailure();
+            failed.incrementAndGet();
+            throw e;
+        }
+        circuitBreaker.recordSuccess();
+        sent.incrementAndGet();
+    }
+
+    private TokenBucket bucketFor(String recipient) {
+        String key = recipient == null ? "" : recipient.trim().toLowerCase();
+        if (recipientBuckets.size() > MAX_TRACKED_RECIPIENTS) {
+            // A full bucket behaves exactly like a new one, so it can be dropped safely
+            recipientBuckets.values().removeIf(TokenBucket::isFull);
+        }
+        return recipientBuckets.computeIfAbsent(key, k -> new TokenBucket(recipientBurst, recipientRefillMillis));
+    }
+
+    /**
+     * @return A point-in-time snapshot of the limiter and breaker state and counters.
+     */
+    public Metrics getMetrics() {
+        return new Metrics(circuitBreaker.getState(), circuitBreaker.getConsecutiveFailures(), sent.get(), failed.get(),
+                rateLimited.get(), shortCircuited.get(), globalBucket.availableTokens(), recipientBuckets.size());
+    }
+
+    public NotificationTransport getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    /**
+     * Immutable snapshot of a GuardedTransport's state, for logging and monitoring.
+     */
+    public static class Metrics {
+        private final CircuitBreaker.State circuitState;
+        private final int consecutiveFailures;
+        private final long sent;
+        private final long failed;
+        private final long rateLimited;
+        private final long shortCircuited;
+        private final int globalTokensAvailable;
+        private final int trackedRecipients;
+
+        Metrics(CircuitBreaker.State circuitState, int consecutiveFailures, long sent, long failed, long rateLimited,
+                long shortCircuited, int globalTokensAvailable, int trackedRecipients) {
+            this.circuitState = circuitState;
+            this.consecutiveFailures = consecutiveFailures;
+            this.sent = sent;
+            this.failed = failed;
+            this.rateLimited = rateLimited;
+            this.shortCircuited = shortCircuited;
+            this.globalTokensAvailable = globalTokensAvailable;
+            this.trackedRecipients = trackedRecipients;
+        }
+
+        public CircuitBreaker.State getCircuitState() {
+            return circuitState;
+        }
+
+        public int getConsecutiveFailures() {
+            return consecutiveFailures;
+        }
+
+        public long getSent() {
+            return sent;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public long getRateLimited() {
+            return rateLimited;
+        }
+
+        public long getShortCircuited() {
+            return shortCircuited;
+        }
+
+        public int getGlobalTokensAvailable() {
+            return globalTokensAvailable;
+        }
+
+        public int getTrackedRecipients() {
+            return trackedRecipients;
+        }
+
+        @Override
+        public String toString() {
+            return "circuit=" + circuitState + " (failures=" + consecutiveFailures + "), sent=" + sent + ", failed=" + failed
+                    + ", rateLimited=" + rateLimited + ", shortCircuited=" + shortCircuited
+                    + ", globalTokens=" + globalTokensAvailable + ", recipients=" + trackedRecipients;
+        }
+    }
+}
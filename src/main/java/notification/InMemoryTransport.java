@@ -0,0 +1,56 @@
+package notification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps notifications in memory instead of delivering them.
+ * Used by tests to check what would have been sent, and by the throughput benchmark as a zero-latency stand-in for
+ * the mail server. Only the most recent messages are retained so long benchmark runs do not grow without bound.
+ */
+public class InMemoryTransport implements NotificationTransport {
+
+    private final int capacity; // Maximum number of messages retained
+    private final ConcurrentLinkedQueue<Notification> sent = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sentCount = new AtomicLong(); // Total number of messages ever "sent", including dropped ones
+
+    public InMemoryTransport() {
+        this(10_000);
+    }
+
+    public InMemoryTransport(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void send(Notification notification) {
+        sent.add(notification);
+        // Dropping the oldest messages once over capacity (size() is O(n), so the total count is used instead)
+        if (sentCount.incrementAndGet() > capacity) {
+            sent.poll();
+        }
+    }
+
+    /**
+     * @return A copy of the retained messages, oldest first.
+     */
+    public List<Notification> getSent() {
+        return new ArrayList<>(sent);
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    public void clear() {
+        sent.clear();
+        sentCount.set(0);
+    }
+
+    @Override
+    public String getName() {
+        return "memory";
+    }
+}
@@ -0,0 +1,121 @@
+package notification;
+
+import javax.activation.DataHandler;
+import javax.activation.DataSource;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Multipart;
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeBodyPart;
+import javax.mail.internet.MimeMessage;
+import javax.mail.internet.MimeMultipart;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A transport-independent outgoing message: one recipient, a subject, a plain-text body and optional attachments.
+ * Transports that need a real email (SMTP, spool) convert it with toMimeMessage, while the in-memory sink keeps it as is.
+ */
+public class Notification {
+
+    private final String recipient; // Email address of the recipient (usually the user's doctor)
+    private final String subject;
+    private final String body; // Plain-text body
+    private final List<DataSource> attachments = new ArrayList<>(); // Attachments in the order they were added
+    private String messageId; // Optional fixed Message-ID, so a redelivered message can be told apart as a possible duplicate (it is still delivered)
+
+    public Notification(String recipient, String subject, String body) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+    }
+
+    /**
+     * Adds an attachment to the message. The DataSource's name is used as the file name shown to the recipient.
+     *
+     * @param attachment The attachment content (e.g. a FileDataSource or ByteArrayDataSource).
+     * @return This notification, so calls can be chained.
+     */
+    public Notification addAttachment(DataSource attachment) {
+        attachments.add(attachment);
+        return this;
+    }
+
+    /**
+     * Sets a fixed Message-ID header instead of a random one. The outbox derives it from the row id, so if a message is
+     * sent again after a crash between sending and acknowledging, mail clients see the same message twice and drop one.
+     *
+     * @param messageId The Message-ID, including the angle brackets (e.g. "<outbox-42@sugarbyte.app>").
+     * @return This notification, so calls can be chained.
+     */
+    public Notification setMessageId(String messageId) {
+        this.messageId = messageId;
+        return this;
+    }
+
+    public String getMessageId() {
+        return messageId;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public List<DataSource> getAttachments() {
+        return Collections.unmodifiableList(attachments);
+    }
+
+    /**
+     * Builds a MIME email for this notification: a plain text message, or a multipart message when there are attachments.
+     *
+     * @param session   The mail session the message belongs to.
+     * @param fromEmail The sender's address.
+     * @return The message, ready to be sent or written out.
+     * @throws MessagingException If an address or part could not be set.
+     */
+    public MimeMessage toMimeMessage(Session session, String fromEmail) throws MessagingException {
+        MimeMessage message = new MimeMessage(session) {
+            @Override
+            protected void updateMessageID() throws MessagingException {
+                // saveChanges() normally generates a new random Message-ID, which would defeat de-duplication
+                if (messageId != null) {
+                    setHeader("Message-ID", messageId);
+                } else {
+                    super.updateMessageID();
+                }
+            }
+        };
+        message.setFrom(new InternetAddress(fromEmail));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(recipient));
+        message.setSubject(subject);
+
+        if (attachments.isEmpty()) {
+            message.setText(body);
+        } else {
+            // Combining the email body and the attachments
+            Multipart multipart = new MimeMultipart();
+            MimeBodyPart bodyPart = new MimeBodyPart();
+            bodyPart.setText(body);
+            multipart.addBodyPart(bodyPart);
+            for (DataSource attachment : attachments) {
+                MimeBodyPart attachmentPart = new MimeBodyPart();
+                attachmentPart.setDataHandler(new DataHandler(attachment));
+                attachmentPart.setFileName(attachment.getName());
+                multipart.addBodyPart(attachmentPart);
+            }
+            message.setContent(multipart);
+        }
+        message.saveChanges(); // Fills in the MIME headers so the message can also be written to disk as is
+        return message;
+    }
+}
@@ -0,0 +1,25 @@
+package notification;
+
+import javax.mail.MessagingException;
+
+/**
+ * Service provider interface for delivering outgoing notifications (alarm emails, graphs sent to the doctor, etc.).
+ * The app used to call Gmail's SMTP server directly from AlarmService and GlucoseGraph; going through this
+ * interface means the delivery mechanism can be swapped (SMTP, a local spool directory, an in-memory sink for
+ * tests and benchmarks) without touching the code that builds the messages.
+ */
+public interface NotificationTransport {
+
+    /**
+     * Delivers a single notification.
+     *
+     * @param notification The message to deliver.
+     * @throws MessagingException If the message could not be delivered; callers decide whether to retry or report it.
+     */
+    void send(Notification notification) throws MessagingException;
+
+    /**
+     * Short name used in logs and by the -Dsugarbyte.transport property (e.g. "smtp", "spool", "memory").
+     */
+    String getName();
+}
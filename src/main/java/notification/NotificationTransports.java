@@ -0,0 +1,69 @@
+package notification;
+
+/**
+ * Holds the NotificationTransport used by the whole app.
+ * The default is chosen once from the -Dsugarbyte.transport system property ("smtp", "spool" or "memory", SMTP if unset),
+ * with -Dsugarbyte.spool.dir setting the spool directory. Tests and benchmarks can replace it with set(...).
+ * SMTP is always wrapped in a GuardedTransport (rate limits and circuit breaker), as it talks to a real mail account.
+ */
+public class NotificationTransports {
+
+    private static volatile NotificationTransport current; // Lazily created so SMTP is not configured unless needed
+
+    private NotificationTransports() {
+        // Static registry, not meant to be instantiated
+    }
+
+    /**
+     * @return The transport all notifications should be sent through.
+     */
+    public static NotificationTransport get() {
+        NotificationTransport transport = current;
+        if (transport == null) {
+            synchronized (NotificationTransports.class) {
+                if (current == null) {
+                    current = fromName(System.getProperty("sugarbyte.transport", "smtp"));
+                    System.out.println("Using the '" + current.getName() + "' notification transport.");
+                }
+                transport = current;
+            }
+        }
+        return transport;
+    }
+
+    /**
+     * Replaces the transport, e.g. with an InMemoryTransport in tests. Passing null restores the default on next use.
+     */
+    public static synchronized void set(NotificationTransport transport) {
+        current = transport;
+    }
+
+    /**
+     * Creates a transport from its short name.
+     *
+     * @param name "smtp", "spool" or "memory" (case-insensitive).
+     * @return The new transport; unknown names fall back to (guarded) SMTP.
+     */
+    public static NotificationTransport fromName(String name) {
+        switch (name.trim().toLowerCase()) {
+            case "spool":
+            case "maildir":
+                return new SpoolTransport(System.getProperty("sugarbyte.spool.dir", "notification-spool"));
+            case "memory":
+                return new InMemoryTransport();
+            case "smtp":
+                return new GuardedTransport(new SmtpTransport());
+            default:
+                System.err.println("Unknown notification transport '" + name + "', falling back to SMTP.");
+                return new GuardedTransport(new SmtpTransport());
+        }
+    }
+
+    /**
+     * @return The rate limiter and circuit breaker metrics of the current transport, or null if it is not guarded.
+     */
+    public static GuardedTransport.Metrics getMetrics() {
+        NotificationTransport transport = get();
+        return transport instanceof GuardedTransport ? ((GuardedTransport) transport).getMetrics() : null;
+    }
+}
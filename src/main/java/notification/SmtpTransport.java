@@ -0,0 +1,52 @@
+package notification;
+
+import javax.mail.Authenticator;
+import javax.mail.MessagingException;
+import javax.mail.PasswordAuthentication;
+import javax.mail.Session;
+import javax.mail.Transport;
+import java.util.Properties;
+
+/**
+ * Delivers notifications through Gmail's SMTP server from SugarByte's own address.
+ * The mail session is created once and shared, instead of being rebuilt for every email.
+ */
+public class SmtpTransport implements NotificationTransport {
+
+    /* Reference 5 - the SMTP properties and authentication were originally written in AlarmService with ChatGPT, and moved here unchanged */
+    // SugarByte's Gmail credentials:
+    static final String FROM_EMAIL = "sugarbyte.app@gmail.com"; // SugarByte's email address
+    private static final String APP_PASSWORD = "twym wigt ytak botd"; // SugarByte's app password for IntelliJ (new one may need to be generated if different code manager is used)
+
+    private final Session session;
+
+    public SmtpTransport() {
+        // SMTP server properties
+        Properties props = new Properties(); // new object of type Properties created to add key-value pairs
+        props.put("mail.smtp.host", "smtp.gmail.com"); //assigning the email server as 'gmail' (since the app's email address is @gmail.com)
+        props.put("mail.smtp.port", "587");  // 587 is the port number commonly used for email submissions with STARTTLS encryption
+        props.put("mail.smtp.auth", "true"); // introduces authentication which improves the security of the system
+        props.put("mail.smtp.starttls.enable", "true"); // enables encryption of the emails (safer)
+        props.put("mail.smtp.ssl.trust", "smtp.gmail.com"); // Disable SSL certificate validation TEMPORARY FIX
+
+        // Create a mail session with authentication
+        session = Session.getInstance(props, new Authenticator() {
+            @Override
+            protected PasswordAuthentication getPasswordAuthentication() {
+                return new PasswordAuthentication(FROM_EMAIL, APP_PASSWORD);
+            }
+        });
+        /* end of reference 5*/
+    }
+
+    @Override
+    public void send(Notification notification) throws MessagingException {
+        // Sending the email using Java Mail's in-built transport method
+        Transport.send(notification.toMimeMessage(session, FROM_EMAIL));
+    }
+
+    @Override
+    public String getName() {
+        return "smtp";
+    }
+}
@@ -0,0 +1,78 @@
+package notification;
+
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes each notification as an RFC 822 email file into a local maildir-style spool directory instead of sending it.
+ * Files are written into "tmp" and then atomically moved into "new", so a reader (or a mail client pointed at the
+ * directory) never sees a half-written message. Useful for running the app offline and for load tests that should
+ * include the cost of serialising the message, but not of a network round trip.
+ */
+public class SpoolTransport implements NotificationTransport {
+
+    private static final AtomicLong sequence = new AtomicLong(); // Makes file names unique within this process
+
+    private final Path tmpDir;
+    private final Path newDir;
+    private final Session session = Session.getInstance(new Properties()); // Only used to build messages, never connects
+
+    /**
+     * @param spoolDir The maildir root; its "tmp", "new" and "cur" sub-directories are created if needed.
+     */
+    public SpoolTransport(Path spoolDir) {
+        this.tmpDir = spoolDir.resolve("tmp");
+        this.newDir = spoolDir.resolve("new");
+        try {
+            Files.createDirectories(tmpDir);
+            Files.createDirectories(newDir);
+            Files.createDirectories(spoolDir.resolve("cur"));
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.err.println("Failed to create the notification spool directory " + spoolDir);
+        }
+    }
+
+    public SpoolTransport(String spoolDir) {
+        this(Paths.get(spoolDir));
+    }
+
+    @Override
+    public void send(Notification notification) throws MessagingException {
+        // Maildir-style unique name: time, process-wide sequence number and the current thread
+        String fileName = System.currentTimeMillis() + "." + sequence.incrementAndGet() + "." + Thread.currentThread().getId() + ".eml";
+        Path tmpFile = tmpDir.resolve(fileName);
+
+        try {
+            try (OutputStream out = Files.newOutputStream(tmpFile)) {
+                notification.toMimeMessage(session, SmtpTransport.FROM_EMAIL).writeTo(out);
+            }
+            // Publishing the finished file in one step
+            Files.move(tmpFile, newDir.resolve(fileName), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(tmpFile); // Not leaving partial files behind
+            } catch (IOException ignored) {
+                // The original error is the one worth reporting
+            }
+            throw new MessagingException("Failed to spool notification to " + newDir, e);
+        }
+    }
+
+    public Path getNewDirectory() {
+        return newDir;
+    }
+
+    @Override
+    public String getName() {
+        return "spool";
+    }
+}
@@ -0,0 +1,93 @@
+package notification;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Classic token-bucket rate limiter: holds up to {@code capacity} tokens and refills continuously at a fixed rate.
+ * Each message takes one token, so short bursts up to the capacity go through immediately, while the long-run rate
+ * can never exceed the refill rate. Thread-safe.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano; // Refill rate
+    private final LongSupplier clock; // Nano-time source (replaceable in tests)
+
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * @param capacity           The maximum burst size.
+     * @param refillPeriodMillis Time it takes to earn back one token.
+     */
+    public TokenBucket(int capacity, long refillPeriodMillis) {
+        this(capacity, refillPeriodMillis, System::nanoTime);
+    }
+
+    /**
+     * @param clock Nano-time source, replaceable so tests do not have to sleep.
+     */
+    public TokenBucket(int capacity, long refillPeriodMillis, LongSupplier clock) {
+        this.capacity = capacity;
+        this.tokensPerNano = 1.0 / (refillPeriodMillis * 1_000_000.0);
+        this.clock = clock;
+        this.tokens = capacity; // Starting full
+        this.lastRefill = clock.getAsLong();
+    }
+
+    /**
+     * Takes one token if one is available.
+     *
+     * @return True if the caller may proceed.
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gives back a token taken by tryAcquire when the guarded action did not go ahead after all.
+     */
+    public synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1.0);
+    }
+
+    /**
+     * @return How long until the next token is available (0 if one is available now).
+     */
+    public synchronized long millisUntilAvailable() {
+        refill();
+        if (tokens >= 1.0) {
+            return 0;
+        }
+        return (long) Math.ceil((1.0 - tokens) / tokensPerNano / 1_000_000.0);
+    }
+
+    /**
+     * @return The number of whole tokens currently available.
+     */
+    public synchronized int availableTokens() {
+        refill();
+        return (int) tokens;
+    }
+
+    /**
+     * @return True if the bucket is full, i.e. it has been idle long enough to be forgotten.
+     */
+    synchronized boolean isFull() {
+        refill();
+        return tokens >= capacity;
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        if (now > lastRefill) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+        }
+    }
+}
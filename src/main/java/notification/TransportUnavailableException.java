@@ -0,0 +1,42 @@
+package notification;
+
+import javax.mail.MessagingException;
+
+/**
+ * Thrown instead of sending when a message has to wait: it was rate limited, or the circuit breaker is open.
+ * Unlike other MessagingExceptions it is not a delivery failure, so callers should queue the message and try again
+ * after getRetryAfterMillis() rather than count it as a failed attempt.
+ * If only the message's recipient has to wait (getRecipient() is set), messages to others can still be sent.
+ */
+public class TransportUnavailableException extends MessagingException {
+
+    private final long retryAfterMillis;
+    private final String recipient; // The recipient over its own limit, or null if the whole transport has to wait
+
+    public TransportUnavailableException(String message, long retryAfterMillis) {
+        this(message, retryAfterMillis, null);
+    }
+
+    /**
+     * @param recipient The recipient that reached its own limit, or null if no message can be sent for now.
+     */
+    public TransportUnavailableException(String message, long retryAfterMillis, String recipient) {
+        super(message);
+        this.retryAfterMillis = retryAfterMillis;
+        this.recipient = recipient;
+    }
+
+    /**
+     * @return The earliest time, in milliseconds from now, at which sending is worth trying again.
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+
+    /**
+     * @return The recipient that has to wait, or null if the whole transport does.
+     */
+    public String getRecipient() {
+        return recipient;
+    }
+}
@@ -0,0 +1,114 @@
+package report;
+
+import org.jfree.chart.JFreeChart;
+
+import javax.activation.DataSource;
+import javax.imageio.ImageIO;
+import javax.mail.util.ByteArrayDataSource;
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Renders charts to PNG bytes in memory, ready to be attached to a Notification.
+ * Nothing is written to disk, so concurrent sends (or a batch of reports) cannot overwrite each other's images.
+ * Each thread keeps its own render target and output buffer and reuses them for every chart of the same size,
+ * so encoding many charts does not allocate a new image and a growing byte buffer each time.
+ * Safe to call off the EDT and in headless mode, as long as the chart is not being changed by another thread.
+ */
+public class ChartImageEncoder {
+
+    static final int INITIAL_BUFFER_SIZE = 64 * 1024; // A typical chart PNG is a few tens of kB
+    static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024; // Larger buffers are dropped after use instead of kept per thread
+
+    // Per-thread render target and output buffer
+    private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+
+    private ChartImageEncoder() {
+        // Static utility, not meant to be instantiated
+    }
+
+    /**
+     * Renders a chart and encodes it as PNG.
+     *
+     * @param chart  The chart to render.
+     * @param width  The image width in pixels.
+     * @param height The image height in pixels.
+     * @return The PNG bytes (a copy, so the caller may keep them).
+     * @throws IOException If the image cannot be encoded.
+     */
+    public static byte[] encodePng(JFreeChart chart, int width, int height) throws IOException {
+        Workspace workspace = WORKSPACE.get();
+        BufferedImage image = workspace.image(width, height);
+
+        Graphics2D g2 = image.createGraphics();
+        try {
+            // Clearing what the previous chart left in the reused image
+            g2.setComposite(AlphaComposite.Clear);
+            g2.fillRect(0, 0, width, height);
+            g2.setComposite(AlphaComposite.SrcOver);
+            chart.draw(g2, new Rectangle2D.Double(0, 0, width, height));
+        } finally {
+            g2.dispose();
+        }
+
+        ByteArrayOutputStream buffer = workspace.buffer;
+        buffer.reset();
+        try {
+            if (!ImageIO.write(image, "png", buffer)) {
+                throw new IOException("No PNG writer available.");
+            }
+            return buffer.toByteArray();
+        } finally {
+            if (buffer.size() > MAX_RETAINED_BUFFER_SIZE) {
+                WORKSPACE.remove(); // An unusually large chart, not worth keeping its buffer around
+            }
+        }
+    }
+
+    /**
+     * Renders a chart as a PNG attachment.
+     *
+     * @param chart    The chart to render.
+     * @param width    The image width in pixels.
+     * @param height   The image height in pixels.
+     * @param fileName The file name shown to the recipient (e.g. "glucose_graph.png").
+     * @return An in-memory DataSource for Notification.addAttachment.
+     * @throws IOException If the image cannot be encoded.
+     */
+    public static DataSource encodeAttachment(JFreeChart chart, int width, int height, String fileName) throws IOException {
+        return toAttachment(encodePng(chart, width, height), fileName);
+    }
+
+    /**
+     * Wraps already encoded PNG bytes as an attachment (e.g. a report sent to several recipients).
+     *
+     * @param png      The PNG bytes.
+     * @param fileName The file name shown to the recipient.
+     * @return An in-memory DataSource for Notification.addAttachment.
+     */
+    public static DataSource toAttachment(byte[] png, String fileName) {
+        ByteArrayDataSource attachment = new ByteArrayDataSource(png, "image/png");
+        attachment.setName(fileName);
+        return attachment;
+    }
+
+    /**
+     * The reusable render target and output buffer of one thread.
+     */
+    private static class Workspace {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        private BufferedImage image;
+
+        BufferedImage image(int width, int height) {
+            // Reusing the image as long as the size does not change (the usual case for a screen or a report batch)
+            if (image == null || image.getWidth() != width || image.getHeight() != height) {
+                image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            }
+            return image;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package report;
+
+import model.DailySummary;
+import model.MealSlot;
+import service.AgpService;
+import service.QuantileSketch;
+/* Reference 11 - AI (ChatGPT) was used to add all of the required imports below */
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.AxisLocation;
+import org.jfree.chart.axis.DateAxis;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.StandardXYBarPainter;
+import org.jfree.chart.renderer.xy.XYBarRenderer;
+import org.jfree.chart.renderer.xy.XYItemRenderer;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
+import org.jfree.chart.title.LegendTitle;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+/* end of reference 11*/
+import org.jfree.chart.axis.SymbolAxis;
+import org.jfree.chart.plot.IntervalMarker;
+import org.jfree.chart.renderer.xy.DeviationRenderer;
+import org.jfree.chart.ui.Layer;
+import org.jfree.data.xy.YIntervalSeries;
+import org.jfree.data.xy.YIntervalSeriesCollection;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the glucose chart used by the GlucoseGraph screen, the doctor's email attachment and the weekly reports,
+ * so they all look the same. Nothing here touches Swing components, so it works off the EDT and in headless mode.
+ */
+public class GlucoseChartFactory {
+
+    private static final double DAY_MILLIS = 24 * 60 * 60 * 1000.0; // Width of one day on the date axis
+
+    private GlucoseChartFactory() {
+        // Static utility, not meant to be instantiated
+    }
+
+    /**
+     * Creates the glucose chart for a dataset.
+     *
+     * @param dataset The daily averages to plot.
+     * @return The configured chart.
+     */
+    /* Reference 12 - this block was taken from ChatGPT*/
+    public static JFreeChart createChart(XYDataset dataset) {
+        // Create the chart with a vertical orientation and no legend, tooltips, or URLs
+        JFreeChart chart = ChartFactory.createXYLineChart(
+                "",  // No title
+                "Date",  // X-axis label
+                "Blood Glucose [mmol/L]",  // Y-axis label
+                dataset,  // Dataset for the chart
+                PlotOrientation.VERTICAL,  // Vertical plot orientation
+                false,  // No legend
+                false,  // No tooltips
+                false   // No URLs
+        );
+        /* end of reference 12*/
+
+        // Customize the plot
+        XYPlot plot = chart.getXYPlot();
+
+        // Configure the domain axis (X-axis)
+        DateAxis dateAxis = new DateAxis("Date");  // Create a date axis with the label "Date"
+        dateAxis.setLabelFont(dateAxis.getLabelFont().deriveFont(Font.BOLD));  // Set the label font to bold
+        Font newFont = dateAxis.getLabelFont().deriveFont(14f);  // Set the font size to 14
+        dateAxis.setLabelFont(newFont);  // Apply the new font size
+        dateAxis.setDateFormatOverride(new SimpleDateFormat("d MMM"));  // Format dates as "day month"
+        plot.setDomainAxis(dateAxis);  // Set the configured axis as the domain axis
+
+        // Configure the range axis (Y-axis)
+        ValueAxis rangeAxis = plot.getRangeAxis();  // Get the range axis
+        rangeAxis.setLabelFont(rangeAxis.getLabelFont().deriveFont(Font.BOLD));  // Set the label font to bold
+
+        // Customize the renderer for the chart
+        XYLineAndShapeRenderer renderer = new XYLineAndShapeRenderer();  // Create a line-and-shape renderer
+        renderer.setSeriesShapesVisible(0, true);  // Enable shapes for the first series
+        renderer.setSeriesLinesVisible(0, true);  // Enable lines for the first series
+        plot.setRenderer(renderer);  // Set the renderer for the plot
+
+        return chart;
+    }
+
+    /**
+     * Creates the glucose chart with the day's carbs (bars) and insulin (dashed line) overlaid on their own
+     * right-hand axes, so clinicians can see how intake and doses line up with the glucose trend.
+     *
+     * @param series The daily series, as built by createDailySeries.
+     * @return The configured chart, with a legend.
+     */
+    public static JFreeChart createChart(Map<DailyMeasure, XYSeries> series) {
+        JFreeChart chart = createChart(new XYSeriesCollection(series.get(DailyMeasure.GLUCOSE)));
+        XYPlot plot = chart.getXYPlot();
+
+        // The plot draws the highest dataset index first, so the carbs bars (2) go behind insulin (1) and glucose (0)
+
+        // Carbs as translucent bars, one day wide minus a gap, on the outer right-hand axis
+        XYSeriesCollection carbs = new XYSeriesCollection(series.get(DailyMeasure.CARBS));
+        carbs.setIntervalWidth(DAY_MILLIS * 0.6);
+        XYBarRenderer carbsRenderer = new XYBarRenderer();
+        carbsRenderer.setBarPainter(new StandardXYBarPainter()); // Flat bars, no gradient
+        carbsRenderer.setShadowVisible(false);
+        carbsRenderer.setSeriesPaint(0, new Color(237, 165, 170, 140)); // The app's pink, see-through so the trend stays visible
+        addOverlay(plot, 2, carbs, DailyMeasure.CARBS.getLabel(), carbsRenderer);
+
+        // Insulin as a dashed line with points, on the inner right-hand axis
+        XYLineAndShapeRenderer insulinRenderer = new XYLineAndShapeRenderer(true, true);
+        insulinRenderer.setSeriesPaint(0, new Color(70, 110, 200));
+        insulinRenderer.setSeriesStroke(0, new BasicStroke(1.5f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND, 1f, new float[]{6f, 4f}, 0f));
+        addOverlay(plot, 1, new XYSeriesCollection(series.get(DailyMeasure.INSULIN)), DailyMeasure.INSULIN.getLabel(), insulinRenderer);
+
+        // The overlays need a legend to tell the series apart
+        chart.addLegend(new LegendTitle(plot));
+        return chart;
+    }
+
+    /**
+     * Creates the ambulatory glucose profile chart: per meal slot, the median as a line with the 25th-75th
+     * and 5th-95th percentile bands shaded around it, over the target range.
+     *
+     * @param profile One sketch per slot, as built by AgpService.getProfile; slots without readings are left out.
+     * @return The configured chart, with a legend.
+     */
+    public static JFreeChart createAgpChart(Map<MealSlot, QuantileSketch> profile) {
+        double[] p = AgpService.PERCENTILES; // 5th, 25th, 50th, 75th and 95th
+        YIntervalSeries outer = new YIntervalSeries("5th-95th percentile");
+        YIntervalSeries inner = new YIntervalSeries("25th-75th percentile, median");
+        for (Map.Entry<MealSlot, QuantileSketch> slot : profile.entrySet()) {
+            QuantileSketch sketch = slot.getValue();
+            if (sketch.isEmpty()) {
+                continue;
+            }
+            double x = slot.getKey().ordinal();
+            double median = sketch.quantile(p[2]);
+            outer.add(x, median, sketch.quantile(p[0]), sketch.quantile(p[4]));
+            inner.add(x, median, sketch.quantile(p[1]), sketch.quantile(p[3]));
+        }
+        YIntervalSeriesCollection dataset = new YIntervalSeriesCollection();
+        dataset.addSeries(outer);
+        dataset.addSeries(inner);
+
+        JFreeChart chart = createChart(dataset);
+        XYPlot plot = chart.getXYPlot();
+
+        // One tick per meal slot, in the order of the day
+        String[] slotLabels = new String[MealSlot.values().length];
+        for (MealSlot slot : MealSlot.values()) {
+            slotLabels[slot.ordinal()] = slot.getLabel();
+        }
+        SymbolAxis slotAxis = new SymbolAxis("Meal slot", slotLabels);
+        slotAxis.setLabelFont(slotAxis.getLabelFont().deriveFont(Font.BOLD, 14f)); // Same style as the date axis
+        slotAxis.setVerticalTickLabels(true); // Seven labels do not fit side by side on the phone-sized screen
+        slotAxis.setGridBandsVisible(false);
+        plot.setDomainAxis(slotAxis);
+
+        // Bands around the median: the outer band pale, the inner band darker, the median in the app's pink
+        DeviationRenderer renderer = new DeviationRenderer(true, false);
+        renderer.setSeriesPaint(0, new Color(237, 165, 170));
+        renderer.setSeriesFillPaint(0, new Color(237, 165, 170));
+        renderer.setSeriesLinesVisible(0, false); // The median is drawn once, by the inner band
+        renderer.setSeriesPaint(1, new Color(200, 70, 90));
+        renderer.setSeriesFillPaint(1, new Color(220, 110, 125));
+        renderer.setSeriesStroke(1, new BasicStroke(2.5f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+        renderer.setAlpha(0.45f);
+        plot.setRenderer(renderer);
+
+        // Target range behind the bands
+        IntervalMarker target = new IntervalMarker(DailySummary.RANGE_LOW, DailySummary.RANGE_HIGH);
+        target.setPaint(new Color(200, 235, 205, 120));
+        plot.addRangeMarker(target, Layer.BACKGROUND);
+
+        chart.addLegend(new LegendTitle(plot));
+        return chart;
+    }
+
+    /**
+     * Sets the width of the carbs bars of a chart made by createChart(Map), e.g. when each point stands for a week.
+     *
+     * @param chart The overlay chart.
+     * @param days  The number of days each point stands for.
+     */
+    public static void setCarbsBarWidth(JFreeChart chart, double days) {
+        XYSeriesCollection carbs = (XYSeriesCollection) chart.getXYPlot().getDataset(2);
+        if (carbs.getIntervalWidth() != DAY_MILLIS * 0.6 * days) {
+            carbs.setIntervalWidth(DAY_MILLIS * 0.6 * days); // Same gap between bars at any resolution
+        }
+    }
+
+    /**
+     * Adds a dataset to the plot with its own right-hand axis and renderer.
+     */
+    private static void addOverlay(XYPlot plot, int index, XYDataset dataset, String label, XYItemRenderer renderer) {
+        NumberAxis axis = new NumberAxis(label);
+        axis.setLabelFont(axis.getLabelFont().deriveFont(Font.BOLD));  // Same style as the glucose axis
+        plot.setRangeAxis(index, axis);
+        plot.setRangeAxisLocation(index, AxisLocation.BOTTOM_OR_RIGHT);
+        plot.setDataset(index, dataset);
+        plot.mapDatasetToRangeAxis(index, index);
+        plot.setRenderer(index, renderer);
+    }
+
+    /**
+     * Builds the daily series of every measure for a date range, one point per day, in one pass over the summaries.
+     *
+     * @param startDate The first day of the range.
+     * @param endDate   The last day of the range.
+     * @param days      The summaries of the days with entries, in any order.
+     * @return One series per measure; days without data are NaN, which the chart shows as a gap.
+     */
+    public static Map<DailyMeasure, XYSeries> createDailySeries(LocalDate startDate, LocalDate endDate, List<DailySummary> days) {
+        Map<LocalDate, DailySummary> byDate = new HashMap<>();
+        for (DailySummary summary : days) {
+            byDate.put(LocalDate.parse(summary.getDate()), summary);
+        }
+        Map<DailyMeasure, XYSeries> series = createEmptySeries();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            DailySummary summary = byDate.get(day);
+            for (DailyMeasure measure : DailyMeasure.values()) {
+                series.get(measure).add(dayToX(day), measure.of(summary), false);
+            }
+        }
+        return series;
+    }
+
+    /**
+     * @return One empty, date-sorted series per measure, named after the measure.
+     */
+    public static Map<DailyMeasure, XYSeries> createEmptySeries() {
+        Map<DailyMeasure, XYSeries> series = new EnumMap<>(DailyMeasure.class);
+        for (DailyMeasure measure : DailyMeasure.values()) {
+            series.put(measure, new XYSeries(measure.getSeriesName(), true, false));
+        }
+        return series;
+    }
+
+    /* Reference 13 - the entire logic & syntax for building this dataset was taken from ChatGPT*/
+    /**
+     * @return The X value (timestamp) of a day.
+     */
+    public static double dayToX(LocalDate day) {
+        return java.sql.Date.valueOf(day).getTime();  // Convert the date to a timestamp for X-axis
+    }
+
+    /**
+     * @return The Y value of a day: its average glucose level, or NaN to mark missing data.
+     */
+    public static double averageOf(DailySummary summary) {
+        return summary != null && summary.hasReadings() ? summary.getAverageBloodSugar() : Double.NaN;
+    }
+    /* end of reference 13 */
+
+    /**
+     * The daily values plotted on the glucose chart, all taken from the same DailySummary.
+     */
+    public enum DailyMeasure {
+        GLUCOSE("BG Trend", "Blood Glucose [mmol/L]"),
+        CARBS("Carbs", "Carbs [g]"),
+        INSULIN("Insulin", "Insulin [units]");
+
+        private final String seriesName; // Shown in the legend
+        private final String label; // Shown on the axis
+
+        DailyMeasure(String seriesName, String label) {
+            this.seriesName = seriesName;
+            this.label = label;
+        }
+
+        public String getSeriesName() {
+            return seriesName;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * @return The value of this measure for a day, or NaN if the day has nothing to plot.
+         */
+        public double of(DailySummary summary) {
+            switch (this) {
+                case CARBS:
+                    return summary != null && summary.getEntryCount() > 0 ? summary.getTotalCarbs() : Double.NaN;
+                case INSULIN:
+                    return summary != null && summary.getEntryCount() > 0 ? summary.getTotalInsulin() : Double.NaN;
+                default:
+                    return averageOf(summary);
+            }
+        }
+    }
+}
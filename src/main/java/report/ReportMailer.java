@@ -0,0 +1,152 @@
+package report;
+
+import model.User;
+import notification.Notification;
+import notification.NotificationTransports;
+import notification.TransportUnavailableException;
+
+import javax.mail.MessagingException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A ReportSink that emails each report to the patient's doctor through the app's notification transport.
+ * The render threads only queue the reports; one sender thread of its own sends them, so rendering never waits for the
+ * mail server or its rate limits. When the transport defers a report, it is queued again for when the transport said
+ * to try again: if only its doctor is over their limit, reports to other doctors go out meanwhile, and if the whole
+ * transport has to wait (global limit, circuit open), the sender pauses. A report that still cannot be sent
+ * MAX_DELIVERY_MILLIS after it was queued is given up, as is one the transport fails.
+ * Patients without a doctor's email are skipped.
+ */
+public class ReportMailer implements WeeklyReportRenderer.ReportSink {
+
+    static final long MAX_DELIVERY_MILLIS = 60 * 60_000L; // How long a report may wait for the rate limits before it is given up
+    private static final long MIN_RETRY_MILLIS = 100; // Never retry sooner, even if the transport asks to
+
+    private static final DateTimeFormatter TITLE_DATE = DateTimeFormatter.ofPattern("d MMM yyyy");
+
+    private final DelayQueue<Delivery> queue = new DelayQueue<>(); // Reports waiting to be sent, earliest due first
+    private final Thread sender;
+    private int outstanding; // Reports accepted but neither sent nor given up yet; guarded by this
+    private int undelivered; // Reports given up; guarded by this
+
+    public ReportMailer() {
+        sender = new Thread(this::sendAll, "weekly-report-mailer");
+        sender.setDaemon(true); // Never keeps the JVM alive on its own
+        sender.start();
+    }
+
+    @Override
+    public void accept(User patient, LocalDate startDate, LocalDate endDate, byte[] png) {
+        if (patient.getDoctorEmail() == null || patient.getDoctorEmail().isBlank()) {
+            System.out.println("No doctor's email for user " + patient.getId() + ", report not sent.");
+            return;
+        }
+        String start = startDate.format(TITLE_DATE);
+        String end = endDate.format(TITLE_DATE);
+        Notification notification = new Notification(
+                patient.getDoctorEmail(),
+                "Weekly Glucose Graph: " + start + " to " + end,
+                String.format(
+                        "Dear Dr. %s,\n\nPlease find attached the weekly glucose graph for your patient %s from %s to %s.\n\nBest regards,\nSugarByte",
+                        patient.getDoctorName(), patient.getName(), start, end));
+        notification.addAttachment(ChartImageEncoder.toAttachment(png, "glucose_graph.png"));
+
+        synchronized (this) {
+            outstanding++;
+        }
+        long now = System.currentTimeMillis();
+        queue.put(new Delivery(patient.getId(), notification, now, now + MAX_DELIVERY_MILLIS));
+    }
+
+    /**
+     * Waits until every accepted report has been sent or given up, then stops the sender thread.
+     *
+     * @return The number of reports given up.
+     */
+    @Override
+    public int awaitDelivery() throws InterruptedException {
+        try {
+            synchronized (this) {
+                while (outstanding > 0) {
+                    wait();
+                }
+                return undelivered;
+            }
+        } finally {
+            sender.interrupt();
+        }
+    }
+
+    /**
+     * The sender thread: sends the queued reports as they become due, until interrupted.
+     */
+    private void sendAll() {
+        try {
+            while (true) {
+                Delivery delivery = queue.take();
+                try {
+                    NotificationTransports.get().send(delivery.notification);
+                    finished(true);
+                } catch (TransportUnavailableException e) {
+                    long waitMillis = Math.max(MIN_RETRY_MILLIS, e.getRetryAfterMillis());
+                    long retryAt = System.currentTimeMillis() + waitMillis;
+                    if (retryAt > delivery.deadline) {
+                        System.err.println("Weekly report for user " + delivery.patientId + " not sent: still deferred after "
+                                + MAX_DELIVERY_MILLIS / 60_000 + " minutes (" + e.getMessage() + ")");
+                        finished(false);
+                        continue;
+                    }
+                    delivery.notBefore = retryAt;
+                    queue.put(delivery);
+                    if (e.getRecipient() == null) {
+                        Thread.sleep(waitMillis); // The whole transport has to wait, so no other report would go out either
+                    }
+                } catch (MessagingException | RuntimeException e) {
+                    System.err.println("Weekly report failed for user " + delivery.patientId + ": " + e.getMessage());
+                    finished(false);
+                }
+            }
+        } catch (InterruptedException e) {
+            // Stopped by awaitDelivery
+        }
+    }
+
+    private synchronized void finished(boolean sent) {
+        if (!sent) {
+            undelivered++;
+        }
+        outstanding--;
+        notifyAll();
+    }
+
+    /**
+     * A queued report, due at notBefore.
+     */
+    private static final class Delivery implements Delayed {
+        private final int patientId;
+        private final Notification notification;
+        private final long deadline; // Given up if it cannot be sent by then
+        private long notBefore; // Only changed while the delivery is out of the queue
+
+        Delivery(int patientId, Notification notification, long notBefore, long deadline) {
+            this.patientId = patientId;
+            this.notification = notification;
+            this.notBefore = notBefore;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(notBefore - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(notBefore, ((Delivery) other).notBefore);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package report;
+
+import database.LogEntryDAO;
+import database.UserDAO;
+import model.DailySummary;
+import model.User;
+import org.jfree.chart.JFreeChart;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless batch renderer for the weekly glucose graph of every patient.
+ * Loads the daily summaries of all patients with one aggregate query, then renders and encodes the charts in parallel
+ * (one task per patient, on a pool sized to the number of cores) with the same chart as the GlucoseGraph screen
+ * (glucose with carbs and insulin), and hands each PNG to a ReportSink (a directory, or the patient's doctor by email).
+ * No Swing window is ever opened, so it runs with java.awt.headless=true (e.g. as a scheduled job on a server).
+ *
+ * Usage: gradle weeklyReports [-Pout=reports|email] [-PweekEnd=2025-01-12] [-Pthreads=8]
+ * or:    java report.WeeklyReportRenderer [outputDir|--email] [weekEnd] [threads]
+ */
+public class WeeklyReportRenderer {
+
+    static final int REPORT_WIDTH = 800; // Image size of a report, in pixels
+    static final int REPORT_HEIGHT = 400;
+
+    private static final DateTimeFormatter TITLE_DATE = DateTimeFormatter.ofPattern("d MMM yyyy");
+
+    /**
+     * Receives the rendered reports. Called from the renderer's worker threads, so implementations must be thread-safe.
+     */
+    public interface ReportSink {
+        void accept(User patient, LocalDate startDate, LocalDate endDate, byte[] png) throws Exception;
+
+        /**
+         * Called once every report has been handed to accept, for sinks that deliver in the background.
+         *
+         * @return The number of accepted reports that could not be delivered after all.
+         */
+        default int awaitDelivery() throws InterruptedException {
+            return 0;
+        }
+    }
+
+    /**
+     * Outcome of a batch run.
+     */
+    public static class BatchResult {
+        private final int rendered; // Reports rendered and accepted by the sink
+        private final int skipped;  // Patients without entries in the week
+        private final int failed;   // Reports that could not be rendered or delivered
+        private final long queryMillis; // Time spent loading the data
+        private final long renderMillis; // Time until every report was rendered and handed to the sink, including the query
+        private final long elapsedMillis; // Total time, including background delivery
+
+        BatchResult(int rendered, int skipped, int failed, long queryMillis, long renderMillis, long elapsedMillis) {
+            this.rendered = rendered;
+            this.skipped = skipped;
+            this.failed = failed;
+            this.queryMillis = queryMillis;
+            this.renderMillis = renderMillis;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getRendered() {
+            return rendered;
+        }
+
+        public int getSkipped() {
+            return skipped;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        public long getQueryMillis() {
+            return queryMillis;
+        }
+
+        public long getRenderMillis() {
+            return renderMillis;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /**
+         * @return Reports rendered per second, up to the last one handed to the sink (delivery is not included).
+         */
+        public double getReportsPerSecond() {
+            return renderMillis > 0 ? rendered * 1000.0 / renderMillis : rendered;
+        }
+    }
+
+    private final UserDAO userDAO = new UserDAO();
+    private final LogEntryDAO logEntryDAO = new LogEntryDAO();
+    private final int threads;
+
+    /**
+     * Creates a renderer using one thread per core.
+     */
+    public WeeklyReportRenderer() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads The number of reports rendered at the same time.
+     */
+    public WeeklyReportRenderer(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Renders the week ending on the given day for every patient with entries in that week.
+     *
+     * @param weekEnd The last day of the week (inclusive).
+     * @param sink    Receives each rendered report.
+     * @return The counts and timings of the run.
+     */
+    public BatchResult renderAll(LocalDate weekEnd, ReportSink sink) throws InterruptedException {
+        LocalDate weekStart = weekEnd.minusDays(6);
+        long start = System.nanoTime();
+
+        // One query for the patients and one for all of their days, instead of one per patient and day
+        List<User> patients = userDAO.getAllUsers();
+        Map<Integer, List<DailySummary>> summaries = logEntryDAO.getDailySummariesForAllUsers(weekStart.toString(), weekEnd.toString());
+        long queryMillis = (System.nanoTime() - start) / 1_000_000;
+
+        AtomicInteger rendered = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        int skipped = 0;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "weekly-report-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true); // Never keeps the JVM alive on its own
+            return thread;
+        });
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (User patient : patients) {
+                List<DailySummary> days = summaries.getOrDefault(patient.getId(), Collections.emptyList());
+                if (days.isEmpty()) {
+                    skipped++; // Nothing to report for this patient this week
+                    continue;
+                }
+                tasks.add(pool.submit(() -> {
+                    try {
+                        sink.accept(patient, weekStart, weekEnd, render(patient, weekStart, weekEnd, days));
+                        rendered.incrementAndGet();
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        System.err.println("Weekly report failed for user " + patient.getId() + ": " + e.getMessage());
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                try {
+                    task.get();
+                } catch (ExecutionException e) {
+                    e.printStackTrace(); // Failures are caught in the task, so this is unexpected
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        long renderMillis = (System.nanoTime() - start) / 1_000_000;
+
+        int undelivered = sink.awaitDelivery(); // Reports still being sent in the background
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new BatchResult(rendered.get() - undelivered, skipped, failed.get() + undelivered, queryMillis, renderMillis, elapsedMillis);
+    }
+
+    /**
+     * Renders one patient's weekly chart as PNG.
+     *
+     * @param patient   The patient, whose name is used as the chart title.
+     * @param startDate The first day of the week.
+     * @param endDate   The last day of the week.
+     * @param days      The patient's summaries for the week.
+     * @return The PNG bytes.
+     */
+    public static byte[] render(User patient, LocalDate startDate, LocalDate endDate, List<DailySummary> days) throws IOException {
+        JFreeChart chart = GlucoseChartFactory.createChart(GlucoseChartFactory.createDailySeries(startDate, endDate, days)); // Glucose with carbs and insulin
+        chart.setTitle(patient.getName() + ": " + startDate.format(TITLE_DATE) + " to " + endDate.format(TITLE_DATE));
+        return ChartImageEncoder.encodePng(chart, REPORT_WIDTH, REPORT_HEIGHT);
+    }
+
+    /**
+     * A sink writing each report to "patient-{id}-{weekStart}.png" in a directory.
+     *
+     * @param directory The output directory; created if missing.
+     */
+    public static ReportSink toDirectory(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        return (patient, startDate, endDate, png) ->
+                Files.write(directory.resolve("patient-" + patient.getId() + "-" + startDate + ".png"), png);
+    }
+
+    /**
+     * A sink emailing each report to the patient's doctor, from a sender thread of its own (see ReportMailer), so the
+     * render threads never wait for the mail server's rate limits. Patients without a doctor's email are skipped.
+     */
+    public static ReportSink toDoctors() {
+        return new ReportMailer();
+    }
+
+    /**
+     * Command line entry point, see the class comment for the arguments.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        System.setProperty("java.awt.headless", "true"); // Rendering only, never a window
+
+        String output = args.length > 0 ? args[0] : "reports";
+        LocalDate weekEnd = args.length > 1 ? LocalDate.parse(args[1]) : LocalDate.now();
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        ReportSink sink = "--email".equals(output) || "email".equals(output) ? toDoctors() : toDirectory(Paths.get(output));
+        BatchResult result = new WeeklyReportRenderer(threads).renderAll(weekEnd, sink);
+
+        System.out.println();
+        System.out.println("=== Weekly reports (" + weekEnd.minusDays(6) + " to " + weekEnd + ", " + threads + " threads) ===");
+        System.out.printf("Reports rendered:   %d%n", result.getRendered());
+        System.out.printf("Skipped (no data):  %d%n", result.getSkipped());
+        System.out.printf("Failed:             %d%n", result.getFailed());
+        System.out.printf("Query:              %d ms%n", result.getQueryMillis());
+        System.out.printf("Rendering:          %d ms%n", result.getRenderMillis());
+        System.out.printf("Total:              %d ms (including delivery)%n", result.getElapsedMillis());
+        System.out.printf("Throughput:         %.1f reports/s%n", result.getReportsPerSecond());
+    }
+}
@@ -0,0 +1,146 @@
+package service;
+
+import database.LogEntryDAO;
+import model.LogEntry;
+import model.MealSlot;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ambulatory glucose profile (AGP): the 5th, 25th, 50th, 75th and 95th percentile of the readings of each meal slot,
+ * across weeks of data.
+ * Readings are kept as one QuantileSketch per user, week and slot. A profile merges the sketches of its weeks,
+ * so only weeks that are not cached are queried (one query per run of missing weeks), and saving an entry
+ * only drops the sketches of the week it belongs to. The most recently used MAX_CACHED_WEEKS weeks are kept.
+ */
+public class AgpService {
+
+    public static final double[] PERCENTILES = {0.05, 0.25, 0.50, 0.75, 0.95}; // The AGP bands, outer to inner
+
+    private static final int MAX_CACHED_WEEKS = 520; // Ten years of one user's weeks, for all users together
+
+    private static final LogEntryDAO logEntryDAO = new LogEntryDAO();
+
+    // Sketches by user and the Monday of the week; a cached week is never changed, only replaced or dropped
+    private static final UserCache<LocalDate, Map<MealSlot, QuantileSketch>> weekSketches = new UserCache<>(MAX_CACHED_WEEKS);
+
+    /**
+     * Builds the profile of a user for the whole weeks (Monday to Sunday) that overlap a date range.
+     *
+     * @param userId    The user.
+     * @param startDate The first day of the range.
+     * @param endDate   The last day of the range.
+     * @return One merged sketch per meal slot, in slot order; slots without readings are left out.
+     */
+    public static Map<MealSlot, QuantileSketch> getProfile(int userId, LocalDate startDate, LocalDate endDate) {
+        LocalDate firstWeek = weekOf(startDate);
+        LocalDate lastWeek = weekOf(endDate);
+
+        // Splitting the weeks into cached ones and runs of consecutive missing ones
+        Map<LocalDate, Map<MealSlot, QuantileSketch>> weeks = new HashMap<>();
+        List<LocalDate[]> missingRuns = new ArrayList<>();
+        int version = weekSketches.version(userId); // Read first, so weeks loaded below are only cached if no save came in meanwhile
+        LocalDate[] run = null;
+        for (LocalDate week = firstWeek; !week.isAfter(lastWeek); week = week.plusWeeks(1)) {
+            Map<MealSlot, QuantileSketch> sketches = weekSketches.get(userId, week);
+            if (sketches != null) {
+                weeks.put(week, sketches);
+                run = null;
+            } else if (run == null) {
+                run = new LocalDate[]{week, week};
+                missingRuns.add(run);
+            } else {
+                run[1] = week;
+            }
+        }
+
+        // Loading the missing weeks, one query per run
+        for (LocalDate[] missing : missingRuns) {
+            Map<LocalDate, Map<MealSlot, QuantileSketch>> loaded = loadWeeks(userId, missing[0], missing[1]);
+            weeks.putAll(loaded);
+            loaded.forEach((week, sketches) -> weekSketches.putIfCurrent(userId, week, sketches, version));
+        }
+
+        // Merging the weeks into one sketch per slot; the cached sketches are only read
+        Map<MealSlot, QuantileSketch> profile = new EnumMap<>(MealSlot.class);
+        for (Map<MealSlot, QuantileSketch> week : weeks.values()) {
+            for (Map.Entry<MealSlot, QuantileSketch> slot : week.entrySet()) {
+                profile.computeIfAbsent(slot.getKey(), s -> new QuantileSketch()).merge(slot.getValue());
+            }
+        }
+        return profile;
+    }
+
+    /**
+     * Drops the cached sketches of the week an entry belongs to, after it has been saved.
+     * Saving may replace an earlier reading of the same slot, which a sketch cannot take out again,
+     * so the week is rebuilt (one query for seven days) the next time a profile needs it.
+     *
+     * @param entry The saved entry.
+     */
+    public static void entrySaved(LogEntry entry) {
+        if (entry.getDate() != null) {
+            weekSketches.invalidate(entry.getUserId(), weekOf(LocalDate.parse(entry.getDate())));
+        } else {
+            weekSketches.invalidate(entry.getUserId());
+        }
+    }
+
+    /**
+     * Builds the sketches of a run of weeks with one streaming query. Weeks without readings get an empty map,
+     * so they are cached as well.
+     */
+    private static Map<LocalDate, Map<MealSlot, QuantileSketch>> loadWeeks(int userId, LocalDate firstWeek, LocalDate lastWeek) {
+        System.out.println("Loading AGP sketches for user " + userId + " from week " + firstWeek + " to week " + lastWeek);
+        Map<LocalDate, Map<MealSlot, QuantileSketch>> weeks = new HashMap<>();
+        for (LocalDate week = firstWeek; !week.isAfter(lastWeek); week = week.plusWeeks(1)) {
+            weeks.put(week, new EnumMap<>(MealSlot.class));
+        }
+        logEntryDAO.forEachSlotReading(userId, firstWeek.toString(), lastWeek.plusDays(6).toString(), (date, timeOfDay, bloodSugar) -> {
+            MealSlot slot = slotOf(timeOfDay);
+            if (slot != null) {
+                weeks.get(weekOf(LocalDate.parse(date)))
+                        .computeIfAbsent(slot, s -> new QuantileSketch())
+                        .add(bloodSugar);
+            }
+        });
+        return weeks;
+    }
+
+    /**
+     * Places a timeOfDay string in a meal slot. Non-standard labels from the quick log (e.g. "Bedtime Pre")
+     * go to the slot nearest to their hour of the day.
+     *
+     * @return The slot, or null if the label cannot be placed.
+     */
+    static MealSlot slotOf(String timeOfDay) {
+        MealSlot slot = MealSlot.fromLabel(timeOfDay);
+        if (slot != null) {
+            return slot;
+        }
+        int hour = MealSlot.hourOf(timeOfDay);
+        if (hour < 0) {
+            return null;
+        }
+        MealSlot nearest = null;
+        for (MealSlot candidate : MealSlot.values()) {
+            if (nearest == null || Math.abs(candidate.getHourOfDay() - hour) < Math.abs(nearest.getHourOfDay() - hour)) {
+                nearest = candidate;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * @return The Monday of the week a day belongs to.
+     */
+    static LocalDate weekOf(LocalDate day) {
+        return day.with(DayOfWeek.MONDAY);
+    }
+}
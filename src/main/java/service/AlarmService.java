@@ -1,15 +1,23 @@
 package service;
 
+import database.AlarmOutboxDAO;
+import database.DatabaseManager;
 import model.LogEntry;
+import model.OutboxMessage;
 import model.User;
 
-import javax.mail.*;
-import javax.swing.JOptionPane;
-import javax.mail.internet.InternetAddress;
-import javax.mail.internet.MimeMessage;
-import java.util.HashSet;
+import notification.Notification;
+import notification.NotificationTransports;
+import notification.TransportUnavailableException;
+
+import javax.mail.MessagingException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
-import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This entire class provides the methods for checking and sending the email alarm to the doctor based on glucose readings.
@@ -21,25 +29,61 @@ public class AlarmService {
     private static final double MAX_THRESHOLD_POST_MEAL = 11.0; //Hyperglycemia 2 hours after a meal
     private static final double MAX_THRESHOLD_FASTING = 7.0; // Hyperglycemia when fasting
 
-    private static final Set<String> notifiedMeals = new HashSet<>(); // Tracks the meals that have been notified for each user
+    // Tracks the meals that have been notified for each user; concurrent, as the logbooks save off the EDT while Home's quick log saves on it
+    private static final Set<String> notifiedMeals = ConcurrentHashMap.newKeySet();
+
+    // Users whose readings never raise an alarm (see muteAlarms)
+    private static final Set<Integer> mutedUsers = ConcurrentHashMap.newKeySet();
+
+    private static final TrendDetector trendDetector = new TrendDetector(); // Sliding-window trend detection across readings
+
+    private static final AlarmOutboxDAO alarmOutboxDAO = new AlarmOutboxDAO(); // Used to queue alarms the transport deferred
 
     /**
      * Checks the blood sugar value and sends an alarm email if out of range.
+     * The email is sent immediately on the calling thread; LogService.createEntry instead stores the alarms from
+     * evaluateAlarms in the outbox, so they survive a crash and do not block the save.
+     * There is nothing to commit here, so the alarms are marked as notified straight away.
      *
      * @param entry The log entry to check.
      * @param user  The user associated with the log entry.
      */
     public static void checkAndSendAlarm(LogEntry entry, User user) {
+        List<OutboxMessage> alarms = evaluateAlarms(entry, user);
+        alarmsCommitted(entry, user, alarms);
+        for (OutboxMessage alarm : alarms) {
+            sendEmail(alarm, user.getName());
+        }
+    }
+
+    /**
+     * Checks the blood sugar value (and the recent trend) and builds the alarm emails that should be sent, without sending them.
+     * Nothing is recorded here: once the entry and its alarms are saved, alarmsCommitted adds the reading to the trend
+     * window and marks the alarms as notified. A save that rolls back leaves no trace, so its retry alarms again.
+     *
+     * @param entry The log entry to check.
+     * @param user  The user associated with the log entry.
+     * @return The alarms to deliver (usually none, at most one).
+     */
+    public static List<OutboxMessage> evaluateAlarms(LogEntry entry, User user) {
+        List<OutboxMessage> alarms = new ArrayList<>();
+        if (mutedUsers.contains(user.getId())) {
+            return alarms; // The reading is still added to the trend window once saved
+        }
+
         // Retrieve the blood sugar value and time of the log entry
         double bloodSugar = entry.getBloodSugar();
         // Retrieve hours since last meal (this should now be part of the LogEntry)
         int hoursSinceMeal = entry.getHoursSinceMeal();
         String mealTime = entry.getTimeOfDay(); // assuming `mealTime` is a String like "Breakfast", "Lunch", etc.
 
+        // Check the trend the reading would show (it is recorded in the window by alarmsCommitted, even when the bounds alarm is skipped)
+        TrendDetector.TrendAlert trend = trendDetector.check(user.getId(), entry.getDate(), mealTime, bloodSugar);
+
         // Check if this meal has already triggered an alarm for this user
-        if (notifiedMeals.contains(user.getName() + "_" + mealTime)) {
+        if (notifiedMeals.contains(boundsKey(user, mealTime))) {
             System.out.println("Skipping alarm for " + mealTime + " as it has already been notified.");
-            return; // Skip sending alarm for this meal type if already notified
+            return alarms; // Skip sending alarm for this meal type if already notified
         }
 
         // Determine the maximum threshold based on hours since last meal
@@ -49,14 +93,64 @@ public class AlarmService {
         if (bloodSugar < MIN_THRESHOLD || bloodSugar > maxThreshold) {
             System.out.println(user.getName() + ": Blood sugar out of range for " + mealTime + ". Triggering alarm.");
 
-            // Send email notification for this meal time if not notified already
-            sendEmailAlarm(user.getDoctorName(), user.getDoctorEmail(), user.getName(), bloodSugar, hoursSinceMeal);
+            // Build the email notification for this meal time if not notified already
+            OutboxMessage alarm = buildEmailAlarm(user.getDoctorName(), user.getDoctorEmail(), user.getName(), bloodSugar, hoursSinceMeal);
+            alarm.setDedupKey("bounds:" + user.getId() + ":" + entry.getDate() + ":" + mealTime);
+            alarm.setUserId(user.getId());
+            alarms.add(alarm);
+        } else if (trend != null) {
+            // The reading itself is in range, but the recent readings show a worrying trend
+            if (notifiedMeals.contains(trendKey(user, entry.getDate(), trend.getType().name()))) {
+                System.out.println("Skipping " + trend.getType() + " trend alarm as it has already been notified today.");
+                return alarms;
+            }
+            System.out.println(user.getName() + ": " + trend.getType() + " trend detected at " + mealTime + ". Triggering alarm.");
+            OutboxMessage alarm = buildTrendAlarm(user.getDoctorName(), user.getDoctorEmail(), user.getName(), trend);
+            alarm.setDedupKey("trend:" + user.getId() + ":" + entry.getDate() + ":" + trend.getType());
+            alarm.setUserId(user.getId());
+            alarms.add(alarm);
+        }
+        return alarms;
+    }
 
-            // Mark this meal as notified for the user
-            notifiedMeals.add(user.getName() + "_" + mealTime); // Save the notified meal (e.g., userName_breakfast)
+    /**
+     * Records a saved reading: adds it to the user's trend window and marks its alarms as notified, so the same
+     * meal or trend is not alarmed twice. LogService calls it once the entry and its alarms are committed.
+     *
+     * @param entry  The saved log entry.
+     * @param user   The user associated with the log entry.
+     * @param alarms The alarms evaluateAlarms built for the entry, now saved in the outbox.
+     */
+    public static void alarmsCommitted(LogEntry entry, User user, List<OutboxMessage> alarms) {
+        trendDetector.record(user.getId(), entry.getDate(), entry.getTimeOfDay(), entry.getBloodSugar());
+        if (alarms == null) {
+            return;
+        }
+        for (OutboxMessage alarm : alarms) {
+            String dedupKey = alarm.getDedupKey();
+            if (dedupKey.startsWith("bounds:")) {
+                notifiedMeals.add(boundsKey(user, entry.getTimeOfDay())); // Save the notified meal (e.g., userName_breakfast)
+            } else if (dedupKey.startsWith("trend:")) {
+                // The trend type ends the key (e.g. "trend:12:2025-01-10:RAPID_DROP")
+                notifiedMeals.add(trendKey(user, entry.getDate(), dedupKey.substring(dedupKey.lastIndexOf(':') + 1)));
+            }
         }
     }
 
+    /**
+     * @return The notified-meals key of a bounds alarm: at most one per meal (e.g. "userName_Breakfast").
+     */
+    private static String boundsKey(User user, String mealTime) {
+        return user.getName() + "_" + mealTime;
+    }
+
+    /**
+     * @return The notified-meals key of a trend alarm: at most one per trend type per day.
+     */
+    private static String trendKey(User user, String date, String trendType) {
+        return user.getName() + "_" + date + "_" + trendType;
+    }
+
     /**
      * Determines the maximum threshold based on the hours since the last meal.
      *
@@ -74,79 +168,156 @@ public class AlarmService {
     }
 
     /**
-     * Sends an alarm email to the user's doctor using the app's email, sugarbyte.app@gmail.com, via Gmail's SMTP server.
+     * Builds the alarm email for an out-of-range reading, addressed to the user's doctor.
      *
      * @param doctorName   The doctor's name.
      * @param doctorEmail  The doctor's email address.
      * @param userName     The name of the user.
      * @param bloodSugar   The blood sugar value triggering the alarm.
      * @param hoursSinceMeal The number of hours since the user's last meal.
+     * @return The alarm, with the message shown to the user once it has been delivered as its notice.
      */
-    /* Reference 5 - all of the logic & syntax, such as the object type properties and the key-value pairs for gmail, were take from ChatGPT*/
-    private static void sendEmailAlarm(String doctorName, String doctorEmail, String userName, double bloodSugar, int hoursSinceMeal) {
-        // SugarByte's Gmail credentials:
-        final String fromEmail = "sugarbyte.app@gmail.com"; // SugarByte's email address
-        final String appPassword = "twym wigt ytak botd"; // SugarByte's app password for IntelliJ (new one may need to be generated if different code manager is used)
-
-        // SMTP server properties
-        Properties props = new Properties(); // new object of type Properties created to add key-value pairs
-        props.put("mail.smtp.host", "smtp.gmail.com"); //assigning the email server as 'gmail' (since the app's email address is @gmail.com)
-        props.put("mail.smtp.port", "587");  // 587 is the port number commonly used for email submissions with STARTTLS encryption
-        props.put("mail.smtp.auth", "true"); // introduces authentication which improves the security of the system
-        props.put("mail.smtp.starttls.enable", "true"); // enables encryption of the emails (safer)
-        props.put("mail.smtp.ssl.trust", "smtp.gmail.com"); // Disable SSL certificate validation TEMPORARY FIX
-
-        // Create a mail session with authentication
-        Session session = Session.getInstance(props, new Authenticator() {
-            @Override
-            protected PasswordAuthentication getPasswordAuthentication() {
-                return new PasswordAuthentication(fromEmail, appPassword); // defined above as the fields for sendEmailAlarm
-            }
-        });
+    private static OutboxMessage buildEmailAlarm(String doctorName, String doctorEmail, String userName, double bloodSugar, int hoursSinceMeal) {
+        String emailBody = String.format( // using .format facilitates formatting the desired text with the values log entry values
+                "Dear Doctor %s,\n\nYour patient %s recorded a blood sugar level of %.2f mmol/L, which is %s the safe range.\n"
+                        + "This level was recorded %d hours after their last meal.\n\n"
+                        + "Please review and advise.\n\n"
+                        + "Best regards,\nSugarByte - The Comprehensive Diabetes Monitoring App",
+                doctorName, userName, bloodSugar,
+                (bloodSugar < MIN_THRESHOLD ? "below" : "above"),
+                hoursSinceMeal); // each of these arguments are passed sequentially into the indicated places (eg %s corresponds to the firsr arg, doctorName)
+
+        // Shows a pop-up notification on the app to confirm the sending of the alarm
+        String notificationMessage = String.format(
+                "Doctor has been notified of %s glucose value (%.2f mmol/L).",
+                (bloodSugar < MIN_THRESHOLD ? "low" : "high"), bloodSugar);
+
+        return new OutboxMessage(null, 0, doctorEmail, "Urgent: Blood Sugar Alert for Patient " + userName, emailBody, notificationMessage);
+    }
 
+    /**
+     * Builds a trend alarm email for the user's doctor, for readings that are in range but moving in a worrying direction.
+     *
+     * @param doctorName  The doctor's name.
+     * @param doctorEmail The doctor's email address.
+     * @param userName    The name of the user.
+     * @param trend       The trend reported by the TrendDetector, with its rolling statistics.
+     * @return The alarm, with the message shown to the user once it has been delivered as its notice.
+     */
+    private static OutboxMessage buildTrendAlarm(String doctorName, String doctorEmail, String userName, TrendDetector.TrendAlert trend) {
+        String description;
+        switch (trend.getType()) {
+            case PREDICTED_LOW:
+                description = String.format("is falling at %.2f mmol/L per hour and is projected to drop below %.1f mmol/L within %.0f hours",
+                        -trend.getSlopePerHour(), MIN_THRESHOLD, TrendDetector.PREDICTION_HORIZON_HOURS);
+                break;
+            case RAPID_DROP:
+                description = String.format("is dropping rapidly (%.2f mmol/L per hour over the last %d readings)",
+                        -trend.getSlopePerHour(), trend.getReadings());
+                break;
+            default:
+                description = String.format("is highly variable (coefficient of variation %.0f%% over the last %d readings)",
+                        trend.getCoefficientOfVariation() * 100, trend.getReadings());
+                break;
+        }
+
+        String emailBody = String.format(
+                "Dear Doctor %s,\n\nYour patient %s recorded a blood sugar level of %.2f mmol/L, which is within the safe range, "
+                        + "but their glucose %s.\n"
+                        + "Recent readings: mean %.2f mmol/L, standard deviation %.2f mmol/L.\n\n"
+                        + "Please review and advise.\n\n"
+                        + "Best regards,\nSugarByte - The Comprehensive Diabetes Monitoring App",
+                doctorName, userName, trend.getLatest(), description, trend.getMean(), trend.getStandardDeviation());
+
+        String notificationMessage = String.format(
+                "Doctor has been notified of a glucose trend (%.2f mmol/L, %s).",
+                trend.getLatest(), trend.getType() == TrendDetector.TrendType.HIGH_VARIABILITY ? "high variability" : "falling");
+
+        return new OutboxMessage(null, 0, doctorEmail, "Glucose Trend Alert for Patient " + userName, emailBody, notificationMessage);
+    }
+
+    /**
+     * Sends an alarm email to the user's doctor through the app's notification transport and informs the user of the outcome.
+     * If the transport is rate limited or its circuit breaker is open, the alarm is queued in the outbox instead,
+     * and the OutboxDispatcher sends it once the transport accepts messages again.
+     *
+     * @param alarm    The alarm to send (recipient, subject, body, and the notice shown once delivered).
+     * @param userName The name of the user (for logging).
+     */
+    private static void sendEmail(OutboxMessage alarm, String userName) {
+        String doctorEmail = alarm.getRecipient();
         try {
-            // Create the email message
-            Message message = new MimeMessage(session);
-            message.setFrom(new InternetAddress(fromEmail)); // sets the sending address as the app's email
-            message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(doctorEmail)); // sets the recipient by parsing the inputted user's doctor's email (string) into an email address
-            message.setSubject("Urgent: Blood Sugar Alert for Patient " + userName);
-
-            String emailBody = String.format( // using .format facilitates formatting the desired text with the values log entry values
-                    "Dear Doctor %s,\n\nYour patient %s recorded a blood sugar level of %.2f mmol/L, which is %s the safe range.\n"
-                            + "This level was recorded %d hours after their last meal.\n\n"
-                            + "Please review and advise.\n\n"
-                            + "Best regards,\nSugarByte - The Comprehensive Diabetes Monitoring App",
-                    doctorName, userName, bloodSugar,
-                    (bloodSugar < MIN_THRESHOLD ? "below" : "above"),
-                    hoursSinceMeal); // each of these arguments are passed sequentially into the indicated places (eg %s corresponds to the firsr arg, doctorName)
-
-            message.setText(emailBody);
-
-            // Sends the email
-            Transport.send(message);
+            // Sends the email through whichever transport is configured (SMTP by default)
+            NotificationTransports.get().send(new Notification(doctorEmail, alarm.getSubject(), alarm.getBody()));
             System.out.println("Alarm email sent to " + userName + "'s doctor's email " + doctorEmail);
-            /* end of reference 5*/
 
-            // Shows a pop-up notification on the app to confirm the sending of the alarm (centred in the centre as there is no parent component assigned)
-            String notificationMessage = String.format(
-                    "Doctor has been notified of %s glucose value (%.2f mmol/L).",
-                    (bloodSugar < MIN_THRESHOLD ? "low" : "high"), bloodSugar);
-            JOptionPane.showMessageDialog(null, notificationMessage, "Notification", JOptionPane.INFORMATION_MESSAGE);
+            // Tells the user the alarm was sent
+            notifyUser(alarm.getNotice());
+
+        } catch (TransportUnavailableException e) { // Not a failure: the transport asked us to wait
+            System.out.println("Alarm for " + userName + " deferred (" + e.getMessage() + "), queueing it in the outbox.");
+            queueAlarm(alarm);
 
         } catch (MessagingException e) { // Runs if the 'try' block fails. MessagingException is specific to JavaMail operations.
             e.printStackTrace(); // The stack trace provides detailed info about the exception
             System.err.println("Failed to send email to " + userName + "'s doctor's email " + doctorEmail);
 
-            // Shows a pop-up notification on the app to indicate an error occurred with sending the email.
-            JOptionPane.showMessageDialog(null, "Failed to notify the doctor. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+            // Tells the user an error occurred with sending the email (shown as a toast by the open screen, never a blocking dialog)
+            NotificationCenter.publish(NotificationEvent.Level.ERROR, "Alarm not sent", "Failed to notify the doctor. Please try again.");
+        }
+    }
+
+    /**
+     * Stores an alarm in the outbox (on its own connection) and wakes the dispatcher to deliver it later.
+     */
+    private static void queueAlarm(OutboxMessage alarm) {
+        try (Connection conn = DatabaseManager.getInstance().openConnection()) {
+            alarmOutboxDAO.enqueue(conn, Collections.singletonList(alarm));
+        } catch (SQLException e) {
+            e.printStackTrace();
+            System.err.println("Failed to queue the alarm for " + alarm.getRecipient() + "; it will not be sent.");
+            return;
         }
+        OutboxDispatcher.start().wakeUp();
+    }
+
+    /**
+     * Tells the user that their doctor has been notified (used after direct sends and by the OutboxDispatcher).
+     * The message is published to the NotificationCenter, so this never blocks and works without a display.
+     *
+     * @param notice The message to show; nothing is published if it is empty.
+     */
+    public static void notifyUser(String notice) {
+        if (notice == null || notice.isEmpty()) {
+            return;
+        }
+        NotificationCenter.publish(NotificationEvent.Level.SUCCESS, "Doctor notified", notice);
     }
 
     /**
     * Included for unit testing purposes.
+     *
+     * @return A read-only view of the notified meals and trends.
      */
     public static Set<String> getNotifiedMeals() {
-        return notifiedMeals;
+        return Collections.unmodifiableSet(notifiedMeals);
+    }
+
+    /**
+     * Forgets that a meal or trend was notified, so tests can undo what they marked.
+     * Included for unit testing purposes.
+     */
+    public static void forgetNotified(String key) {
+        notifiedMeals.remove(key);
+    }
+
+    /**
+     * Stops a user's readings from raising alarms, so tests can log any reading through LogService.saveEntry without
+     * queueing emails to a doctor.
+     * Included for unit testing purposes.
+     */
+    public static void muteAlarms(int userId) {
+        mutedUsers.add(userId);
     }
 
     public static double getMinThreshold() {
@@ -0,0 +1,92 @@
+package service;
+
+import database.LogEntryDAO;
+import model.DailySummary;
+import model.DayStatus;
+import model.LogEntry;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The per-day glucose status of whole months, for the calendar.
+ * A month is loaded with one aggregate query (LogEntryDAO.getDailySummaries) and cached per user, and the months
+ * before and after the one on screen are loaded in the background, so flipping months needs no query at all.
+ * Saving an entry drops the cached month of its day, which is loaded again the next time it is shown.
+ */
+public class CalendarStatusService {
+
+    private static final int MAX_CACHED_MONTHS = 48; // A few hundred bytes each, for all users together
+
+    private static final LogEntryDAO logEntryDAO = new LogEntryDAO();
+
+    // Statuses by user and month; only days with a reading are stored
+    private static final UserCache<YearMonth, Map<LocalDate, DayStatus>> months = new UserCache<>(MAX_CACHED_MONTHS);
+
+    private CalendarStatusService() {
+        // Static utility, not meant to be instantiated
+    }
+
+    /**
+     * Returns the statuses of a month, loading it with one query if it is not cached.
+     *
+     * @param userId The user.
+     * @param month  The month.
+     * @return The status of each day with a reading; days that are not in the map have no data.
+     */
+    public static Map<LocalDate, DayStatus> getMonth(int userId, YearMonth month) {
+        return months.get(userId, month, m -> loadMonth(userId, m));
+    }
+
+    /**
+     * Returns the statuses of a month if they are cached, without querying.
+     *
+     * @param userId The user.
+     * @param month  The month.
+     * @return The status of each day with a reading, or null if the month has not been loaded (or has changed since).
+     */
+    public static Map<LocalDate, DayStatus> getCachedMonth(int userId, YearMonth month) {
+        return months.get(userId, month);
+    }
+
+    /**
+     * Loads the months before and after a month in the background, if they are not cached yet.
+     *
+     * @param userId The user.
+     * @param month  The month on screen.
+     */
+    public static void prefetchAround(int userId, YearMonth month) {
+        months.prefetch(userId, month.minusMonths(1), m -> loadMonth(userId, m));
+        months.prefetch(userId, month.plusMonths(1), m -> loadMonth(userId, m));
+    }
+
+    /**
+     * Drops the cached month of a saved entry's day, as the entry may have changed the day's status.
+     *
+     * @param entry The saved entry.
+     */
+    public static void entrySaved(LogEntry entry) {
+        if (entry.getDate() != null) {
+            months.invalidate(entry.getUserId(), YearMonth.from(LocalDate.parse(entry.getDate())));
+        } else {
+            months.invalidate(entry.getUserId());
+        }
+    }
+
+    /**
+     * Loads the statuses of a month with one aggregate query.
+     */
+    private static Map<LocalDate, DayStatus> loadMonth(int userId, YearMonth month) {
+        Map<LocalDate, DayStatus> statuses = new HashMap<>();
+        for (DailySummary day : logEntryDAO.getDailySummaries(userId, month.atDay(1).toString(), month.atEndOfMonth().toString())) {
+            DayStatus status = DayStatus.of(day);
+            if (status != DayStatus.NO_DATA) {
+                statuses.put(LocalDate.parse(day.getDate()), status);
+            }
+        }
+        return Collections.unmodifiableMap(statuses);
+    }
+}
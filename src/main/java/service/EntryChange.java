@@ -0,0 +1,77 @@
+package service;
+
+import model.LogEntry;
+import model.User;
+
+import java.time.LocalDate;
+
+/**
+ * A committed change to a user's data, published on the EntryChangeBus: a saved log entry, or an updated profile.
+ * Screens that keep the user's data in memory apply it instead of querying again.
+ */
+public class EntryChange {
+
+    /**
+     * What changed.
+     */
+    public enum Type {
+        ENTRY_SAVED, // A log entry was created or replaced (same user, date and time of day)
+        USER_UPDATED // The user's profile was saved
+    }
+
+    private final Type type;
+    private final int userId;
+    private final LogEntry entry; // A copy of the saved entry (ENTRY_SAVED only)
+    private final User user; // The updated user (USER_UPDATED only)
+
+    private EntryChange(Type type, int userId, LogEntry entry, User user) {
+        this.type = type;
+        this.userId = userId;
+        this.entry = entry;
+        this.user = user;
+    }
+
+    /**
+     * @param entry The saved entry; it is copied, as the caller may go on changing it while handlers run.
+     */
+    public static EntryChange entrySaved(LogEntry entry) {
+        return new EntryChange(Type.ENTRY_SAVED, entry.getUserId(), new LogEntry(entry), null);
+    }
+
+    public static EntryChange userUpdated(User user) {
+        return new EntryChange(Type.USER_UPDATED, user.getId(), null, user);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * @return The saved entry as it was when published. Every handler gets the same copy, so it must not be changed.
+     */
+    public LogEntry getEntry() {
+        return entry;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    /**
+     * @return The day of the saved entry, or null for other changes.
+     */
+    public LocalDate getDate() {
+        return entry != null && entry.getDate() != null ? LocalDate.parse(entry.getDate()) : null;
+    }
+
+    @Override
+    public String toString() {
+        return type == Type.ENTRY_SAVED
+                ? type + " user " + userId + " " + entry.getDate() + " " + entry.getTimeOfDay()
+                : type + " user " + userId;
+    }
+}
@@ -0,0 +1,109 @@
+package service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.Consumer;
+
+/**
+ * In-process publish/subscribe of committed changes (EntryChange), built on java.util.concurrent.Flow.
+ * LogService publishes every saved entry once it is committed; screens subscribe to keep their figures up to
+ * date from the change itself, instead of querying again. Each subscriber receives the changes in order, on the
+ * bus's own daemon thread, so publishing never waits on a subscriber (screens hand the change to the EDT).
+ * A subscriber that falls more than BUFFER_SIZE changes behind misses changes rather than holding up a save.
+ */
+public class EntryChangeBus {
+
+    private static final int BUFFER_SIZE = 256; // Changes queued per subscriber
+
+    private static final ExecutorService deliveryExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "entry-change-bus");
+        thread.setDaemon(true); // Never keeps the JVM alive
+        return thread;
+    });
+    private static final SubmissionPublisher<EntryChange> publisher = new SubmissionPublisher<>(deliveryExecutor, BUFFER_SIZE);
+
+    private EntryChangeBus() {
+        // Static utility, not meant to be instantiated
+    }
+
+    /**
+     * Publishes a change to every subscriber, without blocking.
+     *
+     * @param change The committed change.
+     */
+    public static void publish(EntryChange change) {
+        publisher.offer(change, (subscriber, dropped) -> {
+            System.err.println("A subscriber is too far behind; dropped " + dropped);
+            return false; // Not retried
+        });
+    }
+
+    /**
+     * Subscribes to the changes published from now on.
+     *
+     * @param handler Called with each change, on the bus's thread. A handler that throws is unsubscribed.
+     * @return The subscription, to cancel when the subscriber closes.
+     */
+    public static Subscription subscribe(Consumer<EntryChange> handler) {
+        Subscription subscription = new Subscription(handler);
+        publisher.subscribe(subscription);
+        return subscription;
+    }
+
+    /**
+     * One subscriber's link to the bus. It requests changes one at a time; handlers share the bus's thread, so they
+     * should be quick (e.g. hand the change to the EDT).
+     */
+    public static class Subscription implements Flow.Subscriber<EntryChange> {
+        private final Consumer<EntryChange> handler;
+        private Flow.Subscription flowSubscription; // Set once the publisher accepts the subscriber
+        private boolean cancelled;
+
+        private Subscription(Consumer<EntryChange> handler) {
+            this.handler = handler;
+        }
+
+        /**
+         * Stops the deliveries; changes already queued are dropped.
+         */
+        public synchronized void cancel() {
+            cancelled = true;
+            if (flowSubscription != null) {
+                flowSubscription.cancel();
+            }
+        }
+
+        @Override
+        public synchronized void onSubscribe(Flow.Subscription subscription) {
+            flowSubscription = subscription;
+            if (cancelled) {
+                subscription.cancel(); // Cancelled before the publisher got to it
+            } else {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onNext(EntryChange change) {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+            }
+            handler.accept(change); // Outside the lock, so cancel() from another thread never waits on a handler
+            flowSubscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            throwable.printStackTrace(); // The handler threw; the publisher has dropped this subscriber
+        }
+
+        @Override
+        public void onComplete() {
+            // The bus lives as long as the app
+        }
+    }
+}
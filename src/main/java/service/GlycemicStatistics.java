@@ -0,0 +1,137 @@
+package service;
+
+import model.DailySummary;
+
+/**
+ * Streaming glycemic statistics: mean, standard deviation, coefficient of variation, time in / below / above range
+ * and the glucose management indicator (GMI), for any number of readings.
+ * Readings are folded in one at a time with Welford's algorithm (a running count, mean and sum of squared deviations),
+ * so a range of any length is processed in one pass with a handful of primitives and no list of readings.
+ * Accumulators can be merged (Chan et al.), which is also how whole days are added from their DailySummary.
+ *
+ * The logbook records spot readings rather than a continuous sensor trace, so "time in range" is the share of
+ * readings in range, which is the usual stand-in for self-monitored glucose.
+ */
+public class GlycemicStatistics {
+
+    static final double MMOL_TO_MG_DL = 18.018; // mg/dL per mmol/L
+
+    private long count; // Number of readings
+    private double mean; // Running mean (mmol/L)
+    private double m2; // Running sum of squared deviations from the mean
+    private long below; // Readings under DailySummary.RANGE_LOW
+    private long above; // Readings over DailySummary.RANGE_HIGH
+
+    /**
+     * Adds one reading. Values of 0 or less (no reading logged) are ignored.
+     *
+     * @param bloodSugar The reading in mmol/L.
+     */
+    public void add(double bloodSugar) {
+        if (!(bloodSugar > 0)) {
+            return; // Also skips NaN
+        }
+        count++;
+        double delta = bloodSugar - mean;
+        mean += delta / count;
+        m2 += delta * (bloodSugar - mean);
+        if (bloodSugar < DailySummary.RANGE_LOW) {
+            below++;
+        } else if (bloodSugar > DailySummary.RANGE_HIGH) {
+            above++;
+        }
+    }
+
+    /**
+     * Adds all readings of a day at once, from its aggregate, with the same result as adding them one by one.
+     *
+     * @param day The day's summary.
+     */
+    public void add(DailySummary day) {
+        if (day == null || !day.hasReadings()) {
+            return;
+        }
+        int n = day.getReadingCount();
+        double dayMean = day.getAverageBloodSugar();
+        double dayM2 = Math.max(0.0, day.getSumOfSquares() - n * dayMean * dayMean); // Guarding against rounding below 0
+        combine(n, dayMean, dayM2, day.getReadingsBelowRange(), day.getReadingsAboveRange());
+    }
+
+    /**
+     * Adds everything another accumulator has seen (e.g. from a parallel pass over part of the range).
+     *
+     * @param other The accumulator to merge in; it is not changed.
+     */
+    public void merge(GlycemicStatistics other) {
+        combine(other.count, other.mean, other.m2, other.below, other.above);
+    }
+
+    /**
+     * Combines this accumulator with a partial one (Chan et al. parallel variance).
+     */
+    private void combine(long otherCount, double otherMean, double otherM2, long otherBelow, long otherAbove) {
+        if (otherCount == 0) {
+            return;
+        }
+        long total = count + otherCount;
+        double delta = otherMean - mean;
+        mean += delta * otherCount / total;
+        m2 += otherM2 + delta * delta * count * otherCount / total;
+        count = total;
+        below += otherBelow;
+        above += otherAbove;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return The mean reading in mmol/L, or NaN without readings.
+     */
+    public double getMean() {
+        return count > 0 ? mean : Double.NaN;
+    }
+
+    /**
+     * @return The sample standard deviation in mmol/L, or NaN with fewer than two readings.
+     */
+    public double getStandardDeviation() {
+        return count > 1 ? Math.sqrt(m2 / (count - 1)) : Double.NaN;
+    }
+
+    /**
+     * @return The coefficient of variation as a percentage (SD / mean); above 36% is considered unstable.
+     */
+    public double getCoefficientOfVariation() {
+        return getStandardDeviation() / getMean() * 100.0;
+    }
+
+    /**
+     * @return The percentage of readings from 3.9 to 10.0 mmol/L, or NaN without readings.
+     */
+    public double getTimeInRange() {
+        return count > 0 ? (count - below - above) * 100.0 / count : Double.NaN;
+    }
+
+    /**
+     * @return The percentage of readings under 3.9 mmol/L, or NaN without readings.
+     */
+    public double getTimeBelowRange() {
+        return count > 0 ? below * 100.0 / count : Double.NaN;
+    }
+
+    /**
+     * @return The percentage of readings over 10.0 mmol/L, or NaN without readings.
+     */
+    public double getTimeAboveRange() {
+        return count > 0 ? above * 100.0 / count : Double.NaN;
+    }
+
+    /**
+     * @return The glucose management indicator (estimated HbA1c, %): 3.31 + 0.02392 x mean glucose in mg/dL.
+     */
+    public double getGlucoseManagementIndicator() {
+        return 3.31 + 0.02392 * getMean() * MMOL_TO_MG_DL;
+    }
+}
@@ -1,10 +1,19 @@
 package service;
 
+import database.AlarmOutboxDAO;
+import database.DatabaseManager;
 import database.LogEntryDAO;
+import model.DailySummary;
 import model.LogEntry;
+import model.MealSlot;
+import model.OutboxMessage;
 import model.User;
 
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Provides higher-level methods for creating and retrieving logs,
@@ -13,18 +22,120 @@ import java.util.List;
 public class LogService {
 
     private static LogEntryDAO logEntryDAO = new LogEntryDAO();
+    private static AlarmOutboxDAO alarmOutboxDAO = new AlarmOutboxDAO();
+    private static final AtomicLong saveCount = new AtomicLong(); // Entries saved since the app started
+
+    private static final int MAX_CACHED_LATEST_READINGS = 64; // Users whose latest reading is kept
+    private static final String LATEST_READING = "latest"; // The one key of each user in latestReadings
+    // The latest reading of each user once looked up (empty: no readings), kept current by saveEntry
+    private static final UserCache<String, Optional<LogEntry>> latestReadings = new UserCache<>(MAX_CACHED_LATEST_READINGS);
 
     /**
      * Create a new log entry, then check for alarms.
+     * The entry and any alarms it triggers are written in one transaction: either both are saved or neither is.
+     * The alarms are then delivered in the background by the OutboxDispatcher, so saving never waits on the mail server.
      */
     public static LogEntry createEntry(LogEntry entry, User user) {
+        saveEntry(entry, user);
+        return entry;
+    }
+
+    /**
+     * Same as createEntry, but tells whether the entry was saved, so the logbooks can report each row.
+     *
+     * @return true if the entry (and its alarms) were committed, false if the save failed and nothing was kept.
+     */
+    public static boolean saveEntry(LogEntry entry, User user) {
+
+        // 1. Alarm check (builds the alarm emails without sending them, and without recording anything yet)
+        List<OutboxMessage> alarms = AlarmService.evaluateAlarms(entry, user);
+        boolean hasAlarms = alarms != null && !alarms.isEmpty();
+
+        // 2. Insert the entry and its alarms in the DB, atomically
+        try (Connection conn = DatabaseManager.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                logEntryDAO.createLogEntry(conn, entry);
+                alarmOutboxDAO.enqueue(conn, alarms);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback(); // Neither the entry nor its alarms are kept
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            System.err.println("Failed to save the log entry for " + entry.getDate() + " " + entry.getTimeOfDay());
+            return false;
+        }
+
+        // 3. Only now does the reading count for the alarms: it joins the trend window and its alarms are marked as notified
+        AlarmService.alarmsCommitted(entry, user, alarms);
+
+        // 4. The AGP sketches of the entry's week, the zoomed-out graph buckets, the calendar status of its day and its cached week are out of date now
+        AgpService.entrySaved(entry);
+        TilePyramid.entrySaved(entry);
+        CalendarStatusService.entrySaved(entry);
+        WeekLogService.entrySaved(entry);
+        updateLatestReading(entry);
+        saveCount.incrementAndGet();
+        EntryChangeBus.publish(EntryChange.entrySaved(entry)); // Screens apply the entry to what they show
 
-        // 1. Insert the entry in DB
-        LogEntry saved = logEntryDAO.createLogEntry(entry);
-        // 2. Alarm check
-        AlarmService.checkAndSendAlarm(saved, user);
+        // 5. Hand the committed alarms to the background dispatcher
+        if (hasAlarms) {
+            OutboxDispatcher.start().wakeUp();
+        }
 
-        return saved;
+        return true;
+    }
+
+    /**
+     * Returns how many entries have been saved since the app started (each save is also published on the
+     * EntryChangeBus, which is how screens keep up to date).
+     */
+    public static long getSaveCount() {
+        return saveCount.get();
+    }
+
+    /**
+     * Returns a user's most recent blood glucose reading (latest date, then latest time of day).
+     * The first call per user is one index seek; after that the value is served from memory, as every save updates it.
+     *
+     * @return The reading with its date and time of day, or null if the user has no readings.
+     */
+    public static LogEntry getLatestReading(int userId) {
+        return latestReadings.get(userId, LATEST_READING, key -> Optional.ofNullable(logEntryDAO.getLatestReading(userId))).orElse(null);
+    }
+
+    /**
+     * Keeps the cached latest reading of a saved entry's user current, without a query where possible.
+     */
+    private static void updateLatestReading(LogEntry entry) {
+        // Not looked up yet: nothing to update, the lookup will see the entry
+        latestReadings.update(entry.getUserId(), LATEST_READING, cached -> {
+            LogEntry latest = cached.orElse(null);
+            boolean sameSlot = latest != null && latest.getDate().equals(entry.getDate())
+                    && latest.getTimeOfDay().equals(entry.getTimeOfDay());
+            if (entry.getBloodSugar() > 0 && (latest == null || sameSlot || isLater(entry, latest))) {
+                // A copy, as the caller may go on changing its entry
+                LogEntry reading = new LogEntry();
+                reading.setUserId(entry.getUserId());
+                reading.setDate(entry.getDate());
+                reading.setTimeOfDay(entry.getTimeOfDay());
+                reading.setBloodSugar(entry.getBloodSugar());
+                return Optional.of(reading);
+            }
+            return sameSlot ? null : cached; // The latest reading was cleared: dropped, so the next lookup finds the one before it
+        });
+    }
+
+    /**
+     * @return Whether an entry is later than another: a later date, or a later time of day on the same date.
+     */
+    private static boolean isLater(LogEntry entry, LogEntry other) {
+        int byDate = entry.getDate().compareTo(other.getDate()); // yyyy-MM-dd sorts by date
+        return byDate > 0 || (byDate == 0 && MealSlot.hourOf(entry.getTimeOfDay()) > MealSlot.hourOf(other.getTimeOfDay()));
     }
 
     /**
@@ -34,4 +145,20 @@ public class LogService {
         System.out.println("Fetching entries for user " + userId + " on date " + date);
         return logEntryDAO.getEntriesByDate(userId, date);
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieve per-day summaries (average, min and max glucose, totals) for a user over a date range,
+     * using a single aggregate query. Days without entries are not included.
+     */
+    public static List<DailySummary> getDailySummaries(int userId, String startDate, String endDate) {
+        System.out.println("Fetching daily summaries for user " + userId + " from " + startDate + " to " + endDate);
+        return logEntryDAO.getDailySummaries(userId, startDate, endDate);
+    }
+
+    /**
+     * Retrieve the date of a user's first log entry, or null if there are none.
+     */
+    public static String getEarliestEntryDate(int userId) {
+        return logEntryDAO.getEarliestEntryDate(userId);
+    }
+}
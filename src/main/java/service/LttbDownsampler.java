@@ -0,0 +1,144 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Largest-Triangle-Three-Buckets (LTTB) downsampling for time series.
+ * Reduces a series to a fixed point budget (e.g. one point per two pixels of chart width) while keeping its visual
+ * shape: the first and last points are always kept, and from every bucket in between the point forming the largest
+ * triangle with its neighbours is chosen, which is exactly how isolated peaks and troughs (hypos!) survive.
+ * The cost is O(n) regardless of the budget, so render time only depends on the chart width, not the range length.
+ *
+ * NaN values mark gaps (days without readings). Each run of real values is downsampled on its own, with a share of the
+ * budget proportional to its length, and one NaN point is kept between runs so the chart still shows the gap.
+ * A run always keeps at least its first and last point, so a series split into many short runs can come out somewhat
+ * over the budget.
+ */
+public class LttbDownsampler {
+
+    private LttbDownsampler() {
+        // Static utility, not meant to be instantiated
+    }
+
+    /**
+     * Downsamples a series to {@code threshold} points, or about that many (plus one NaN marker per gap) when it has
+     * gaps: each run's share of the budget is rounded, and never drops the run's endpoints.
+     *
+     * @param x         The x values (e.g. epoch millis), in ascending order.
+     * @param y         The y values; NaN marks a gap.
+     * @param threshold The point budget. Series that already fit, and budgets below 3, are returned unchanged.
+     * @return A new {x, y} pair of arrays.
+     */
+    public static double[][] downsample(double[] x, double[] y, int threshold) {
+        int n = x.length;
+        if (threshold >= n || threshold < 3) {
+            return new double[][]{x.clone(), y.clone()};
+        }
+
+        // Counting the real values, to share the budget between the runs between gaps
+        int valid = 0;
+        for (int i = 0; i < n; i++) {
+            if (!Double.isNaN(y[i])) {
+                valid++;
+            }
+        }
+        if (valid == n) {
+            return lttb(x, y, 0, n, threshold); // No gaps, the common case
+        }
+
+        // Downsampling run by run; the pieces are joined once their total size is known
+        List<double[][]> pieces = new ArrayList<>();
+        int size = 0;
+        int i = 0;
+        while (i < n) {
+            if (Double.isNaN(y[i])) {
+                // Keeping a single NaN for the whole gap
+                pieces.add(new double[][]{{x[i]}, {Double.NaN}});
+                size++;
+                while (i < n && Double.isNaN(y[i])) {
+                    i++;
+                }
+                continue;
+            }
+            int start = i;
+            while (i < n && !Double.isNaN(y[i])) {
+                i++;
+            }
+            int length = i - start;
+            int budget = (int) Math.max(Math.min(length, 2), Math.round((double) threshold * length / valid));
+            double[][] run = lttb(x, y, start, i, budget);
+            pieces.add(run);
+            size += run[0].length;
+        }
+
+        double[] outX = new double[size];
+        double[] outY = new double[size];
+        int out = 0;
+        for (double[][] piece : pieces) {
+            System.arraycopy(piece[0], 0, outX, out, piece[0].length);
+            System.arraycopy(piece[1], 0, outY, out, piece[1].length);
+            out += piece[0].length;
+        }
+        return new double[][]{outX, outY};
+    }
+
+    /**
+     * LTTB over the (gap-free) slice [from, to) of the series.
+     */
+    private static double[][] lttb(double[] x, double[] y, int from, int to, int threshold) {
+        int n = to - from;
+        if (threshold >= n || threshold < 3) {
+            // Too short to reduce: copying the slice as it is
+            double[] sx = new double[n];
+            double[] sy = new double[n];
+            System.arraycopy(x, from, sx, 0, n);
+            System.arraycopy(y, from, sy, 0, n);
+            return new double[][]{sx, sy};
+        }
+
+        double[] sx = new double[threshold];
+        double[] sy = new double[threshold];
+        double every = (double) (n - 2) / (threshold - 2); // Bucket size, excluding the fixed first and last points
+
+        int a = from; // The previously selected point
+        sx[0] = x[a];
+        sy[0] = y[a];
+
+        for (int i = 0; i < threshold - 2; i++) {
+            // Average of the next bucket, the third corner of the triangle
+            int avgStart = from + (int) Math.floor((i + 1) * every) + 1;
+            int avgEnd = Math.min(from + (int) Math.floor((i + 2) * every) + 1, to);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += x[j];
+                avgY += y[j];
+            }
+            int avgLength = avgEnd - avgStart;
+            avgX /= avgLength;
+            avgY /= avgLength;
+
+            // Point of the current bucket forming the largest triangle with the previous point and the average
+            int rangeStart = from + (int) Math.floor(i * every) + 1;
+            int rangeEnd = from + (int) Math.floor((i + 1) * every) + 1;
+            double maxArea = -1;
+            int selected = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((x[a] - avgX) * (y[j] - y[a]) - (x[a] - x[j]) * (avgY - y[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    selected = j;
+                }
+            }
+
+            sx[i + 1] = x[selected];
+            sy[i + 1] = y[selected];
+            a = selected;
+        }
+
+        sx[threshold - 1] = x[to - 1];
+        sy[threshold - 1] = y[to - 1];
+        return new double[][]{sx, sy};
+    }
+}
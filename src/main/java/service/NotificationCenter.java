@@ -0,0 +1,78 @@
+package service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-app notification center: the service layer publishes events here instead of opening dialogs.
+ * Publishing never blocks on the UI and works with no display at all (events are then only logged and kept in the
+ * recent history). Screens register a NotificationListener to render the events, e.g. as toasts in BaseUI.
+ */
+public class NotificationCenter {
+
+    private static final int HISTORY_SIZE = 20; // Recent events kept for screens that open after they were published
+
+    private static final List<NotificationListener> listeners = new CopyOnWriteArrayList<>(); // Safe to publish while (un)registering
+    private static final Deque<NotificationEvent> recent = new ArrayDeque<>(); // Guarded by itself
+
+    private NotificationCenter() {
+        // Static utility, not meant to be instantiated
+    }
+
+    public static void addListener(NotificationListener listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(NotificationListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Publishes an event to every registered listener on the calling thread.
+     * A listener that throws does not stop the others from being notified.
+     *
+     * @param event The event to publish.
+     */
+    public static void publish(NotificationEvent event) {
+        System.out.println("Notification " + event);
+        synchronized (recent) {
+            recent.addLast(event);
+            if (recent.size() > HISTORY_SIZE) {
+                recent.removeFirst();
+            }
+        }
+        for (NotificationListener listener : listeners) {
+            try {
+                listener.onNotification(event);
+            } catch (RuntimeException e) {
+                e.printStackTrace(); // One broken listener must not affect the publisher
+            }
+        }
+    }
+
+    /**
+     * Convenience method for publishing a new event.
+     */
+    public static void publish(NotificationEvent.Level level, String title, String message) {
+        publish(new NotificationEvent(level, title, message));
+    }
+
+    /**
+     * @return The most recent events, oldest first.
+     */
+    public static List<NotificationEvent> getRecent() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+
+    /**
+     * Included for unit testing purposes.
+     */
+    public static int getListenerCount() {
+        return listeners.size();
+    }
+}
@@ -0,0 +1,50 @@
+package service;
+
+import java.time.LocalDateTime;
+
+/**
+ * An in-app notification for the user (e.g. "Doctor has been notified of low glucose value").
+ * Published through the NotificationCenter by the service layer, and rendered by whichever screens are listening.
+ */
+public class NotificationEvent {
+
+    /**
+     * How the notification should be presented.
+     */
+    public enum Level {
+        INFO, SUCCESS, WARNING, ERROR
+    }
+
+    private final Level level;
+    private final String title; // Short heading (e.g. "Doctor notified")
+    private final String message; // The text shown to the user
+    private final LocalDateTime time; // When the event was published
+
+    public NotificationEvent(Level level, String title, String message) {
+        this.level = level;
+        this.title = title;
+        this.message = message;
+        this.time = LocalDateTime.now();
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public LocalDateTime getTime() {
+        return time;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + level + "] " + title + ": " + message;
+    }
+}
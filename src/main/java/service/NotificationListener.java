@@ -0,0 +1,15 @@
+package service;
+
+/**
+ * Receives in-app notifications published through the NotificationCenter.
+ * Listeners are called on the publishing thread (often a background thread such as the outbox dispatcher),
+ * so they must return quickly and hand any UI work over to the Event Dispatch Thread themselves.
+ */
+@FunctionalInterface
+public interface NotificationListener {
+
+    /**
+     * @param event The notification that was published.
+     */
+    void onNotification(NotificationEvent event);
+}
@@ -0,0 +1,218 @@
+package service;
+
+import database.AlarmOutboxDAO;
+import database.DatabaseManager;
+import model.OutboxMessage;
+import notification.Notification;
+import notification.NotificationTransports;
+import notification.TransportUnavailableException;
+
+import javax.mail.MessagingException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Background dispatcher that drains the alarm_outbox table.
+ * A single daemon thread claims due alarms in batches, sends them through the configured NotificationTransport and
+ * acknowledges each one by id and claim token. Failed sends are retried with exponential backoff, and alarms that
+ * were claimed but never acknowledged (e.g. the app was closed mid-send) are picked up again once their lease expires.
+ *
+ * Such a re-send may reach the doctor twice, as mail servers do not drop repeated Message-IDs; each email's Message-ID
+ * is derived from its outbox id, so the copy can at least be told apart as a possible duplicate.
+ * Alarms the transport defers are released without using up an attempt. If one doctor is over their own rate limit,
+ * only their alarms wait; if the whole transport has to wait (global limit, circuit open), the dispatcher stops
+ * sending until the transport said to try again.
+ */
+public class OutboxDispatcher implements Runnable {
+
+    // Dispatch configuration
+    static final int BATCH_SIZE = 50; // Alarms claimed per round trip
+    static final long LEASE_MILLIS = 2 * 60_000L; // How long a claim lasts before another dispatcher may take it over
+    static final long POLL_INTERVAL_MILLIS = 30_000L; // Idle wait between checks when nobody wakes the dispatcher up
+    static final long BASE_BACKOFF_MILLIS = 30_000L; // First retry delay, doubled after every failed attempt
+    static final long MAX_BACKOFF_MILLIS = 60 * 60_000L; // Retries are never further apart than an hour
+    static final int MAX_ATTEMPTS = 8; // After this many failures the alarm is marked FAILED
+
+    private static OutboxDispatcher instance; // Process-wide dispatcher, started on first use
+
+    private final AlarmOutboxDAO outboxDAO = new AlarmOutboxDAO();
+    private final Object signal = new Object(); // Used to wake the dispatcher when new alarms are committed
+    private boolean wakeUpRequested; // Guarded by signal, so a wake-up during a batch is not lost
+    private long nextRetryAt = Long.MAX_VALUE; // Earliest time a deferred or failed alarm becomes due again (dispatcher thread only)
+    private long deferredUntil; // Set when the whole transport asked to wait during the last drain; nothing is sent before it (dispatcher thread only)
+    private volatile boolean running = true;
+    private Thread thread;
+
+    private OutboxDispatcher() {
+        // Created through start()
+    }
+
+    /**
+     * Starts the dispatcher thread if it is not running yet. Safe to call repeatedly.
+     *
+     * @return The running dispatcher.
+     */
+    public static synchronized OutboxDispatcher start() {
+        if (instance == null) {
+            instance = new OutboxDispatcher();
+            instance.thread = new Thread(instance, "alarm-outbox-dispatcher");
+            instance.thread.setDaemon(true); // Never keeps the app alive on exit; unsent alarms stay in the outbox
+            instance.thread.start();
+        }
+        return instance;
+    }
+
+    /**
+     * Asks the dispatcher to check the outbox now instead of waiting for the next poll.
+     * Called by LogService after it commits a log entry with alarms.
+     */
+    public void wakeUp() {
+        synchronized (signal) {
+            wakeUpRequested = true;
+            signal.notifyAll();
+        }
+    }
+
+    /**
+     * Stops the dispatcher thread after its current batch.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.running = false;
+            instance.wakeUp();
+            instance = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            int dispatched = 0;
+            // The dispatcher owns its connection, so it never closes the UI thread's connection
+            try (Connection conn = DatabaseManager.getInstance().openConnection()) {
+                dispatched = drain(conn);
+            } catch (SQLException e) {
+                e.printStackTrace();
+                System.err.println("Alarm outbox dispatcher could not reach the database.");
+            } catch (RuntimeException e) {
+                e.printStackTrace(); // Keeping the thread alive whatever a transport throws
+            }
+
+            if (dispatched == 0 || deferredUntil > 0) {
+                awaitWork();
+            }
+        }
+    }
+
+    /**
+     * Claims and sends batches until no due alarms are left.
+     * When a doctor is over their own rate limit, their other alarms in the batch are released unsent and the rest go
+     * on. When the whole transport has to wait, the rest of the batch is released, due when the deferred alarm is, as
+     * the transport would only defer it too, and the drain stops.
+     *
+     * @return The number of alarms processed (sent or failed); deferred and released alarms do not count.
+     */
+    int drain(Connection conn) throws SQLException {
+        int processed = 0;
+        Map<String, Long> waitingRecipients = new HashMap<>(); // Doctors over their own limit, with when they may receive again
+        List<OutboxMessage> batch;
+        do {
+            batch = outboxDAO.claimBatch(conn, BATCH_SIZE, System.currentTimeMillis(), LEASE_MILLIS);
+            for (int i = 0; i < batch.size(); i++) {
+                OutboxMessage message = batch.get(i);
+                Long recipientRetryAt = waitingRecipients.get(message.getRecipient());
+                if (recipientRetryAt != null) {
+                    outboxDAO.release(conn, message.getId(), message.getClaimToken(), recipientRetryAt); // Would only be deferred too
+                } else if (deliver(conn, message, waitingRecipients)) {
+                    processed++;
+                } else if (deferredUntil > 0) {
+                    for (OutboxMessage unsent : batch.subList(i + 1, batch.size())) {
+                        outboxDAO.release(conn, unsent.getId(), unsent.getClaimToken(), deferredUntil);
+                    }
+                    return processed;
+                }
+            }
+        } while (running && batch.size() == BATCH_SIZE); // A full batch means there may be more
+        return processed;
+    }
+
+    /**
+     * Sends one claimed alarm and records the outcome.
+     * A deferred alarm is released; its recipient is added to waitingRecipients if only they have to wait, and
+     * deferredUntil is set if the whole transport does.
+     *
+     * @return True if the alarm was sent or failed, false if it was deferred.
+     */
+    private boolean deliver(Connection conn, OutboxMessage message, Map<String, Long> waitingRecipients) throws SQLException {
+        Notification notification = new Notification(message.getRecipient(), message.getSubject(), message.getBody())
+                .setMessageId("<outbox-" + message.getId() + "@sugarbyte.app>");
+        try {
+            NotificationTransports.get().send(notification);
+        } catch (TransportUnavailableException e) {
+            // Rate limited or circuit open: not a failed attempt, just try again later
+            long retryAt = System.currentTimeMillis() + e.getRetryAfterMillis();
+            outboxDAO.release(conn, message.getId(), message.getClaimToken(), retryAt);
+            nextRetryAt = Math.min(nextRetryAt, retryAt);
+            if (e.getRecipient() != null) {
+                waitingRecipients.put(message.getRecipient(), retryAt); // Other doctors' alarms still go out
+            } else {
+                deferredUntil = retryAt;
+            }
+            System.out.println("Deferred alarm " + message.getId() + " by " + e.getRetryAfterMillis() + " ms: " + e.getMessage()
+                    + " [" + NotificationTransports.getMetrics() + "]");
+            return false;
+        } catch (MessagingException e) {
+            int attempt = message.getAttempts() + 1;
+            long delay = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << Math.min(attempt - 1, 20));
+            long retryAt = System.currentTimeMillis() + delay;
+            outboxDAO.markFailed(conn, message.getId(), message.getClaimToken(), e.getMessage(), retryAt, MAX_ATTEMPTS);
+            nextRetryAt = Math.min(nextRetryAt, retryAt);
+            System.err.println("Failed to send alarm " + message.getId() + " to " + message.getRecipient()
+                    + " (attempt " + attempt + " of " + MAX_ATTEMPTS + "): " + e.getMessage());
+            if (attempt >= MAX_ATTEMPTS) {
+                NotificationCenter.publish(NotificationEvent.Level.ERROR, "Alarm not sent",
+                        "Your doctor could not be notified (" + message.getSubject() + "). Please contact them directly.");
+            }
+            return true;
+        }
+
+        if (outboxDAO.markSent(conn, message.getId(), message.getClaimToken())) {
+            System.out.println("Alarm email sent to " + message.getRecipient() + " (outbox id " + message.getId() + ")");
+            AlarmService.notifyUser(message.getNotice());
+        } else {
+            // Our lease expired while sending and someone else re-claimed the row: the doctor may get this alarm twice
+            System.err.println("Lost the claim on alarm " + message.getId() + " while sending it; it may be sent again as a possible duplicate.");
+        }
+        return true;
+    }
+
+    /**
+     * Waits until woken up, until a deferred or failed alarm becomes due, or until the poll interval passes.
+     * If the whole transport asked to wait, it waits until then even if woken up: new alarms would only be deferred as
+     * well, and the drain after the wait picks them up.
+     */
+    private void awaitWork() {
+        long waitMillis = Math.max(1, Math.min(POLL_INTERVAL_MILLIS, nextRetryAt - System.currentTimeMillis()));
+        long until = deferredUntil;
+        nextRetryAt = Long.MAX_VALUE;
+        deferredUntil = 0;
+        synchronized (signal) {
+            try {
+                if (until > 0) {
+                    for (long left = until - System.currentTimeMillis(); running && left > 0; left = until - System.currentTimeMillis()) {
+                        signal.wait(left);
+                    }
+                } else if (!wakeUpRequested && running) {
+                    signal.wait(waitMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            wakeUpRequested = false;
+        }
+    }
+}
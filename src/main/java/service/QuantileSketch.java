@@ -0,0 +1,96 @@
+package service;
+
+/**
+ * A mergeable streaming quantile sketch for glucose readings.
+ * Readings are counted in fixed 0.1 mmol/L bins from 0 to 40 mmol/L (meters read roughly 1.1 to 33.3),
+ * so a sketch has a fixed size however many readings it has seen, adding is O(1), and two sketches merge
+ * by adding their counts, which is exact: a merged sketch is identical to one built from all readings.
+ * Quantiles are interpolated within their bin, so they are within one bin width (0.1 mmol/L, the display
+ * precision of a meter) of the exact value.
+ *
+ * Not thread-safe; sketches that are shared are only read, or copied before being changed.
+ */
+public class QuantileSketch {
+
+    static final double BIN_WIDTH = 0.1; // mmol/L
+    static final double MAX_VALUE = 40.0; // mmol/L, readings above are counted in the last bin
+    private static final int BIN_COUNT = (int) Math.round(MAX_VALUE / BIN_WIDTH);
+
+    private final int[] bins = new int[BIN_COUNT];
+    private long count;
+
+    /**
+     * Adds one reading. Values of 0 or less (no reading logged) are ignored.
+     *
+     * @param bloodSugar The reading in mmol/L.
+     */
+    public void add(double bloodSugar) {
+        if (!(bloodSugar > 0)) {
+            return; // Also skips NaN
+        }
+        int bin = Math.min(BIN_COUNT - 1, (int) (bloodSugar / BIN_WIDTH));
+        bins[bin]++;
+        count++;
+    }
+
+    /**
+     * Adds all readings of another sketch to this one.
+     *
+     * @param other The sketch to merge in; it is not changed.
+     */
+    public void merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        for (int i = 0; i < BIN_COUNT; i++) {
+            bins[i] += other.bins[i];
+        }
+        count += other.count;
+    }
+
+    /**
+     * @return An independent copy of this sketch.
+     */
+    public QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch();
+        copy.merge(this);
+        return copy;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Estimates a quantile of the readings seen so far.
+     *
+     * @param q The quantile, from 0 to 1 (e.g. 0.5 for the median, 0.95 for the 95th percentile).
+     * @return The estimated reading in mmol/L, or NaN if the sketch is empty.
+     */
+    public double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+        }
+        double rank = q * count; // Number of readings at or below the quantile
+        long seen = 0;
+        for (int i = 0; i < BIN_COUNT; i++) {
+            if (bins[i] == 0) {
+                continue;
+            }
+            if (seen + bins[i] >= rank) {
+                // Spreading the bin's readings evenly over its width
+                double fraction = (rank - seen) / bins[i];
+                return (i + fraction) * BIN_WIDTH;
+            }
+            seen += bins[i];
+        }
+        return MAX_VALUE; // Not reached, the last non-empty bin always covers the full count
+    }
+}
@@ -0,0 +1,67 @@
+package service;
+
+import database.LogEntryDAO;
+import model.DailySummary;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Glycemic statistics for a user over a date range (see GlycemicStatistics).
+ */
+public class StatisticsService {
+    private static final LogEntryDAO logEntryDAO = new LogEntryDAO();
+
+    /**
+     * Computes the statistics of a user's readings in a date range, streaming the readings from the database
+     * straight into the accumulator.
+     */
+    public static GlycemicStatistics forRange(int userId, String startDate, String endDate) {
+        System.out.println("Computing statistics for user " + userId + " from " + startDate + " to " + endDate);
+        GlycemicStatistics statistics = new GlycemicStatistics();
+        logEntryDAO.forEachReading(userId, startDate, endDate, statistics::add);
+        return statistics;
+    }
+
+    /**
+     * Loads a user's readings in a date range by slot, for screens that keep the statistics up to date from
+     * saved entries (a saved entry replaces the reading of its slot) instead of querying the range again.
+     *
+     * @return The readings keyed by slotKey(date, timeOfDay).
+     */
+    public static Map<String, Double> readingsBySlot(int userId, String startDate, String endDate) {
+        Map<String, Double> readings = new HashMap<>();
+        logEntryDAO.forEachSlotReading(userId, startDate, endDate,
+                (date, timeOfDay, bloodSugar) -> readings.put(slotKey(date, timeOfDay), bloodSugar));
+        return readings;
+    }
+
+    /**
+     * @return The key of a reading in readingsBySlot; a user has at most one entry per date and time of day.
+     */
+    public static String slotKey(String date, String timeOfDay) {
+        return date + " " + timeOfDay;
+    }
+
+    /**
+     * Computes the statistics of readings that are already in memory, without a query.
+     */
+    public static GlycemicStatistics fromReadings(Iterable<Double> readings) {
+        GlycemicStatistics statistics = new GlycemicStatistics();
+        for (double reading : readings) {
+            statistics.add(reading);
+        }
+        return statistics;
+    }
+
+    /**
+     * Computes the statistics from daily summaries that are already loaded (e.g. by the glucose graph), without a query.
+     */
+    public static GlycemicStatistics fromSummaries(Iterable<DailySummary> days) {
+        GlycemicStatistics statistics = new GlycemicStatistics();
+        for (DailySummary day : days) {
+            statistics.add(day);
+        }
+        return statistics;
+    }
+}
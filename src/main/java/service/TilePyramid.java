@@ -0,0 +1,321 @@
+package service;
+
+import database.LogEntryDAO;
+import model.DailySummary;
+import model.LogEntry;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Pre-aggregated glucose figures for zooming out over years of data.
+ * Days are grouped into buckets at day, week, month and quarter resolution, and buckets into fixed-size tiles
+ * of TILE_BUCKETS. A range is drawn at the finest resolution that fits the point budget, so any zoom level needs
+ * at most a few tiles, each built with one aggregate query. Tiles are kept in an LRU cache (most recently used
+ * first to stay), and saving an entry recomputes only the buckets of cached tiles that contain its day. A cached
+ * tile is never changed: the save swaps in a copy with the new buckets.
+ */
+public class TilePyramid {
+
+    public static final int TILE_BUCKETS = 32; // Buckets per tile
+    private static final int MAX_CACHED_TILES = 256; // A few KB each, for all users together
+
+    private static final LogEntryDAO logEntryDAO = new LogEntryDAO();
+
+    // Cached tiles by user and key
+    private static final UserCache<TileKey, Bucket[]> tiles = new UserCache<>(MAX_CACHED_TILES);
+
+    private TilePyramid() {
+        // Static utility, not meant to be instantiated
+    }
+
+    /**
+     * The bucket sizes of the pyramid, finest first.
+     */
+    public enum Resolution {
+        DAY, WEEK, MONTH, QUARTER;
+
+        /**
+         * @return The index of the bucket a day belongs to, counted from the epoch.
+         */
+        public long indexOf(LocalDate day) {
+            switch (this) {
+                case WEEK:
+                    return Math.floorDiv(day.toEpochDay() + 3, 7); // Weeks start on Monday; 1 Jan 1970 was a Thursday
+                case MONTH:
+                    return day.getYear() * 12L + day.getMonthValue() - 1;
+                case QUARTER:
+                    return day.getYear() * 4L + (day.getMonthValue() - 1) / 3;
+                default:
+                    return day.toEpochDay();
+            }
+        }
+
+        /**
+         * @return The first day of a bucket.
+         */
+        public LocalDate startOf(long index) {
+            switch (this) {
+                case WEEK:
+                    return LocalDate.ofEpochDay(index * 7 - 3);
+                case MONTH:
+                    return LocalDate.of((int) Math.floorDiv(index, 12), Math.floorMod(index, 12) + 1, 1);
+                case QUARTER:
+                    return LocalDate.of((int) Math.floorDiv(index, 4), Math.floorMod(index, 4) * 3 + 1, 1);
+                default:
+                    return LocalDate.ofEpochDay(index);
+            }
+        }
+
+        /**
+         * @return The last day of a bucket.
+         */
+        public LocalDate endOf(long index) {
+            return startOf(index + 1).minusDays(1);
+        }
+
+        /**
+         * @return The finest resolution at which a range has no more than maxBuckets buckets (QUARTER if none does).
+         */
+        public static Resolution forRange(LocalDate startDate, LocalDate endDate, int maxBuckets) {
+            for (Resolution resolution : values()) {
+                if (resolution.indexOf(endDate) - resolution.indexOf(startDate) + 1 <= maxBuckets) {
+                    return resolution;
+                }
+            }
+            return QUARTER;
+        }
+    }
+
+    /**
+     * The aggregated figures of one bucket. Immutable, so cached buckets can be handed out as they are.
+     */
+    public static class Bucket {
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final GlycemicStatistics statistics = new GlycemicStatistics(); // Readings of the bucket
+        private double minBloodSugar = Double.NaN;
+        private double maxBloodSugar = Double.NaN;
+        private double totalCarbs;
+        private double totalInsulin;
+        private int daysWithEntries;
+
+        Bucket(LocalDate startDate, LocalDate endDate) {
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+
+        /**
+         * Folds one day into the bucket; only used while the bucket is being built.
+         */
+        void add(DailySummary day) {
+            daysWithEntries++;
+            totalCarbs += day.getTotalCarbs();
+            totalInsulin += day.getTotalInsulin();
+            if (day.hasReadings()) {
+                statistics.add(day);
+                minBloodSugar = Double.isNaN(minBloodSugar) ? day.getMinBloodSugar() : Math.min(minBloodSugar, day.getMinBloodSugar());
+                maxBloodSugar = Double.isNaN(maxBloodSugar) ? day.getMaxBloodSugar() : Math.max(maxBloodSugar, day.getMaxBloodSugar());
+            }
+        }
+
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+
+        public LocalDate getEndDate() {
+            return endDate;
+        }
+
+        /**
+         * @return The middle day of the bucket, where its point is plotted.
+         */
+        public LocalDate getMidDate() {
+            return startDate.plusDays((endDate.toEpochDay() - startDate.toEpochDay()) / 2);
+        }
+
+        public boolean hasReadings() {
+            return statistics.getCount() > 0;
+        }
+
+        /**
+         * @return The mean reading (mmol/L), or NaN without readings.
+         */
+        public double getMeanBloodSugar() {
+            return statistics.getMean();
+        }
+
+        public double getMinBloodSugar() {
+            return minBloodSugar;
+        }
+
+        public double getMaxBloodSugar() {
+            return maxBloodSugar;
+        }
+
+        /**
+         * @return The mean daily carbs (g) over the days with entries, or NaN without entries.
+         */
+        public double getAverageDailyCarbs() {
+            return daysWithEntries > 0 ? totalCarbs / daysWithEntries : Double.NaN;
+        }
+
+        /**
+         * @return The mean daily insulin (units) over the days with entries, or NaN without entries.
+         */
+        public double getAverageDailyInsulin() {
+            return daysWithEntries > 0 ? totalInsulin / daysWithEntries : Double.NaN;
+        }
+
+        /**
+         * Adds the bucket's readings to an accumulator, e.g. for the statistics of the buckets on screen.
+         */
+        public void addTo(GlycemicStatistics target) {
+            target.merge(statistics);
+        }
+    }
+
+    /**
+     * Returns the buckets that cover a date range, at the finest resolution with no more than maxBuckets buckets.
+     *
+     * @param userId     The user.
+     * @param startDate  The first day of the range.
+     * @param endDate    The last day of the range.
+     * @param maxBuckets The most buckets the caller can show (e.g. its point budget).
+     * @return The buckets in date order, including empty ones; the first and last may reach beyond the range.
+     */
+    public static List<Bucket> getBuckets(int userId, LocalDate startDate, LocalDate endDate, int maxBuckets) {
+        Resolution resolution = Resolution.forRange(startDate, endDate, maxBuckets);
+        long firstBucket = resolution.indexOf(startDate);
+        long lastBucket = resolution.indexOf(endDate);
+
+        List<Bucket> buckets = new ArrayList<>();
+        for (long tile = Math.floorDiv(firstBucket, TILE_BUCKETS); tile <= Math.floorDiv(lastBucket, TILE_BUCKETS); tile++) {
+            Bucket[] tileBuckets = tiles.get(userId, new TileKey(resolution, tile), key -> buildTile(userId, key));
+            for (Bucket bucket : tileBuckets) {
+                long index = resolution.indexOf(bucket.getStartDate());
+                if (index >= firstBucket && index <= lastBucket) {
+                    buckets.add(bucket);
+                }
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * Updates the cached tiles after an entry has been saved: the buckets that contain its day are rebuilt
+     * from one aggregate query over the largest of them. Tiles that are not cached are left alone.
+     * The query runs outside the lock; if another entry of the user is saved meanwhile, the affected tiles are
+     * dropped instead (they are built again when next shown), as the rebuilt buckets may already be out of date.
+     *
+     * @param entry The saved entry.
+     */
+    public static void entrySaved(LogEntry entry) {
+        int userId = entry.getUserId();
+        LocalDate day = entry.getDate() != null ? LocalDate.parse(entry.getDate()) : null;
+
+        // Finding the cached tiles that contain the day, and the span of their buckets
+        List<TileKey> affected = new ArrayList<>();
+        LocalDate spanStart = day;
+        LocalDate spanEnd = day;
+        int version = tiles.invalidate(userId);
+        if (day == null) {
+            return;
+        }
+        for (Resolution resolution : Resolution.values()) {
+            long index = resolution.indexOf(day);
+            TileKey key = new TileKey(resolution, Math.floorDiv(index, TILE_BUCKETS));
+            if (tiles.get(userId, key) != null) {
+                affected.add(key);
+                spanStart = min(spanStart, resolution.startOf(index));
+                spanEnd = max(spanEnd, resolution.endOf(index));
+            }
+        }
+        if (affected.isEmpty()) {
+            return;
+        }
+
+        // Querying outside the cache's lock, so readers of other tiles and later saves do not wait for it
+        List<DailySummary> days = logEntryDAO.getDailySummaries(userId, spanStart.toString(), spanEnd.toString());
+        for (TileKey key : affected) {
+            long index = key.resolution.indexOf(day);
+            Bucket bucket = buildBucket(key.resolution, index, days);
+            tiles.replaceIfCurrent(userId, key, version, tile -> {
+                Bucket[] updated = tile.clone(); // Readers may hold the cached array
+                updated[Math.floorMod(index, TILE_BUCKETS)] = bucket;
+                return updated;
+            });
+        }
+    }
+
+    /**
+     * Builds a tile with one aggregate query.
+     */
+    private static Bucket[] buildTile(int userId, TileKey key) {
+        long firstBucket = key.tile * TILE_BUCKETS;
+        LocalDate start = key.resolution.startOf(firstBucket);
+        LocalDate end = key.resolution.endOf(firstBucket + TILE_BUCKETS - 1);
+        List<DailySummary> days = logEntryDAO.getDailySummaries(userId, start.toString(), end.toString());
+        Bucket[] built = new Bucket[TILE_BUCKETS];
+        for (int i = 0; i < TILE_BUCKETS; i++) {
+            built[i] = new Bucket(key.resolution.startOf(firstBucket + i), key.resolution.endOf(firstBucket + i));
+        }
+        for (DailySummary day : days) {
+            built[(int) (key.resolution.indexOf(LocalDate.parse(day.getDate())) - firstBucket)].add(day);
+        }
+        return built;
+    }
+
+    /**
+     * Builds one bucket from the daily summaries of a span that contains it.
+     */
+    private static Bucket buildBucket(Resolution resolution, long index, List<DailySummary> days) {
+        Bucket bucket = new Bucket(resolution.startOf(index), resolution.endOf(index));
+        for (DailySummary day : days) {
+            if (resolution.indexOf(LocalDate.parse(day.getDate())) == index) {
+                bucket.add(day);
+            }
+        }
+        return bucket;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    /**
+     * Identifies a tile of a user: a resolution and the tile's position at that resolution.
+     */
+    private static final class TileKey {
+        private final Resolution resolution;
+        private final long tile;
+
+        TileKey(Resolution resolution, long tile) {
+            this.resolution = resolution;
+            this.tile = tile;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TileKey)) {
+                return false;
+            }
+            TileKey other = (TileKey) o;
+            return resolution == other.resolution && tile == other.tile;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(resolution, tile);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package service;
+
+import model.MealSlot;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming trend detector for incoming glucose readings.
+ * AlarmService only compares each reading against fixed bounds, so a fast fall that is still "in range" goes unnoticed.
+ * This class keeps a small sliding window of the most recent readings per user in primitive ring buffers, together with
+ * running sums, so the slope (least-squares rate of change), mean, standard deviation and coefficient of variation can be
+ * updated in O(1) per reading - no history is ever re-queried from the database.
+ */
+public class TrendDetector {
+
+    // Window configuration
+    static final int WINDOW_SIZE = 6; // Number of recent readings kept per user (roughly one day of logbook rows)
+    static final int MIN_READINGS = 3; // Minimum readings before a slope is considered meaningful
+    static final double MAX_GAP_HOURS = 24.0; // A gap longer than this restarts the window (a trend across days is meaningless)
+
+    // Trend thresholds
+    static final double RAPID_DROP_RATE = -1.5; // mmol/L per hour between the last two readings
+    static final double PREDICTION_HORIZON_HOURS = 2.0; // How far ahead the current slope is projected
+    static final double HIGH_VARIABILITY_CV = 0.36; // CV above 36% is the usual clinical marker for unstable glucose
+
+    /**
+     * The kinds of trend the detector can report, in order of urgency.
+     */
+    public enum TrendType {
+        PREDICTED_LOW, // Still in range, but the current slope reaches hypoglycaemia within the prediction horizon
+        RAPID_DROP,    // Falling faster than RAPID_DROP_RATE since the previous reading
+        HIGH_VARIABILITY // The window is full and its coefficient of variation is above HIGH_VARIABILITY_CV
+    }
+
+    /**
+     * Immutable result of a trend check, carrying the rolling statistics that triggered it.
+     */
+    public static class TrendAlert {
+        private final TrendType type;
+        private final double latest; // The reading that triggered the alert (mmol/L)
+        private final double slopePerHour; // Least-squares slope over the window (mmol/L per hour)
+        private final double mean; // Rolling mean over the window (mmol/L)
+        private final double standardDeviation; // Rolling standard deviation over the window (mmol/L)
+        private final int readings; // Number of readings in the window
+
+        TrendAlert(TrendType type, double latest, double slopePerHour, double mean, double standardDeviation, int readings) {
+            this.type = type;
+            this.latest = latest;
+            this.slopePerHour = slopePerHour;
+            this.mean = mean;
+            this.standardDeviation = standardDeviation;
+            this.readings = readings;
+        }
+
+        public TrendType getType() {
+            return type;
+        }
+
+        public double getLatest() {
+            return latest;
+        }
+
+        public double getSlopePerHour() {
+            return slopePerHour;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public double getStandardDeviation() {
+            return standardDeviation;
+        }
+
+        public double getCoefficientOfVariation() {
+            return mean > 0 ? standardDeviation / mean : 0.0;
+        }
+
+        public int getReadings() {
+            return readings;
+        }
+    }
+
+    // One sliding window per user id
+    private final Map<Integer, Window> windows = new HashMap<>();
+
+    /**
+     * Adds a reading to the user's window and checks it for a trend.
+     * Readings that cannot be placed on a time line (no date, unknown slot, no glucose value) are ignored, as are
+     * readings older than the newest one already in the window (e.g. a past day being edited in the logbook).
+     *
+     * @param userId     The user the reading belongs to.
+     * @param date       The ISO date of the reading (e.g. "2025-01-12").
+     * @param timeOfDay  The logbook slot of the reading (e.g. "Lunch Pre").
+     * @param bloodSugar The glucose value in mmol/L.
+     * @return The most urgent trend found after adding the reading, or null if there is none.
+     */
+    public synchronized TrendAlert record(int userId, String date, String timeOfDay, double bloodSugar) {
+        return add(windows.computeIfAbsent(userId, id -> new Window(WINDOW_SIZE)), date, timeOfDay, bloodSugar);
+    }
+
+    /**
+     * Checks a reading for a trend as record would, without adding it to the user's window (e.g. before the
+     * reading is saved; it is recorded once the save has committed).
+     *
+     * @return The most urgent trend the reading would show, or null if there is none.
+     */
+    public synchronized TrendAlert check(int userId, String date, String timeOfDay, double bloodSugar) {
+        Window window = windows.get(userId);
+        return add(window != null ? window.copy() : new Window(WINDOW_SIZE), date, timeOfDay, bloodSugar);
+    }
+
+    /**
+     * Adds a reading to a window and checks the window for a trend.
+     */
+    private static TrendAlert add(Window window, String date, String timeOfDay, double bloodSugar) {
+        double hours = toHours(date, timeOfDay);
+        if (Double.isNaN(hours) || bloodSugar <= 0) {
+            return null; // Nothing to place on the time line
+        }
+
+        if (window.count > 0) {
+            double lastTime = window.lastTime();
+            if (hours <= lastTime) {
+                return null; // Out-of-order or re-saved reading, it does not extend the trend
+            }
+            if (hours - lastTime > MAX_GAP_HOURS) {
+                window.clear(); // Too long since the last reading, start a fresh window
+            }
+        }
+
+        double previousValue = window.count > 0 ? window.lastValue() : Double.NaN;
+        double previousTime = window.count > 0 ? window.lastTime() : Double.NaN;
+        window.add(hours, bloodSugar);
+
+        if (window.count < MIN_READINGS) {
+            return null; // Not enough readings for a trend yet
+        }
+
+        double slope = window.slope();
+        double mean = window.mean();
+        double sd = window.standardDeviation();
+
+        // 1. Falling towards a hypo while still in range
+        if (slope < 0 && bloodSugar >= AlarmService.getMinThreshold()
+                && bloodSugar + slope * PREDICTION_HORIZON_HOURS < AlarmService.getMinThreshold()) {
+            return new TrendAlert(TrendType.PREDICTED_LOW, bloodSugar, slope, mean, sd, window.count);
+        }
+
+        // 2. Sharp fall since the previous reading, confirmed by the window slope
+        double lastRate = (bloodSugar - previousValue) / (hours - previousTime);
+        if (slope < 0 && lastRate <= RAPID_DROP_RATE) {
+            return new TrendAlert(TrendType.RAPID_DROP, bloodSugar, slope, mean, sd, window.count);
+        }
+
+        // 3. Unstable glucose over a full window
+        if (window.count == WINDOW_SIZE && mean > 0 && sd / mean > HIGH_VARIABILITY_CV) {
+            return new TrendAlert(TrendType.HIGH_VARIABILITY, bloodSugar, slope, mean, sd, window.count);
+        }
+        return null;
+    }
+
+    /**
+     * Forgets the window of a user (e.g. after their history was edited in bulk).
+     *
+     * @param userId The user whose window should be dropped.
+     */
+    public synchronized void reset(int userId) {
+        windows.remove(userId);
+    }
+
+    /**
+     * Converts a date and logbook slot into hours since the epoch, which is the x-axis of the trend.
+     *
+     * @return The time in hours, or NaN if the reading cannot be placed.
+     */
+    static double toHours(String date, String timeOfDay) {
+        if (date == null) {
+            return Double.NaN;
+        }
+        int hourOfDay = MealSlot.hourOf(timeOfDay);
+        if (hourOfDay < 0) {
+            return Double.NaN;
+        }
+        try {
+            return LocalDate.parse(date).toEpochDay() * 24.0 + hourOfDay;
+        } catch (DateTimeParseException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Fixed-size ring buffer of (time, value) pairs with running sums for O(1) regression and variance.
+     * Times are stored relative to the first reading of the window to keep the sums small and precise.
+     */
+    private static class Window {
+        private final double[] times;
+        private final double[] values;
+        private int head; // Index of the oldest reading
+        private int count; // Number of readings currently held
+        private double origin; // Absolute time (hours) that relative times are measured from
+
+        // Running sums over the readings in the window
+        private double sumX;
+        private double sumY;
+        private double sumXX;
+        private double sumXY;
+        private double sumYY;
+
+        Window(int capacity) {
+            times = new double[capacity];
+            values = new double[capacity];
+        }
+
+        /**
+         * @return An independent copy of this window, for checking a reading without recording it.
+         */
+        Window copy() {
+            Window copy = new Window(times.length);
+            System.arraycopy(times, 0, copy.times, 0, times.length);
+            System.arraycopy(values, 0, copy.values, 0, values.length);
+            copy.head = head;
+            copy.count = count;
+            copy.origin = origin;
+            copy.sumX = sumX;
+            copy.sumY = sumY;
+            copy.sumXX = sumXX;
+            copy.sumXY = sumXY;
+            copy.sumYY = sumYY;
+            return copy;
+        }
+
+        void add(double absoluteHours, double value) {
+            if (count == 0) {
+                origin = absoluteHours;
+            }
+            double x = absoluteHours - origin;
+            if (count == times.length) {
+                // Evicting the oldest reading and removing it from the running sums
+                double oldX = times[head];
+                double oldY = values[head];
+                sumX -= oldX;
+                sumY -= oldY;
+                sumXX -= oldX * oldX;
+                sumXY -= oldX * oldY;
+                sumYY -= oldY * oldY;
+                times[head] = x;
+                values[head] = value;
+                head = (head + 1) % times.length;
+            } else {
+                int tail = (head + count) % times.length;
+                times[tail] = x;
+                values[tail] = value;
+                count++;
+            }
+            sumX += x;
+            sumY += value;
+            sumXX += x * x;
+            sumXY += x * value;
+            sumYY += value * value;
+        }
+
+        void clear() {
+            head = 0;
+            count = 0;
+            sumX = sumY = sumXX = sumXY = sumYY = 0;
+        }
+
+        double lastTime() {
+            return times[(head + count - 1) % times.length] + origin;
+        }
+
+        double lastValue() {
+            return values[(head + count - 1) % times.length];
+        }
+
+        double mean() {
+            return sumY / count;
+        }
+
+        double standardDeviation() {
+            double variance = (sumYY - sumY * sumY / count) / count;
+            return variance > 0 ? Math.sqrt(variance) : 0.0; // Guarding against tiny negative rounding errors
+        }
+
+        double slope() {
+            double denominator = count * sumXX - sumX * sumX;
+            if (denominator == 0) {
+                return 0.0;
+            }
+            return (count * sumXY - sumX * sumY) / denominator;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * A bounded cache of values built from a user's entries (a month of calendar statuses, a week of the logbook, a
+ * graph tile, ...), shared by the services that keep such figures in memory.
+ * Values are keyed by user and key, and the least recently used values are evicted beyond maxEntries (for all users
+ * together). Each user has a version that every save bumps: a value loaded from the database is only cached if the
+ * user's version is still the one read before the query, so a load that raced with a save never caches stale data.
+ * Queries always run outside the cache's lock. Cached values are shared, so they must not be changed.
+ *
+ * @param <K> The key of a value within a user's data, e.g. a YearMonth.
+ * @param <V> The cached value.
+ */
+public class UserCache<K, V> {
+
+    // One daemon thread for the prefetches of every cache: they are small, and running them in turn keeps them off the database's back
+    private static final ExecutorService prefetcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-prefetch");
+        thread.setDaemon(true); // Never keeps the JVM alive
+        return thread;
+    });
+
+    private final LinkedHashMap<Key<K>, V> entries; // Least recently used first
+    private final Map<Integer, Integer> versions = new HashMap<>(); // By user; missing means 0
+    private final Set<Key<K>> prefetching = new HashSet<>(); // Keys queued on the prefetcher
+
+    /**
+     * @param maxEntries The most values kept, for all users together.
+     */
+    public UserCache(int maxEntries) {
+        this.entries = new LinkedHashMap<Key<K>, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key<K>, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return The cached value, or null if it has not been loaded (or was dropped since).
+     */
+    public synchronized V get(int userId, K key) {
+        return entries.get(new Key<>(userId, key));
+    }
+
+    /**
+     * Returns the cached value, loading and caching it if it is missing.
+     *
+     * @param loader Loads the value from the database; called outside the lock.
+     */
+    public V get(int userId, K key, Function<? super K, ? extends V> loader) {
+        int version;
+        synchronized (this) {
+            V cached = get(userId, key);
+            if (cached != null) {
+                return cached;
+            }
+            version = version(userId);
+        }
+        V loaded = loader.apply(key);
+        putIfCurrent(userId, key, loaded, version);
+        return loaded;
+    }
+
+    /**
+     * Loads a value in the background if it is neither cached nor already queued.
+     *
+     * @param loader Loads the value from the database, on the prefetch thread.
+     */
+    public void prefetch(int userId, K key, Function<? super K, ? extends V> loader) {
+        Key<K> entryKey = new Key<>(userId, key);
+        synchronized (this) {
+            if (entries.containsKey(entryKey) || !prefetching.add(entryKey)) {
+                return;
+            }
+        }
+        prefetcher.execute(() -> {
+            try {
+                get(userId, key, loader);
+            } finally {
+                synchronized (this) {
+                    prefetching.remove(entryKey);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return The user's current version, to pass to putIfCurrent after a query.
+     */
+    public synchronized int version(int userId) {
+        return versions.getOrDefault(userId, 0);
+    }
+
+    /**
+     * Caches a value loaded by the caller, unless the user's entries changed since the version was read.
+     */
+    public synchronized void putIfCurrent(int userId, K key, V value, int version) {
+        if (value != null && version(userId) == version) {
+            entries.put(new Key<>(userId, key), value);
+        }
+    }
+
+    /**
+     * Records that a user's entries changed, without dropping anything.
+     *
+     * @return The user's new version.
+     */
+    public synchronized int invalidate(int userId) {
+        return versions.merge(userId, 1, Integer::sum);
+    }
+
+    /**
+     * Records that a user's entries changed and drops the value they affect; it is loaded again when next needed.
+     */
+    public synchronized void invalidate(int userId, K key) {
+        invalidate(userId);
+        entries.remove(new Key<>(userId, key));
+    }
+
+    /**
+     * Records that a user's entries changed and updates the cached value they affect, without a query.
+     *
+     * @param update Gets the cached value and returns its replacement, or null to drop it. Not called if the value
+     *               is not cached. Runs under the lock, so it must be quick.
+     */
+    public synchronized void update(int userId, K key, UnaryOperator<V> update) {
+        invalidate(userId);
+        replace(new Key<>(userId, key), update);
+    }
+
+    /**
+     * Updates a cached value with figures queried after the given version was read (see invalidate(int)). If the
+     * user's entries changed again meanwhile, the value is dropped instead, as the figures may be out of date.
+     *
+     * @param update Gets the cached value and returns its replacement, or null to drop it.
+     */
+    public synchronized void replaceIfCurrent(int userId, K key, int version, UnaryOperator<V> update) {
+        Key<K> entryKey = new Key<>(userId, key);
+        if (version(userId) == version) {
+            replace(entryKey, update);
+        } else {
+            entries.remove(entryKey);
+        }
+    }
+
+    private void replace(Key<K> entryKey, UnaryOperator<V> update) {
+        V cached = entries.get(entryKey);
+        if (cached == null) {
+            return;
+        }
+        V replacement = update.apply(cached);
+        if (replacement != null) {
+            entries.put(entryKey, replacement);
+        } else {
+            entries.remove(entryKey);
+        }
+    }
+
+    /**
+     * A user and a key within the user's data.
+     */
+    private static final class Key<K> {
+        private final int userId;
+        private final K key;
+
+        Key(int userId, K key) {
+            this.userId = userId;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key<?> other = (Key<?>) o;
+            return userId == other.userId && Objects.equals(key, other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, key);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package service;
+
+import database.LogEntryDAO;
+import model.LogEntry;
+import model.MealSlot;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The log entries of whole weeks (Monday to Sunday), for the week logbook.
+ * A week is one range query (LogEntryDAO.getEntriesInRange), placed by day and meal slot. Only a few recent weeks
+ * are kept, as a week holds whole entries: enough for the week on screen and its neighbours, which are prefetched
+ * so the arrows usually flip to a week that is loaded already. Saving an entry drops the cached week of its day.
+ */
+public class WeekLogService {
+
+    private static final int MAX_CACHED_WEEKS = 12; // The shown week and its neighbours, with room to flip back
+
+    private static final LogEntryDAO logEntryDAO = new LogEntryDAO();
+
+    // Entries by user and week (its Monday), then by day and meal slot
+    private static final UserCache<LocalDate, Map<LocalDate, Map<MealSlot, LogEntry>>> weeks = new UserCache<>(MAX_CACHED_WEEKS);
+
+    private WeekLogService() {
+        // Static utility, not meant to be instantiated
+    }
+
+    /**
+     * @return The Monday of the week a day belongs to.
+     */
+    public static LocalDate weekOf(LocalDate day) {
+        return day.with(DayOfWeek.MONDAY);
+    }
+
+    /**
+     * Returns the entries of a week, loading it with one query if it is not cached.
+     * The entries are shared with the cache, so they must not be changed.
+     *
+     * @param userId The user.
+     * @param week   The Monday of the week.
+     * @return The entries of each day by meal slot; days that are not in the map have no entries.
+     */
+    public static Map<LocalDate, Map<MealSlot, LogEntry>> getWeek(int userId, LocalDate week) {
+        return weeks.get(userId, week, w -> loadWeek(userId, w));
+    }
+
+    /**
+     * Returns the entries of a week if they are cached, without querying.
+     *
+     * @param userId The user.
+     * @param week   The Monday of the week.
+     * @return The entries of each day by meal slot, or null if the week is not cached (or has changed since).
+     */
+    public static Map<LocalDate, Map<MealSlot, LogEntry>> getCachedWeek(int userId, LocalDate week) {
+        return weeks.get(userId, week);
+    }
+
+    /**
+     * Loads the weeks before and after a week in the background, if they are not cached yet.
+     *
+     * @param userId The user.
+     * @param week   The Monday of the week on screen.
+     */
+    public static void prefetchAround(int userId, LocalDate week) {
+        weeks.prefetch(userId, week.minusWeeks(1), w -> loadWeek(userId, w));
+        weeks.prefetch(userId, week.plusWeeks(1), w -> loadWeek(userId, w));
+    }
+
+    /**
+     * Drops the cached week of a saved entry's day, as the entry may have added or replaced one of its cells.
+     *
+     * @param entry The saved entry.
+     */
+    public static void entrySaved(LogEntry entry) {
+        if (entry.getDate() != null) {
+            weeks.invalidate(entry.getUserId(), weekOf(LocalDate.parse(entry.getDate())));
+        } else {
+            weeks.invalidate(entry.getUserId());
+        }
+    }
+
+    /**
+     * Loads the entries of a week with one range query.
+     * Each entry goes to its meal slot; a non-standard label (e.g. "Bedtime Pre" from the quick log) goes to the
+     * nearest slot, unless an entry with that exact slot is logged on the same day.
+     */
+    private static Map<LocalDate, Map<MealSlot, LogEntry>> loadWeek(int userId, LocalDate week) {
+        Map<LocalDate, Map<MealSlot, LogEntry>> days = new HashMap<>();
+        for (LogEntry entry : logEntryDAO.getEntriesInRange(userId, week.toString(), week.plusDays(6).toString())) {
+            MealSlot slot = AgpService.slotOf(entry.getTimeOfDay());
+            if (slot == null) {
+                continue; // A label that cannot be placed in any row
+            }
+            Map<MealSlot, LogEntry> day = days.computeIfAbsent(LocalDate.parse(entry.getDate()), date -> new EnumMap<>(MealSlot.class));
+            if (MealSlot.fromLabel(entry.getTimeOfDay()) != null || !day.containsKey(slot)) {
+                day.put(slot, entry);
+            }
+        }
+        days.replaceAll((date, slots) -> Collections.unmodifiableMap(slots));
+        return Collections.unmodifiableMap(days);
+    }
+}
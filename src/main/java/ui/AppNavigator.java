@@ -0,0 +1,255 @@
+package ui;
+
+import model.User;
+
+import javax.management.NotificationEmitter;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Navigation between the screens of a logged-in user, in one app window.
+ * Each screen (a BaseUI) is built once and its content is added to the window as a card of a CardLayout, so
+ * switching tabs only flips the visible card: no window is created or destroyed and nothing is rebuilt.
+ * Built screens are kept in an LRU cache of MAX_CACHED_SCREENS; a screen that comes back from the cache gets
+ * BaseUI.onShown, to catch up with changes made elsewhere. Hidden screens are released when the heap is nearly
+ * full after a garbage collection. All methods must be called on the EDT.
+ */
+public class AppNavigator {
+
+    private static final int MAX_CACHED_SCREENS = 6; // The four tabs, the last logbook and the week logbook
+    private static final double MEMORY_PRESSURE_RATIO = 0.8; // Share of the heap still in use after a GC that counts as pressure
+    private static final String LOGBOOK = "Logbook"; // One logbook at a time, rebuilt for every date
+    private static final String WEEK_LOGBOOK = "WeekLogbook"; // Kept from week to week; it moves to the asked week
+
+    private static AppNavigator instance; // The session of the logged-in user, or null
+    private static boolean watchingMemory; // Whether the memory listener has been registered (once per JVM)
+
+    private final User user;
+    private final JFrame frame = new JFrame();
+    private final CardLayout cards = new CardLayout();
+    private final JPanel cardPanel = new JPanel(cards);
+    private final LinkedHashMap<String, BaseUI> screens = new LinkedHashMap<>(16, 0.75f, true); // Least recently shown first
+    private String currentKey; // The screen on view
+
+    private AppNavigator(User user) {
+        this.user = user;
+
+        // The same window settings as every BaseUI screen
+        frame.setSize(400, 800);
+        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        frame.setLocationRelativeTo(null);
+        frame.setResizable(false);
+        frame.setContentPane(cardPanel);
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                releaseScreens(false); // Stops the screens' listeners and background loads
+                if (instance == AppNavigator.this) {
+                    instance = null;
+                }
+            }
+        });
+    }
+
+    /**
+     * Starts the session of a user who just logged in (closing any previous session) and shows Home.
+     *
+     * @param user The logged-in user, shared by all screens of the session.
+     * @return The navigator of the session.
+     */
+    public static AppNavigator start(User user) {
+        if (instance != null) {
+            instance.close();
+        }
+        watchMemory();
+        instance = new AppNavigator(user);
+        instance.showScreen("Home");
+        instance.frame.setVisible(true);
+        return instance;
+    }
+
+    /**
+     * @return The navigator of the current session, or null when no user is logged in.
+     */
+    public static AppNavigator getInstance() {
+        return instance;
+    }
+
+    /**
+     * Shows one of the tab screens, building it only if it is not cached.
+     *
+     * @param name "Home", "Calendar", "GlucoseGraph" or "Profile".
+     */
+    public void showScreen(String name) {
+        switch (name) {
+            case "Home":
+                show(name, () -> new Home(user), false);
+                break;
+            case "Calendar":
+                show(name, () -> new Calendar(user), false);
+                break;
+            case "GlucoseGraph":
+                show(name, () -> new GlucoseGraph(user), false);
+                break;
+            case "Profile":
+                show(name, () -> new Profile(user), false);
+                break;
+            default:
+                System.err.println("Unknown screen: " + name);
+                break;
+        }
+    }
+
+    /**
+     * Opens the logbook of a day, in the layout the user picked in their profile.
+     * Logbooks are always built for the given day, replacing the previous one.
+     *
+     * @param date The day, as yyyy-MM-dd.
+     */
+    public void openLogbook(String date) {
+        String logbookType = user.getLogbookType(); // "Simple", "Comprehensive", or "Intensive"
+        switch (logbookType) {
+            case "Simple":
+                show(LOGBOOK, () -> new Logbook(user, date), true);
+                break;
+            case "Comprehensive":
+                show(LOGBOOK, () -> new ComprehensiveLogbook(user, date), true);
+                break;
+            case "Intensive":
+                show(LOGBOOK, () -> new IntensiveLogbook(user, date), true);
+                break;
+            default:
+                JOptionPane.showMessageDialog(frame,
+                        "Unknown logbook type: " + logbookType,
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE);
+                break;
+        }
+    }
+
+    /**
+     * Opens the week logbook at the week of a day. A cached week logbook is reused: it only moves to that week.
+     *
+     * @param day Any day of the week to show.
+     */
+    public void openWeekLogbook(LocalDate day) {
+        show(WEEK_LOGBOOK, () -> new WeekLogbook(user, day), false);
+        ((WeekLogbook) screens.get(WEEK_LOGBOOK)).showWeekOf(day); // Nothing to do if it was just built for that week
+    }
+
+    /**
+     * Ends the session (e.g. on logout): every screen is disposed and the window is closed.
+     */
+    public void close() {
+        releaseScreens(false);
+        frame.dispose();
+        if (instance == this) {
+            instance = null;
+        }
+    }
+
+    /**
+     * Shows a screen, from the cache or newly built, and trims the cache to MAX_CACHED_SCREENS.
+     *
+     * @param key     The cache key of the screen.
+     * @param factory Builds the screen if it is not cached.
+     * @param rebuild Whether a cached screen must be replaced by a new one.
+     */
+    private void show(String key, Supplier<BaseUI> factory, boolean rebuild) {
+        if (rebuild) {
+            release(key);
+        }
+        BaseUI screen = screens.get(key); // Also marks it as the most recently shown
+        boolean cached = screen != null;
+        if (!cached) {
+            screen = factory.get();
+            screen.setHost(frame);
+            cardPanel.add(screen.getContentPane(), key); // The screen's own frame is never shown
+            screens.put(key, screen);
+        }
+
+        currentKey = key;
+        cards.show(cardPanel, key);
+        frame.setTitle(screen.getTitle());
+        if (cached) {
+            screen.onShown();
+        }
+
+        // Releasing the least recently shown screens beyond the limit (never the one on view, which is the newest)
+        while (screens.size() > MAX_CACHED_SCREENS) {
+            release(screens.keySet().iterator().next());
+        }
+    }
+
+    /**
+     * Releases a cached screen, if there is one.
+     */
+    private void release(String key) {
+        BaseUI screen = screens.remove(key);
+        if (screen != null) {
+            dispose(key, screen);
+        }
+    }
+
+    /**
+     * Releases the cached screens; they are built again when next shown.
+     *
+     * @param keepCurrent Whether to keep the screen on view.
+     */
+    private void releaseScreens(boolean keepCurrent) {
+        for (String key : new ArrayList<>(screens.keySet())) {
+            if (!keepCurrent || !key.equals(currentKey)) {
+                release(key);
+            }
+        }
+    }
+
+    private void dispose(String key, BaseUI screen) {
+        cardPanel.remove(screen.getContentPane());
+        screen.dispose(); // Stops its notification listener and background work
+        System.out.println("Released the cached " + key + " screen");
+    }
+
+    /**
+     * Listens for heap pools that are still nearly full after a garbage collection, and then releases the
+     * hidden screens of the current session (charts and their loaded days are the largest part of the UI).
+     */
+    private static void watchMemory() {
+        if (watchingMemory) {
+            return;
+        }
+        watchingMemory = true;
+        List<MemoryPoolMXBean> watched = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            long max = pool.getUsage().getMax();
+            if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported() && max > 0) {
+                pool.setCollectionUsageThreshold((long) (max * MEMORY_PRESSURE_RATIO));
+                watched.add(pool);
+            }
+        }
+        if (watched.isEmpty()) {
+            return; // The JVM cannot report it; the LRU limit still bounds the cache
+        }
+        ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).addNotificationListener((notification, handback) -> {
+            if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+                SwingUtilities.invokeLater(() -> {
+                    if (instance != null) {
+                        System.out.println("Memory is low, releasing the hidden screens");
+                        instance.releaseScreens(true);
+                    }
+                });
+            }
+        }, null, null);
+    }
+}
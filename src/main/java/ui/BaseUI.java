@@ -1,36 +1,55 @@
 package ui;
 
 import database.UserDAO;
+import model.DayStatus;
 import model.User;
+import service.CalendarStatusService;
+import service.EntryChange;
+import service.EntryChangeBus;
+import service.GlycemicStatistics;
+import service.NotificationCenter;
+import service.NotificationEvent;
+import service.NotificationListener;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.io.*;
 import java.util.Properties;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.awt.image.BufferedImage;
-import java.io.InputStream;
+import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.TextStyle;
 import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * BaseUI serves as the foundational class for creating graphical user interfaces (GUIs) in the application.
  * It extends JFrame to provide a custom window frame and includes utility methods for UI components like
  * custom fonts, gradient panels, and rounded panels.
+ * The screens of a logged-in user (Home, Calendar, the graph, the logbooks, ...) are never shown as windows of their
+ * own: AppNavigator shows their content in the one app window.
  * -- Throughout this class, all the methods/lines involving creating shadows around buttons were done using ChatGPT,
  *           especially the syntax of creating shadows --
  */
 public class BaseUI extends JFrame {
     public YearMonth currentYearMonth = YearMonth.now(); // Current year and month, defaulting to now
+    private JLabel monthYearLabel; // The calendar's month and year, once the calendar is built
+    private CalendarGrid calendarGrid; // The calendar's days, once the calendar is built
     public User currentUser; // Holds the current user instance
     public JTextField usernameField; // Text field for entering the username
     public JPasswordField passwordField; // Password field for entering the password
     private JCheckBox rememberMeCheckBox; // Checkbox for remembering login credentials
     private String icon1; // Placeholder for an icon path or name
 
+    private JFrame host = this; // The window this screen's content is shown in: the app window once AppNavigator hosts it
+    private static final int TOAST_MILLIS = 4000; // How long a toast notification stays on screen
+    private final java.util.List<JComponent> activeToasts = new java.util.ArrayList<>(); // Toasts currently shown, top to bottom
+    // Receives service-layer notifications (on any thread) and renders them as toasts on the EDT
+    private final NotificationListener toastListener = event -> SwingUtilities.invokeLater(() -> showToast(event));
+    private EntryChangeBus.Subscription entryChanges; // This screen's subscription to saved changes, if it has one
+
     /**
      * Constructor for BaseUI.
      *
@@ -43,29 +62,158 @@ public class BaseUI extends JFrame {
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE); // Ensure the frame is disposed when closed
         setLocationRelativeTo(null); // Center the window on the screen
         setResizable(false); // Prevent resizing of the window
+
+        NotificationCenter.addListener(toastListener); // Showing alarm confirmations etc. as toasts while this screen is open
     }
 
     /**
-     * Loads a custom font from resources and scales it to the desired size.
+     * Called by AppNavigator when it puts this screen's content in the app window, instead of showing this frame.
+     *
+     * @param host The app window.
+     */
+    void setHost(JFrame host) {
+        this.host = host;
+    }
+
+    /**
+     * Called by AppNavigator each time this screen is shown again from its cache (not after it is first built).
+     * Screens that show data which may have changed while they were hidden override it to catch up.
+     */
+    protected void onShown() {
+        // Nothing to refresh by default
+    }
+
+    /**
+     * Subscribes this screen to the changes saved from now on (see EntryChangeBus), until it is disposed.
+     * Only the given user's changes are passed on, on the EDT, also while the screen is hidden in
+     * AppNavigator's cache, so it is up to date when shown again.
+     *
+     * @param user    The logged-in user.
+     * @param handler Applies a change to the screen.
+     */
+    protected void onEntryChange(User user, Consumer<EntryChange> handler) {
+        int userId = user.getId();
+        entryChanges = EntryChangeBus.subscribe(change -> SwingUtilities.invokeLater(() -> {
+            if (change.getUserId() == userId) {
+                handler.accept(change);
+            }
+        }));
+    }
+
+    /**
+     * Disposes of the window and stops listening for notifications and changes, so closed screens do not leak.
+     */
+    @Override
+    public void dispose() {
+        NotificationCenter.removeListener(toastListener);
+        if (entryChanges != null) {
+            entryChanges.cancel();
+        }
+        super.dispose();
+    }
+
+    /**
+     * Shows a notification as a non-blocking toast at the top of this screen, which disappears on its own
+     * (or when clicked). Only the screen currently showing renders it. Must be called on the EDT.
+     *
+     * @param event The notification to show.
+     */
+    protected void showToast(NotificationEvent event) {
+        if (!getContentPane().isShowing()) {
+            return; // Hidden, cached or disposed screens ignore notifications
+        }
+
+        // Choosing the toast colour from the app's palette based on the notification level
+        Color background;
+        switch (event.getLevel()) {
+            case SUCCESS:
+                background = new Color(200, 235, 205);
+                break;
+            case WARNING:
+                background = new Color(255, 228, 181);
+                break;
+            case ERROR:
+                background = new Color(237, 165, 170);
+                break;
+            default:
+                background = new Color(220, 230, 245);
+                break;
+        }
+
+        RoundedPanel toast = new RoundedPanel(25, 8);
+        toast.setBackground(background);
+        toast.setLayout(new BorderLayout());
+        toast.setBorder(BorderFactory.createEmptyBorder(10, 16, 12, 16));
+
+        // HTML lets the message wrap within the toast's width; the texts are escaped, as they may quote user input
+        int width = getContentPane().getWidth() - 40;
+        JLabel text = new JLabel("<html><div style='width:" + (width - 40) + "px'><b>" + escapeHtml(event.getTitle()) + "</b><br>"
+                + escapeHtml(event.getMessage()) + "</div></html>");
+        text.setFont(new Font("SansSerif", Font.PLAIN, 13));
+        toast.add(text, BorderLayout.CENTER);
+        toast.setToolTipText("Click to dismiss");
+
+        int height = toast.getPreferredSize().height;
+        toast.setSize(width, height);
+
+        JLayeredPane layeredPane = host.getLayeredPane();
+        layeredPane.add(toast, JLayeredPane.POPUP_LAYER); // Above all screen content, without taking the focus
+        activeToasts.add(toast);
+        layoutToasts();
+
+        // Removing the toast after a few seconds, or straight away when clicked
+        Timer timer = new Timer(TOAST_MILLIS, e -> removeToast(toast));
+        timer.setRepeats(false);
+        timer.start();
+        toast.addMouseListener(new java.awt.event.MouseAdapter() {
+            @Override
+            public void mouseClicked(java.awt.event.MouseEvent e) {
+                timer.stop();
+                removeToast(toast);
+            }
+        });
+    }
+
+    private void removeToast(JComponent toast) {
+        if (activeToasts.remove(toast)) {
+            JLayeredPane layeredPane = host.getLayeredPane();
+            layeredPane.remove(toast);
+            layoutToasts();
+            layeredPane.repaint();
+        }
+    }
+
+    /**
+     * Escapes the characters that HTML would read as markup, so a text is shown as it is in an HTML label.
+     */
+    private static String escapeHtml(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;"); // "&" first, so the others are not escaped twice
+    }
+
+    /**
+     * Stacks the active toasts below the top edge of the content area.
+     */
+    private void layoutToasts() {
+        Point origin = SwingUtilities.convertPoint(getContentPane(), 0, 0, host.getLayeredPane());
+        int y = origin.y + 20;
+        for (JComponent toast : activeToasts) {
+            toast.setLocation(origin.x + 20, y);
+            y += toast.getHeight() + 8;
+        }
+    }
+
+    /**
+     * Loads the custom font from resources at the desired size. The font file is parsed once per process
+     * (see ResourceCache), so building a screen does not parse it again.
      *
      * @param size The font size to use.
      * @return A custom Font object, or a fallback font if the resource is not found.
      */
     protected Font loadCustomFont(float size) {
-        try (InputStream is = getClass().getResourceAsStream("/Fonts/Lobster.ttf")) {
-            // Attempting to load the font from the resources directory
-            if (is == null) {
-                // If the font file is not found, fallback to the default Serif font
-                System.err.println("Font not found: /Fonts/Lobster.ttf");
-                return new Font("Serif", Font.PLAIN, (int) size);
-            }
-            return Font.createFont(Font.TRUETYPE_FONT, is).deriveFont(size);
-            // Loading the font as TrueType and setting the desired size
-        } catch (Exception e) {
-            // If an error occurs (e.g., file not found or invalid font), fallback to Serif
-            e.printStackTrace();
-            return new Font("Serif", Font.PLAIN, (int) size);
-        }
+        return ResourceCache.getFont(ResourceCache.LOBSTER_FONT, size);
     }
 
     // Load the Lobster font at a default size of 46
@@ -88,6 +236,25 @@ public class BaseUI extends JFrame {
         return titleLabel;
     }
 
+    /**
+     * Formats glycemic statistics for a label, on two lines so it fits the screen width.
+     *
+     * @param stats The statistics to show.
+     * @return HTML text for a JLabel.
+     */
+    protected String formatStatistics(GlycemicStatistics stats) {
+        if (stats.getCount() == 0) {
+            return "No glucose readings in this period";
+        }
+        String variation = stats.getCount() > 1
+                ? String.format(" &middot; SD %.1f &middot; CV %.0f%%", stats.getStandardDeviation(), stats.getCoefficientOfVariation())
+                : ""; // Spread needs at least two readings
+        return String.format("<html><center>In range %.0f%% &middot; Low %.0f%% &middot; High %.0f%%<br>"
+                        + "Mean %.1f mmol/L%s &middot; GMI %.1f%%</center></html>",
+                stats.getTimeInRange(), stats.getTimeBelowRange(), stats.getTimeAboveRange(),
+                stats.getMean(), variation, stats.getGlucoseManagementIndicator());
+    }
+
     /**
      * Creates a gradient background panel.
      *
@@ -175,43 +342,13 @@ public class BaseUI extends JFrame {
 
     /**
      * Loads and scales an image icon to a predefined size for use in UI components.
+     * The image is decoded and scaled once per process (see ResourceCache); later calls share the same icon.
      *
      * @param path The path to the image file in the resources folder.
      * @return A scaled ImageIcon object or null if the image is not found or an error occurs.
-     * -- Oracle (https://docs.oracle.com/javase/7/docs/api/java/awt/Graphics2D.html) was used for the
-     *          2D graphics object's built-in functions --
-     *          But, not entire 6 lines of code were taken from Oracle, just the built-in functions
      */
     protected ImageIcon loadScaledIcon(String path) {
-        try (InputStream is = getClass().getResourceAsStream(path)) {
-            // Ensures the resource stream is closed automatically after use
-            if (is == null) {
-                // Logs an error if the specified image file is not found
-                System.err.println("Icon not found: " + path);
-                return null; // Return null if the icon is not found
-            }
-
-            // Reads the image from the input stream into a BufferedImage
-            BufferedImage sourceImage = ImageIO.read(is);
-
-            // Creates a new BufferedImage with the desired size (30x30 pixels)
-            BufferedImage resized = new BufferedImage(30, 30, BufferedImage.TYPE_INT_ARGB);
-            Graphics2D g2 = resized.createGraphics(); // Gets a Graphics2D instance for rendering
-
-            // Enables high-quality scaling using bicubic interpolation
-            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-
-            // Draws the source image onto the resized BufferedImage
-            g2.drawImage(sourceImage, 0, 0, 30, 30, null);
-            g2.dispose(); // Releases resources used by the Graphics2D instance
-
-            // Returns the resized image as an ImageIcon
-            return new ImageIcon(resized);
-        } catch (Exception e) {
-            // Logs any exceptions that occur during image loading or scaling
-            e.printStackTrace();
-            return null; // Returns null if an error occurs
-        }
+        return ResourceCache.getScaledIcon(path, ResourceCache.NAV_ICON_SIZE);
     }
 
     /**
@@ -275,27 +412,21 @@ public class BaseUI extends JFrame {
 
     /**
      * Handles navigation between different screens in the application.
+     * The screens live in one app window (see AppNavigator); a screen shown before is brought back as it was left.
      *
      * @param targetScreen  The name of the target screen to navigate to.
      * @param currentScreen The name of the currently active screen.
-     * @param currentUser   The currently logged-in user, passed to the new screen for context.
+     * @param currentUser   The currently logged-in user (the screens of the session are all built for this user).
      */
     private void navigateTo(String targetScreen, String currentScreen, User currentUser) {
         // Checks if the target screen is different from the current screen
         if (!targetScreen.equals(currentScreen)) {
-            dispose(); // Closes the current screen
             switch (targetScreen) {
                 case "Home":
-                    new Home(currentUser); // Opens the "Home" screen
-                    break;
                 case "Calendar":
-                    new Calendar(currentUser); // Opens the "Calendar" screen
-                    break;
                 case "GlucoseGraph":
-                    new GlucoseGraph(currentUser); // Opens the "Graph" screen
-                    break;
                 case "Profile":
-                    new Profile(currentUser); // Opens the "Profile" screen
+                    AppNavigator.getInstance().showScreen(targetScreen); // Switches to the screen, building it only the first time
                     break;
                 default:
                     // Displays an error message if the target screen is unknown
@@ -318,11 +449,23 @@ public class BaseUI extends JFrame {
     }
 
     /**
-     * Refreshes the calendar view by rebuilding its components.
-     * This method removes existing components, recreates the layout, and revalidates the UI.
+     * Refreshes the calendar view for currentYearMonth.
+     * The components are built on the first call; later calls (e.g. month changes) only update the month label
+     * and repaint the days, without creating or removing any component.
      */
     protected void refreshCalendar() {
-        // Removing all components from the content pane to prepare for rebuilding
+        if (calendarGrid == null) {
+            buildCalendar();
+        }
+        monthYearLabel.setText(getMonthYearString(currentYearMonth));
+        calendarGrid.setMonth(currentYearMonth, getMonthStatuses(currentYearMonth)); // Glucose status of the days, one query at most
+    }
+
+    /**
+     * Builds the calendar view: title, month navigation, the painted days and their colour key.
+     */
+    private void buildCalendar() {
+        // Removing all components from the content pane to prepare for building
         getContentPane().removeAll();
 
         // Creating the main panel with a gradient background
@@ -341,7 +484,7 @@ public class BaseUI extends JFrame {
         contentPanel.add(titleLabel, gbc); // Adding the title to the content panel
 
         // Adding the month-year label to display the current month and year
-        JLabel monthYearLabel = new JLabel(getMonthYearString(currentYearMonth), SwingConstants.CENTER);
+        monthYearLabel = new JLabel(getMonthYearString(currentYearMonth), SwingConstants.CENTER);
         monthYearLabel.setFont(new Font("SansSerif", Font.BOLD, 18)); // Applying bold SansSerif font
 
         gbc.gridy = 1; // Positioning the month-year label below the title
@@ -352,10 +495,23 @@ public class BaseUI extends JFrame {
         gbc.gridy = 2; // Positioning the navigation panel below the month-year label
         contentPanel.add(topNavPanel, gbc);
 
-        // Adding the days panel to display the days of the month
-        JPanel daysPanel = createDaysPanel();
-        gbc.gridy = 3; // Positioning the days panel below the navigation panel
-        contentPanel.add(daysPanel, gbc);
+        // Adding the days of the month: one painted component, which reports the clicked day
+        calendarGrid = new CalendarGrid();
+        calendarGrid.setDayListener(this::onDaySelected);
+        gbc.gridy = 3; // Positioning the days below the navigation panel
+        contentPanel.add(calendarGrid, gbc);
+
+        // Adding the key to the day colours below the days
+        gbc.gridy = 4;
+        gbc.insets = new Insets(15, 0, 0, 0);
+        contentPanel.add(createStatusLegend(), gbc);
+
+        // Adding the screen's own controls below the key, if it has any
+        JComponent footer = createCalendarFooter();
+        if (footer != null) {
+            gbc.gridy = 5;
+            contentPanel.add(footer, gbc);
+        }
 
         // Adding the content panel to the center of the main panel
         mainPanel.add(contentPanel, BorderLayout.CENTER);
@@ -365,8 +521,27 @@ public class BaseUI extends JFrame {
 
         // Adding the main panel to the frame and refreshing the UI
         add(mainPanel);
-        revalidate(); // Revalidates the layout to ensure proper display
-        repaint(); // Repaints the frame to reflect updates
+        getContentPane().revalidate(); // Revalidates the layout to ensure proper display (also when hosted by AppNavigator)
+        getContentPane().repaint(); // Repaints the content to reflect updates
+    }
+
+    /**
+     * Creates the controls shown below the calendar's colour key. None by default; the Calendar screen adds the
+     * way to the week logbook.
+     *
+     * @return The controls, or null for none.
+     */
+    protected JComponent createCalendarFooter() {
+        return null;
+    }
+
+    /**
+     * Called when the user clicks a day of the calendar. Does nothing by default; the Calendar screen opens the day's logbook.
+     *
+     * @param day The clicked day.
+     */
+    protected void onDaySelected(LocalDate day) {
+        // No action by default
     }
 
     /**
@@ -435,87 +610,57 @@ public class BaseUI extends JFrame {
     }
 
     /**
-     * Creates a panel displaying day initials and a grid for the days of the month.
+     * Returns the glucose status of each day of a month, for colouring the calendar.
+     * A cached month is returned straight away; otherwise it is loaded in the background (one query) and the
+     * calendar is rebuilt when it arrives, if that month is still shown. The months either side are prefetched,
+     * so the arrows flip to a month that is already loaded.
      *
-     * @return A JPanel containing the day initials and days grid.
+     * @param yearMonth The month shown.
+     * @return The status of each day with a reading (empty while loading); other days have no data.
      */
-    public JPanel createDaysPanel() {
-        JPanel panel = new JPanel(new BorderLayout()); // Using BorderLayout for separating components
-        panel.setOpaque(false); // Setting transparency for the panel
-
-        // Creating a row for the day initials (e.g., "M", "T", "W")
-        JPanel dayInitialsPanel = new JPanel(new GridLayout(1, 7, 10, 0)); // Grid layout for day initials
-        dayInitialsPanel.setOpaque(false); // Transparent background for the panel
-        String[] dayInitials = {"M", "T", "W", "T", "F", "S", "S"}; // Array of day initials
-
-        // Adding each day initial to the panel
-        for (String d : dayInitials) {
-            JLabel label = new JLabel(d, SwingConstants.CENTER); // Center-aligning text
-            label.setFont(new Font("SansSerif", Font.BOLD, 14)); // Applying bold font style
-            label.setForeground(new Color(0xD8, 0x38, 0x42)); // Setting text color to a custom red
-            dayInitialsPanel.add(label); // Adding the label to the day initials panel
+    protected Map<LocalDate, DayStatus> getMonthStatuses(YearMonth yearMonth) {
+        if (currentUser == null) {
+            return Map.of();
         }
-
-        // Creating a grid for the days of the month - AI was used for these 2 lines
-        JPanel daysGrid = new JPanel(new GridLayout(6, 7, 10, 10)); // Grid layout for days (6 rows, 7 columns)
-        daysGrid.setOpaque(false); // Transparent background for the grid
-
-        // Getting the current month and year
-        YearMonth yearMonth = currentYearMonth;
-        int lengthOfMonth = yearMonth.lengthOfMonth(); // Getting the number of days in the month
-
-        // Determining the first day of the month and its day of the week
-        java.time.LocalDate firstOfMonth = yearMonth.atDay(1); // First day of the current month
-        int dayOfWeekValue = firstOfMonth.getDayOfWeek().getValue(); // Getting the day of the week as an integer
-
-        // Calculating the number of blank cells to add before the first day
-        int blankDaysBefore = (dayOfWeekValue == 7) ? 6 : dayOfWeekValue - 1;
-
-        // Adding blank labels to represent empty cells before the first day
-        for (int i = 0; i < blankDaysBefore; i++) {
-            daysGrid.add(new JLabel("")); // Adding an empty JLabel for each blank day
+        int userId = currentUser.getId();
+        CalendarStatusService.prefetchAround(userId, yearMonth);
+        Map<LocalDate, DayStatus> statuses = CalendarStatusService.getCachedMonth(userId, yearMonth);
+        if (statuses != null) {
+            return statuses;
         }
 
-
-        // Fill in actual days for the calendar grid
-        java.time.LocalDate today = java.time.LocalDate.now(); // Fetching the current system date
-        for (int day = 1; day <= lengthOfMonth; day++) {
-            java.time.LocalDate date = yearMonth.atDay(day); // Creating a LocalDate object for each day in the month
-
-            // Creating a custom panel for each day's representation
-            JPanel dayPanel = new JPanel(new BorderLayout()); // Using BorderLayout to center the day circle
-            dayPanel.setOpaque(false); // Ensuring the panel's background is transparent
-
-            // Creating a circular label for the day number
-            DayCircle dayCircle = new DayCircle(day); // Custom class for visually styling the day number
-            dayCircle.setHorizontalAlignment(SwingConstants.CENTER); // Aligning the day number text to the center
-            dayCircle.setFont(new Font("SansSerif", Font.BOLD, 14)); // Applying a bold font for better visibility
-
-            // Highlighting the current date with a distinct style
-            if (date.equals(today)) {
-                dayCircle.setCircleColor(new Color(0xD8, 0x38, 0x42)); // Setting the circle background to a red color
-                dayCircle.setForeground(Color.WHITE); // Setting the text color to white for contrast
-            } else {
-                // Styling for regular days
-                dayCircle.setCircleColor(new Color(0xE1, 0xE1, 0xE1)); // Setting the circle background to light gray
-                dayCircle.setForeground(Color.BLACK); // Default black text color for regular days
+        new SwingWorker<Map<LocalDate, DayStatus>, Void>() {
+            @Override
+            protected Map<LocalDate, DayStatus> doInBackground() {
+                return CalendarStatusService.getMonth(userId, yearMonth);
             }
 
-            dayPanel.add(dayCircle, BorderLayout.CENTER); // Adding the styled day circle to the center of the panel
-            daysGrid.add(dayPanel); // Adding the day panel to the grid of days
-        }
+            @Override
+            protected void done() {
+                if (yearMonth.equals(currentYearMonth) && CalendarStatusService.getCachedMonth(userId, yearMonth) != null) {
+                    refreshCalendar(); // Repainting the days in colour; the month is cached now, so this does not load it again
+                }
+            }
+        }.execute();
+        return Map.of();
+    }
 
-// Filling the remaining cells in the grid with empty labels to maintain structure
-        int totalCells = 6 * 7; // Maximum number of cells in a calendar grid (6 rows × 7 columns)
-        int filledCells = blankDaysBefore + lengthOfMonth; // Counting the cells already filled with days or blanks
-        for (int i = filledCells; i < totalCells; i++) {
-            daysGrid.add(new JLabel("")); // Adding empty labels for unused cells
+    /**
+     * Creates the key to the day colours shown below the calendar.
+     *
+     * @return A JPanel with one coloured dot and name per status.
+     */
+    private JPanel createStatusLegend() {
+        JPanel legend = new JPanel(new FlowLayout(FlowLayout.CENTER, 12, 0));
+        legend.setOpaque(false);
+        for (DayStatus status : new DayStatus[]{DayStatus.IN_RANGE, DayStatus.HYPO, DayStatus.HYPER, DayStatus.NO_DATA}) {
+            Color color = CalendarGrid.getStatusColor(status);
+            String hex = String.format("#%02x%02x%02x", color.getRed(), color.getGreen(), color.getBlue());
+            JLabel label = new JLabel("<html><font color='" + hex + "'>\u25CF</font> " + CalendarGrid.getStatusText(status) + "</html>");
+            label.setFont(new Font("SansSerif", Font.PLAIN, 12));
+            legend.add(label);
         }
-
-// Adding the day initials row and the grid of days to the main panel
-        panel.add(dayInitialsPanel, BorderLayout.NORTH); // Adding the row of day initials to the top
-        panel.add(daysGrid, BorderLayout.CENTER); // Adding the grid of days below the initials
-        return panel; // Returning the complete panel with day initials and days grid
+        return legend;
     }
 
     /**
@@ -540,61 +685,6 @@ public class BaseUI extends JFrame {
         return yearMonth.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH) + " " + yearMonth.getYear(); // Formatting the YearMonth
     }
 
-    /**
-     * Custom JLabel subclass for rendering day numbers as circles with configurable colors.
-     */
-    /* Reference 7 - taken from ChatGPT*/
-    class DayCircle extends JLabel {
-        private Color circleColor; // The background color of the circular representation
-
-        /**
-         * Constructs a DayCircle object for a specific day.
-         *
-         * @param dayNumber The day number to display in the circle.
-         */
-        public DayCircle(int dayNumber) {
-            super(String.valueOf(dayNumber)); // Setting the day number as the label's text
-            this.circleColor = Color.LIGHT_GRAY; // Default color for the circle
-            setPreferredSize(new Dimension(40, 40)); // Setting a fixed size for the circle
-            setOpaque(false); // Ensuring the label's background remains transparent
-        }
-        /* end of reference 7*/
-
-        /**
-         * Sets the color of the circle's background.
-         *
-         * @param circleColor The new color for the circle's background.
-         */
-        public void setCircleColor(Color circleColor) {
-            this.circleColor = circleColor; // Updating the circle's background color
-        }
-
-        /**
-         * Custom painting method to draw the circular background.
-         *
-         * @param g The Graphics object used for rendering.
-         */
-        @Override
-        protected void paintComponent(Graphics g) {
-            Graphics2D g2d = (Graphics2D) g.create(); // Creating a Graphics2D instance for enhanced rendering
-
-            // Enabling anti-aliasing for smoother edges
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-            // Calculating the position and size of the circle
-            int diameter = Math.min(getWidth(), getHeight()); // Ensuring the circle fits within the component
-            int x = (getWidth() - diameter) / 2; // Centering the circle horizontally
-            int y = (getHeight() - diameter) / 2; // Centering the circle vertically
-
-            // Filling the circle with the specified background color
-            g2d.setColor(circleColor);
-            g2d.fillOval(x, y, diameter, diameter); // Drawing the filled circle
-
-            g2d.dispose(); // Releasing resources used by Graphics2D
-            super.paintComponent(g); // Rendering the label's text on top of the circle
-        }
-    }
-
     /**
      * Creates a panel containing a "Quick Log" button for quickly logging data.
      *
@@ -758,7 +848,7 @@ public class BaseUI extends JFrame {
                 }
 
                 dispose(); // Closing the current window
-                new Home(user); // Opening the Home screen
+                AppNavigator.start(user); // Opening the app window on the Home screen
             } else {
                 JOptionPane.showMessageDialog(this,
                         "Incorrect password!", // Error message for incorrect password
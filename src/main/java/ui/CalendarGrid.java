@@ -0,0 +1,212 @@
+package ui;
+
+import model.DayStatus;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A month of the calendar as one painted component: the row of day initials and a 6 x 7 grid of day circles,
+ * filled with each day's glucose status, with a ring around today.
+ * Nothing but this component is created per month: changing the month or the statuses only repaints, one mouse
+ * handler finds the day under the pointer, and the fonts, colours and stroke are shared by every grid.
+ */
+public class CalendarGrid extends JComponent {
+
+    /**
+     * Receives the day the user clicked.
+     */
+    public interface DayListener {
+        void daySelected(LocalDate day);
+    }
+
+    private static final int CELL = 40; // Diameter of a day circle
+    private static final int GAP = 10; // Space between circles, across and down
+    private static final int HEADER_HEIGHT = 24; // Row of day initials above the grid
+    private static final int COLUMNS = 7;
+    private static final int ROWS = 6; // Enough for any month, so the grid never changes size
+    private static final int GRID_WIDTH = COLUMNS * CELL + (COLUMNS - 1) * GAP;
+    private static final int GRID_HEIGHT = HEADER_HEIGHT + ROWS * CELL + (ROWS - 1) * GAP;
+    private static final String[] DAY_INITIALS = {"M", "T", "W", "T", "F", "S", "S"};
+
+    // Paint resources, built once for all grids
+    private static final Font INITIALS_FONT = new Font("SansSerif", Font.BOLD, 14);
+    private static final Font DAY_FONT = new Font("SansSerif", Font.BOLD, 14);
+    private static final Color ACCENT = new Color(0xD8, 0x38, 0x42); // The app's red: day initials and today's ring
+    private static final BasicStroke RING = new BasicStroke(3f);
+    private static final Map<DayStatus, Color> STATUS_COLORS = new EnumMap<>(DayStatus.class);
+    private static final String[] DAY_NUMBERS = new String[32]; // "1" to "31", by day of the month
+
+    static {
+        STATUS_COLORS.put(DayStatus.NO_DATA, new Color(0xE1, 0xE1, 0xE1)); // Light gray, as days always were
+        STATUS_COLORS.put(DayStatus.IN_RANGE, new Color(200, 235, 205)); // Soft green
+        STATUS_COLORS.put(DayStatus.HYPO, new Color(237, 165, 170)); // The app's pink-red
+        STATUS_COLORS.put(DayStatus.HYPER, new Color(255, 214, 150)); // Amber
+        for (int day = 1; day < DAY_NUMBERS.length; day++) {
+            DAY_NUMBERS[day] = String.valueOf(day);
+        }
+    }
+
+    private YearMonth month = YearMonth.now();
+    private Map<LocalDate, DayStatus> statuses = Map.of(); // Days missing from the map have no data
+    private DayListener dayListener;
+
+    public CalendarGrid() {
+        setOpaque(false); // The screen's background shows between the circles
+        setToolTipText(""); // Registers with the tooltip manager; the text comes from getToolTipText(MouseEvent)
+
+        // One handler for the whole month, which finds the day under the pointer
+        MouseAdapter mouseHandler = new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                LocalDate day = dayAt(e.getPoint());
+                if (day != null && dayListener != null) {
+                    dayListener.daySelected(day);
+                }
+            }
+
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setCursor(dayAt(e.getPoint()) != null ? Cursor.getPredefinedCursor(Cursor.HAND_CURSOR) : Cursor.getDefaultCursor());
+            }
+        };
+        addMouseListener(mouseHandler);
+        addMouseMotionListener(mouseHandler);
+    }
+
+    /**
+     * Shows a month; only repaints, as the grid has the same size for every month.
+     *
+     * @param month    The month to show.
+     * @param statuses The glucose status of the month's days with a reading.
+     */
+    public void setMonth(YearMonth month, Map<LocalDate, DayStatus> statuses) {
+        this.month = month;
+        this.statuses = statuses;
+        repaint();
+    }
+
+    /**
+     * @param dayListener Called with the day the user clicks, or null for none.
+     */
+    public void setDayListener(DayListener dayListener) {
+        this.dayListener = dayListener;
+    }
+
+    /**
+     * @return The fill colour of a day with the given status, also used by the calendar's legend.
+     */
+    public static Color getStatusColor(DayStatus status) {
+        return STATUS_COLORS.get(status);
+    }
+
+    /**
+     * @return A short description of a status, for tooltips and the legend.
+     */
+    public static String getStatusText(DayStatus status) {
+        switch (status) {
+            case IN_RANGE:
+                return "In range";
+            case HYPO:
+                return "Low";
+            case HYPER:
+                return "High";
+            default:
+                return "No data";
+        }
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(GRID_WIDTH, GRID_HEIGHT);
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        LocalDate day = dayAt(e.getPoint());
+        DayStatus status = day == null ? DayStatus.NO_DATA : statuses.getOrDefault(day, DayStatus.NO_DATA);
+        return status == DayStatus.NO_DATA ? null : getStatusText(status);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        int left = gridLeft();
+
+        // The day initials, centred above their columns
+        g2.setFont(INITIALS_FONT);
+        g2.setColor(ACCENT);
+        for (int column = 0; column < COLUMNS; column++) {
+            drawCentered(g2, DAY_INITIALS[column], left + column * (CELL + GAP), 0, HEADER_HEIGHT);
+        }
+
+        // The days: a circle filled with the status colour, and the day number on top
+        g2.setFont(DAY_FONT);
+        LocalDate today = LocalDate.now();
+        int blanks = month.atDay(1).getDayOfWeek().getValue() - 1; // Monday first
+        for (int day = 1; day <= month.lengthOfMonth(); day++) {
+            int cell = blanks + day - 1;
+            int x = left + (cell % COLUMNS) * (CELL + GAP);
+            int y = HEADER_HEIGHT + (cell / COLUMNS) * (CELL + GAP);
+            LocalDate date = month.atDay(day);
+
+            /* Reference 7 - taken from ChatGPT (the circular day, formerly the DayCircle label) */
+            g2.setColor(STATUS_COLORS.get(statuses.getOrDefault(date, DayStatus.NO_DATA)));
+            g2.fillOval(x, y, CELL, CELL);
+            /* end of reference 7*/
+            if (date.equals(today)) {
+                g2.setColor(ACCENT);
+                g2.setStroke(RING);
+                g2.drawOval(x + 1, y + 1, CELL - 3, CELL - 3); // Just inside the edge
+            }
+            g2.setColor(Color.BLACK);
+            drawCentered(g2, DAY_NUMBERS[day], x, y, CELL);
+        }
+        g2.dispose();
+    }
+
+    /**
+     * Draws text centred in a CELL-wide box.
+     */
+    private static void drawCentered(Graphics2D g2, String text, int x, int y, int height) {
+        FontMetrics metrics = g2.getFontMetrics();
+        int textX = x + (CELL - metrics.stringWidth(text)) / 2;
+        int textY = y + (height - metrics.getHeight()) / 2 + metrics.getAscent();
+        g2.drawString(text, textX, textY);
+    }
+
+    /**
+     * Finds the day at a point of the component.
+     *
+     * @return The day whose cell contains the point, or null for the initials, the gaps and the blank cells.
+     */
+    private LocalDate dayAt(Point point) {
+        int x = point.x - gridLeft();
+        int y = point.y - HEADER_HEIGHT;
+        if (x < 0 || y < 0 || x % (CELL + GAP) >= CELL || y % (CELL + GAP) >= CELL) {
+            return null;
+        }
+        int column = x / (CELL + GAP);
+        int row = y / (CELL + GAP);
+        if (column >= COLUMNS || row >= ROWS) {
+            return null;
+        }
+        int day = row * COLUMNS + column - (month.atDay(1).getDayOfWeek().getValue() - 1) + 1;
+        return day >= 1 && day <= month.lengthOfMonth() ? month.atDay(day) : null;
+    }
+
+    /**
+     * @return The x of the first column, so the grid stays centred if the component is wider than it needs.
+     */
+    private int gridLeft() {
+        return Math.max(0, (getWidth() - GRID_WIDTH) / 2);
+    }
+}
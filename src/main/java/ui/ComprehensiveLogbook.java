@@ -10,6 +10,7 @@ import java.text.SimpleDateFormat;
 import java.util.Set;
 import java.util.HashSet;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -47,6 +48,8 @@ public class ComprehensiveLogbook extends BaseUI {
     protected JTextArea[] exerciseFields = new JTextArea[7]; // Text areas for exercise details, allowing multi-line input.
     protected JTextField[] insulinDoseFields = new JTextField[7]; // Fields for insulin dose amounts, one for each row.
     protected JTextField[] hoursSinceMealFields = new JTextField[3]; // Fields for hours since the last meal (Pre rows only).
+    protected LogbookSaver saver; // Saves the rows in the background.
+    protected final RowDirtyTracker dirtyTracker = new RowDirtyTracker(); // Rows as they are in the DB, so only changed rows are saved.
 
     /**
      * Constructor for creating a comprehensive logbook for a specific user and date.
@@ -61,7 +64,6 @@ public class ComprehensiveLogbook extends BaseUI {
 
         buildUIComprehensive(); // Build and initialize the user interface components for the logbook.
         loadLogEntriesComprehensive(); // Load any existing log entries for the user and date.
-        setVisible(true); // Display the logbook window to the user.
     }
 
     /**
@@ -288,6 +290,7 @@ public class ComprehensiveLogbook extends BaseUI {
         saveAllBtn.setFont(new Font("SansSerif", Font.BOLD, 16)); // Apply bold font for emphasis
         saveAllBtn.setForeground(Color.BLACK); // Set the text color to black
         saveAllBtn.addActionListener(e -> handleSaveAllComprehensive()); // Attach the save action to the button
+        saver = new LogbookSaver(this, currentUser, saveAllBtn, ROW_LABELS, bloodSugarFields, dirtyTracker); // Disables the button and marks failed rows while saving
         bottomPanel.add(saveAllBtn); // Add the button to the bottom panel
 
 // Create a navigation bar for the bottom section
@@ -404,12 +407,31 @@ public class ComprehensiveLogbook extends BaseUI {
                 }
             }
         }
+
+        // Remember the loaded values, so saving skips the rows the user does not change
+        for (int i = 0; i < ROW_LABELS.length; i++) {
+            dirtyTracker.setSaved(ROW_LABELS[i], rowValues(i));
+        }
+    }
+
+    /**
+     * Collects the text of a row's fields, for dirty tracking.
+     *
+     * @param row The row index.
+     * @return The text of each field of the row ("" for hours since meal on Post rows).
+     */
+    protected List<String> rowValues(int row) {
+        String hours = ROW_LABELS[row].endsWith("Pre") ? hoursSinceMealFields[row / 2].getText() : ""; // Pre rows are 0, 2 and 4
+        return List.of(bloodSugarFields[row].getText(), carbsFields[row].getText(), exerciseFields[row].getText(),
+                insulinDoseFields[row].getText(), hours);
     }
 
     /**
      * Saves all data from the comprehensive logbook form and triggers alarms if needed.
+     * The form is read on the EDT; the rows are saved in the background by the LogbookSaver.
      */
     protected void handleSaveAllComprehensive() {
+        List<LogEntry> entries = new ArrayList<>(); // The rows to save, as entered at the time of the click
         int preIndex = 0; // Counter for "Pre" rows (used for hoursSinceMeal fields)
         Set<String> processedEntries = new HashSet<>(); // Track processed entries to avoid duplicate notifications
 
@@ -427,8 +449,10 @@ public class ComprehensiveLogbook extends BaseUI {
                 preIndex++; // Increment the counter for "Pre" rows
             }
 
-            // Check if the entry contains any meaningful data
-            if (bg > 0 || carbs > 0 || !exercise.isEmpty() || insulin > 0 || hours > 0) {
+            // Check if the entry contains any meaningful data, changed since it was loaded or last saved
+            List<String> values = rowValues(i);
+            if ((bg > 0 || carbs > 0 || !exercise.isEmpty() || insulin > 0 || hours > 0)
+                    && dirtyTracker.isDirty(ROW_LABELS[i], values)) {
                 // Create a new log entry object
                 LogEntry entry = new LogEntry();
                 entry.setUserId(currentUser.getId()); // Set the user ID
@@ -447,14 +471,18 @@ public class ComprehensiveLogbook extends BaseUI {
                 if (processedEntries.contains(entryIdentifier)) {
                     System.out.println("Notification already sent for entry: " + entryIdentifier + ", skipping.");
                 } else {
-                    // Create or update the log entry and trigger alarms if necessary
-                    LogService.createEntry(entry, currentUser);
+                    // Queue the log entry to be created or updated (alarms are triggered if necessary)
+                    entries.add(entry);
+                    dirtyTracker.savePending(ROW_LABELS[i], values); // Clean again once it is saved
 
                     // Mark the entry as processed
                     processedEntries.add(entryIdentifier);
                 }
             }
         }
+
+        // Save the rows off the EDT, reporting each row and a summary when done
+        saver.save(entries, "All entered values have been saved (Comprehensive).");
     }
 
     /**
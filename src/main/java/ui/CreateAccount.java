@@ -309,7 +309,7 @@ public class CreateAccount extends BaseUI {
                         JOptionPane.INFORMATION_MESSAGE
                 );
                 dispose(); // Close the current window
-                new Home(created); // Navigate to the home screen
+                AppNavigator.start(created); // Navigate to the home screen, in the app window
             } else {
                 // Notify the user of account creation failure
                 JOptionPane.showMessageDialog(
@@ -0,0 +1,129 @@
+package ui;
+
+import javax.swing.*;
+import javax.swing.plaf.basic.ComboPopup;
+import java.awt.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+/**
+ * A combo box model of consecutive days, newest first, from a fixed newest day back to an oldest day that can be
+ * moved back later (e.g. once the user's earliest entry is known). The days are computed from their index when
+ * the list asks for them, so the model holds no items and years of history cost nothing until they are shown.
+ * Items are LocalDate values; only the renderer turns them into text.
+ */
+public class DateComboBoxModel extends AbstractListModel<LocalDate> implements ComboBoxModel<LocalDate> {
+
+    private static final DateTimeFormatter MONTH_YEAR = DateTimeFormatter.ofPattern("MMM yyyy", Locale.ENGLISH); // Built once, shared by all cells
+
+    private final LocalDate newest; // The first item
+    private LocalDate oldest; // The last item
+    private LocalDate selected; // The selected day, or null before a selection is made
+
+    /**
+     * @param newest The first (most recent) day of the list.
+     * @param oldest The last (earliest) day of the list.
+     */
+    public DateComboBoxModel(LocalDate newest, LocalDate oldest) {
+        this.newest = newest;
+        this.oldest = oldest.isAfter(newest) ? newest : oldest;
+    }
+
+    /**
+     * Extends the list back to an earlier day; does nothing if the day is already in the list.
+     *
+     * @param day The new oldest day.
+     */
+    public void extendTo(LocalDate day) {
+        if (!day.isBefore(oldest)) {
+            return;
+        }
+        int firstNew = getSize();
+        oldest = day;
+        fireIntervalAdded(this, firstNew, getSize() - 1);
+    }
+
+    @Override
+    public int getSize() {
+        return (int) ChronoUnit.DAYS.between(oldest, newest) + 1;
+    }
+
+    @Override
+    public LocalDate getElementAt(int index) {
+        return newest.minusDays(index);
+    }
+
+    @Override
+    public void setSelectedItem(Object item) {
+        if (item != null && !(item instanceof LocalDate)) {
+            return; // Only days can be selected
+        }
+        if (item == null ? selected != null : !item.equals(selected)) {
+            selected = (LocalDate) item;
+            fireContentsChanged(this, -1, -1); // Index -1 tells the combo box the selection changed
+        }
+    }
+
+    @Override
+    public LocalDate getSelectedItem() {
+        return selected;
+    }
+
+    /**
+     * Formats a day for display, with an ordinal suffix (e.g. "21st Jan 2025").
+     */
+    public static String format(LocalDate date) {
+        int day = date.getDayOfMonth();
+        return day + ordinalSuffix(day) + " " + MONTH_YEAR.format(date);
+    }
+
+    /**
+     * Determines the ordinal suffix for a given day of the month.
+     *
+     * @param day The day of the month.
+     * @return The ordinal suffix as a string (e.g., "st", "nd", "rd", "th").
+     */
+    private static String ordinalSuffix(int day) {
+        if (day >= 11 && day <= 13) return "th";  // Special case for 11th, 12th, and 13th
+        switch (day % 10) {
+            case 1:
+                return "st";
+            case 2:
+                return "nd";
+            case 3:
+                return "rd";
+            default:
+                return "th";
+        }
+    }
+
+    /**
+     * Creates a combo box for a model, with centred, formatted dates.
+     * The popup list gets a fixed row size, so it never measures every day of a long history.
+     *
+     * @param model The days to choose from.
+     * @return The combo box.
+     */
+    public static JComboBox<LocalDate> createComboBox(DateComboBoxModel model) {
+        JComboBox<LocalDate> box = new JComboBox<>(model);
+        LocalDate prototype = LocalDate.of(2000, 9, 30); // One of the widest labels ("30th Sep 2000")
+        box.setPrototypeDisplayValue(prototype);
+        box.setMaximumRowCount(10);
+        box.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                String text = value instanceof LocalDate ? format((LocalDate) value) : "";
+                JLabel label = (JLabel) super.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
+                label.setHorizontalAlignment(SwingConstants.CENTER); // Center-align the text inside the combo box
+                return label;
+            }
+        });
+        Object popup = box.getUI().getAccessibleChild(box, 0);
+        if (popup instanceof ComboPopup) {
+            ((ComboPopup) popup).getList().setPrototypeCellValue(prototype); // Fixed row height and width
+        }
+        return box;
+    }
+}
@@ -2,41 +2,41 @@ package ui;
 /**
 * -- AI (ChatGPT) was used to add all of the required imports below --
  */
-import model.LogEntry;
+import model.DailySummary;
+import model.MealSlot;
 import model.User;
+import notification.Notification;
+import notification.NotificationTransports;
+import notification.TransportUnavailableException;
+import report.ChartImageEncoder;
+import report.GlucoseChartFactory;
+import report.GlucoseChartFactory.DailyMeasure;
+import service.AgpService;
+import service.EntryChange;
+import service.GlycemicStatistics;
 import service.LogService;
+import service.LttbDownsampler;
+import service.QuantileSketch;
+import service.StatisticsService;
+import service.TilePyramid;
 /* Reference 11 - AI (ChatGPT) was used to add all of the required imports below */
-import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.axis.DateAxis;
-import org.jfree.chart.axis.ValueAxis;
-import org.jfree.chart.plot.PlotOrientation;
-import org.jfree.chart.plot.XYPlot;
-import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
-import org.jfree.data.xy.DefaultXYDataset;
-import org.jfree.data.xy.XYDataset;
+import org.jfree.data.Range;
+import org.jfree.data.xy.XYSeries;
 /* end of reference 11*/
 
-import javax.imageio.ImageIO;
 import java.util.ArrayList;
-import javax.mail.*;
-import javax.mail.internet.InternetAddress;
-import javax.mail.internet.MimeBodyPart;
-import javax.mail.internet.MimeMessage;
-import javax.mail.internet.MimeMultipart;
 import javax.swing.*;
 import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
-import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Properties;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
 
 /**
  * Represents the `GlucoseGraph` class for displaying a user's glucose levels as a graph.
@@ -48,6 +48,32 @@ public class GlucoseGraph extends BaseUI {
     private LocalDate startDate; // The start date of the graph range
     private LocalDate endDate; // The end date of the graph range
     private ChartPanel chartPanel; // The panel to display the graph
+    private JLabel loadingLabel; // Shown while a graph is being loaded in the background
+    private JLabel statisticsLabel; // Time in range, mean, variability and GMI of the shown range
+    private SwingWorker<?, Void> graphWorker; // The background load currently in progress, if any
+    private int graphGeneration; // Incremented for every load, so results of superseded loads are ignored (EDT only)
+    private final Map<LocalDate, DailySummary> loadedDays = new HashMap<>(); // Days loaded so far, including empty ones (EDT only)
+    private final Map<DailyMeasure, XYSeries> plottedSeries = GlucoseChartFactory.createEmptySeries(); // The plotted daily values, sorted by date
+    private LocalDate shownStart; // The range the series currently holds one point per day for, or null
+    private LocalDate shownEnd;
+    private JFreeChart trendChart; // The daily chart, kept while the AGP is shown
+    private boolean agpMode; // Whether the chart shows the ambulatory glucose profile instead of the daily trend
+    private SwingWorker<Map<MealSlot, QuantileSketch>, Void> agpWorker; // The AGP load in progress, if any
+    private Map<MealSlot, QuantileSketch> shownProfile; // The profile the AGP chart shows, or null while it loads (EDT only)
+    private final DateComboBoxModel startDateModel; // Days to pick from, computed on demand back to the first entry
+    private final DateComboBoxModel endDateModel;
+    private JComboBox<LocalDate> startDateBox;
+    private JComboBox<LocalDate> endDateBox;
+    private Timer rangeChangeTimer; // Waits for zooming and panning to pause before loading the new range
+    private boolean warnAboutGaps = true; // Whether the next shown range reports days without entries (not while zooming)
+    private boolean rangeChanged; // Whether an entry saved while the graph was hidden changed a day of the shown range
+
+    private static final int PIXELS_PER_POINT = 2; // Plotting more than one point per two pixels adds render time but no detail
+    private static final int MIN_GRAPH_POINTS = 50; // Point budget used before the chart panel has been laid out
+    private static final int DEFAULT_HISTORY_DAYS = 30; // Days offered by the date pickers until the first entry is known
+    private static final int MAX_LISTED_MISSING_DATES = 5; // Days without readings named in the warning; the rest are only counted
+    private static final int RANGE_CHANGE_DELAY_MILLIS = 250; // Pause in zooming or panning after which the range is loaded
+    private static final int PYRAMID_MIN_DAYS = 366; // Ranges longer than a year are drawn from pre-aggregated buckets
 
     /**
      * Constructs a `GlucoseGraph` instance with the specified user.
@@ -62,9 +88,13 @@ public class GlucoseGraph extends BaseUI {
         // Set the default date range to the last 7 days
         this.startDate = LocalDate.now().minusDays(6); // Start date is 6 days ago
         this.endDate = LocalDate.now(); // End date is today
+        this.startDateModel = new DateComboBoxModel(endDate, endDate.minusDays(DEFAULT_HISTORY_DAYS - 1));
+        this.endDateModel = new DateComboBoxModel(endDate, endDate.minusDays(DEFAULT_HISTORY_DAYS - 1));
+        startDateModel.setSelectedItem(startDate); // The pickers show the range on screen
+        endDateModel.setSelectedItem(endDate);
 
         buildUI(); // Build the user interface
-        setVisible(true); // Make the frame visible
+        onEntryChange(user, this::applyChange); // Keeping the day cache up to date as entries are saved
     }
 
     /**
@@ -98,17 +128,9 @@ public class GlucoseGraph extends BaseUI {
         startDateLabel.setAlignmentX(Component.CENTER_ALIGNMENT); // Center-align the label
         datePickersPanel.add(startDateLabel); // Add the label to the date pickers panel
 
-        JComboBox<String> startDateBox = createDateComboBox(); // Create a combo box for the start date
+        startDateBox = DateComboBoxModel.createComboBox(startDateModel); // Create a combo box for the start date
         startDateBox.setPreferredSize(new Dimension(150, startDateBox.getPreferredSize().height)); // Set fixed dimensions
         startDateBox.setAlignmentX(Component.CENTER_ALIGNMENT); // Center-align the combo box
-        startDateBox.setRenderer(new DefaultListCellRenderer() { // Customize the appearance of the combo box
-            @Override
-            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
-                JLabel label = (JLabel) super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
-                label.setHorizontalAlignment(SwingConstants.CENTER); // Center-align the text inside the combo box
-                return label;
-            }
-        });
         datePickersPanel.add(startDateBox); // Add the start date combo box to the panel
 
         // ===== End Date =====
@@ -117,18 +139,11 @@ public class GlucoseGraph extends BaseUI {
         endDateLabel.setAlignmentX(Component.CENTER_ALIGNMENT); // Center-align the label
         datePickersPanel.add(endDateLabel); // Add the label to the date pickers panel
 
-        JComboBox<String> endDateBox = createDateComboBox(); // Create a combo box for the end date
+        endDateBox = DateComboBoxModel.createComboBox(endDateModel); // Create a combo box for the end date
         endDateBox.setPreferredSize(new Dimension(150, endDateBox.getPreferredSize().height)); // Set fixed dimensions
         endDateBox.setAlignmentX(Component.CENTER_ALIGNMENT); // Center-align the combo box
-        endDateBox.setRenderer(new DefaultListCellRenderer() { // Customize the appearance of the combo box
-            @Override
-            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
-                JLabel label = (JLabel) super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
-                label.setHorizontalAlignment(SwingConstants.CENTER); // Center-align the text inside the combo box
-                return label;
-            }
-        });
         datePickersPanel.add(endDateBox); // Add the end date combo box to the panel
+        loadHistoryBounds(); // Letting both lists reach back to the first entry once it is known
 
         datePickersPanel.add(Box.createVerticalStrut(10)); // Add vertical space between components
 
@@ -137,22 +152,27 @@ public class GlucoseGraph extends BaseUI {
         generateButton.setFont(generateButton.getFont().deriveFont(14f)); // Set the font size
         generateButton.setMargin(new Insets(5, 15, 5, 15)); // Add padding around the button
         generateButton.addActionListener(e -> { // Add an action listener for the button
-            try {
-                startDate = parseDate((String) startDateBox.getSelectedItem()); // Parse the selected start date
-                endDate = parseDate((String) endDateBox.getSelectedItem()); // Parse the selected end date
-                if (startDate.isAfter(endDate)) { // Ensure the start date is not after the end date
-                    JOptionPane.showMessageDialog(this,
-                            "Start date cannot be after end date. Please select valid dates.",
-                            "Date Error",
-                            JOptionPane.WARNING_MESSAGE);
-                } else {
-                    updateGraph(); // Update the graph for the selected date range
-                }
-            } catch (DateTimeParseException ex) { // Handle invalid date formats
+            LocalDate selectedStart = startDateModel.getSelectedItem(); // The selected days, no parsing needed
+            LocalDate selectedEnd = endDateModel.getSelectedItem();
+            if (selectedStart == null || selectedEnd == null) { // Ensure both dates have been chosen
                 JOptionPane.showMessageDialog(this,
-                        "Invalid date format. Please select a valid date.",
+                        "Please select a start and an end date.",
                         "Error",
                         JOptionPane.ERROR_MESSAGE);
+            } else if (selectedStart.isAfter(selectedEnd)) { // Ensure the start date is not after the end date
+                JOptionPane.showMessageDialog(this,
+                        "Start date cannot be after end date. Please select valid dates.",
+                        "Date Error",
+                        JOptionPane.WARNING_MESSAGE);
+            } else {
+                startDate = selectedStart;
+                endDate = selectedEnd;
+                warnAboutGaps = true; // An explicit request, so missing days are worth mentioning
+                dateAxis().setAutoRange(true); // Dropping any zoom, the axis fits the new range
+                updateGraph(); // Update the graph for the selected date range
+                if (agpMode) {
+                    updateAgp(); // And the profile, when it is the chart on screen
+                }
             }
         });
 
@@ -168,19 +188,65 @@ public class GlucoseGraph extends BaseUI {
         buttonPanel.setLayout(new FlowLayout(FlowLayout.CENTER));  // Center-align components within the panel
         buttonPanel.add(generateButton);  // Add the "Generate Graph" button to the panel
 
+// Switches between the daily trend and the ambulatory glucose profile of the selected range
+        RoundedButton agpButton = new RoundedButton("Profile (AGP)", new Color(240, 240, 240));
+        agpButton.setFont(agpButton.getFont().deriveFont(14f));
+        agpButton.setMargin(new Insets(5, 15, 5, 15));
+        agpButton.setToolTipText("Percentile bands per meal slot, over the weeks of the selected range");
+        agpButton.addActionListener(e -> {
+            agpMode = !agpMode;
+            agpButton.setText(agpMode ? "Daily trend" : "Profile (AGP)");
+            if (agpMode) {
+                updateAgp();
+            } else {
+                if (agpWorker != null) {
+                    agpWorker.cancel(false);
+                }
+                setLoading(graphWorker != null && !graphWorker.isDone());
+                chartPanel.setChart(trendChart);  // Back to the daily chart, which kept following the range
+            }
+        });
+        buttonPanel.add(agpButton);  // Add the AGP toggle next to the "Generate Graph" button
+
+// Loading indicator, shown under the buttons while the graph is built in the background
+        loadingLabel = new JLabel("Loading graph...");
+        loadingLabel.setFont(loadingLabel.getFont().deriveFont(Font.ITALIC, 13f));
+        loadingLabel.setForeground(Color.GRAY);
+        loadingLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        loadingLabel.setVisible(false);
+
 // Panel for holding the "Send to Doctor" button
         JPanel doctorButtonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));  // Center-align components within the panel
         doctorButtonPanel.setOpaque(false);  // Make the panel background transparent
         doctorButtonPanel.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));  // Add padding around the panel
         doctorButtonPanel.add(sendToDoctorButton);  // Add the "Send to Doctor" button to the panel
 
+// Statistics of the shown range, computed from the loaded days whenever the range changes
+        statisticsLabel = new JLabel(" ", SwingConstants.CENTER);
+        statisticsLabel.setFont(new Font("SansSerif", Font.PLAIN, 12));
+        statisticsLabel.setForeground(new Color(0x55, 0x55, 0x55));
+        statisticsLabel.setAlignmentX(Component.CENTER_ALIGNMENT);  // Center the label in the vertical stack
+        statisticsLabel.setBorder(BorderFactory.createEmptyBorder(10, 0, 0, 0));  // Add padding above the label
+
 // Add the date pickers and buttons to the top panel
         topPanel.add(datePickersPanel);  // Add the date pickers panel to the top panel
         topPanel.add(buttonPanel);  // Add the "Generate Graph" button panel to the top panel
+        topPanel.add(loadingLabel);  // Add the loading indicator below the button
         mainPanel.add(topPanel, BorderLayout.NORTH);  // Place the top panel at the top of the main layout
 
 // Chart panel for displaying the glucose graph
-        chartPanel = new ChartPanel(null);  // Create a ChartPanel without a dataset initially
+        trendChart = GlucoseChartFactory.createChart(plottedSeries);  // Create the chart once; range changes only update its series
+        chartPanel = new ChartPanel(trendChart);
+        chartPanel.setMouseWheelEnabled(true);  // Zoom the dates with the mouse wheel
+        chartPanel.setRangeZoomable(false);  // Zooming changes the dates shown, not the glucose scale
+        trendChart.getXYPlot().setDomainPannable(true);  // Ctrl-drag moves the dates shown
+        rangeChangeTimer = new Timer(RANGE_CHANGE_DELAY_MILLIS, e -> followVisibleRange());
+        rangeChangeTimer.setRepeats(false);
+        dateAxis().addChangeListener(event -> {
+            if (!dateAxis().isAutoRange()) {
+                rangeChangeTimer.restart();  // The user zoomed or panned; loading once they pause
+            }
+        });
         chartPanel.setOpaque(false);  // Make the chart panel background transparent
         chartPanel.setPreferredSize(new Dimension(800, 250));  // Set the preferred size of the chart panel
         chartPanel.revalidate();  // Refresh the chart panel layout
@@ -197,6 +263,7 @@ public class GlucoseGraph extends BaseUI {
                 "/Icons/home.png", "/Icons/logbook.png", "/Icons/graphfull.png", "/Icons/profile.png");  // Create a navigation bar with icons
 
 // Add the doctor button panel and navigation bar to the bottom wrapper
+        bottomWrapper.add(statisticsLabel);  // Add the statistics above the doctor button
         bottomWrapper.add(doctorButtonPanel);  // Add the "Send to Doctor" button panel
         bottomWrapper.add(navBar);  // Add the navigation bar
 
@@ -209,240 +276,597 @@ public class GlucoseGraph extends BaseUI {
     }
 
     /**
-     * Updates the chart panel with a new glucose graph based on the selected date range.
+     * Updates the glucose graph for the selected date range.
+     * The chart, its axes and renderer are built once; a range change only queries the days that have not been loaded
+     * yet (one aggregate query per missing block, on a background worker) and then mutates the series on the EDT:
+     * days that left the range are removed at the edges and new days are added, so moving the range by one day
+     * queries and plots one day. Starting a new load cancels the previous one, and a superseded load never touches the series.
      */
-    /* Reference 12 - this block was taken from ChatGPT*/
     private void updateGraph() {
-        // Build the dataset for the selected date range
-        XYDataset dataset = buildDatasetForRange();
-
-        // Create the chart with a vertical orientation and no legend, tooltips, or URLs
-        JFreeChart chart = ChartFactory.createXYLineChart(
-                "",  // No title
-                "Date",  // X-axis label
-                "Blood Glucose [mmol/L]",  // Y-axis label
-                dataset,  // Dataset for the chart
-                PlotOrientation.VERTICAL,  // Vertical plot orientation
-                false,  // No legend
-                false,  // No tooltips
-                false   // No URLs
-        );
-        /* end of reference 12*/
-
-        // Customize the plot
-        XYPlot plot = chart.getXYPlot();
-
-        // Configure the domain axis (X-axis)
-        DateAxis dateAxis = new DateAxis("Date");  // Create a date axis with the label "Date"
-        dateAxis.setLabelFont(dateAxis.getLabelFont().deriveFont(Font.BOLD));  // Set the label font to bold
-        Font newFont = dateAxis.getLabelFont().deriveFont(14f);  // Set the font size to 14
-        dateAxis.setLabelFont(newFont);  // Apply the new font size
-        dateAxis.setDateFormatOverride(new SimpleDateFormat("d MMM"));  // Format dates as "day month"
-        plot.setDomainAxis(dateAxis);  // Set the configured axis as the domain axis
-
-        // Configure the range axis (Y-axis)
-        ValueAxis rangeAxis = plot.getRangeAxis();  // Get the range axis
-        rangeAxis.setLabelFont(rangeAxis.getLabelFont().deriveFont(Font.BOLD));  // Set the label font to bold
-
-        // Customize the renderer for the chart
-        XYLineAndShapeRenderer renderer = new XYLineAndShapeRenderer();  // Create a line-and-shape renderer
-        renderer.setSeriesShapesVisible(0, true);  // Enable shapes for the first series
-        renderer.setSeriesLinesVisible(0, true);  // Enable lines for the first series
-        plot.setRenderer(renderer);  // Set the renderer for the plot
-
-        // Update the chart panel with the new chart
-        chartPanel.setChart(chart);
+        // Cancelling the load in progress; it stops at its next block boundary
+        if (graphWorker != null) {
+            graphWorker.cancel(false);
+        }
+        final int generation = ++graphGeneration;
+        final LocalDate rangeStart = startDate; // Copies of the range, so the worker is unaffected by later selections
+        final LocalDate rangeEnd = endDate;
+        final int pointBudget = graphPointBudget(); // Read on the EDT, as it depends on the component's size
+        if (rangeEnd.toEpochDay() - rangeStart.toEpochDay() + 1 >= PYRAMID_MIN_DAYS) {
+            // Years of data: loading every day would be wasted on a chart that cannot show them
+            loadBuckets(rangeStart, rangeEnd, pointBudget, generation);
+            return;
+        }
+        final List<LocalDate[]> missingBlocks = findUnloadedBlocks(rangeStart, rangeEnd); // Read on the EDT, which owns the cache
+
+        if (missingBlocks.isEmpty()) {
+            // Every day of the range is already loaded, no query needed
+            setLoading(false);
+            showRange(rangeStart, rangeEnd, pointBudget);
+            return;
+        }
+
+        setLoading(true);
+        graphWorker = new SwingWorker<Map<LocalDate, DailySummary>, Void>() {
+            @Override
+            protected Map<LocalDate, DailySummary> doInBackground() {
+                return loadDays(missingBlocks, this::isCancelled);
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled() || generation != graphGeneration) {
+                    return; // A newer load owns the chart now
+                }
+                setLoading(agpMode && agpWorker != null && !agpWorker.isDone());
+                try {
+                    // Merging the new days into the cache on the EDT
+                    loadedDays.putAll(get());
+                } catch (InterruptedException | java.util.concurrent.ExecutionException e) {
+                    e.printStackTrace();
+                    JOptionPane.showMessageDialog(GlucoseGraph.this, "Failed to load the graph. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                showRange(rangeStart, rangeEnd, pointBudget);
+            }
+        };
+        graphWorker.execute();
     }
 
     /**
-     * Builds the dataset for the glucose graph based on the selected date range.
-     *
-     * @return An XYDataset containing blood glucose levels over the specified date range.
+     * Loads a long range from the tile pyramid in the background: weekly, monthly or quarterly buckets, whichever
+     * is the finest that fits the chart width, so the number of points (and tiles) stays the same at any zoom level.
      */
-    /* Reference 13 - the entire logic & syntax for building this dataset was taken from ChatGPT*/
-    private XYDataset buildDatasetForRange() {
-        DefaultXYDataset dataset = new DefaultXYDataset();  // Dataset to store the series
-        int numDays = (int) (endDate.toEpochDay() - startDate.toEpochDay() + 1);  // Calculate the number of days in the range
-        if (numDays <= 0) {  // If the range is invalid (negative or zero days), return an empty dataset
-            return dataset;
+    private void loadBuckets(LocalDate rangeStart, LocalDate rangeEnd, int pointBudget, int generation) {
+        final int userId = currentUser.getId();
+        setLoading(true);
+        graphWorker = new SwingWorker<List<TilePyramid.Bucket>, Void>() {
+            @Override
+            protected List<TilePyramid.Bucket> doInBackground() {
+                return TilePyramid.getBuckets(userId, rangeStart, rangeEnd, pointBudget);
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled() || generation != graphGeneration) {
+                    return; // A newer load owns the chart now
+                }
+                setLoading(agpMode && agpWorker != null && !agpWorker.isDone());
+                try {
+                    showBuckets(get());
+                } catch (InterruptedException | java.util.concurrent.ExecutionException e) {
+                    e.printStackTrace();
+                    JOptionPane.showMessageDialog(GlucoseGraph.this, "Failed to load the graph. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        graphWorker.execute();
+    }
+
+    /**
+     * Plots one point per bucket (its mean glucose and mean daily carbs and insulin) and shows the buckets' statistics.
+     */
+    private void showBuckets(List<TilePyramid.Bucket> buckets) {
+        for (DailyMeasure measure : DailyMeasure.values()) {
+            XYSeries series = plottedSeries.get(measure);
+            series.setNotify(false); // Batching the changes into a single chart update
+            try {
+                series.clear();
+                for (TilePyramid.Bucket bucket : buckets) {
+                    series.add(dayToX(bucket.getMidDate()), bucketToY(measure, bucket), false);
+                }
+            } finally {
+                series.setNotify(true);
+            }
+        }
+        if (!buckets.isEmpty()) {
+            TilePyramid.Bucket first = buckets.get(0);
+            GlucoseChartFactory.setCarbsBarWidth(trendChart, first.getEndDate().toEpochDay() - first.getStartDate().toEpochDay() + 1);
         }
+        shownStart = null; // Not one point per day, so the next daily range starts from scratch
+        shownEnd = null;
 
-        double[] xValues = new double[numDays];  // Array to store X-axis values (dates)
-        double[] yValues = new double[numDays];  // Array to store Y-axis values (blood glucose levels)
-        List<String> missingDates = new ArrayList<>();  // List to collect dates with no entries
+        GlycemicStatistics statistics = new GlycemicStatistics();
+        for (TilePyramid.Bucket bucket : buckets) {
+            bucket.addTo(statistics);
+        }
+        statisticsLabel.setText(formatStatistics(statistics));
+        warnAboutGaps = false; // Listing every day without entries over years would not help
+    }
 
-        for (int i = 0; i < numDays; i++) {
-            LocalDate currentDate = startDate.plusDays(i);  // Get the current date in the range
-            xValues[i] = java.sql.Date.valueOf(currentDate).getTime();  // Convert the date to a timestamp for X-axis
+    /**
+     * @return The Y value of a bucket for a measure, or NaN for a gap.
+     */
+    private static double bucketToY(DailyMeasure measure, TilePyramid.Bucket bucket) {
+        switch (measure) {
+            case CARBS:
+                return bucket.getAverageDailyCarbs();
+            case INSULIN:
+                return bucket.getAverageDailyInsulin();
+            default:
+                return bucket.getMeanBloodSugar();
+        }
+    }
 
-            List<LogEntry> dayEntries = LogService.getEntriesForDate(currentUser.getId(), currentDate.toString());  // Get log entries for the date
+    /**
+     * Shows the ambulatory glucose profile of the selected range, built in the background from the per-week
+     * sketches of AgpService (only weeks that are not cached yet are queried).
+     */
+    private void updateAgp() {
+        if (agpWorker != null) {
+            agpWorker.cancel(false);
+        }
+        final LocalDate rangeStart = startDate;
+        final LocalDate rangeEnd = endDate;
+        final int userId = currentUser.getId();
 
-            if (dayEntries.isEmpty()) {
-                yValues[i] = Double.NaN;  // Mark missing data points with NaN
-                missingDates.add(currentDate.format(DateTimeFormatter.ofPattern("d MMM yyyy")));  // Add the missing date to the list
-            } else {
-                double sum = 0;
-                for (LogEntry e : dayEntries) {
-                    sum += e.getBloodSugar();  // Sum up all blood glucose values for the day
+        shownProfile = null;
+        setLoading(true);
+        agpWorker = new SwingWorker<Map<MealSlot, QuantileSketch>, Void>() {
+            @Override
+            protected Map<MealSlot, QuantileSketch> doInBackground() {
+                return AgpService.getProfile(userId, rangeStart, rangeEnd);
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled() || this != agpWorker || !agpMode) {
+                    return; // Superseded, or the daily trend is shown again
+                }
+                setLoading(graphWorker != null && !graphWorker.isDone());
+                try {
+                    shownProfile = get(); // Built for this screen alone, so it can be sent as it is
+                    chartPanel.setChart(GlucoseChartFactory.createAgpChart(shownProfile));
+                } catch (InterruptedException | java.util.concurrent.ExecutionException e) {
+                    e.printStackTrace();
+                    JOptionPane.showMessageDialog(GlucoseGraph.this, "Failed to load the glucose profile. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
                 }
-                yValues[i] = sum / dayEntries.size();  // Calculate the average glucose level for the day
             }
-        }
+        };
+        agpWorker.execute();
+    }
 
-        dataset.addSeries("BG Trend", new double[][]{xValues, yValues});  // Add the series to the dataset
-        /* end of reference 13 */
+    /**
+     * Works out how many points the chart can usefully show, from the width of the chart panel.
+     *
+     * @return The maximum number of points to plot.
+     */
+    private int graphPointBudget() {
+        int width = chartPanel.getWidth() > 0 ? chartPanel.getWidth() : getWidth(); // Before layout, the window is the best estimate
+        return Math.max(MIN_GRAPH_POINTS, width / PIXELS_PER_POINT);
+    }
 
-        // Notify the user of missing dates
-        if (!missingDates.isEmpty()) {
-            StringBuilder missingDatesStr = new StringBuilder();  // Build the warning message
-            for (String missingDate : missingDates) {
-                missingDatesStr.append(missingDate).append("\n");  // Append each date to the message
-            }
+    /**
+     * Shows or hides the loading indicator for the chart.
+     */
+    private void setLoading(boolean loading) {
+        loadingLabel.setVisible(loading);
+        chartPanel.setCursor(loading ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+    }
 
-            SwingUtilities.invokeLater(() -> {
-                JOptionPane.showMessageDialog(this,
-                        "The following dates have no blood glucose entries:\n" + missingDatesStr.toString() +
-                                "The graph might be incomplete.",
-                        "Warning",
-                        JOptionPane.WARNING_MESSAGE);
-            });
+    /**
+     * Applies a saved entry: only its day is dropped from the day cache, so only that day is queried again.
+     * The chart is redrawn right away if it shows the day, or when the graph is shown again if it is hidden; a load
+     * still in progress is abandoned, as it may hold the day from before the save.
+     *
+     * @param change A change saved by the current user.
+     */
+    private void applyChange(EntryChange change) {
+        if (change.getType() != EntryChange.Type.ENTRY_SAVED) {
+            return;
+        }
+        LocalDate day = change.getDate();
+        loadedDays.remove(day);
+        if (day.isBefore(startDate) || day.isAfter(endDate)) {
+            return; // Not on the chart; the day is loaded again if the range moves over it
+        }
+        // A load of the range may have read the day before it was saved, and its done() may still be queued even if
+        // it has finished: a new generation makes it drop its result instead of caching the old day
+        graphGeneration++;
+        if (graphWorker != null && !graphWorker.isDone()) {
+            graphWorker.cancel(false);
+        }
+        if (getContentPane().isShowing()) {
+            reloadChangedRange();
+        } else {
+            rangeChanged = true;
+        }
+    }
+
+    /**
+     * Redraws the shown range when the graph is shown again from AppNavigator's cache after an entry of the range
+     * was saved elsewhere (e.g. in a logbook). Otherwise the graph is left as it was.
+     */
+    @Override
+    protected void onShown() {
+        if (rangeChanged) {
+            reloadChangedRange();
         }
+    }
+
+    /**
+     * Redraws the shown range from the day cache, which queries only the changed days (or the buckets, for long ranges).
+     */
+    private void reloadChangedRange() {
+        rangeChanged = false;
+        shownStart = null; // The changed days are inside the range, so the series is rebuilt from the cache
+        shownEnd = null;
+        updateGraph();
+        if (agpMode) {
+            updateAgp(); // And the profile, when it is the chart on screen
+        }
+    }
 
-        return dataset;  // Return the dataset
+    /**
+     * Cancels any graph load still running when the screen is closed.
+     */
+    @Override
+    public void dispose() {
+        if (graphWorker != null) {
+            graphWorker.cancel(false);
+        }
+        if (agpWorker != null) {
+            agpWorker.cancel(false);
+        }
+        super.dispose();
     }
 
     /**
-     * Creates a combo box for date selection.
+     * Finds the blocks of consecutive days in a range that are not in the day cache yet.
+     * When the range moves by a few days, this is just the new days at one edge.
      *
-     * @return A JComboBox pre-populated with dates from the last 30 days.
+     * @param startDate The first day of the range.
+     * @param endDate   The last day of the range.
+     * @return The missing blocks as {first, last} pairs, in date order.
      */
-    private JComboBox<String> createDateComboBox() {
-        JComboBox<String> dateBox = new JComboBox<>();  // Create a new combo box
-        dateBox.addItem("Please select date for graph generation");  // Add a placeholder item
-        dateBox.setSelectedIndex(0);  // Set the placeholder as the default selection
-
-        LocalDate today = LocalDate.now();  // Get the current date
-        for (int i = 0; i < 30; i++) {
-            LocalDate date = today.minusDays(i);  // Generate the date for each day in the past 30 days
-            dateBox.addItem(formatDateWithOrdinal(date));  // Format the date with an ordinal suffix and add it to the combo box
+    private List<LocalDate[]> findUnloadedBlocks(LocalDate startDate, LocalDate endDate) {
+        List<LocalDate[]> blocks = new ArrayList<>();
+        LocalDate blockStart = null;
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            if (!loadedDays.containsKey(day)) {
+                if (blockStart == null) {
+                    blockStart = day; // A new missing block starts here
+                }
+            } else if (blockStart != null) {
+                blocks.add(new LocalDate[]{blockStart, day.minusDays(1)});
+                blockStart = null;
+            }
+        }
+        if (blockStart != null) {
+            blocks.add(new LocalDate[]{blockStart, endDate});
         }
-        return dateBox;
+        return blocks;
     }
 
     /**
-     * Formats a LocalDate with an ordinal suffix for display.
+     * Loads the daily summaries of the given blocks of days, one aggregate query per block.
+     * Runs on the graph worker thread. Days without entries are stored as empty summaries, so they are not queried again.
      *
-     * @param date The date to format.
-     * @return A string representation of the date with an ordinal suffix.
+     * @param blocks    The blocks of days to load.
+     * @param cancelled Checked before each block's query.
+     * @return The loaded days, to be merged into the cache on the EDT.
      */
-    private String formatDateWithOrdinal(LocalDate date) {
-        int day = date.getDayOfMonth();  // Get the day of the month
-        String suffix = getDaySuffix(day);  // Determine the appropriate ordinal suffix
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("d'" + suffix + "' MMM yyyy");  // Define the date format
-        return date.format(formatter);  // Format and return the date
+    private Map<LocalDate, DailySummary> loadDays(List<LocalDate[]> blocks, BooleanSupplier cancelled) {
+        Map<LocalDate, DailySummary> days = new HashMap<>();
+        for (LocalDate[] block : blocks) {
+            if (cancelled.getAsBoolean()) {
+                break; // A newer range was requested, the partial result will be discarded
+            }
+            for (LocalDate day = block[0]; !day.isAfter(block[1]); day = day.plusDays(1)) {
+                days.put(day, new DailySummary(day.toString())); // Empty until the query says otherwise
+            }
+            for (DailySummary summary : LogService.getDailySummaries(currentUser.getId(), block[0].toString(), block[1].toString())) {
+                days.put(LocalDate.parse(summary.getDate()), summary);
+            }
+        }
+        return days;
     }
 
     /**
-     * Determines the ordinal suffix for a given day of the month.
+     * Brings the plotted series (glucose, carbs and insulin) in line with a date range, using the days in the cache.
+     * Called on the EDT. If the new range overlaps the one on screen, only the days that left or entered the range are
+     * removed or added; each series notifies the chart once, after all changes. Ranges with more days than the point
+     * budget are reduced with LTTB, which depends on the whole range, so those are rebuilt from the cache instead
+     * (still without queries).
      *
-     * @param day The day of the month.
-     * @return The ordinal suffix as a string (e.g., "st", "nd", "rd", "th").
+     * @param startDate   The first day of the range.
+     * @param endDate     The last day of the range.
+     * @param pointBudget The maximum number of points to plot.
      */
-    private String getDaySuffix(int day) {
-        if (day >= 11 && day <= 13) return "th";  // Special case for 11th, 12th, and 13th
-        switch (day % 10) {
-            case 1:
-                return "st";
-            case 2:
-                return "nd";
-            case 3:
-                return "rd";
-            default:
-                return "th";
+    private void showRange(LocalDate startDate, LocalDate endDate, int pointBudget) {
+        int numDays = (int) (endDate.toEpochDay() - startDate.toEpochDay() + 1);  // Calculate the number of days in the range
+        boolean reuseShownDays = numDays <= pointBudget && shownStart != null
+                && !startDate.isAfter(shownEnd) && !endDate.isBefore(shownStart);
+
+        for (DailyMeasure measure : DailyMeasure.values()) {
+            XYSeries series = plottedSeries.get(measure);
+            series.setNotify(false); // Batching the changes into a single chart update
+            try {
+                if (numDays > pointBudget) {
+                    // Too many days for the chart width: reducing the range with LTTB, keeping peaks, troughs and gaps
+                    double[] xValues = new double[numDays];
+                    double[] yValues = new double[numDays];
+                    for (int i = 0; i < numDays; i++) {
+                        LocalDate day = startDate.plusDays(i);
+                        xValues[i] = dayToX(day);
+                        yValues[i] = dayToY(measure, day);
+                    }
+                    double[][] reduced = LttbDownsampler.downsample(xValues, yValues, pointBudget);
+                    series.clear();
+                    for (int i = 0; i < reduced[0].length; i++) {
+                        series.add(reduced[0][i], reduced[1][i], false);
+                    }
+                } else if (!reuseShownDays) {
+                    // Nothing on screen to reuse
+                    series.clear();
+                    addDays(measure, startDate, endDate);
+                } else {
+                    // Removing the days that left the range, at either edge
+                    double firstX = dayToX(startDate);
+                    double lastX = dayToX(endDate);
+                    while (series.getItemCount() > 0 && series.getX(0).doubleValue() < firstX) {
+                        series.remove(0);
+                    }
+                    while (series.getItemCount() > 0 && series.getX(series.getItemCount() - 1).doubleValue() > lastX) {
+                        series.remove(series.getItemCount() - 1);
+                    }
+                    // Adding the days that entered the range, at either edge
+                    addDays(measure, startDate, shownStart.minusDays(1));
+                    addDays(measure, shownEnd.plusDays(1), endDate);
+                }
+            } finally {
+                series.setNotify(true); // Fires one change event, the chart repaints once
+            }
+        }
+
+        GlucoseChartFactory.setCarbsBarWidth(trendChart, 1); // Back to daily bars after a zoomed-out view
+
+        // A reduced series is not one point per day, so the next change starts from scratch
+        shownStart = numDays > pointBudget ? null : startDate;
+        shownEnd = numDays > pointBudget ? null : endDate;
+        showStatistics(startDate, endDate);
+        if (warnAboutGaps) {
+            warnAboutGaps = false;
+            warnAboutMissingDates(startDate, endDate);
+        }
+    }
+
+    /**
+     * Shows the statistics of a range, merged from the daily aggregates already loaded for the chart (no query).
+     */
+    private void showStatistics(LocalDate startDate, LocalDate endDate) {
+        List<DailySummary> days = new ArrayList<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            DailySummary summary = loadedDays.get(day);
+            if (summary != null) {
+                days.add(summary);
+            }
         }
+        statisticsLabel.setText(formatStatistics(StatisticsService.fromSummaries(days)));
     }
 
     /**
-     * Parses a date string in the format "d MMM yyyy" (with ordinal suffixes) into a LocalDate.
+     * Adds one point per day to a series, for the days between two dates (nothing if the end is before the start).
+     */
+    private void addDays(DailyMeasure measure, LocalDate from, LocalDate to) {
+        XYSeries series = plottedSeries.get(measure);
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            series.add(dayToX(day), dayToY(measure, day), false);
+        }
+    }
+
+    /**
+     * @return The X value (timestamp) of a day.
+     */
+    private static double dayToX(LocalDate day) {
+        return GlucoseChartFactory.dayToX(day);
+    }
+
+    /**
+     * @return The Y value of a day for a measure (e.g. its average glucose level), or NaN to mark missing data.
+     */
+    private double dayToY(DailyMeasure measure, LocalDate day) {
+        return measure.of(loadedDays.get(day));
+    }
+
+    /**
+     * Warns the user about dates in the range that have no blood glucose readings. Called on the EDT once the days are loaded.
+     * Only the first few dates are named, so a sparse year does not make the dialog hundreds of lines tall.
      *
-     * @param dateString The date string to parse.
-     * @return The parsed LocalDate.
+     * @param startDate The first day of the range.
+     * @param endDate   The last day of the range.
      */
-    private LocalDate parseDate(String dateString) {
-        String cleanedDateString = dateString.replaceAll("(\\d+)(st|nd|rd|th)", "$1");  // Remove ordinal suffixes
-        return LocalDate.parse(cleanedDateString, DateTimeFormatter.ofPattern("d MMM yyyy"));  // Parse the cleaned date
+    private void warnAboutMissingDates(LocalDate startDate, LocalDate endDate) {
+        int missingCount = 0;
+        StringBuilder missingDatesStr = new StringBuilder();  // Build the warning message from the first few dates
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            if (Double.isNaN(dayToY(DailyMeasure.GLUCOSE, day))) {
+                if (++missingCount <= MAX_LISTED_MISSING_DATES) {
+                    missingDatesStr.append(day.format(DateTimeFormatter.ofPattern("d MMM yyyy"))).append("\n");
+                }
+            }
+        }
+
+        // Notify the user of missing dates
+        if (missingCount > 0) {
+            if (missingCount > MAX_LISTED_MISSING_DATES) {
+                missingDatesStr.append("... and ").append(missingCount - MAX_LISTED_MISSING_DATES).append(" more\n");
+            }
+            JOptionPane.showMessageDialog(this,
+                    missingCount + (missingCount == 1 ? " day has" : " days have") + " no blood glucose entries:\n"
+                            + missingDatesStr + "The graph might be incomplete.",
+                    "Warning",
+                    JOptionPane.WARNING_MESSAGE);
+        }
     }
 
     /**
-     * Sends the glucose graph to the user's doctor via email.
+     * Looks up the user's first entry in the background and extends both date pickers back to it,
+     * so any past range can be chosen.
+     */
+    private void loadHistoryBounds() {
+        final int userId = currentUser.getId();
+        new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() {
+                return LogService.getEarliestEntryDate(userId);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    String earliest = get();
+                    if (earliest != null) {
+                        startDateModel.extendTo(LocalDate.parse(earliest));
+                        endDateModel.extendTo(LocalDate.parse(earliest));
+                    }
+                } catch (Exception e) {
+                    e.printStackTrace(); // The pickers keep their default history
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Loads and shows the days the user zoomed or panned to. Only days not loaded yet are queried,
+     * and the pickers follow the visible range.
+     */
+    private void followVisibleRange() {
+        Range visible = dateAxis().getRange();
+        LocalDate first = xToDay(visible.getLowerBound());
+        if (dayToX(first) < visible.getLowerBound()) {
+            first = first.plusDays(1); // Only days whose point is visible
+        }
+        LocalDate last = xToDay(visible.getUpperBound());
+        if (last.isAfter(LocalDate.now())) {
+            last = LocalDate.now(); // Nothing to load from the future
+        }
+        if (first.isAfter(last) || (first.equals(startDate) && last.equals(endDate))) {
+            return; // Zoomed into a single day, or nothing changed
+        }
+        startDate = first;
+        endDate = last;
+        startDateModel.setSelectedItem(first);
+        endDateModel.setSelectedItem(last);
+        updateGraph();
+        if (agpMode) {
+            updateAgp();
+        }
+    }
+
+    /**
+     * @return The date axis of the daily chart.
+     */
+    private DateAxis dateAxis() {
+        return (DateAxis) trendChart.getXYPlot().getDomainAxis();
+    }
+
+    /**
+     * @return The day an X value (timestamp) falls on.
+     */
+    private static LocalDate xToDay(double x) {
+        return new java.sql.Date((long) x).toLocalDate();
+    }
+
+    /**
+     * Sends the glucose graph to the user's doctor via email: the daily trend, or the glucose profile when that is
+     * the chart on screen.
      *  -- AI (ChatGPT) was a significant contributor to this section of the code, similarly to the (almost) identical email section in Alarm Service --
      *  ChatGPT wasn't properly referenced here as it has been referenced in the AlarmService class and the code here was copy and pasted from that class
      */
     private void sendDataToDoctor() {
-        final String fromEmail = "sugarbyte.app@gmail.com";  // Sender's email
-        final String appPassword = "twym wigt ytak botd";  // App-specific password
-
-        // Configure SMTP properties
-        Properties props = new Properties();
-        props.put("mail.smtp.host", "smtp.gmail.com");
-        props.put("mail.smtp.port", "587");
-        props.put("mail.smtp.auth", "true");
-        props.put("mail.smtp.starttls.enable", "true");
-        props.put("mail.smtp.ssl.trust", "smtp.gmail.com");
-
-        // Authenticate with the SMTP server
-        Session session = Session.getInstance(props, new Authenticator() {
+        if (agpMode ? shownProfile == null : graphWorker != null && !graphWorker.isDone()) {
+            JOptionPane.showMessageDialog(this, "The graph is still loading. Please try again in a moment.", "Please wait", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        // Copying the plotted points on the EDT, so the worker renders them while the screen is free to change the series
+        final Map<DailyMeasure, XYSeries> pointsToSend = new EnumMap<>(DailyMeasure.class);
+        final Map<MealSlot, QuantileSketch> profileToSend = agpMode ? shownProfile : null; // Never changed once shown
+        if (profileToSend == null) {
+            try {
+                for (DailyMeasure measure : DailyMeasure.values()) {
+                    pointsToSend.put(measure, (XYSeries) plottedSeries.get(measure).clone());
+                }
+            } catch (CloneNotSupportedException e) {
+                e.printStackTrace();
+                JOptionPane.showMessageDialog(this, "Failed to prepare the graph for sending.", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+        }
+        final int imageWidth = chartPanel.getWidth() > 0 ? chartPanel.getWidth() : 800;  // Same size as on screen
+        final int imageHeight = chartPanel.getHeight() > 0 ? chartPanel.getHeight() : 250;
+
+        // Prepare email details
+        String doctorEmail = currentUser.getDoctorEmail();
+        String doctorName = currentUser.getDoctorName();
+        String userName = currentUser.getName();
+        String formattedStartDate = DateComboBoxModel.format(startDate);  // Format start date
+        String formattedEndDate = DateComboBoxModel.format(endDate);  // Format end date
+
+        // Create the email; the graph image is attached by the worker
+        String graphName = profileToSend != null ? "glucose profile (AGP)" : "glucose graph";
+        final Notification notification = new Notification(
+                doctorEmail,
+                (profileToSend != null ? "Glucose Profile (AGP): " : "Glucose Graph: ") + formattedStartDate + " to " + formattedEndDate,
+                String.format(
+                        "Dear Dr. %s,\n\nPlease find attached the %s for your patient %s from %s to %s.\n\nBest regards,\nSugarByte",
+                        doctorName, graphName, userName, formattedStartDate, formattedEndDate));
+
+        // Rendering, encoding and sending happen off the EDT; the image only ever exists in memory
+        new SwingWorker<Void, Void>() {
             @Override
-            protected PasswordAuthentication getPasswordAuthentication() {
-                return new PasswordAuthentication(fromEmail, appPassword);
+            protected Void doInBackground() throws Exception {
+                JFreeChart chart = profileToSend != null
+                        ? GlucoseChartFactory.createAgpChart(profileToSend)
+                        : GlucoseChartFactory.createChart(pointsToSend); // Same look as on screen
+                String fileName = profileToSend != null ? "glucose_profile.png" : "glucose_graph.png";
+                notification.addAttachment(ChartImageEncoder.encodeAttachment(chart, imageWidth, imageHeight, fileName));
+
+                // Sending the email through the app's notification transport (SMTP by default)
+                NotificationTransports.get().send(notification);
+                return null;
             }
-        });
 
-        try {
-            // Capture the chart as an image
-            BufferedImage chartImage = chartPanel.getChart().createBufferedImage(chartPanel.getWidth(), chartPanel.getHeight());
-            File tempFile = new File("glucose_graph.png");  // Temporary file for the image
-            ImageIO.write(chartImage, "png", tempFile);  // Write the image to the file
-
-            // Prepare email details
-            String doctorEmail = currentUser.getDoctorEmail();
-            String doctorName = currentUser.getDoctorName();
-            String userName = currentUser.getName();
-            String formattedStartDate = formatDateWithOrdinal(startDate);  // Format start date
-            String formattedEndDate = formatDateWithOrdinal(endDate);  // Format end date
-
-            // Create and configure the email message
-            MimeMessage message = new MimeMessage(session);
-            message.setFrom(new InternetAddress(fromEmail));
-            message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(doctorEmail));
-            message.setSubject("Glucose Graph: " + formattedStartDate + " to " + formattedEndDate);
-
-            // Add the email body
-            MimeBodyPart messageBodyPart = new MimeBodyPart();
-            messageBodyPart.setText(String.format(
-                    "Dear Dr. %s,\n\nPlease find attached the glucose graph for your patient %s from %s to %s.\n\nBest regards,\nSugarByte",
-                    doctorName, userName, formattedStartDate, formattedEndDate));
-
-            // Attaching the graph image
-            MimeBodyPart attachmentPart = new MimeBodyPart();
-            attachmentPart.attachFile(tempFile);
-
-            // combining the email body and attachment
-            Multipart multipart = new MimeMultipart();
-            multipart.addBodyPart(messageBodyPart);
-            multipart.addBodyPart(attachmentPart);
-
-            message.setContent(multipart);
-
-            // Sending the email using Java Mail's in-built transport method
-            Transport.send(message);
-
-            // Notify the user of success
-            JOptionPane.showMessageDialog(this, "Graph sent to your doctor successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
-        } catch (Exception e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Failed to send the email: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+            @Override
+            protected void done() {
+                try {
+                    get();
+                    // Notify the user of success
+                    JOptionPane.showMessageDialog(GlucoseGraph.this, "Graph sent to your doctor successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                } catch (java.util.concurrent.ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof TransportUnavailableException) {
+                        // Rate limited or the mail server is down: nothing was sent, so the user can simply try again later
+                        long seconds = Math.max(1, (((TransportUnavailableException) cause).getRetryAfterMillis() + 999) / 1000);
+                        JOptionPane.showMessageDialog(GlucoseGraph.this, "The email service is busy. Please try again in " + seconds + " seconds.", "Try again later", JOptionPane.WARNING_MESSAGE);
+                    } else {
+                        cause.printStackTrace();
+                        JOptionPane.showMessageDialog(GlucoseGraph.this, "Failed to send the email: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
     }
 
 }
@@ -16,6 +16,7 @@ public class GlucoseIndicator extends JPanel {
     private static final Color SAFE_COLOR = new Color(46, 204, 113);    // A green shade representing safe levels
     private static final Color WARNING_COLOR = new Color(243, 156, 18); // An orange shade representing warning levels
     private static final Color DANGER_COLOR = new Color(231, 76, 60);   // A red shade representing danger levels
+    private static final Color NO_DATA_COLOR = new Color(170, 170, 170); // A gray shade shown before any reading is logged
 
     // Defining medical thresholds for blood glucose levels in mmol/L
     private static final double HYPO_THRESHOLD = 3.3;    // Threshold for dangerously low levels
@@ -27,6 +28,8 @@ public class GlucoseIndicator extends JPanel {
     private double glucoseLevel;       // Current blood glucose level
     private Timer warningTimer;        // Timer controlling the flashing animation
     private boolean isFlashing = false; // Boolean flag to indicate if flashing is active
+    private boolean hasReading;        // Whether a reading is shown, rather than the "no readings" state
+    private String readingTime;        // When the shown reading was taken (e.g. "2025-01-13, Lunch Post"), or null
 
     /**
      * Constructing the GlucoseIndicator panel.
@@ -58,6 +61,7 @@ public class GlucoseIndicator extends JPanel {
     public void updateGlucoseLevel(double level) {
         // Storing the provided glucose level
         this.glucoseLevel = level;
+        this.hasReading = true;
 
         // Starting the flashing animation if the level is dangerously high or low
         if (level < HYPO_THRESHOLD || level > HYPER_THRESHOLD) {
@@ -75,6 +79,27 @@ public class GlucoseIndicator extends JPanel {
         repaint();
     }
 
+    /**
+     * Updating the displayed glucose level, along with when it was taken (shown in the tooltip).
+     * @param level The new blood glucose level to display.
+     * @param takenAt When the reading was taken, e.g. its date and time of day.
+     */
+    public void updateGlucoseLevel(double level, String takenAt) {
+        this.readingTime = takenAt;
+        updateGlucoseLevel(level);
+    }
+
+    /**
+     * Showing that there is no reading to display yet, instead of a made-up level.
+     */
+    public void showNoData() {
+        hasReading = false;
+        readingTime = null;
+        warningTimer.stop(); // Nothing to warn about
+        isFlashing = false;
+        repaint();
+    }
+
     /**
      * Overriding the paintComponent method to draw the glucose indicator.
      * This method customizes the appearance of the panel.
@@ -102,7 +127,11 @@ public class GlucoseIndicator extends JPanel {
         String warningMessage = "";  // Initializing with no message
 
         // Checking the glucose level and setting the appropriate color and message
-        if (glucoseLevel < HYPO_THRESHOLD) {
+        if (!hasReading) {
+            // Indicating that nothing has been logged yet
+            indicatorColor = NO_DATA_COLOR;
+            warningMessage = "No readings yet";
+        } else if (glucoseLevel < HYPO_THRESHOLD) {
             // Indicating a dangerously low level
             indicatorColor = isFlashing ? DANGER_COLOR : DANGER_COLOR.brighter(); // Flashing effect
             warningMessage = "LOW - Take fast-acting carbs";
@@ -131,7 +160,7 @@ public class GlucoseIndicator extends JPanel {
         // Drawing the glucose level text
         g2.setColor(Color.WHITE); // Using white text for better contrast
         g2.setFont(new Font("SansSerif", Font.BOLD, 14)); // Bold font for emphasis
-        String glucoseText = String.format("%.1f mmol/L", glucoseLevel); // Formatting the level
+        String glucoseText = hasReading ? String.format("%.1f mmol/L", glucoseLevel) : "-- mmol/L"; // Formatting the level
 
         // Centering the glucose level text horizontally
         FontMetrics fm = g2.getFontMetrics();
@@ -157,7 +186,8 @@ public class GlucoseIndicator extends JPanel {
      */
     @Override
     public String getToolTipText() {
-        return "<html><b>Blood Glucose Ranges:</b><br>" +
+        String latest = readingTime != null ? "<b>Latest reading:</b> " + readingTime + "<br>" : "";
+        return "<html>" + latest + "<b>Blood Glucose Ranges:</b><br>" +
                 "Target Range (Green): 4.0-8.5 mmol/L<br>" +
                 "Warning (Yellow): 3.3-4.0 or 8.5-10.0 mmol/L<br>" +
                 "Danger (Red): Below 3.3 or Above 10.0 mmol/L</html>";
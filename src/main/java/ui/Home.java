@@ -1,8 +1,12 @@
 package ui;
 
+import model.DailySummary;
 import model.LogEntry;
 import model.User;
+import service.EntryChange;
+import service.GlycemicStatistics;
 import service.LogService;
+import service.StatisticsService;
 
 import javax.swing.*;
 import javax.swing.text.*;
@@ -10,11 +14,14 @@ import java.awt.*;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class Home extends BaseUI {
 
     private JLabel greetingLabel;
+    private JLabel dateLabel; // Today's date, updated when the screen is shown again on a later day
 
     // Fields for Quick Log
     private JTextField preBloodSugarField;
@@ -23,6 +30,12 @@ public class Home extends BaseUI {
     private JTextField postCarbsField;
     private GlucoseIndicator glucoseIndicator;
 
+    private static final int STATISTICS_DAYS = 14; // Period of the statistics shown under the reminder (the usual AGP window)
+    private JLabel statisticsLabel; // Time in range, mean, variability and GMI of the last STATISTICS_DAYS days
+    private Map<String, Double> statisticsReadings; // The readings behind the statistics, by slot; null while loading
+    private LocalDate statisticsStart; // The first day of the statistics
+    private final List<LogEntry> savedWhileLoading = new ArrayList<>(); // Entries to apply once the readings are loaded
+
     /**
      * The constructor for the Home class, initializing the home screen for the user.
      *
@@ -38,7 +51,8 @@ public class Home extends BaseUI {
             greetingLabel.setText("Hi, " + currentUser.getName()); // Displaying a personalized greeting.
         }
 
-        setVisible(true); // Making the home screen visible by setting the JFrame's visibility to true.
+        // Keeping the indicator, the statistics and the greeting up to date from saved changes, without queries
+        onEntryChange(currentUser, this::applyChange);
     }
 
     /**
@@ -72,7 +86,7 @@ public class Home extends BaseUI {
 
         // Adding a formatted date label to the top panel.
         String formattedDate = today.format(DateTimeFormatter.ofPattern("EEEE, d MMM")); // Formatting the date.
-        JLabel dateLabel = new JLabel(formattedDate, SwingConstants.CENTER); // Center-aligning the text in the label.
+        dateLabel = new JLabel(formattedDate, SwingConstants.CENTER); // Center-aligning the text in the label.
         dateLabel.setFont(new Font("Poppins", Font.BOLD, 16)); // Applying a bold custom font.
         dateLabel.setForeground(new Color(200, 40, 40)); // Setting the text color to a shade of red.
         gbc.gridy = 1; // Positioning the date label below the title label.
@@ -101,8 +115,7 @@ public class Home extends BaseUI {
 
         // Initializing the glucose indicator with the latest reading.
         glucoseIndicator = new GlucoseIndicator(); // Custom component for visually representing glucose levels.
-        double latestGlucose = getLatestGlucoseReading(); // Fetching the latest glucose reading from the logs.
-        glucoseIndicator.updateGlucoseLevel(latestGlucose); // Updating the indicator with the fetched glucose value.
+        showLatestReading(); // Showing the user's latest logged reading, or that there is none yet.
 
         // Adding the greeting label and glucose indicator to the greeting panel.
         greetingPanel.add(greetingLabel, BorderLayout.WEST); // Aligning the greeting to the left.
@@ -117,12 +130,23 @@ public class Home extends BaseUI {
         reminderLabel.setFont(new Font("SansSerif", Font.PLAIN, 14)); // Applying a plain font for subtle emphasis.
         reminderLabel.setForeground(new Color(0x88, 0x88, 0x88)); // Setting a gray color for the text.
         gbc.gridy = 3; // Positioning the reminder message below the greeting panel.
-        gbc.insets = new Insets(0, 20, 50, 20); // Adding padding below the reminder.
+        gbc.insets = new Insets(0, 20, 10, 20); // Adding padding below the reminder.
         centerPanel.add(reminderLabel, gbc); // Adding the reminder message to the center panel.
 
+        // Glycemic statistics of the last two weeks, filled in by a background query.
+        statisticsLabel = new JLabel(" ", SwingConstants.CENTER);
+        statisticsLabel.setFont(new Font("SansSerif", Font.PLAIN, 12));
+        statisticsLabel.setForeground(new Color(0x55, 0x55, 0x55));
+        statisticsLabel.setToolTipText("Last " + STATISTICS_DAYS + " days. Target range: "
+                + DailySummary.RANGE_LOW + "-" + DailySummary.RANGE_HIGH + " mmol/L");
+        gbc.gridy = 4; // Positioning the statistics below the reminder.
+        gbc.insets = new Insets(0, 20, 30, 20); // Keeping the space above the Quick Log panel.
+        centerPanel.add(statisticsLabel, gbc);
+        refreshStatistics();
+
         // Quick Log panel for logging glucose and carb data.
         JPanel quickLogPanel = createActualQuickLogPanel(); // Method to build the Quick Log UI.
-        gbc.gridy = 4; // Placing the Quick Log panel in the center panel.
+        gbc.gridy = 5; // Placing the Quick Log panel in the center panel.
         gbc.insets = new Insets(0, 20, 0, 20); // Adding horizontal padding.
         centerPanel.add(quickLogPanel, gbc); // Adding the Quick Log panel.
 
@@ -133,32 +157,10 @@ public class Home extends BaseUI {
         logbookButton.setFont(new Font("Poppins", Font.BOLD, 14));
         logbookButton.setPreferredSize(new Dimension(200, 40));
 
-        logbookButton.addActionListener(e -> {
-            dispose();
-            String logbookType = currentUser.getLogbookType(); // "Simple", "Comprehensive", or "Intensive"
-
-            switch (logbookType) {
-                case "Simple":
-                    new Logbook(currentUser, today.toString());
-                    break;
-                case "Comprehensive":
-                    new ComprehensiveLogbook(currentUser, today.toString());
-                    break;
-                case "Intensive":
-                    new IntensiveLogbook(currentUser, today.toString());
-                    break;
-                default:
-                    JOptionPane.showMessageDialog(
-                            this,
-                            "Unknown logbook type: " + logbookType,
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE
-                    );
-                    break;
-            }
-        });
+        // Opens today's logbook in the layout the user picked ("Simple", "Comprehensive", or "Intensive")
+        logbookButton.addActionListener(e -> AppNavigator.getInstance().openLogbook(LocalDate.now().toString()));
 
-        gbc.gridy = 5; // Adjusted position for "View Today's Logbook"
+        gbc.gridy = 6; // Adjusted position for "View Today's Logbook"
         gbc.insets = new Insets(20, 20, 10, 20);
         centerPanel.add(logbookButton, gbc);
 
@@ -168,12 +170,9 @@ public class Home extends BaseUI {
         trendButton.setFont(new Font("Poppins", Font.BOLD, 14));
         trendButton.setPreferredSize(new Dimension(250, 40));
 
-        trendButton.addActionListener(e -> {
-            dispose(); // Close Home
-            new GlucoseGraph(currentUser); // Open the new graph page
-        });
+        trendButton.addActionListener(e -> AppNavigator.getInstance().showScreen("GlucoseGraph")); // Switch to the graph page
 
-        gbc.gridy = 6; // Position it after the "View Today's Logbook" button
+        gbc.gridy = 7; // Position it after the "View Today's Logbook" button
         gbc.insets = new Insets(10, 20, 10, 20);
         centerPanel.add(trendButton, gbc);
 
@@ -186,25 +185,17 @@ public class Home extends BaseUI {
     }
 
     /**
-     * Fetching the latest blood glucose reading for the current user from today's logs.
-     *
-     * @return The most recent blood glucose value for today. Returns a default of 6.0 if no logs exist.
+     * Showing the current user's latest blood glucose reading (latest day, then latest time of day) on the indicator,
+     * or that nothing has been logged yet. LogService keeps the latest reading cached and current through saves, so
+     * this only queries the database the first time.
      */
-    private double getLatestGlucoseReading() {
-        // Retrieving today's log entries for the current user using LogService.
-        List<LogEntry> todaysLogs = LogService.getEntriesForDate(
-                currentUser.getId(), // Fetching the user's unique ID to identify their logs.
-                LocalDate.now().toString() // Fetching the current date as a string using LocalDate's `now` and `toString`.
-        );
-
-        // Checking if there are any log entries for today's date.
-        if (!todaysLogs.isEmpty()) {
-            // Returning the blood glucose level from the first log entry in the list.
-            return todaysLogs.get(0).getBloodSugar();
+    private void showLatestReading() {
+        LogEntry latest = LogService.getLatestReading(currentUser.getId());
+        if (latest == null) {
+            glucoseIndicator.showNoData(); // No made-up level when the user has no readings.
+        } else {
+            glucoseIndicator.updateGlucoseLevel(latest.getBloodSugar(), latest.getDate() + ", " + latest.getTimeOfDay());
         }
-
-        // Returning a default blood glucose value of 6.0 when no logs exist for today.
-        return 6.0;
     }
 
     /**
@@ -376,9 +367,116 @@ public class Home extends BaseUI {
         // Showing confirmation dialog to indicate successful logging.
         JOptionPane.showMessageDialog(this, "Quick log saved!");
 
-        // Updating the glucose indicator with the latest glucose value after saving.
-        double latestGlucose = getLatestGlucoseReading();
-        glucoseIndicator.updateGlucoseLevel(latestGlucose); // Refreshing the glucose indicator dynamically.
+        // The glucose indicator and the statistics are updated from the saved entries (see applyChange).
+    }
+
+    /**
+     * Applying a change saved anywhere in the app (Quick Log, a logbook or the profile) to the figures on screen,
+     * from the change itself rather than by querying again.
+     *
+     * @param change The saved change of the current user.
+     */
+    private void applyChange(EntryChange change) {
+        if (change.getType() == EntryChange.Type.USER_UPDATED) {
+            greetingLabel.setText("Hi, " + change.getUser().getName()); // The name may have been edited in the profile.
+            return;
+        }
+        LogEntry entry = change.getEntry();
+
+        // The saved entry may be (or may have cleared) the latest reading; LogService has updated it before publishing.
+        showLatestReading();
+
+        if (statisticsReadings == null) {
+            savedWhileLoading.add(entry); // The load may have run before the entry was committed.
+        } else {
+            applyToStatistics(entry);
+            showStatistics();
+        }
+    }
+
+    /**
+     * Putting a saved entry's reading in place of the one its slot had, if the entry falls in the statistics period.
+     */
+    private void applyToStatistics(LogEntry entry) {
+        LocalDate date = LocalDate.parse(entry.getDate());
+        if (date.isBefore(statisticsStart) || date.isAfter(statisticsStart.plusDays(STATISTICS_DAYS - 1))) {
+            return;
+        }
+        String slot = StatisticsService.slotKey(entry.getDate(), entry.getTimeOfDay());
+        if (entry.getBloodSugar() > 0) {
+            statisticsReadings.put(slot, entry.getBloodSugar());
+        } else {
+            statisticsReadings.remove(slot); // Carbs only now, so the slot has no reading any more.
+        }
+    }
+
+    /**
+     * Showing the statistics of the readings in memory (at most STATISTICS_DAYS days of meal slots).
+     */
+    private void showStatistics() {
+        GlycemicStatistics statistics = StatisticsService.fromReadings(statisticsReadings.values());
+        statisticsLabel.setText(formatStatistics(statistics));
+    }
+
+    /**
+     * Catching up when Home is shown again from AppNavigator's cache on a later day. Saved changes have already
+     * been applied while Home was hidden, so nothing is queried on the same day.
+     */
+    @Override
+    protected void onShown() {
+        String today = LocalDate.now().format(DateTimeFormatter.ofPattern("EEEE, d MMM"));
+        if (!today.equals(dateLabel.getText())) {
+            dateLabel.setText(today);
+            refreshFigures();
+        }
+    }
+
+    /**
+     * Reloading the glucose indicator and the statistics, which depend on today's date.
+     */
+    private void refreshFigures() {
+        showLatestReading(); // Refreshing the glucose indicator dynamically.
+        refreshStatistics(); // Moving the statistics period to end today.
+    }
+
+    /**
+     * Loading the readings of the last STATISTICS_DAYS days in the background and showing their statistics when done.
+     * Later changes are applied to the loaded readings, without loading them again.
+     */
+    private void refreshStatistics() {
+        if (currentUser == null) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate start = today.minusDays(STATISTICS_DAYS - 1);
+        int userId = currentUser.getId();
+        statisticsReadings = null; // Changes saved from now on are applied once the load is done
+        statisticsStart = start;
+
+        new SwingWorker<Map<String, Double>, Void>() {
+            @Override
+            protected Map<String, Double> doInBackground() {
+                return StatisticsService.readingsBySlot(userId, start.toString(), today.toString()); // One query
+            }
+
+            @Override
+            protected void done() {
+                if (!start.equals(statisticsStart)) {
+                    return; // A later load (for a later day) replaces this one
+                }
+                try {
+                    statisticsReadings = get();
+                    for (LogEntry entry : savedWhileLoading) {
+                        applyToStatistics(entry); // Replacing a slot twice gives the same result, so overlaps are harmless
+                    }
+                    savedWhileLoading.clear();
+                    showStatistics();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    statisticsLabel.setText(" "); // Leaving the space empty rather than showing stale figures
+                }
+            }
+        }.execute();
     }
 
 
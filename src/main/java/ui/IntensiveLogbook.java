@@ -10,6 +10,7 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -54,6 +55,9 @@ public class IntensiveLogbook extends BaseUI {
     // Hours Since Last Meal for "Pre" rows
     protected JTextField[] hoursSinceMealFields = new JTextField[3];
 
+    protected LogbookSaver saver; // Saves the rows in the background
+    protected final RowDirtyTracker dirtyTracker = new RowDirtyTracker(); // Rows as they are in the DB, so only changed rows are saved
+
     public IntensiveLogbook(User user, String date) {
         super("Intensive Logbook for " + date);
         this.currentUser = user;
@@ -61,7 +65,6 @@ public class IntensiveLogbook extends BaseUI {
 
         buildUIIntensive();
         loadLogEntriesIntensive();
-        setVisible(true);
     }
 
     /**
@@ -323,6 +326,7 @@ public class IntensiveLogbook extends BaseUI {
         saveAllBtn.setFont(new Font("SansSerif", Font.BOLD, 16)); // Setting the font for the button text
         saveAllBtn.setForeground(Color.BLACK); // Setting the text color to black
         saveAllBtn.addActionListener(e -> handleSaveAllIntensive()); // Adding an event listener to handle the save action
+        saver = new LogbookSaver(this, currentUser, saveAllBtn, ROW_LABELS, bloodSugarFields, dirtyTracker); // Disabling the button and marking failed rows while saving
         bottomPanel.add(saveAllBtn); // Adding the save button to the bottom panel
 
         // Setting up the navigation bar, highlighting the "Logbook" icon to indicate the current screen.
@@ -418,6 +422,20 @@ public class IntensiveLogbook extends BaseUI {
                     }
                 }
             }
+
+            // Remembering the loaded values, so saving skips the rows the user does not change.
+            for (int i = 0; i < ROW_LABELS.length; i++) {
+                dirtyTracker.setSaved(ROW_LABELS[i], rowValues(i));
+            }
+        }
+
+/**
+ * Collecting the text of a row's fields, for dirty tracking.
+ */
+        protected List<String> rowValues(int row) {
+            String hours = ROW_LABELS[row].endsWith("Pre") ? hoursSinceMealFields[row / 2].getText() : ""; // Pre rows are 0, 2 and 4
+            return List.of(bloodSugarFields[row].getText(), carbsFields[row].getText(), exerciseFields[row].getText(),
+                    insulinDoseFields[row].getText(), foodDiaryFields[row].getText(), otherEventsFields[row].getText(), hours);
         }
 
 
@@ -441,8 +459,10 @@ public class IntensiveLogbook extends BaseUI {
 
     /**
      * Save data from the "Intensive" logbook; triggers Alarm via LogService.
+     * The fields are read on the EDT; the rows are saved in the background by the LogbookSaver.
      */
     protected void handleSaveAllIntensive() {
+        List<LogEntry> entries = new ArrayList<>();
         int preIndex = 0;
         for (int i = 0; i < ROW_LABELS.length; i++) {
             double bg = parseDoubleSafe(bloodSugarFields[i].getText());
@@ -458,9 +478,10 @@ public class IntensiveLogbook extends BaseUI {
                 preIndex++; //goes through every pre row label
             }
 
-            // Only save if something is entered and the input is valis
-            if (bg > 0 || carbs > 0 || !exercise.isEmpty() || insulin > 0
-                    || !food.isEmpty() || !other.isEmpty() || hours > 0) {
+            // Only save if something is entered and the input is valis, and only rows changed since they were loaded or last saved
+            List<String> values = rowValues(i);
+            if ((bg > 0 || carbs > 0 || !exercise.isEmpty() || insulin > 0
+                    || !food.isEmpty() || !other.isEmpty() || hours > 0) && dirtyTracker.isDirty(ROW_LABELS[i], values)) {
                 LogEntry entry = new LogEntry();
                 entry.setUserId(currentUser.getId());
                 entry.setDate(targetDate);
@@ -473,15 +494,13 @@ public class IntensiveLogbook extends BaseUI {
                 entry.setOtherMedications(other);
                 entry.setHoursSinceMeal(hours);
 
-                // This automatically triggers the alarm if out of range
-                LogService.createEntry(entry, currentUser);
+                // Saving this automatically triggers the alarm if out of range
+                entries.add(entry);
+                dirtyTracker.savePending(ROW_LABELS[i], values);
             }
         }
 
-        JOptionPane.showMessageDialog(this,
-                "All entered values have been saved (Intensive).",
-                "Logbook Saved",
-                JOptionPane.INFORMATION_MESSAGE);
+        saver.save(entries, "All entered values have been saved (Intensive).");
     }
 
     /**
@@ -11,6 +11,7 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.text.SimpleDateFormat;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +30,8 @@ public class Logbook extends BaseUI {
     protected JTextField[] bloodSugarFields = new JTextField[7];
     protected JTextField[] carbsFields = new JTextField[7];
     protected JTextField[] hoursSinceMealFields = new JTextField[3]; // only for 3 "Pre" rows
+    protected LogbookSaver saver; // Saves the rows in the background
+    protected final RowDirtyTracker dirtyTracker = new RowDirtyTracker(); // Rows as they are in the DB, so only changed rows are saved
 
     protected static final String[] ROW_LABELS = {
             "Breakfast Pre",
@@ -47,7 +50,6 @@ public class Logbook extends BaseUI {
 
         buildUI();
         loadLogEntries();
-        setVisible(true);
     }
 
     /**
@@ -178,6 +180,7 @@ public class Logbook extends BaseUI {
         saveAllBtn.setForeground(Color.BLACK);
         saveAllBtn.setFont(new Font("SansSerif", Font.BOLD, 14));  // Adjust text size and font
         saveAllBtn.addActionListener(e -> handleSaveAll());
+        saver = new LogbookSaver(this, currentUser, saveAllBtn, ROW_LABELS, bloodSugarFields, dirtyTracker);
 
         bottomPanel.add(saveAllBtn);  // Add button to bottom panel
 
@@ -216,12 +219,27 @@ public class Logbook extends BaseUI {
                 }
             }
         }
+
+        // Remember the loaded values, so saving skips the rows the user does not change
+        for (int i = 0; i < ROW_LABELS.length; i++) {
+            dirtyTracker.setSaved(ROW_LABELS[i], rowValues(i));
+        }
+    }
+
+    /**
+     * The text of a row's fields, for dirty tracking.
+     */
+    protected List<String> rowValues(int row) {
+        String hours = ROW_LABELS[row].endsWith("Pre") ? hoursSinceMealFields[row / 2].getText() : ""; // Pre rows are 0, 2 and 4
+        return List.of(bloodSugarFields[row].getText(), carbsFields[row].getText(), hours);
     }
 
     /**
      * Save data for "simple" logbook.
+     * The fields are read here, on the EDT; the rows are then saved in the background by the LogbookSaver.
      */
     protected void handleSaveAll() {
+        List<LogEntry> entries = new ArrayList<>();
         int preIndex = 0;
         for (int i = 0; i < ROW_LABELS.length; i++) {
             double bg = parseDoubleSafe(bloodSugarFields[i].getText());
@@ -233,8 +251,9 @@ public class Logbook extends BaseUI {
                 preIndex++;
             }
 
-            // Only save if there's some content
-            if (bg > 0 || carbs > 0 || hours > 0) {
+            // Only save if there's some content that changed since it was loaded or last saved
+            List<String> values = rowValues(i);
+            if ((bg > 0 || carbs > 0 || hours > 0) && dirtyTracker.isDirty(ROW_LABELS[i], values)) {
                 LogEntry entry = new LogEntry();
                 entry.setUserId(currentUser.getId());
                 entry.setDate(targetDate);
@@ -243,14 +262,12 @@ public class Logbook extends BaseUI {
                 entry.setCarbsEaten(carbs);
                 entry.setHoursSinceMeal(hours);
 
-                LogService.createEntry(entry, currentUser);
+                entries.add(entry);
+                dirtyTracker.savePending(ROW_LABELS[i], values);
             }
         }
 
-        JOptionPane.showMessageDialog(this,
-                "All entered values have been saved.",
-                "Logbook Saved",
-                JOptionPane.INFORMATION_MESSAGE);
+        saver.save(entries, "All entered values have been saved.");
     }
 
     private String getLogbookType(User user) {
@@ -0,0 +1,172 @@
+package ui;
+
+import model.LogEntry;
+import model.User;
+import service.LogService;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The "Save all" pipeline shared by the three logbook screens.
+ * The screen snapshots its fields into LogEntry objects on the EDT; the entries are then saved one by one on a
+ * background thread (each save is a few queries, plus the alarm check), so the window never freezes. While a
+ * save runs, the button is disabled and counts the rows, and each row is marked on the EDT as soon as it is
+ * saved or fails. A summary dialog follows at the end. Saved rows are recorded in the screen's RowDirtyTracker,
+ * so they are not saved again until they change.
+ */
+public class LogbookSaver {
+
+    private static final Color FAILED_ROW = new Color(255, 205, 210); // Light red behind the glucose field of a row that was not saved
+
+    // One daemon thread for every logbook: saves run in the order they were made and never keep the JVM alive
+    private static final ExecutorService saveExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "logbook-save");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final BaseUI screen;
+    private final User user;
+    private final JButton saveButton;
+    private final String[] rowLabels;
+    private final JTextField[] rowFields; // The field of each row that shows whether it was saved (by rowLabels index)
+    private final RowDirtyTracker dirtyTracker;
+    private final String buttonText;
+    private boolean saving; // Whether a save is in progress (EDT only)
+
+    /**
+     * @param screen       The logbook screen, for the summary dialog.
+     * @param user         The logged-in user, whose alarm settings apply.
+     * @param saveButton   The "Save all" button, disabled while saving.
+     * @param rowLabels    The time of day of each row.
+     * @param rowFields    The field of each row (e.g. blood glucose) that is marked when the row fails.
+     * @param dirtyTracker Told the outcome of each row, whose values were passed to savePending by the screen.
+     */
+    public LogbookSaver(BaseUI screen, User user, JButton saveButton, String[] rowLabels, JTextField[] rowFields,
+                        RowDirtyTracker dirtyTracker) {
+        this.screen = screen;
+        this.user = user;
+        this.saveButton = saveButton;
+        this.rowLabels = rowLabels;
+        this.rowFields = rowFields;
+        this.dirtyTracker = dirtyTracker;
+        this.buttonText = saveButton.getText();
+    }
+
+    /**
+     * Saves entries in the background. Must be called on the EDT; ignored while a previous save is running.
+     *
+     * @param entries      The changed rows to save, built from the fields' values at the time of the click.
+     * @param savedMessage The message shown when every row was saved.
+     */
+    public void save(List<LogEntry> entries, String savedMessage) {
+        if (saving) {
+            return; // Double clicks and key repeats never start a second save of the same rows
+        }
+        if (entries.isEmpty()) {
+            JOptionPane.showMessageDialog(screen,
+                    "There are no changes to save.",
+                    "Logbook Saved",
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        saving = true;
+        saveButton.setEnabled(false);
+        saveButton.setText("Saving 0/" + entries.size());
+        for (JTextField field : rowFields) {
+            field.setBackground(UIManager.getColor("TextField.background")); // Clearing the marks of the last save
+        }
+
+        SwingWorker<List<String>, RowResult> worker = new SwingWorker<List<String>, RowResult>() {
+            private int done; // Rows reported so far (EDT only)
+
+            @Override
+            protected List<String> doInBackground() {
+                List<String> failedRows = new ArrayList<>();
+                for (LogEntry entry : entries) {
+                    boolean saved = LogService.saveEntry(entry, user);
+                    if (!saved) {
+                        failedRows.add(entry.getTimeOfDay());
+                    }
+                    publish(new RowResult(entry.getTimeOfDay(), saved));
+                }
+                return failedRows;
+            }
+
+            @Override
+            protected void process(List<RowResult> results) {
+                for (RowResult result : results) {
+                    done++;
+                    saveButton.setText("Saving " + done + "/" + entries.size());
+                    dirtyTracker.saveFinished(result.timeOfDay, result.saved);
+                    if (!result.saved) {
+                        markFailed(result.timeOfDay);
+                    }
+                }
+            }
+
+            @Override
+            protected void done() {
+                saving = false;
+                saveButton.setEnabled(true);
+                saveButton.setText(buttonText);
+
+                List<String> failedRows;
+                try {
+                    failedRows = get();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    failedRows = List.of("all rows");
+                }
+                if (!screen.getContentPane().isShowing()) {
+                    // The user has moved on to another screen; no dialog over it
+                    if (!failedRows.isEmpty()) {
+                        System.err.println("Logbook rows not saved: " + String.join(", ", failedRows));
+                    }
+                    return;
+                }
+                if (failedRows.isEmpty()) {
+                    JOptionPane.showMessageDialog(screen,
+                            savedMessage,
+                            "Logbook Saved",
+                            JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(screen,
+                            "These rows could not be saved: " + String.join(", ", failedRows) + ".\nPlease try again.",
+                            "Logbook Not Saved",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        saveExecutor.execute(worker); // A SwingWorker is a Runnable; its process and done still run on the EDT
+    }
+
+    /**
+     * Highlights the row of a time of day whose entry was not saved.
+     */
+    private void markFailed(String timeOfDay) {
+        for (int i = 0; i < rowLabels.length; i++) {
+            if (rowLabels[i].equals(timeOfDay)) {
+                rowFields[i].setBackground(FAILED_ROW);
+            }
+        }
+    }
+
+    /**
+     * The outcome of saving one row, passed from the save thread to the EDT.
+     */
+    private static class RowResult {
+        private final String timeOfDay;
+        private final boolean saved;
+
+        private RowResult(String timeOfDay, boolean saved) {
+            this.timeOfDay = timeOfDay;
+            this.saved = saved;
+        }
+    }
+}
@@ -2,8 +2,6 @@ package ui;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 
 public class OpeningWindow extends BaseUI {
 
@@ -39,16 +37,11 @@ public class OpeningWindow extends BaseUI {
 
             setVisible(true); // Displays the window
 
-            // Timer for automatically transitioning to the Login window after 4 seconds
-            Timer timer = new Timer(4000, new ActionListener() {
-                @Override
-                public void actionPerformed(ActionEvent e) {
-                    dispose(); // Closes the current OpeningWindow
-                    new Login(); // Opens the Login window
-                }
+            // Transitioning to the Login window as soon as the startup warm-up is done
+            StartupOrchestrator.start().whenReady(() -> {
+                dispose(); // Closes the current OpeningWindow
+                new Login(); // Opens the Login window
             });
-            timer.setRepeats(false); // Ensures the timer triggers only once
-            timer.start(); // Starts the timer
         }
 
     }
@@ -1,6 +1,8 @@
 package ui;
 
 import database.UserDAO;
+import service.EntryChange;
+import service.EntryChangeBus;
 import model.User;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
@@ -306,8 +308,6 @@ public class Profile extends BaseUI {
                 }
             }
         });
-
-        setVisible(true);
     }
 
     // Handle save changes
@@ -340,6 +340,7 @@ public class Profile extends BaseUI {
         try {
             UserDAO dao = new UserDAO(); // from the UserDAO class in the database package
             dao.updateUser(currentUser);
+            EntryChangeBus.publish(EntryChange.userUpdated(currentUser)); // e.g. Home's greeting shows the new name
             JOptionPane.showMessageDialog(this,
                     "Profile updated successfully!",
                     "Success", JOptionPane.INFORMATION_MESSAGE);
@@ -361,9 +362,9 @@ public class Profile extends BaseUI {
             // Clear user session or perform any other necessary action
             // currentUser = null;
 
-            // Example of logging out: Close current window and open the login screen
-            dispose(); // Close the current screen
-            new Login(); // Open the login screen (you should have a Login class)
+            // Logging out: closing the app window (and every screen of the session) and opening the login screen
+            AppNavigator.getInstance().close();
+            new Login(); // Open the login screen
         }
     }
     /* end of reference 20*/
@@ -0,0 +1,116 @@
+package ui;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide cache of the decoded resources the screens share: the scaled navigation icons and the
+ * Lobster font. Each resource is read and decoded once, keyed by its path and size, so building a screen
+ * does no image decoding or font parsing. The cache is filled at startup by StartupOrchestrator and is
+ * safe to use from any thread; cached icons and fonts are immutable, so every screen can share them.
+ */
+public class ResourceCache {
+
+    public static final String LOBSTER_FONT = "/Fonts/Lobster.ttf";
+    public static final int NAV_ICON_SIZE = 30; // Width and height of the navigation bar icons, in pixels
+    public static final String[] NAV_ICONS = {
+            "/Icons/home.png", "/Icons/homefull.png", "/Icons/logbook.png", "/Icons/logbookfull.png",
+            "/Icons/graph.png", "/Icons/graphfull.png", "/Icons/profile.png", "/Icons/profilefull.png"
+    };
+
+    private static final Map<String, Font> baseFonts = new ConcurrentHashMap<>(); // Parsed fonts by path, at size 1
+    private static final Map<String, Font> fonts = new ConcurrentHashMap<>(); // Derived fonts by "path@size"
+    private static final Map<String, ImageIcon> icons = new ConcurrentHashMap<>(); // Scaled icons by "path@size"
+
+    private ResourceCache() {
+        // Static utility, not meant to be instantiated
+    }
+
+    /**
+     * Returns a font from the resources at a given size, parsing the font file only the first time.
+     *
+     * @param path The path of the TrueType file in the resources folder.
+     * @param size The font size.
+     * @return The font, or a Serif fallback (not cached) if the file is missing or invalid.
+     */
+    public static Font getFont(String path, float size) {
+        Font cached = fonts.get(path + "@" + size);
+        if (cached != null) {
+            return cached;
+        }
+        Font base = baseFonts.computeIfAbsent(path, ResourceCache::parseFont); // Not stored if parsing failed
+        if (base == null) {
+            return new Font("Serif", Font.PLAIN, (int) size);
+        }
+        return fonts.computeIfAbsent(path + "@" + size, key -> base.deriveFont(size));
+    }
+
+    /**
+     * Returns an image from the resources scaled to a square icon, decoding and scaling it only the first time.
+     *
+     * @param path The path of the image file in the resources folder.
+     * @param size The width and height of the icon, in pixels.
+     * @return The icon, or null if the image is missing or cannot be decoded.
+     */
+    public static ImageIcon getScaledIcon(String path, int size) {
+        return icons.computeIfAbsent(path + "@" + size, key -> decodeScaledIcon(path, size)); // Not stored if null
+    }
+
+    /**
+     * Parses a TrueType font from the resources.
+     *
+     * @return The font at size 1, or null if it is not found or invalid.
+     */
+    private static Font parseFont(String path) {
+        try (InputStream is = ResourceCache.class.getResourceAsStream(path)) {
+            if (is == null) {
+                System.err.println("Font not found: " + path);
+                return null;
+            }
+            return Font.createFont(Font.TRUETYPE_FONT, is);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Reads an image from the resources and scales it to a square with bicubic interpolation.
+     * -- Oracle (https://docs.oracle.com/javase/7/docs/api/java/awt/Graphics2D.html) was used for the
+     *          2D graphics object's built-in functions --
+     *
+     * @return The scaled icon, or null if the image is not found or an error occurs.
+     */
+    private static ImageIcon decodeScaledIcon(String path, int size) {
+        try (InputStream is = ResourceCache.class.getResourceAsStream(path)) {
+            if (is == null) {
+                System.err.println("Icon not found: " + path);
+                return null;
+            }
+
+            // Reads the image from the input stream into a BufferedImage
+            BufferedImage sourceImage = ImageIO.read(is);
+
+            // Creates a new BufferedImage with the desired size
+            BufferedImage resized = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2 = resized.createGraphics(); // Gets a Graphics2D instance for rendering
+
+            // Enables high-quality scaling using bicubic interpolation
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+
+            // Draws the source image onto the resized BufferedImage
+            g2.drawImage(sourceImage, 0, 0, size, size, null);
+            g2.dispose(); // Releases resources used by the Graphics2D instance
+
+            return new ImageIcon(resized);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ui;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers the field values of each logbook row as they are in the database (as loaded, or as last saved), so
+ * "Save all" only writes, and re-runs the alarm checks for, the rows the user has changed.
+ * Rows are keyed by their time of day. Values are compared as the fields' text. All methods must be called on
+ * the EDT.
+ */
+public class RowDirtyTracker {
+
+    private final Map<String, List<String>> savedValues = new HashMap<>(); // As in the database, by time of day
+    private final Map<String, List<String>> pendingValues = new HashMap<>(); // Being saved, by time of day
+
+    /**
+     * Records a row's values as they are in the database, e.g. right after the logbook is loaded.
+     *
+     * @param row    The row's time of day.
+     * @param values The text of the row's fields.
+     */
+    public void setSaved(String row, List<String> values) {
+        savedValues.put(row, values);
+        pendingValues.remove(row);
+    }
+
+    /**
+     * @param row    The row's time of day.
+     * @param values The current text of the row's fields.
+     * @return Whether the values differ from the saved ones (a row that was never recorded is always dirty).
+     */
+    public boolean isDirty(String row, List<String> values) {
+        return !values.equals(savedValues.get(row));
+    }
+
+    /**
+     * Records the values of a row that is being saved; they become the saved values once the save succeeds.
+     */
+    public void savePending(String row, List<String> values) {
+        pendingValues.put(row, values);
+    }
+
+    /**
+     * Ends the save of a row: on success the pending values become the saved ones; on failure the row stays dirty.
+     *
+     * @param row   The row's time of day.
+     * @param saved Whether the row was saved.
+     */
+    public void saveFinished(String row, boolean saved) {
+        List<String> values = pendingValues.remove(row);
+        if (saved && values != null) {
+            savedValues.put(row, values);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package ui;
+
+import database.DatabaseManager;
+import report.GlucoseChartFactory;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms up the slow parts of the app in parallel while the splash screen (OpeningWindow) is showing:
+ * the database connection and schema check, the title font and the navigation icons (into ResourceCache),
+ * and the JFreeChart and JavaMail classes. The splash closes as soon as everything is ready, instead of after a fixed delay.
+ * Each task is timed, and the timings are printed once startup is done (see getReport).
+ */
+public class StartupOrchestrator {
+
+    private static final long MIN_SPLASH_MILLIS = 1000; // Long enough to read the splash, even when warm-up is instant
+    private static final long MAX_WARM_UP_MILLIS = 10_000; // A stuck task (e.g. a locked database) never blocks the app
+
+    private static StartupOrchestrator instance;
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Long> taskMillis = Collections.synchronizedMap(new LinkedHashMap<>()); // Duration of each finished task
+    private final CompletableFuture<Void> ready;
+    private volatile long readyNanos; // When the last task finished, or 0 before
+
+    private StartupOrchestrator() {
+        Map<String, Runnable> tasks = new LinkedHashMap<>();
+        tasks.put("Database", StartupOrchestrator::warmUpDatabase);
+        tasks.put("Fonts", StartupOrchestrator::warmUpFonts);
+        tasks.put("Icons", StartupOrchestrator::warmUpIcons);
+        tasks.put("Charts", StartupOrchestrator::warmUpCharts);
+        tasks.put("Mail", StartupOrchestrator::warmUpMail);
+
+        // One daemon thread per task: they mostly wait on disk and class loading, so they overlap even on one core
+        ExecutorService pool = Executors.newFixedThreadPool(tasks.size(), runnable -> {
+            Thread thread = new Thread(runnable, "startup-warm-up");
+            thread.setDaemon(true); // Never keeps the JVM alive
+            return thread;
+        });
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (Map.Entry<String, Runnable> task : tasks.entrySet()) {
+            futures.add(CompletableFuture.runAsync(() -> runTimed(task.getKey(), task.getValue()), pool));
+        }
+        pool.shutdown(); // The threads end once the tasks are done
+
+        ready = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .orTimeout(MAX_WARM_UP_MILLIS, TimeUnit.MILLISECONDS)
+                .handle((ignored, error) -> {
+                    if (error != null) {
+                        System.err.println("Startup warm-up did not finish, continuing anyway: " + error);
+                    }
+                    readyNanos = System.nanoTime();
+                    System.out.println(getReport());
+                    return null;
+                });
+    }
+
+    /**
+     * Starts the warm-up, once; later calls return the running (or finished) orchestrator.
+     *
+     * @return The orchestrator.
+     */
+    public static synchronized StartupOrchestrator start() {
+        if (instance == null) {
+            instance = new StartupOrchestrator();
+        }
+        return instance;
+    }
+
+    /**
+     * Runs an action on the EDT once the warm-up is done and the splash has been shown for MIN_SPLASH_MILLIS.
+     *
+     * @param action What to do when the app is ready, e.g. close the splash and open Login.
+     */
+    public void whenReady(Runnable action) {
+        ready.thenRun(() -> {
+            long shownMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            long remaining = MIN_SPLASH_MILLIS - shownMillis;
+            if (remaining <= 0) {
+                SwingUtilities.invokeLater(action);
+            } else {
+                Timer timer = new Timer((int) remaining, e -> action.run()); // Fires on the EDT
+                timer.setRepeats(false);
+                timer.start();
+            }
+        });
+    }
+
+    /**
+     * @return true once every warm-up task has finished (or the warm-up has timed out).
+     */
+    public boolean isReady() {
+        return ready.isDone();
+    }
+
+    /**
+     * @return The startup timings: each task, the whole warm-up, and the time since the JVM started.
+     */
+    public String getReport() {
+        StringBuilder report = new StringBuilder("Startup timing report:\n");
+        synchronized (taskMillis) {
+            for (Map.Entry<String, Long> task : taskMillis.entrySet()) {
+                report.append(String.format("  %-10s %6d ms%n", task.getKey(), task.getValue()));
+            }
+        }
+        if (readyNanos > 0) {
+            report.append(String.format("  %-10s %6d ms (tasks in parallel)%n", "Warm-up",
+                    TimeUnit.NANOSECONDS.toMillis(readyNanos - startNanos)));
+        } else {
+            report.append("  Warm-up still running\n");
+        }
+        long sinceJvmStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        report.append(String.format("  %-10s %6d ms since the JVM started", "Now", sinceJvmStart));
+        return report.toString();
+    }
+
+    private void runTimed(String name, Runnable task) {
+        long start = System.nanoTime();
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            e.printStackTrace(); // A failed warm-up only costs the time it would have saved
+        } finally {
+            taskMillis.put(name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Loads the SQLite driver (and its native library), opens a connection and checks the schema.
+     */
+    private static void warmUpDatabase() {
+        // The first call loads the driver and creates or checks the tables; the query opens the database file
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeQuery("SELECT COUNT(*) FROM user").close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Parses the title font into the resource cache, which also starts up the font system.
+     */
+    private static void warmUpFonts() {
+        ResourceCache.getFont(ResourceCache.LOBSTER_FONT, 46f); // BaseUI's title font
+        ResourceCache.getFont(ResourceCache.LOBSTER_FONT, 38f); // Profile's title font
+        // Laying out text in the default font of most labels, without touching Swing off the EDT
+        new Font("SansSerif", Font.PLAIN, 14).getStringBounds("SugarByte", new FontRenderContext(null, true, true));
+    }
+
+    /**
+     * Decodes and scales the navigation bar icons into the resource cache, which also loads the image decoders.
+     */
+    private static void warmUpIcons() {
+        for (String path : ResourceCache.NAV_ICONS) {
+            ResourceCache.getScaledIcon(path, ResourceCache.NAV_ICON_SIZE);
+        }
+    }
+
+    /**
+     * Loads the JFreeChart classes used by the glucose graph by building an (empty) chart off screen.
+     */
+    private static void warmUpCharts() {
+        GlucoseChartFactory.createChart(GlucoseChartFactory.createEmptySeries());
+    }
+
+    /**
+     * Loads the JavaMail classes used for alarms and the doctor's emails.
+     */
+    private static void warmUpMail() {
+        try {
+            Class.forName("javax.mail.Session");
+            Class.forName("javax.mail.internet.MimeMessage");
+            Class.forName("javax.mail.internet.MimeMultipart");
+        } catch (ClassNotFoundException e) {
+            e.printStackTrace();
+        }
+    }
+}
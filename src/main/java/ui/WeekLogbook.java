@@ -0,0 +1,312 @@
+package ui;
+
+import model.DailySummary;
+import model.DayStatus;
+import model.LogEntry;
+import model.MealSlot;
+import model.User;
+import service.EntryChange;
+import service.WeekLogService;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * Represents the week logbook: the blood glucose readings of a whole week (Monday to Sunday) in one grid, with a
+ * row per meal slot and a column per day.
+ * The week is loaded with one range query through WeekLogService, which also prefetches the weeks either side, so
+ * the arrows flip to a week that is usually loaded already. The grid is a JTable over the loaded week: only the
+ * cells in view are rendered, by one shared renderer, and no component is created per cell.
+ * Double-clicking a cell opens that day's logbook, in the layout the user picked in their profile.
+ */
+public class WeekLogbook extends BaseUI {
+
+    private static final DateTimeFormatter DAY_HEADER = DateTimeFormatter.ofPattern("EEE d"); // e.g. "Mon 13"
+    private static final DateTimeFormatter RANGE_DAY = DateTimeFormatter.ofPattern("d MMM"); // e.g. "13 Jan"
+    private static final DateTimeFormatter RANGE_END = DateTimeFormatter.ofPattern("d MMM yyyy"); // e.g. "19 Jan 2025"
+
+    private final WeekTableModel tableModel = new WeekTableModel();
+    private final JTable table = new JTable(tableModel); // Its columns are kept from week to week, only the headers change
+    private final JLabel weekLabel = new JLabel("", SwingConstants.CENTER);
+    private LocalDate shownWeek; // The Monday of the week on screen
+    private boolean weekChanged; // Whether an entry of the shown week was saved while the screen was hidden
+
+    /**
+     * Constructs the week logbook for the specified user.
+     *
+     * @param user The currently logged-in user.
+     * @param day  A day of the week to show first.
+     */
+    public WeekLogbook(User user, LocalDate day) {
+        super("Week Logbook"); // Sets the window title using the BaseUI constructor
+        this.currentUser = user; // Stores the current user
+        buildUI();
+        showWeekOf(day);
+        onEntryChange(user, this::applyChange); // Reloading the shown week as its entries are saved
+    }
+
+    /**
+     * Builds the title, the week navigation, the grid and the navigation bar.
+     */
+    private void buildUI() {
+        // Main gradient background
+        JPanel mainPanel = createGradientPanel(Color.WHITE, Color.WHITE);
+        mainPanel.setLayout(new BorderLayout());
+        setContentPane(mainPanel);
+
+        // Top panel: title and week navigation
+        JPanel topPanel = new JPanel();
+        topPanel.setOpaque(false);
+        topPanel.setLayout(new BoxLayout(topPanel, BoxLayout.Y_AXIS));
+        topPanel.setBorder(BorderFactory.createEmptyBorder(70, 10, 20, 10));
+
+        JLabel titleLabel = createTitleLabel("SugarByte", lobsterFont, Color.BLACK);
+        titleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        topPanel.add(titleLabel);
+
+        JPanel navPanel = new JPanel(new BorderLayout());
+        navPanel.setOpaque(false);
+        JButton previousWeek = createArrowButton("\u25C0"); // Unicode for left arrow
+        previousWeek.setToolTipText("Previous Week");
+        previousWeek.addActionListener(e -> showWeekOf(shownWeek.minusWeeks(1)));
+        JButton nextWeek = createArrowButton("\u25B6"); // Unicode for right arrow
+        nextWeek.setToolTipText("Next Week");
+        nextWeek.addActionListener(e -> showWeekOf(shownWeek.plusWeeks(1)));
+        weekLabel.setFont(new Font("SansSerif", Font.BOLD, 16));
+        navPanel.add(previousWeek, BorderLayout.WEST);
+        navPanel.add(weekLabel, BorderLayout.CENTER);
+        navPanel.add(nextWeek, BorderLayout.EAST);
+        navPanel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        topPanel.add(navPanel);
+
+        mainPanel.add(topPanel, BorderLayout.NORTH);
+
+        // Center panel: the grid of readings
+        table.setRowHeight(36);
+        table.setFont(new Font("SansSerif", Font.PLAIN, 12));
+        table.getTableHeader().setFont(new Font("SansSerif", Font.BOLD, 11));
+        table.getTableHeader().setReorderingAllowed(false); // The days always stay in order
+        table.setCellSelectionEnabled(true);
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.setDefaultRenderer(Object.class, new ReadingRenderer());
+        table.getColumnModel().getColumn(0).setPreferredWidth(95); // Room for "Breakfast Post"
+        for (int column = 1; column < tableModel.getColumnCount(); column++) {
+            table.getColumnModel().getColumn(column).setPreferredWidth(40);
+        }
+        table.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = table.columnAtPoint(e.getPoint());
+                if (e.getClickCount() == 2 && column > 0) {
+                    AppNavigator.getInstance().openLogbook(tableModel.dayOf(column).toString()); // Editing the clicked day
+                }
+            }
+        });
+
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 10));
+        scrollPane.setOpaque(false);
+        scrollPane.getViewport().setOpaque(false);
+        mainPanel.add(scrollPane, BorderLayout.CENTER);
+
+        JLabel hintLabel = new JLabel("Double-click a day to edit its logbook", SwingConstants.CENTER);
+        hintLabel.setFont(new Font("SansSerif", Font.PLAIN, 12));
+        hintLabel.setBorder(BorderFactory.createEmptyBorder(10, 0, 0, 0));
+
+        // Bottom panel: the hint and the navigation bar
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.setOpaque(false);
+        southPanel.add(hintLabel, BorderLayout.CENTER);
+        southPanel.add(createBottomNavBar("Logbook", currentUser,
+                        "/Icons/home.png", "/Icons/logbookfull.png", "/Icons/graph.png", "/Icons/profile.png"),
+                BorderLayout.SOUTH);
+        mainPanel.add(southPanel, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Shows the week of a day. A cached week is shown straight away; otherwise the grid is emptied and the week is
+     * loaded in the background (one query). The weeks either side are prefetched. Must be called on the EDT.
+     *
+     * @param day Any day of the week to show.
+     */
+    public void showWeekOf(LocalDate day) {
+        LocalDate week = WeekLogService.weekOf(day);
+        if (week.equals(shownWeek)) {
+            return; // Already on screen
+        }
+        shownWeek = week;
+        weekLabel.setText(week.format(RANGE_DAY) + " \u2013 " + week.plusDays(6).format(RANGE_END));
+        tableModel.setWeek(week, Map.of()); // The new dates, without the previous week's readings
+        for (int column = 1; column < tableModel.getColumnCount(); column++) {
+            table.getColumnModel().getColumn(column).setHeaderValue(tableModel.getColumnName(column));
+        }
+        table.getTableHeader().repaint();
+        loadShownWeek();
+    }
+
+    /**
+     * Fills the grid with the shown week, from the cache or loaded in the background.
+     */
+    private void loadShownWeek() {
+        int userId = currentUser.getId();
+        LocalDate week = shownWeek;
+        WeekLogService.prefetchAround(userId, week);
+        Map<LocalDate, Map<MealSlot, LogEntry>> cached = WeekLogService.getCachedWeek(userId, week);
+        if (cached != null) {
+            tableModel.setWeek(week, cached);
+            return;
+        }
+
+        new SwingWorker<Map<LocalDate, Map<MealSlot, LogEntry>>, Void>() {
+            @Override
+            protected Map<LocalDate, Map<MealSlot, LogEntry>> doInBackground() {
+                return WeekLogService.getWeek(userId, week);
+            }
+
+            @Override
+            protected void done() {
+                if (!week.equals(shownWeek)) {
+                    return; // The user has moved on to another week
+                }
+                try {
+                    tableModel.setWeek(week, get());
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Reloads the shown week when one of its entries is saved: right away if the screen is on view, otherwise when
+     * it is shown again. Entries of other weeks need nothing (their weeks are loaded when shown).
+     *
+     * @param change A change saved by the current user.
+     */
+    private void applyChange(EntryChange change) {
+        if (change.getType() != EntryChange.Type.ENTRY_SAVED || !WeekLogService.weekOf(change.getDate()).equals(shownWeek)) {
+            return;
+        }
+        if (getContentPane().isShowing()) {
+            loadShownWeek();
+        } else {
+            weekChanged = true;
+        }
+    }
+
+    /**
+     * Reloads the grid when the screen is shown again from AppNavigator's cache after entries of the shown week
+     * were saved (e.g. in a day's logbook opened from this screen).
+     */
+    @Override
+    protected void onShown() {
+        if (weekChanged) {
+            weekChanged = false;
+            loadShownWeek();
+        }
+    }
+
+    /**
+     * The grid's data: a row per meal slot and a column per day, after the column of slot names.
+     * Cell values are looked up in the loaded week only when the table renders them.
+     */
+    private static class WeekTableModel extends AbstractTableModel {
+        private static final MealSlot[] SLOTS = MealSlot.values();
+
+        private LocalDate week = WeekLogService.weekOf(LocalDate.now());
+        private Map<LocalDate, Map<MealSlot, LogEntry>> days = Map.of();
+
+        /**
+         * Shows the entries of a week (the table's column headers are updated by the screen).
+         */
+        void setWeek(LocalDate week, Map<LocalDate, Map<MealSlot, LogEntry>> days) {
+            this.week = week;
+            this.days = days;
+            fireTableDataChanged(); // Repaints the cells in view
+        }
+
+        /**
+         * @return The day of a day column (1 to 7).
+         */
+        LocalDate dayOf(int column) {
+            return week.plusDays(column - 1);
+        }
+
+        /**
+         * @return The entry of a cell, or null if nothing was logged for that slot and day.
+         */
+        LogEntry entryAt(int row, int column) {
+            return days.getOrDefault(dayOf(column), Map.of()).get(SLOTS[row]);
+        }
+
+        @Override
+        public int getRowCount() {
+            return SLOTS.length;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return 8; // The slot names and the seven days
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return column == 0 ? "Time" : dayOf(column).format(DAY_HEADER);
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            if (column == 0) {
+                return SLOTS[row].getLabel();
+            }
+            LogEntry entry = entryAt(row, column);
+            if (entry == null) {
+                return "";
+            }
+            return entry.getBloodSugar() > 0 ? String.format("%.1f", entry.getBloodSugar()) : "\u2013"; // A dash for rows without a reading
+        }
+    }
+
+    /**
+     * Renders every cell of the grid: readings are tinted with the calendar's colours (in range, low or high), and
+     * the tooltip gives the rest of the entry.
+     */
+    private static class ReadingRenderer extends DefaultTableCellRenderer {
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
+            super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+            setHorizontalAlignment(column == 0 ? SwingConstants.LEFT : SwingConstants.CENTER);
+            setToolTipText(null);
+            if (isSelected) {
+                return this;
+            }
+
+            LogEntry entry = column == 0 ? null : ((WeekTableModel) table.getModel()).entryAt(row, column);
+            DayStatus status = DayStatus.NO_DATA;
+            if (entry != null && entry.getBloodSugar() > 0) {
+                if (entry.getBloodSugar() < DailySummary.RANGE_LOW) {
+                    status = DayStatus.HYPO;
+                } else if (entry.getBloodSugar() > DailySummary.RANGE_HIGH) {
+                    status = DayStatus.HYPER;
+                } else {
+                    status = DayStatus.IN_RANGE;
+                }
+            }
+            // Set on every cell, as the renderer is shared and keeps the last background
+            setBackground(status == DayStatus.NO_DATA ? table.getBackground() : CalendarGrid.getStatusColor(status));
+            if (entry != null) {
+                setToolTipText("<html><b>" + entry.getTimeOfDay() + "</b><br>" +
+                        "Carbs: " + entry.getCarbsEaten() + " g<br>" +
+                        "Insulin: " + entry.getInsulinDose() + " units</html>");
+            }
+            return this;
+        }
+    }
+}
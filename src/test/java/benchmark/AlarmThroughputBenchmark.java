@@ -0,0 +1,120 @@
+package benchmark;
+
+import database.AlarmOutboxDAO;
+import database.DatabaseManager;
+import model.LogEntry;
+import model.OutboxMessage;
+import model.User;
+import notification.InMemoryTransport;
+import notification.NotificationTransport;
+import notification.NotificationTransports;
+import service.LogService;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * End-to-end alarm throughput benchmark.
+ * Drives out-of-range readings through LogService.createEntry (alarm check, then the log entry and its outbox row in one
+ * transaction) and waits for the OutboxDispatcher to deliver every alarm, against a scratch SQLite database and a local
+ * transport, so the whole dispatch path can be measured without a mail server.
+ *
+ * Usage: gradle alarmBenchmark [-Pentries=20000] [-Ptransport=memory|spool]
+ * or:    java benchmark.AlarmThroughputBenchmark [entries] [transport]
+ */
+public class AlarmThroughputBenchmark {
+
+    private static final int WARM_UP_ENTRIES = 1_000; // Lets the JIT and SQLite settle before timing
+
+    private static final long DRAIN_TIMEOUT_MILLIS = 10 * 60_000L; // Gives up waiting for the dispatcher after this long
+
+    public static void main(String[] args) throws IOException, SQLException, InterruptedException {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        String transportName = args.length > 1 ? args[1] : "memory";
+
+        // Pointing the app at a throwaway database, unless the caller already chose one
+        if (System.getProperty("sugarbyte.db.url") == null) {
+            File dbFile = File.createTempFile("sugarbyte-bench", ".db");
+            dbFile.deleteOnExit();
+            System.setProperty("sugarbyte.db.url", "jdbc:sqlite:" + dbFile.getAbsolutePath());
+        }
+        System.setProperty("java.awt.headless", "true"); // No alarm pop-ups
+
+        NotificationTransport transport = NotificationTransports.fromName(transportName);
+        NotificationTransports.set(transport);
+
+        // Warm-up run on separate users, so the measured run starts from the same state every time
+        run(WARM_UP_ENTRIES, 1_000_000);
+        awaitDrained();
+        long sentBefore = sentCount(transport);
+
+        long start = System.nanoTime();
+        run(entries, 0);
+        long saved = System.nanoTime() - start;
+        boolean drained = awaitDrained();
+        long elapsed = System.nanoTime() - start;
+
+        double seconds = elapsed / 1e9;
+        System.out.println();
+        System.out.println("=== Alarm throughput (" + transport.getName() + " transport) ===");
+        System.out.printf("Entries saved:      %d%n", entries);
+        if (sentBefore >= 0) {
+            System.out.printf("Alarms dispatched:  %d%n", sentCount(transport) - sentBefore);
+        }
+        System.out.println("Outbox:             " + outboxCounts() + (drained ? "" : " (timed out)"));
+        System.out.printf("Save phase:         %.2f s (%.3f ms/entry)%n", saved / 1e9, saved / 1e6 / entries);
+        System.out.printf("End to end:         %.2f s%n", seconds);
+        System.out.printf("Throughput:         %.1f alarms/s%n", entries / seconds);
+    }
+
+    /**
+     * Waits until the dispatcher has no pending or claimed alarms left.
+     *
+     * @return False if the timeout passed first.
+     */
+    private static boolean awaitDrained() throws SQLException, InterruptedException {
+        long deadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            Map<OutboxMessage.Status, Integer> counts = outboxCounts();
+            if (counts.get(OutboxMessage.Status.PENDING) + counts.get(OutboxMessage.Status.CLAIMED) == 0) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+
+    private static Map<OutboxMessage.Status, Integer> outboxCounts() throws SQLException {
+        try (Connection conn = DatabaseManager.getInstance().openConnection()) {
+            return new AlarmOutboxDAO().countByStatus(conn);
+        }
+    }
+
+    /**
+     * Saves one hypo reading per synthetic user, so every entry triggers exactly one alarm email.
+     */
+    private static void run(int entries, int firstUserId) {
+        LocalDate firstDay = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < entries; i++) {
+            int userId = firstUserId + i + 1;
+            User user = new User();
+            user.setId(userId);
+            user.setName("Benchmark Patient " + userId); // Unique names, as alarms are de-duplicated per user and meal
+            user.setDoctorName("Bench");
+            user.setDoctorEmail("doctor" + userId + "@example.com");
+
+            String date = firstDay.plusDays(i % 365).toString();
+            LogEntry entry = new LogEntry(userId, date, "Breakfast Pre", 3.2, 40, 0,
+                    "", "", 0, 0, "");
+            LogService.createEntry(entry, user);
+        }
+    }
+
+    private static long sentCount(NotificationTransport transport) {
+        return transport instanceof InMemoryTransport ? ((InMemoryTransport) transport).getSentCount() : -1;
+    }
+}
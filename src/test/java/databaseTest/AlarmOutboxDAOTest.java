@@ -0,0 +1,131 @@
+package databaseTest;
+
+import database.AlarmOutboxDAO;
+import database.DatabaseManager;
+import model.OutboxMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the claim/ack behaviour of AlarmOutboxDAO.
+ */
+class AlarmOutboxDAOTest {
+
+    private AlarmOutboxDAO outboxDAO;
+    private Connection conn; // Dedicated connection, as the dispatcher would use
+
+    /**
+     * Opens a dedicated connection and clears the outbox before each test.
+     */
+    @BeforeEach
+    void setUp() throws SQLException {
+        outboxDAO = new AlarmOutboxDAO();
+        conn = DatabaseManager.getInstance().openConnection();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM alarm_outbox;");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    private OutboxMessage alarm(String dedupKey) {
+        return new OutboxMessage(dedupKey, 1, "dr.smith@example.com", "Urgent", "Body", "Doctor notified");
+    }
+
+    /**
+     * Verifies that enqueueing the same dedupKey twice only stores one alarm.
+     */
+    @Test
+    void testEnqueue_IgnoresDuplicateKeys() throws SQLException {
+        assertEquals(2, outboxDAO.enqueue(conn, Arrays.asList(alarm("bounds:1:2025-01-12:Lunch Pre"), alarm("trend:1:2025-01-12:RAPID_DROP"))));
+        assertEquals(0, outboxDAO.enqueue(conn, List.of(alarm("bounds:1:2025-01-12:Lunch Pre"))));
+
+        assertThat(outboxDAO.countByStatus(conn).get(OutboxMessage.Status.PENDING), is(2));
+    }
+
+    /**
+     * Verifies that a claimed alarm is not claimed twice, and that only the claim holder can acknowledge it.
+     */
+    @Test
+    void testClaimAndAck_OnlyTokenHolderCanAcknowledge() throws SQLException {
+        outboxDAO.enqueue(conn, List.of(alarm("bounds:1:2025-01-12:Dinner Pre")));
+        long now = System.currentTimeMillis();
+
+        List<OutboxMessage> batch = outboxDAO.claimBatch(conn, 10, now, 60_000);
+        assertEquals(1, batch.size());
+        assertEquals(OutboxMessage.Status.CLAIMED, batch.get(0).getStatus());
+        assertTrue(outboxDAO.claimBatch(conn, 10, now, 60_000).isEmpty()); // Still leased
+
+        OutboxMessage claimed = batch.get(0);
+        assertFalse(outboxDAO.markSent(conn, claimed.getId(), "someone-else"));
+        assertTrue(outboxDAO.markSent(conn, claimed.getId(), claimed.getClaimToken()));
+        assertThat(outboxDAO.countByStatus(conn).get(OutboxMessage.Status.SENT), is(1));
+    }
+
+    /**
+     * Verifies that an unacknowledged claim can be taken over once its lease has expired.
+     */
+    @Test
+    void testClaimBatch_ReclaimsExpiredLease() throws SQLException {
+        outboxDAO.enqueue(conn, List.of(alarm("bounds:1:2025-01-12:Bedtime")));
+        long now = System.currentTimeMillis();
+        OutboxMessage first = outboxDAO.claimBatch(conn, 10, now, 60_000).get(0);
+
+        List<OutboxMessage> retaken = outboxDAO.claimBatch(conn, 10, now + 120_000, 60_000);
+        assertEquals(1, retaken.size());
+        assertNotEquals(first.getClaimToken(), retaken.get(0).getClaimToken());
+        assertFalse(outboxDAO.markSent(conn, first.getId(), first.getClaimToken())); // The old claim is void
+    }
+
+    /**
+     * Verifies that failures are retried after the backoff and marked FAILED after the last attempt.
+     */
+    @Test
+    void testMarkFailed_RetriesThenGivesUp() throws SQLException {
+        outboxDAO.enqueue(conn, List.of(alarm("bounds:1:2025-01-12:Lunch Post")));
+        long now = System.currentTimeMillis();
+
+        OutboxMessage claimed = outboxDAO.claimBatch(conn, 10, now, 60_000).get(0);
+        assertTrue(outboxDAO.markFailed(conn, claimed.getId(), claimed.getClaimToken(), "timeout", now + 30_000, 2));
+        assertTrue(outboxDAO.claimBatch(conn, 10, now, 60_000).isEmpty()); // Not due yet
+
+        claimed = outboxDAO.claimBatch(conn, 10, now + 30_000, 60_000).get(0);
+        assertEquals(1, claimed.getAttempts());
+        assertTrue(outboxDAO.markFailed(conn, claimed.getId(), claimed.getClaimToken(), "timeout", now + 90_000, 2));
+
+        Map<OutboxMessage.Status, Integer> counts = outboxDAO.countByStatus(conn);
+        assertThat(counts.get(OutboxMessage.Status.FAILED), is(1));
+        assertThat(counts.get(OutboxMessage.Status.PENDING), is(0));
+    }
+
+    /**
+     * Verifies that a deferred alarm is released for later without using up an attempt.
+     */
+    @Test
+    void testRelease_DoesNotCountAnAttempt() throws SQLException {
+        outboxDAO.enqueue(conn, List.of(alarm("bounds:1:2025-01-12:Breakfast Pre")));
+        long now = System.currentTimeMillis();
+
+        OutboxMessage claimed = outboxDAO.claimBatch(conn, 10, now, 60_000).get(0);
+        assertTrue(outboxDAO.release(conn, claimed.getId(), claimed.getClaimToken(), now + 5_000));
+        assertTrue(outboxDAO.claimBatch(conn, 10, now, 60_000).isEmpty()); // Not due yet
+
+        OutboxMessage retried = outboxDAO.claimBatch(conn, 10, now + 5_000, 60_000).get(0);
+        assertEquals(0, retried.getAttempts());
+    }
+}
@@ -2,6 +2,7 @@ package databaseTest;
 
 import database.DatabaseManager;
 import database.LogEntryDAO;
+import model.DailySummary;
 import model.LogEntry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.LogManager;
@@ -159,5 +161,130 @@ class LogEntryDAOTest {
         logger.info("Validating that no entries were found."); // Logging validation.
         assertThat(entries, is(empty())); // Confirms the retrieved list is empty.
     }
-}
 
+    /**
+     * Tests the per-day aggregate over a date range.
+     * Ensures days are summarised in order, rows without a reading are left out of the glucose figures,
+     * and days outside the range or of other users are ignored.
+     */
+    @Test
+    void testGetDailySummaries() {
+        logger.info("Starting test: testGetDailySummaries"); // Logging the test start.
+
+        logEntryDAO.createLogEntry(new LogEntry(1, "2025-01-12", "Breakfast Pre", 6.0, 40.0, 0, null, null, 0, 4.0, null));
+        logEntryDAO.createLogEntry(new LogEntry(1, "2025-01-12", "Lunch Pre", 9.0, 60.0, 0, null, "Walking", 30, 6.0, null));
+        logEntryDAO.createLogEntry(new LogEntry(1, "2025-01-12", "Snack", 0.0, 20.0, 0, null, null, 0, 0.0, null)); // carbs only
+        logEntryDAO.createLogEntry(new LogEntry(1, "2025-01-14", "Dinner Pre", 0.0, 50.0, 0, null, null, 0, 5.0, null)); // no reading
+        logEntryDAO.createLogEntry(new LogEntry(1, "2025-01-20", "Dinner Pre", 7.0, 0.0, 0, null, null, 0, 0.0, null)); // outside the range
+        logEntryDAO.createLogEntry(new LogEntry(2, "2025-01-12", "Dinner Pre", 15.0, 0.0, 0, null, null, 0, 0.0, null)); // other user
+
+        List<DailySummary> days = logEntryDAO.getDailySummaries(1, "2025-01-10", "2025-01-16"); // Summarising one week.
+
+        logger.info("Validating daily summaries."); // Logging validation.
+        assertThat(days, hasSize(2)); // Only days with entries are returned.
+
+        DailySummary first = days.get(0);
+        assertThat(first.getDate(), is(equalTo("2025-01-12")));
+        assertThat(first.getEntryCount(), is(equalTo(3)));
+        assertThat(first.getReadingCount(), is(equalTo(2)));
+        assertThat(first.getAverageBloodSugar(), is(closeTo(7.5, 1e-9))); // The carbs-only row does not pull the average down.
+        assertThat(first.getMinBloodSugar(), is(closeTo(6.0, 1e-9)));
+        assertThat(first.getMaxBloodSugar(), is(closeTo(9.0, 1e-9)));
+        assertThat(first.getTotalCarbs(), is(closeTo(120.0, 1e-9)));
+        assertThat(first.getTotalInsulin(), is(closeTo(10.0, 1e-9)));
+        assertThat(first.getTotalExerciseMinutes(), is(equalTo(30)));
+        assertThat(first.getSumOfSquares(), is(closeTo(117.0, 1e-9))); // 6^2 + 9^2
+        assertThat(first.getReadingsBelowRange(), is(equalTo(0)));
+        assertThat(first.getReadingsAboveRange(), is(equalTo(0)));
+
+        DailySummary second = days.get(1);
+        assertThat(second.getDate(), is(equalTo("2025-01-14")));
+        assertFalse(second.hasReadings()); // A day with entries but no reading has nothing to plot.
+        assertTrue(Double.isNaN(second.getAverageBloodSugar()));
+    }
+
+    /**
+     * Tests streaming the readings of a date range, skipping rows without a reading.
+     */
+    @Test
+    void testForEachReading() {
+        logger.info("Starting test: testForEachReading"); // Logging the test start.
+
+        logEntryDAO.createLogEntry(new LogEntry(1, "2025-01-12", "Breakfast Pre", 3.2, 40.0, 0, null, null, 0, 4.0, null));
+        logEntryDAO.createLogEntry(new LogEntry(1, "2025-01-13", "Snack", 0.0, 20.0, 0, null, null, 0, 0.0, null)); // carbs only
+        logEntryDAO.createLogEntry(new LogEntry(1, "2025-01-14", "Dinner Pre", 12.5, 50.0, 0, null, null, 0, 5.0, null));
+        logEntryDAO.createLogEntry(new LogEntry(1, "2025-01-20", "Dinner Pre", 7.0, 0.0, 0, null, null, 0, 0.0, null)); // outside the range
+
+        List<Double> readings = new ArrayList<>();
+        logEntryDAO.forEachReading(1, "2025-01-10", "2025-01-16", readings::add);
+
+        logger.info("Validating streamed readings."); // Logging validation.
+        assertThat(readings, containsInAnyOrder(3.2, 12.5));
+
+        DailySummary day = logEntryDAO.getDailySummaries(1, "2025-01-12", "2025-01-14").get(0);
+        assertThat(day.getReadingsBelowRange(), is(equalTo(1))); // 3.2 is under the target range.
+    }
+
+    /**
+     * Tests looking up the date of a user's first entry.
+     */
+    @Test
+    void testGetEarliestEntryDate() {
+        logger.info("Starting test: testGetEarliestEntryDate"); // Logging the test start.
+
+        assertThat(logEntryDAO.getEarliestEntryDate(1), is(nullValue())); // No entries yet.
+
+        logEntryDAO.createLogEntry(new LogEntry(1, "2025-01-14", "Dinner Pre", 6.0, 0.0, 0, null, null, 0, 0.0, null));
+        logEntryDAO.createLogEntry(new LogEntry(1, "2023-11-02", "Lunch Pre", 7.0, 0.0, 0, null, null, 0, 0.0, null));
+        logEntryDAO.createLogEntry(new LogEntry(2, "2020-05-05", "Lunch Pre", 7.0, 0.0, 0, null, null, 0, 0.0, null)); // other user
+
+        logger.info("Validating earliest entry date."); // Logging validation.
+        assertThat(logEntryDAO.getEarliestEntryDate(1), is(equalTo("2023-11-02")));
+    }
+
+    /**
+     * Tests looking up a user's latest reading: latest date first, then the latest time of day on it.
+     */
+    @Test
+    void testGetLatestReading() {
+        logger.info("Starting test: testGetLatestReading"); // Logging the test start.
+
+        assertThat(logEntryDAO.getLatestReading(1), is(nullValue())); // No readings yet.
+
+        logEntryDAO.createLogEntry(new LogEntry(1, "2025-01-14", "Lunch Post", 8.4, 0.0, 0, null, null, 0, 0.0, null));
+        logEntryDAO.createLogEntry(new LogEntry(1, "2025-01-14", "Breakfast Pre", 5.1, 0.0, 0, null, null, 0, 0.0, null)); // earlier slot, sorts first alphabetically
+        logEntryDAO.createLogEntry(new LogEntry(1, "2025-01-13", "Bedtime", 6.3, 0.0, 0, null, null, 0, 0.0, null)); // earlier date
+        logEntryDAO.createLogEntry(new LogEntry(1, "2025-01-14", "Dinner Pre", 0.0, 45.0, 0, null, null, 0, 0.0, null)); // carbs only, no reading
+        logEntryDAO.createLogEntry(new LogEntry(2, "2025-02-01", "Lunch Pre", 7.0, 0.0, 0, null, null, 0, 0.0, null)); // other user
+
+        logger.info("Validating latest reading."); // Logging validation.
+        LogEntry latest = logEntryDAO.getLatestReading(1);
+        assertThat(latest, is(notNullValue()));
+        assertThat(latest.getDate(), is(equalTo("2025-01-14")));
+        assertThat(latest.getTimeOfDay(), is(equalTo("Lunch Post")));
+        assertThat(latest.getBloodSugar(), is(equalTo(8.4)));
+    }
+
+    /**
+     * Tests fetching the entries of a date range in one query, in date and time-of-day order.
+     */
+    @Test
+    void testGetEntriesInRange() {
+        logger.info("Starting test: testGetEntriesInRange"); // Logging the test start.
+
+        logEntryDAO.createLogEntry(new LogEntry(1, "2025-01-14", "Lunch Post", 8.4, 0.0, 0, null, null, 0, 0.0, null));
+        logEntryDAO.createLogEntry(new LogEntry(1, "2025-01-14", "Breakfast Pre", 5.1, 0.0, 0, null, null, 0, 0.0, null));
+        logEntryDAO.createLogEntry(new LogEntry(1, "2025-01-13", "Bedtime", 6.3, 0.0, 0, null, null, 0, 0.0, null)); // first day
+        logEntryDAO.createLogEntry(new LogEntry(1, "2025-01-19", "Dinner Pre", 7.2, 0.0, 0, null, null, 0, 0.0, null)); // last day
+        logEntryDAO.createLogEntry(new LogEntry(1, "2025-01-20", "Dinner Pre", 7.7, 0.0, 0, null, null, 0, 0.0, null)); // after the range
+        logEntryDAO.createLogEntry(new LogEntry(2, "2025-01-15", "Lunch Pre", 7.0, 0.0, 0, null, null, 0, 0.0, null)); // other user
+
+        logger.info("Validating entries in range."); // Logging validation.
+        List<LogEntry> entries = logEntryDAO.getEntriesInRange(1, "2025-01-13", "2025-01-19");
+        assertThat(entries, hasSize(4));
+        assertThat(entries.get(0).getTimeOfDay(), is(equalTo("Bedtime")));
+        assertThat(entries.get(1).getTimeOfDay(), is(equalTo("Breakfast Pre"))); // Breakfast before lunch on the same day
+        assertThat(entries.get(2).getTimeOfDay(), is(equalTo("Lunch Post")));
+        assertThat(entries.get(3).getDate(), is(equalTo("2025-01-19")));
+    }
+}
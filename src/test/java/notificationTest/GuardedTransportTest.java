@@ -0,0 +1,148 @@
+package notificationTest;
+
+import notification.CircuitBreaker;
+import notification.GuardedTransport;
+import notification.InMemoryTransport;
+import notification.Notification;
+import notification.NotificationTransport;
+import notification.TokenBucket;
+import notification.TransportUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.mail.MessagingException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GuardedTransportTest {
+
+    private final AtomicLong nanos = new AtomicLong(); // Fake clock shared by the buckets and the breaker
+
+    @BeforeEach
+    void setUp() {
+        nanos.set(0);
+    }
+
+    private void advanceMillis(long millis) {
+        nanos.addAndGet(millis * 1_000_000L);
+    }
+
+    private Notification to(String recipient) {
+        return new Notification(recipient, "Alert", "Body");
+    }
+
+    /**
+     * Verifies that a token bucket allows a burst, then refills at its fixed rate.
+     */
+    @Test
+    void testTokenBucket_BurstThenRefill() {
+        TokenBucket bucket = new TokenBucket(2, 1_000, nanos::get);
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+        assertEquals(1_000, bucket.millisUntilAvailable());
+
+        advanceMillis(1_000);
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+    }
+
+    /**
+     * Verifies that one recipient is limited without affecting other recipients, and that nothing is sent when deferred.
+     */
+    @Test
+    void testSend_PerRecipientLimitDefersWithoutSending() throws MessagingException {
+        InMemoryTransport sink = new InMemoryTransport();
+        GuardedTransport transport = new GuardedTransport(sink, new TokenBucket(100, 1, nanos::get), 2, 60_000,
+                new CircuitBreaker(3, 10_000, nanos::get));
+
+        transport.send(to("a@example.com"));
+        transport.send(to("a@example.com"));
+        TransportUnavailableException deferred = assertThrows(TransportUnavailableException.class, () -> transport.send(to("a@example.com")));
+        assertTrue(deferred.getRetryAfterMillis() > 0);
+        assertEquals("a@example.com", deferred.getRecipient()); // Only this doctor has to wait
+        transport.send(to("b@example.com")); // Another doctor is unaffected
+
+        assertEquals(3, sink.getSentCount());
+        assertEquals(1, transport.getMetrics().getRateLimited());
+    }
+
+    /**
+     * Verifies that the circuit opens after repeated failures, fails fast while open, and closes after a successful trial.
+     */
+    @Test
+    void testSend_CircuitOpensAndRecovers() throws MessagingException {
+        FlakyTransport flaky = new FlakyTransport();
+        GuardedTransport transport = new GuardedTransport(flaky, new TokenBucket(100, 1, nanos::get), 100, 1,
+                new CircuitBreaker(3, 10_000, nanos::get));
+
+        flaky.failing = true;
+        for (int i = 0; i < 3; i++) {
+            assertThrows(MessagingException.class, () -> transport.send(to("a@example.com")));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, transport.getMetrics().getCircuitState());
+
+        // While open, the delegate is not called at all, whoever the message is for
+        assertNull(assertThrows(TransportUnavailableException.class, () -> transport.send(to("a@example.com"))).getRecipient());
+        assertEquals(3, flaky.calls);
+        assertEquals(1, transport.getMetrics().getShortCircuited());
+
+        // After the open period a trial send goes through and closes the circuit
+        advanceMillis(10_000);
+        flaky.failing = false;
+        transport.send(to("a@example.com"));
+        assertEquals(CircuitBreaker.State.CLOSED, transport.getMetrics().getCircuitState());
+        assertEquals(1, transport.getMetrics().getSent());
+    }
+
+    /**
+     * Verifies that a trial send the delegate defers gives its permission back, so the next send is a trial again
+     * instead of being short-circuited for good.
+     */
+    @Test
+    void testSend_DeferredTrialReleasesPermission() throws MessagingException {
+        FlakyTransport flaky = new FlakyTransport();
+        GuardedTransport transport = new GuardedTransport(flaky, new TokenBucket(100, 1, nanos::get), 100, 1,
+                new CircuitBreaker(1, 10_000, nanos::get));
+
+        flaky.failing = true;
+        assertThrows(MessagingException.class, () -> transport.send(to("a@example.com")));
+        advanceMillis(10_000);
+
+        flaky.failing = false;
+        flaky.deferring = true;
+        assertThrows(TransportUnavailableException.class, () -> transport.send(to("a@example.com")));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, transport.getMetrics().getCircuitState()); // Not a failure
+
+        flaky.deferring = false;
+        transport.send(to("a@example.com"));
+        assertEquals(3, flaky.calls);
+        assertEquals(CircuitBreaker.State.CLOSED, transport.getMetrics().getCircuitState());
+    }
+
+    /**
+     * Transport that fails or defers on demand and counts its calls.
+     */
+    private static class FlakyTransport implements NotificationTransport {
+        boolean failing;
+        boolean deferring;
+        int calls;
+
+        @Override
+        public void send(Notification notification) throws MessagingException {
+            calls++;
+            if (failing) {
+                throw new MessagingException("Connection timed out");
+            }
+            if (deferring) {
+                throw new TransportUnavailableException("Too many connections", 1_000);
+            }
+        }
+
+        @Override
+        public String getName() {
+            return "flaky";
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package notificationTest;
+
+import notification.InMemoryTransport;
+import notification.Notification;
+import notification.NotificationTransports;
+import notification.SpoolTransport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+import javax.mail.internet.MimeMultipart;
+import javax.mail.util.ByteArrayDataSource;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NotificationTransportTest {
+
+    @AfterEach
+    void tearDown() {
+        NotificationTransports.set(null); // Restoring the default transport for the other tests
+    }
+
+    /**
+     * Verifies that the in-memory sink records messages and only retains the most recent ones.
+     */
+    @Test
+    void testInMemoryTransport_RecordsAndBoundsMessages() {
+        InMemoryTransport transport = new InMemoryTransport(2);
+        transport.send(new Notification("a@example.com", "First", "1"));
+        transport.send(new Notification("b@example.com", "Second", "2"));
+        transport.send(new Notification("c@example.com", "Third", "3"));
+
+        assertEquals(3, transport.getSentCount());
+        List<String> subjects = transport.getSent().stream().map(Notification::getSubject).collect(Collectors.toList());
+        assertThat(subjects, contains("Second", "Third"));
+    }
+
+    /**
+     * Verifies that the spool transport publishes a complete, parseable email into the maildir "new" folder.
+     */
+    @Test
+    void testSpoolTransport_WritesMessageToNewFolder(@TempDir Path spoolDir) throws Exception {
+        SpoolTransport transport = new SpoolTransport(spoolDir);
+        Notification notification = new Notification("dr.smith@example.com", "Glucose Graph", "Please find attached.");
+        notification.addAttachment(new ByteArrayDataSource(new byte[]{1, 2, 3}, "image/png"));
+        transport.send(notification);
+
+        List<Path> published;
+        try (Stream<Path> files = Files.list(spoolDir.resolve("new"))) {
+            published = files.collect(Collectors.toList());
+        }
+        assertEquals(1, published.size());
+        try (Stream<Path> files = Files.list(spoolDir.resolve("tmp"))) {
+            assertEquals(0, files.count()); // Nothing left half-written
+        }
+
+        try (InputStream in = Files.newInputStream(published.get(0))) {
+            MimeMessage message = new MimeMessage(Session.getInstance(new Properties()), in);
+            assertEquals("Glucose Graph", message.getSubject());
+            assertThat(message.getAllRecipients()[0].toString(), is("dr.smith@example.com"));
+            assertEquals(2, ((MimeMultipart) message.getContent()).getCount()); // Body and attachment
+        }
+    }
+
+    /**
+     * Verifies that the registry builds transports by name and can be overridden.
+     */
+    @Test
+    void testRegistry_SelectsTransportByName() {
+        assertEquals("memory", NotificationTransports.fromName("memory").getName());
+        assertEquals("smtp", NotificationTransports.fromName("SMTP").getName());
+
+        InMemoryTransport sink = new InMemoryTransport();
+        NotificationTransports.set(sink);
+        assertSame(sink, NotificationTransports.get());
+    }
+}
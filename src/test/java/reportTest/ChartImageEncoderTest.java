@@ -0,0 +1,90 @@
+package reportTest;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.junit.jupiter.api.Test;
+import report.ChartImageEncoder;
+
+import javax.activation.DataSource;
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChartImageEncoderTest {
+
+    /**
+     * Creates a small line chart with the given number of points.
+     */
+    private static JFreeChart chart(int points) {
+        XYSeries series = new XYSeries("BG Trend");
+        for (int i = 0; i < points; i++) {
+            series.add(i, 5.0 + (i % 4));
+        }
+        return ChartFactory.createXYLineChart("", "Date", "Blood Glucose [mmol/L]", new XYSeriesCollection(series));
+    }
+
+    /**
+     * Verifies that a chart is encoded as a PNG of the requested size.
+     */
+    @Test
+    void testEncodePng_ProducesImageOfRequestedSize() throws Exception {
+        byte[] png = ChartImageEncoder.encodePng(chart(10), 400, 200);
+
+        assertEquals((byte) 0x89, png[0]); // PNG signature
+        assertEquals('P', png[1]);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        assertEquals(400, image.getWidth());
+        assertEquals(200, image.getHeight());
+    }
+
+    /**
+     * Verifies that the attachment carries the PNG bytes, content type and file name.
+     */
+    @Test
+    void testEncodeAttachment() throws Exception {
+        DataSource attachment = ChartImageEncoder.encodeAttachment(chart(10), 300, 150, "glucose_graph.png");
+
+        assertEquals("glucose_graph.png", attachment.getName());
+        assertEquals("image/png", attachment.getContentType());
+        try (InputStream in = attachment.getInputStream()) {
+            assertEquals(300, ImageIO.read(in).getWidth());
+        }
+    }
+
+    /**
+     * Verifies that reusing the per-thread buffer never hands out bytes shared with a later encode,
+     * and that charts encoded on several threads at once do not interfere with each other.
+     */
+    @Test
+    void testEncodePng_ResultsAreIndependent() throws Exception {
+        byte[] first = ChartImageEncoder.encodePng(chart(5), 200, 100);
+        byte[] firstCopy = first.clone();
+        ChartImageEncoder.encodePng(chart(50), 200, 100); // Reuses this thread's image and buffer
+        assertArrayEquals(firstCopy, first);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                int width = 200 + (i % 4) * 50; // Different sizes per task
+                results.add(pool.submit(() -> ChartImageEncoder.encodePng(chart(20), width, 100)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                BufferedImage image = ImageIO.read(new ByteArrayInputStream(results.get(i).get()));
+                assertEquals(200 + (i % 4) * 50, image.getWidth());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
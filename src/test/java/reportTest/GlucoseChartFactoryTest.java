@@ -0,0 +1,74 @@
+package reportTest;
+
+import model.DailySummary;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.data.xy.XYSeries;
+import org.junit.jupiter.api.Test;
+import report.GlucoseChartFactory;
+import report.GlucoseChartFactory.DailyMeasure;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GlucoseChartFactoryTest {
+
+    private static DailySummary day(String date, int readings, double average, double carbs, double insulin) {
+        DailySummary summary = new DailySummary(date);
+        summary.setEntryCount(Math.max(1, readings));
+        summary.setReadingCount(readings);
+        if (readings > 0) {
+            summary.setAverageBloodSugar(average);
+        }
+        summary.setTotalCarbs(carbs);
+        summary.setTotalInsulin(insulin);
+        return summary;
+    }
+
+    /**
+     * Verifies that every measure gets one point per day, with gaps (NaN) for days without data.
+     */
+    @Test
+    void testCreateDailySeries_OnePointPerDayForEveryMeasure() {
+        List<DailySummary> days = List.of(
+                day("2025-01-12", 2, 7.5, 120.0, 10.0),
+                day("2025-01-10", 0, 0, 40.0, 4.0)); // Carbs and insulin logged, but no reading
+
+        Map<DailyMeasure, XYSeries> series = GlucoseChartFactory.createDailySeries(
+                LocalDate.of(2025, 1, 10), LocalDate.of(2025, 1, 12), days);
+
+        for (DailyMeasure measure : DailyMeasure.values()) {
+            assertEquals(3, series.get(measure).getItemCount(), measure.name());
+        }
+        XYSeries glucose = series.get(DailyMeasure.GLUCOSE);
+        assertTrue(Double.isNaN(glucose.getY(0).doubleValue())); // No reading on the 10th
+        assertTrue(Double.isNaN(glucose.getY(1).doubleValue())); // Nothing at all on the 11th
+        assertEquals(7.5, glucose.getY(2).doubleValue(), 1e-9);
+
+        XYSeries carbs = series.get(DailyMeasure.CARBS);
+        assertEquals(40.0, carbs.getY(0).doubleValue(), 1e-9); // Plotted even without a reading
+        assertTrue(Double.isNaN(carbs.getY(1).doubleValue()));
+        assertEquals(10.0, series.get(DailyMeasure.INSULIN).getY(2).doubleValue(), 1e-9);
+    }
+
+    /**
+     * Verifies that the overlay chart maps carbs and insulin to their own axes and shows a legend.
+     */
+    @Test
+    void testCreateChart_OverlaysOnSecondaryAxes() {
+        Map<DailyMeasure, XYSeries> series = GlucoseChartFactory.createDailySeries(
+                LocalDate.of(2025, 1, 10), LocalDate.of(2025, 1, 12), List.of(day("2025-01-11", 1, 6.0, 50.0, 5.0)));
+
+        JFreeChart chart = GlucoseChartFactory.createChart(series);
+        XYPlot plot = chart.getXYPlot();
+
+        assertEquals(3, plot.getDatasetCount());
+        assertEquals(3, plot.getRangeAxisCount());
+        assertEquals(DailyMeasure.INSULIN.getLabel(), plot.getRangeAxisForDataset(1).getLabel());
+        assertEquals(DailyMeasure.CARBS.getLabel(), plot.getRangeAxisForDataset(2).getLabel());
+        assertNotNull(chart.getLegend());
+    }
+}
@@ -0,0 +1,61 @@
+package reportTest;
+
+import model.User;
+import notification.CircuitBreaker;
+import notification.GuardedTransport;
+import notification.InMemoryTransport;
+import notification.Notification;
+import notification.NotificationTransports;
+import notification.TokenBucket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import report.ReportMailer;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReportMailerTest {
+
+    private static final LocalDate WEEK_END = LocalDate.of(2031, 3, 9);
+
+    @AfterEach
+    void tearDown() {
+        NotificationTransports.set(null); // Restoring the default transport for the other tests
+    }
+
+    private static User patient(int id, String doctorEmail) {
+        User user = new User();
+        user.setId(id);
+        user.setName("Patient " + id);
+        user.setDoctorName("Who");
+        user.setDoctorEmail(doctorEmail);
+        return user;
+    }
+
+    /**
+     * Verifies that reports to a doctor over their rate limit wait without holding up other doctors' reports, and that
+     * they are all sent in the end instead of failing after a few deferrals.
+     */
+    @Test
+    void testAccept_RecipientLimitDoesNotHoldUpOthers() throws Exception {
+        InMemoryTransport sink = new InMemoryTransport();
+        NotificationTransports.set(new GuardedTransport(sink, new TokenBucket(100, 1), 1, 50, new CircuitBreaker(3, 10_000)));
+
+        ReportMailer mailer = new ReportMailer();
+        for (int id = 1; id <= 3; id++) {
+            mailer.accept(patient(id, "busy@example.com"), WEEK_END.minusDays(6), WEEK_END, new byte[]{1});
+        }
+        mailer.accept(patient(4, "other@example.com"), WEEK_END.minusDays(6), WEEK_END, new byte[]{1});
+        mailer.accept(patient(5, null), WEEK_END.minusDays(6), WEEK_END, new byte[]{1}); // No doctor, skipped
+
+        assertEquals(0, mailer.awaitDelivery());
+
+        List<String> recipients = sink.getSent().stream().map(Notification::getRecipient).collect(Collectors.toList());
+        assertEquals(4, recipients.size());
+        assertEquals("busy@example.com", recipients.get(0));
+        assertEquals("other@example.com", recipients.get(1)); // Sent while the busy doctor's next report waited
+    }
+}
@@ -0,0 +1,105 @@
+package reportTest;
+
+import database.DatabaseManager;
+import database.LogEntryDAO;
+import database.UserDAO;
+import model.LogEntry;
+import model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import report.WeeklyReportRenderer;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayInputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeeklyReportRendererTest {
+
+    private static final LocalDate WEEK_END = LocalDate.of(2031, 3, 9); // Far from any real data in the test database
+
+    private User withEntries; // Patient with readings in the week
+    private User withoutEntries; // Patient who logged nothing that week
+
+    @BeforeEach
+    void setUp() {
+        UserDAO userDAO = new UserDAO();
+        withEntries = userDAO.createUser(patient("report-with@example.com"));
+        withoutEntries = userDAO.createUser(patient("report-without@example.com"));
+        assertNotNull(withEntries);
+        assertNotNull(withoutEntries);
+
+        LogEntryDAO logEntryDAO = new LogEntryDAO();
+        logEntryDAO.createLogEntry(new LogEntry(withEntries.getId(), WEEK_END.minusDays(6).toString(), "Breakfast Pre", 6.5, 0, 0, null, null, 0, 0, null));
+        logEntryDAO.createLogEntry(new LogEntry(withEntries.getId(), WEEK_END.toString(), "Lunch Pre", 8.0, 0, 0, null, null, 0, 0, null));
+        logEntryDAO.createLogEntry(new LogEntry(withoutEntries.getId(), WEEK_END.plusDays(1).toString(), "Lunch Pre", 8.0, 0, 0, null, null, 0, 0, null)); // next week
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement entries = conn.prepareStatement("DELETE FROM logentry WHERE userId IN (?, ?)");
+             PreparedStatement users = conn.prepareStatement("DELETE FROM user WHERE id IN (?, ?)")) {
+            for (PreparedStatement ps : new PreparedStatement[]{entries, users}) {
+                ps.setInt(1, withEntries == null ? -1 : withEntries.getId());
+                ps.setInt(2, withoutEntries == null ? -1 : withoutEntries.getId());
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    private static User patient(String email) {
+        User user = new User();
+        user.setName("Report Patient");
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setDoctorName("Who");
+        user.setDoctorEmail("doctor@example.com");
+        return user;
+    }
+
+    /**
+     * Verifies that every patient with entries in the week gets a report, on several threads,
+     * and that patients without entries that week are skipped.
+     */
+    @Test
+    void testRenderAll_RendersPatientsWithEntries() throws Exception {
+        Map<Integer, byte[]> reports = new ConcurrentHashMap<>();
+        WeeklyReportRenderer.BatchResult result = new WeeklyReportRenderer(2)
+                .renderAll(WEEK_END, (patient, startDate, endDate, png) -> {
+                    assertEquals(WEEK_END.minusDays(6), startDate);
+                    assertEquals(WEEK_END, endDate);
+                    reports.put(patient.getId(), png);
+                });
+
+        assertTrue(reports.containsKey(withEntries.getId()));
+        assertFalse(reports.containsKey(withoutEntries.getId()));
+        assertEquals(reports.size(), result.getRendered());
+        assertTrue(result.getSkipped() >= 1);
+        assertEquals(0, result.getFailed());
+
+        byte[] png = reports.get(withEntries.getId());
+        assertEquals(800, ImageIO.read(new ByteArrayInputStream(png)).getWidth());
+    }
+
+    /**
+     * Verifies that a failing sink is counted as a failure without stopping the batch.
+     */
+    @Test
+    void testRenderAll_CountsSinkFailures() throws Exception {
+        WeeklyReportRenderer.BatchResult result = new WeeklyReportRenderer(2)
+                .renderAll(WEEK_END, (patient, startDate, endDate, png) -> {
+                    throw new IllegalStateException("disk full");
+                });
+
+        assertEquals(0, result.getRendered());
+        assertTrue(result.getFailed() >= 1);
+    }
+}
@@ -0,0 +1,65 @@
+package serviceTest;
+
+import model.LogEntry;
+import model.MealSlot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import service.AgpService;
+import service.QuantileSketch;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AgpServiceTest {
+
+    private static final int USER_ID = 990038;
+    private static final LocalDate MONDAY = LocalDate.of(2031, 6, 2);
+
+    private final TestLogbook logbook = new TestLogbook(USER_ID);
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        logbook.clear();
+    }
+
+    /**
+     * Verifies that a profile groups readings by meal slot across weeks, including non-standard quick log labels.
+     */
+    @Test
+    void testGetProfile_GroupsBySlotAcrossWeeks() {
+        for (int day = 0; day < 14; day++) {
+            logbook.save(logbook.entry(MONDAY.plusDays(day), "Breakfast Pre", 5.0 + day * 0.2)); // 5.0 to 7.6
+        }
+        logbook.save(logbook.entry(MONDAY.plusDays(3), "Dinner Post", 12.0));
+        logbook.save(logbook.entry(MONDAY.plusDays(4), "Bedtime Pre", 8.0)); // Quick log label
+
+        Map<MealSlot, QuantileSketch> profile = AgpService.getProfile(USER_ID, MONDAY.plusDays(2), MONDAY.plusDays(9));
+
+        assertEquals(14, profile.get(MealSlot.BREAKFAST_PRE).getCount()); // Whole weeks around the range
+        assertEquals(6.3, profile.get(MealSlot.BREAKFAST_PRE).quantile(0.5), 0.1);
+        assertEquals(12.0, profile.get(MealSlot.DINNER_POST).quantile(0.5), 0.1);
+        assertEquals(1, profile.get(MealSlot.BEDTIME).getCount());
+        assertFalse(profile.containsKey(MealSlot.LUNCH_PRE)); // No readings, no sketch
+    }
+
+    /**
+     * Verifies that weeks are served from the cache until an entry of that week is saved.
+     */
+    @Test
+    void testGetProfile_CachedUntilEntrySaved() {
+        logbook.save(logbook.entry(MONDAY, "Lunch Pre", 6.0));
+        assertEquals(1, AgpService.getProfile(USER_ID, MONDAY, MONDAY.plusDays(6)).get(MealSlot.LUNCH_PRE).getCount());
+
+        LogEntry added = logbook.entry(MONDAY.plusDays(1), "Lunch Pre", 9.0);
+        logbook.insert(added); // Written behind the service's back
+        assertEquals(1, AgpService.getProfile(USER_ID, MONDAY, MONDAY.plusDays(6)).get(MealSlot.LUNCH_PRE).getCount());
+
+        AgpService.entrySaved(added); // What LogService.saveEntry does once the save commits
+        QuantileSketch lunch = AgpService.getProfile(USER_ID, MONDAY, MONDAY.plusDays(6)).get(MealSlot.LUNCH_PRE);
+        assertEquals(2, lunch.getCount());
+        assertEquals(9.0, lunch.quantile(1.0), 0.1);
+    }
+}
@@ -2,9 +2,13 @@ package serviceTest;
 
 import service.AlarmService;
 import model.LogEntry;
+import model.OutboxMessage;
 import model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -106,15 +110,60 @@ public class AlarmServiceTest {
     }
 
     /**
-     * Verifies that meals are tracked correctly in the notifiedMeals set.
+     * Verifies that the notified meals can be read but not changed from outside AlarmService.
      */
     @Test
     void testGetNotifiedMeals() {
-        // Adding a mocked meal
-        AlarmService.getNotifiedMeals().add("John Doe_Breakfast");
+        assertThrows(UnsupportedOperationException.class, () -> AlarmService.getNotifiedMeals().add("John Doe_Breakfast"));
+    }
 
-        // Asserting presence of the meal in the set
-        assertTrue(AlarmService.getNotifiedMeals().contains("John Doe_Breakfast"));
+    /**
+     * Verifies that evaluating an alarm marks nothing, so a save that rolls back alarms again on its retry,
+     * and that the meal is only marked as notified once the alarm is committed.
+     */
+    @Test
+    void testEvaluateAlarms_MarksOnlyOnceCommitted() {
+        when(logEntry.getBloodSugar()).thenReturn(3.2); // Below the minimum
+        when(logEntry.getHoursSinceMeal()).thenReturn(3);
+        when(logEntry.getTimeOfDay()).thenReturn("Supper");
+        when(logEntry.getDate()).thenReturn("2025-01-10");
+
+        when(user.getId()).thenReturn(990028);
+        when(user.getName()).thenReturn("Jane Roe");
+        when(user.getDoctorName()).thenReturn("Dr. Smith");
+        when(user.getDoctorEmail()).thenReturn("dr.smith@example.com");
+
+        try {
+            List<OutboxMessage> alarms = AlarmService.evaluateAlarms(logEntry, user);
+            assertEquals(1, alarms.size());
+            assertFalse(AlarmService.getNotifiedMeals().contains("Jane Roe_Supper")); // Not saved yet
+
+            assertEquals(1, AlarmService.evaluateAlarms(logEntry, user).size()); // The retry of a failed save alarms again
+
+            AlarmService.alarmsCommitted(logEntry, user, alarms);
+            assertTrue(AlarmService.getNotifiedMeals().contains("Jane Roe_Supper"));
+            assertTrue(AlarmService.evaluateAlarms(logEntry, user).isEmpty()); // Already notified
+        } finally {
+            AlarmService.forgetNotified("Jane Roe_Supper"); // The set is shared by the other tests
+        }
+    }
+
+    /**
+     * Verifies that a muted user's readings raise no alarm, however far out of range.
+     */
+    @Test
+    void testEvaluateAlarms_MutedUser() {
+        when(logEntry.getBloodSugar()).thenReturn(2.0); // Below the minimum
+        when(logEntry.getHoursSinceMeal()).thenReturn(3);
+        when(logEntry.getTimeOfDay()).thenReturn("Breakfast");
+        when(logEntry.getDate()).thenReturn("2025-01-10");
+
+        when(user.getId()).thenReturn(990047);
+        when(user.getName()).thenReturn("Muted User");
+
+        AlarmService.muteAlarms(990047);
+
+        assertTrue(AlarmService.evaluateAlarms(logEntry, user).isEmpty());
     }
 
     /**
@@ -0,0 +1,101 @@
+package serviceTest;
+
+import model.DailySummary;
+import model.DayStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import service.CalendarStatusService;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CalendarStatusServiceTest {
+
+    private static final int USER_ID = 990044;
+    private static final YearMonth MONTH = YearMonth.of(2033, 3);
+
+    private final TestLogbook logbook = new TestLogbook(USER_ID);
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        logbook.clear();
+    }
+
+    /**
+     * Verifies how a day's readings decide its status, lows first.
+     */
+    @Test
+    void testDayStatus_Of() {
+        DailySummary day = new DailySummary("2033-03-01");
+        assertEquals(DayStatus.NO_DATA, DayStatus.of(null));
+        assertEquals(DayStatus.NO_DATA, DayStatus.of(day)); // Carbs only
+
+        day.setReadingCount(3);
+        assertEquals(DayStatus.IN_RANGE, DayStatus.of(day));
+        day.setReadingsAboveRange(1);
+        assertEquals(DayStatus.HYPER, DayStatus.of(day));
+        day.setReadingsBelowRange(1);
+        assertEquals(DayStatus.HYPO, DayStatus.of(day));
+    }
+
+    /**
+     * Verifies that a month is classified day by day and that days without readings are left out.
+     */
+    @Test
+    void testGetMonth_ClassifiesDays() {
+        logbook.save(logbook.entry(MONTH.atDay(3), "Breakfast Pre", 6.0));
+        logbook.save(logbook.entry(MONTH.atDay(4), "Breakfast Pre", 3.1));
+        logbook.save(logbook.entry(MONTH.atDay(4), "Dinner Post", 12.5));
+        logbook.save(logbook.entry(MONTH.atDay(5), "Lunch Post", 13.0));
+        logbook.save(logbook.entry(MONTH.atDay(6), "Lunch Pre", 0)); // Carbs only
+        logbook.save(logbook.entry(MONTH.plusMonths(1).atDay(1), "Lunch Pre", 2.5)); // Next month
+
+        Map<LocalDate, DayStatus> statuses = CalendarStatusService.getMonth(USER_ID, MONTH);
+
+        assertEquals(3, statuses.size());
+        assertEquals(DayStatus.IN_RANGE, statuses.get(MONTH.atDay(3)));
+        assertEquals(DayStatus.HYPO, statuses.get(MONTH.atDay(4)));
+        assertEquals(DayStatus.HYPER, statuses.get(MONTH.atDay(5)));
+        assertSame(statuses, CalendarStatusService.getCachedMonth(USER_ID, MONTH)); // Cached, no second query
+    }
+
+    /**
+     * Verifies that saving an entry drops the cached month of its day, and only that month.
+     */
+    @Test
+    void testEntrySaved_DropsMonth() {
+        logbook.save(logbook.entry(MONTH.atDay(10), "Breakfast Pre", 6.0));
+        assertEquals(DayStatus.IN_RANGE, CalendarStatusService.getMonth(USER_ID, MONTH).get(MONTH.atDay(10)));
+        CalendarStatusService.getMonth(USER_ID, MONTH.plusMonths(1));
+
+        logbook.save(logbook.entry(MONTH.atDay(10), "Breakfast Pre", 3.0)); // Same slot, so the reading is replaced
+
+        assertNull(CalendarStatusService.getCachedMonth(USER_ID, MONTH));
+        assertNotNull(CalendarStatusService.getCachedMonth(USER_ID, MONTH.plusMonths(1)));
+        assertEquals(DayStatus.HYPO, CalendarStatusService.getMonth(USER_ID, MONTH).get(MONTH.atDay(10)));
+    }
+
+    /**
+     * Verifies that the months either side of the shown one are loaded in the background.
+     */
+    @Test
+    void testPrefetchAround_LoadsNeighbours() throws InterruptedException {
+        logbook.save(logbook.entry(MONTH.minusMonths(1).atDay(15), "Lunch Post", 11.0));
+
+        CalendarStatusService.prefetchAround(USER_ID, MONTH);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((CalendarStatusService.getCachedMonth(USER_ID, MONTH.minusMonths(1)) == null
+                || CalendarStatusService.getCachedMonth(USER_ID, MONTH.plusMonths(1)) == null)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(DayStatus.HYPER, CalendarStatusService.getCachedMonth(USER_ID, MONTH.minusMonths(1)).get(MONTH.minusMonths(1).atDay(15)));
+        assertTrue(CalendarStatusService.getCachedMonth(USER_ID, MONTH.plusMonths(1)).isEmpty());
+        assertNull(CalendarStatusService.getCachedMonth(USER_ID, MONTH)); // Only the neighbours
+    }
+}
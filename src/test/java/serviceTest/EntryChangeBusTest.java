@@ -0,0 +1,117 @@
+package serviceTest;
+
+import database.DatabaseManager;
+import model.LogEntry;
+import model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import service.EntryChange;
+import service.EntryChangeBus;
+import service.LogService;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntryChangeBusTest {
+
+    private static final int USER_ID = 990048; // No real user, so the test entries cannot mix with anyone's logbook
+
+    private final BlockingQueue<EntryChange> received = new LinkedBlockingQueue<>();
+    private EntryChangeBus.Subscription subscription;
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (subscription != null) {
+            subscription.cancel();
+        }
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement("DELETE FROM logentry WHERE userId = ?")) {
+            ps.setInt(1, USER_ID);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Waits for the next change of the test user; changes published by other tests are skipped.
+     */
+    private EntryChange nextChange() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        EntryChange change;
+        do {
+            change = received.poll(Math.max(1, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } while (change != null && change.getUserId() != USER_ID);
+        return change;
+    }
+
+    /**
+     * Verifies that a committed entry is published with its user, date and values, as a copy the caller cannot change.
+     */
+    @Test
+    void testSaveEntry_PublishesChange() throws InterruptedException {
+        subscription = EntryChangeBus.subscribe(received::add);
+        LogEntry entry = new LogEntry(USER_ID, "2033-02-14", "Dinner Post", 9.5, 60.0, 0, null, null, 0, 4.0, null);
+
+        assertTrue(LogService.saveEntry(entry, new User()));
+        entry.setBloodSugar(4.2); // The logbook reusing its entry for the next edit
+
+        EntryChange change = nextChange();
+        assertNotNull(change);
+        assertEquals(EntryChange.Type.ENTRY_SAVED, change.getType());
+        assertEquals(LocalDate.of(2033, 2, 14), change.getDate());
+        assertEquals(9.5, change.getEntry().getBloodSugar(), 1e-9); // The value that was saved
+        assertNotSame(entry, change.getEntry());
+    }
+
+    /**
+     * Verifies that a failed save publishes nothing, as nothing was committed.
+     */
+    @Test
+    void testSaveEntry_FailedSaveIsNotPublished() throws InterruptedException {
+        subscription = EntryChangeBus.subscribe(received::add);
+        LogEntry noTimeOfDay = new LogEntry(USER_ID, "2033-02-15", null, 9.5, 60.0, 0, null, null, 0, 4.0, null);
+
+        assertFalse(LogService.saveEntry(noTimeOfDay, new User()));
+        EntryChangeBus.publish(EntryChange.userUpdated(user())); // A marker, delivered after anything published before it
+
+        assertEquals(EntryChange.Type.USER_UPDATED, nextChange().getType());
+    }
+
+    /**
+     * Verifies that changes reach every subscriber in order, and that a cancelled subscription gets no more.
+     */
+    @Test
+    void testSubscribe_InOrderUntilCancelled() throws InterruptedException {
+        BlockingQueue<EntryChange> other = new LinkedBlockingQueue<>();
+        subscription = EntryChangeBus.subscribe(received::add);
+        EntryChangeBus.Subscription otherSubscription = EntryChangeBus.subscribe(other::add);
+
+        EntryChange first = EntryChange.entrySaved(new LogEntry(USER_ID, "2033-02-16", "Lunch Pre", 5.0, 0, 0, null, null, 0, 0, null));
+        EntryChange second = EntryChange.userUpdated(user());
+        EntryChangeBus.publish(first);
+        EntryChangeBus.publish(second);
+
+        assertSame(first, nextChange());
+        assertSame(second, nextChange());
+        assertSame(first, other.poll(5, TimeUnit.SECONDS));
+        assertSame(second, other.poll(5, TimeUnit.SECONDS));
+
+        otherSubscription.cancel();
+        EntryChange third = EntryChange.userUpdated(user());
+        EntryChangeBus.publish(third);
+        assertSame(third, nextChange());
+        assertNull(other.poll(100, TimeUnit.MILLISECONDS)); // Delivered to the first subscriber, never to the cancelled one
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(USER_ID);
+        return user;
+    }
+}
@@ -0,0 +1,114 @@
+package serviceTest;
+
+import model.DailySummary;
+import org.junit.jupiter.api.Test;
+import service.GlycemicStatistics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GlycemicStatisticsTest {
+
+    private static final double[] READINGS = {2.0, 4.0, 4.0, 4.0, 5.0, 5.0, 7.0, 9.0, 11.0, 14.0};
+
+    private static GlycemicStatistics of(double... readings) {
+        GlycemicStatistics statistics = new GlycemicStatistics();
+        for (double reading : readings) {
+            statistics.add(reading);
+        }
+        return statistics;
+    }
+
+    /**
+     * Builds a day's summary the way the aggregate query would.
+     */
+    private static DailySummary day(double... readings) {
+        DailySummary summary = new DailySummary("2025-01-10");
+        double sum = 0;
+        double sumOfSquares = 0;
+        int below = 0;
+        int above = 0;
+        for (double reading : readings) {
+            sum += reading;
+            sumOfSquares += reading * reading;
+            below += reading < DailySummary.RANGE_LOW ? 1 : 0;
+            above += reading > DailySummary.RANGE_HIGH ? 1 : 0;
+        }
+        summary.setEntryCount(readings.length);
+        summary.setReadingCount(readings.length);
+        summary.setAverageBloodSugar(sum / readings.length);
+        summary.setSumOfSquares(sumOfSquares);
+        summary.setReadingsBelowRange(below);
+        summary.setReadingsAboveRange(above);
+        return summary;
+    }
+
+    /**
+     * Verifies the mean, sample standard deviation, range percentages and GMI of a known set of readings.
+     */
+    @Test
+    void testAdd_KnownReadings() {
+        GlycemicStatistics statistics = of(READINGS);
+        statistics.add(0.0); // No reading logged, ignored
+        statistics.add(Double.NaN);
+
+        assertEquals(10, statistics.getCount());
+        assertEquals(6.5, statistics.getMean(), 1e-9);
+        assertEquals(Math.sqrt(126.5 / 9), statistics.getStandardDeviation(), 1e-9);
+        assertEquals(statistics.getStandardDeviation() / 6.5 * 100.0, statistics.getCoefficientOfVariation(), 1e-9);
+        assertEquals(70.0, statistics.getTimeInRange(), 1e-9);
+        assertEquals(10.0, statistics.getTimeBelowRange(), 1e-9); // 2.0
+        assertEquals(20.0, statistics.getTimeAboveRange(), 1e-9); // 11.0 and 14.0
+        assertEquals(3.31 + 0.02392 * 6.5 * 18.018, statistics.getGlucoseManagementIndicator(), 1e-9);
+    }
+
+    /**
+     * Verifies that merging two partial accumulators gives the same result as one pass over all readings.
+     */
+    @Test
+    void testMerge_EqualsSinglePass() {
+        GlycemicStatistics merged = of(2.0, 4.0, 4.0);
+        merged.merge(of(4.0, 5.0, 5.0, 7.0, 9.0, 11.0, 14.0));
+        merged.merge(new GlycemicStatistics()); // Merging an empty accumulator changes nothing
+
+        GlycemicStatistics single = of(READINGS);
+        assertEquals(single.getCount(), merged.getCount());
+        assertEquals(single.getMean(), merged.getMean(), 1e-9);
+        assertEquals(single.getStandardDeviation(), merged.getStandardDeviation(), 1e-9);
+        assertEquals(single.getTimeInRange(), merged.getTimeInRange(), 1e-9);
+    }
+
+    /**
+     * Verifies that adding whole days from their aggregates matches adding their readings one by one.
+     */
+    @Test
+    void testAddDailySummary_EqualsReadings() {
+        GlycemicStatistics fromDays = new GlycemicStatistics();
+        fromDays.add(day(2.0, 4.0, 4.0, 4.0));
+        fromDays.add(new DailySummary("2025-01-11")); // A day without readings
+        fromDays.add(day(5.0, 5.0, 7.0, 9.0, 11.0, 14.0));
+
+        GlycemicStatistics fromReadings = of(READINGS);
+        assertEquals(fromReadings.getCount(), fromDays.getCount());
+        assertEquals(fromReadings.getMean(), fromDays.getMean(), 1e-9);
+        assertEquals(fromReadings.getStandardDeviation(), fromDays.getStandardDeviation(), 1e-9);
+        assertEquals(fromReadings.getTimeBelowRange(), fromDays.getTimeBelowRange(), 1e-9);
+        assertEquals(fromReadings.getTimeAboveRange(), fromDays.getTimeAboveRange(), 1e-9);
+    }
+
+    /**
+     * Verifies that statistics without enough readings are NaN rather than 0.
+     */
+    @Test
+    void testEmptyAndSingleReading() {
+        GlycemicStatistics empty = new GlycemicStatistics();
+        assertEquals(0, empty.getCount());
+        assertTrue(Double.isNaN(empty.getMean()));
+        assertTrue(Double.isNaN(empty.getTimeInRange()));
+        assertTrue(Double.isNaN(empty.getGlucoseManagementIndicator()));
+
+        GlycemicStatistics single = of(6.0);
+        assertEquals(6.0, single.getMean(), 1e-9);
+        assertTrue(Double.isNaN(single.getStandardDeviation())); // No spread from one reading
+        assertEquals(100.0, single.getTimeInRange(), 1e-9);
+    }
+}
@@ -12,6 +12,7 @@ import org.mockito.Mockito;
 import org.junit.jupiter.api.AfterEach;
 import service.LogService;
 
+import java.sql.SQLException;
 import java.util.Collections;
 import java.util.List;
 
@@ -67,6 +68,74 @@ class LogServiceTest {
         assertEquals("2025-01-13", savedEntry.getDate());
     }
 
+    /**
+     * Verifies that saving an entry is counted, so screens kept in the background can tell their figures are stale.
+     */
+    @Test
+    void testCreateEntry_IncrementsSaveCount() throws SQLException {
+        TestLogbook logbook = new TestLogbook(990043);
+        int userId = logbook.getUserId();
+        LogEntry entry = new LogEntry(userId, "2033-01-10", "Breakfast Pre", 6.0, 30.0, 0, null, null, 0, 2.0, null);
+
+        long before = LogService.getSaveCount();
+        try {
+            LogService.createEntry(entry, new User());
+            assertEquals(before + 1, LogService.getSaveCount());
+        } finally {
+            logbook.clear();
+        }
+    }
+
+    /**
+     * Verifies that saveEntry reports whether the row was saved, so the logbooks can mark the rows that failed.
+     */
+    @Test
+    void testSaveEntry_ReportsResult() throws SQLException {
+        TestLogbook logbook = new TestLogbook(990046);
+        int userId = logbook.getUserId();
+        LogEntry entry = new LogEntry(userId, "2033-01-11", "Lunch Pre", 6.5, 40.0, 0, null, null, 0, 1.0, null);
+        LogEntry noTimeOfDay = new LogEntry(userId, "2033-01-11", null, 6.5, 40.0, 0, null, null, 0, 1.0, null);
+
+        long before = LogService.getSaveCount();
+        try {
+            assertTrue(LogService.saveEntry(entry, new User()));
+            assertFalse(LogService.saveEntry(noTimeOfDay, new User())); // Rejected by the database
+            assertEquals(before + 1, LogService.getSaveCount()); // Only the saved row counts
+        } finally {
+            logbook.clear();
+        }
+    }
+
+    /**
+     * Verifies that the cached latest reading follows the saves: a later reading replaces it, an earlier one does not,
+     * and clearing it falls back to the reading before.
+     */
+    @Test
+    void testGetLatestReading_KeptCurrentBySaves() throws SQLException {
+        TestLogbook logbook = new TestLogbook(990049);
+        int userId = logbook.getUserId();
+        User user = new User();
+        try {
+            assertNull(LogService.getLatestReading(userId)); // Looked up (and cached) with no readings
+
+            LogService.saveEntry(new LogEntry(userId, "2033-03-01", "Breakfast Pre", 5.4, 0, 0, null, null, 0, 0, null), user);
+            assertEquals("Breakfast Pre", LogService.getLatestReading(userId).getTimeOfDay());
+
+            LogService.saveEntry(new LogEntry(userId, "2033-03-01", "Dinner Post", 9.1, 0, 0, null, null, 0, 0, null), user);
+            LogService.saveEntry(new LogEntry(userId, "2033-02-28", "Bedtime", 6.6, 0, 0, null, null, 0, 0, null), user); // an earlier day
+            LogEntry latest = LogService.getLatestReading(userId);
+            assertEquals("2033-03-01", latest.getDate());
+            assertEquals("Dinner Post", latest.getTimeOfDay());
+            assertEquals(9.1, latest.getBloodSugar(), 1e-9);
+
+            // Clearing the reading of the latest slot (carbs only now)
+            LogService.saveEntry(new LogEntry(userId, "2033-03-01", "Dinner Post", 0, 50.0, 0, null, null, 0, 0, null), user);
+            assertEquals("Breakfast Pre", LogService.getLatestReading(userId).getTimeOfDay());
+        } finally {
+            logbook.clear();
+        }
+    }
+
     /**
      * Verifies that the getEntriesForDate method returns an empty list
      * when no entries exist for the specified user ID and date.
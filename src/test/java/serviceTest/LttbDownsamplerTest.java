@@ -0,0 +1,124 @@
+package serviceTest;
+
+import org.junit.jupiter.api.Test;
+import service.LttbDownsampler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LttbDownsamplerTest {
+
+    private static double[] range(int n) {
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i;
+        }
+        return x;
+    }
+
+    /**
+     * Verifies that a long series is reduced to the budget, keeping its first and last points.
+     */
+    @Test
+    void testDownsample_RespectsBudgetAndKeepsEndpoints() {
+        int n = 10_000;
+        double[] x = range(n);
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            y[i] = 7 + 2 * Math.sin(i / 50.0);
+        }
+
+        double[][] result = LttbDownsampler.downsample(x, y, 200);
+
+        assertEquals(200, result[0].length);
+        assertEquals(0, result[0][0]);
+        assertEquals(n - 1, result[0][199]);
+        for (int i = 1; i < result[0].length; i++) {
+            assertTrue(result[0][i] > result[0][i - 1], "x values must stay in ascending order");
+        }
+    }
+
+    /**
+     * Verifies that an isolated hypo survives downsampling.
+     */
+    @Test
+    void testDownsample_KeepsIsolatedTrough() {
+        int n = 5_000;
+        double[] x = range(n);
+        double[] y = new double[n];
+        java.util.Arrays.fill(y, 7.0);
+        y[3_217] = 2.8; // A single low reading
+
+        double[][] result = LttbDownsampler.downsample(x, y, 100);
+
+        double min = Double.MAX_VALUE;
+        for (double value : result[1]) {
+            min = Math.min(min, value);
+        }
+        assertEquals(2.8, min, 1e-9);
+    }
+
+    /**
+     * Verifies that gaps (NaN) are kept as a single marker between downsampled runs.
+     */
+    @Test
+    void testDownsample_PreservesGaps() {
+        int n = 1_000;
+        double[] x = range(n);
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            y[i] = (i >= 400 && i < 450) ? Double.NaN : 6 + (i % 7);
+        }
+
+        double[][] result = LttbDownsampler.downsample(x, y, 100);
+
+        int nanCount = 0;
+        for (double value : result[1]) {
+            if (Double.isNaN(value)) {
+                nanCount++;
+            }
+        }
+        assertEquals(1, nanCount);
+        assertTrue(result[0].length <= 101);
+    }
+
+    /**
+     * Verifies that many short runs between single missing days (e.g. a year of every other day logged) fit in the
+     * output even when their endpoints add up to more than the budget.
+     */
+    @Test
+    void testDownsample_ManyShortRuns() {
+        int runs = 121;
+        int n = runs * 3 - 1; // Two days with readings, then one without, ending on a run
+        double[] x = range(n);
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            y[i] = i % 3 == 2 ? Double.NaN : 6 + (i % 5);
+        }
+
+        double[][] result = LttbDownsampler.downsample(x, y, 200);
+
+        int nanCount = 0;
+        for (int i = 0; i < result[1].length; i++) {
+            if (Double.isNaN(result[1][i])) {
+                nanCount++;
+            }
+            if (i > 0) {
+                assertTrue(result[0][i] > result[0][i - 1]); // Still in order
+            }
+        }
+        assertEquals(runs - 1, nanCount); // Every gap kept
+        assertEquals(runs * 2 + runs - 1, result[0].length); // Every run keeps both of its days
+    }
+
+    /**
+     * Verifies that short series are returned unchanged.
+     */
+    @Test
+    void testDownsample_ShortSeriesUnchanged() {
+        double[] x = {1, 2, 3};
+        double[] y = {5, Double.NaN, 6};
+        double[][] result = LttbDownsampler.downsample(x, y, 50);
+        assertArrayEquals(x, result[0]);
+        assertArrayEquals(y, result[1]);
+    }
+}
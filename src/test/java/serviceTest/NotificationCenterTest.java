@@ -0,0 +1,76 @@
+package serviceTest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import service.AlarmService;
+import service.NotificationCenter;
+import service.NotificationEvent;
+import service.NotificationListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NotificationCenterTest {
+
+    private final List<NotificationListener> registered = new ArrayList<>(); // Removed again after each test
+
+    private void register(NotificationListener listener) {
+        registered.add(listener);
+        NotificationCenter.addListener(listener);
+    }
+
+    @AfterEach
+    void tearDown() {
+        registered.forEach(NotificationCenter::removeListener);
+    }
+
+    /**
+     * Verifies that every listener receives the event, even if an earlier listener throws.
+     */
+    @Test
+    void testPublish_DeliversToAllListenersDespiteFailures() {
+        List<NotificationEvent> received = new ArrayList<>();
+        register(event -> {
+            throw new IllegalStateException("broken listener");
+        });
+        register(received::add);
+
+        NotificationCenter.publish(NotificationEvent.Level.WARNING, "Test", "Hello");
+
+        assertEquals(1, received.size());
+        assertEquals("Hello", received.get(0).getMessage());
+        assertEquals(NotificationEvent.Level.WARNING, received.get(0).getLevel());
+    }
+
+    /**
+     * Verifies that AlarmService reports to the notification center instead of opening a dialog (this runs headless).
+     */
+    @Test
+    void testNotifyUser_PublishesWithoutBlocking() {
+        List<NotificationEvent> received = new ArrayList<>();
+        register(received::add);
+
+        AlarmService.notifyUser("Doctor has been notified of low glucose value (3.20 mmol/L).");
+        AlarmService.notifyUser(""); // Nothing to say, nothing published
+
+        assertEquals(1, received.size());
+        assertEquals(NotificationEvent.Level.SUCCESS, received.get(0).getLevel());
+        assertTrue(NotificationCenter.getRecent().contains(received.get(0)));
+    }
+
+    /**
+     * Verifies that removed listeners are no longer called.
+     */
+    @Test
+    void testRemoveListener_StopsDelivery() {
+        List<NotificationEvent> received = new ArrayList<>();
+        NotificationListener listener = received::add;
+        NotificationCenter.addListener(listener);
+        NotificationCenter.removeListener(listener);
+
+        NotificationCenter.publish(NotificationEvent.Level.INFO, "Test", "Nobody listening");
+        assertTrue(received.isEmpty());
+    }
+}
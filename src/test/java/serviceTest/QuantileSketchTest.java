@@ -0,0 +1,74 @@
+package serviceTest;
+
+import org.junit.jupiter.api.Test;
+import service.QuantileSketch;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuantileSketchTest {
+
+    /**
+     * Verifies that the estimated percentiles are within one bin (0.1 mmol/L) of the exact ones.
+     */
+    @Test
+    void testQuantile_WithinOneBinOfExact() {
+        Random random = new Random(42);
+        double[] readings = new double[20_000];
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < readings.length; i++) {
+            readings[i] = Math.max(1.5, 7.0 + random.nextGaussian() * 2.5);
+            sketch.add(readings[i]);
+        }
+        Arrays.sort(readings);
+
+        assertEquals(readings.length, sketch.getCount());
+        for (double q : new double[]{0.05, 0.25, 0.5, 0.75, 0.95}) {
+            double exact = readings[(int) Math.ceil(q * readings.length) - 1];
+            assertEquals(exact, sketch.quantile(q), 0.1, "quantile " + q);
+        }
+    }
+
+    /**
+     * Verifies that merging sketches gives exactly the sketch of all readings, and leaves the merged-in sketch alone.
+     */
+    @Test
+    void testMerge_EqualsSingleSketch() {
+        QuantileSketch first = new QuantileSketch();
+        QuantileSketch second = new QuantileSketch();
+        QuantileSketch all = new QuantileSketch();
+        for (int i = 1; i <= 200; i++) {
+            double reading = 2.0 + (i % 97) * 0.17;
+            (i % 3 == 0 ? first : second).add(reading);
+            all.add(reading);
+        }
+
+        QuantileSketch merged = first.copy();
+        merged.merge(second);
+
+        assertEquals(all.getCount(), merged.getCount());
+        for (double q = 0.0; q <= 1.0; q += 0.05) {
+            assertEquals(all.quantile(q), merged.quantile(q), 1e-12);
+        }
+        assertEquals(200 / 3, first.getCount()); // The copy was merged, not the original
+    }
+
+    /**
+     * Verifies the handling of empty sketches, missing readings and out-of-range values.
+     */
+    @Test
+    void testEdgeCases() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(0.0); // No reading logged
+        sketch.add(Double.NaN);
+        assertTrue(sketch.isEmpty());
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+
+        sketch.add(55.0); // Above the last bin, still counted
+        assertEquals(1, sketch.getCount());
+        assertTrue(sketch.quantile(0.5) >= 39.9);
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantile(1.5));
+    }
+}
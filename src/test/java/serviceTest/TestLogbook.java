@@ -0,0 +1,101 @@
+package serviceTest;
+
+import database.DatabaseManager;
+import database.LogEntryDAO;
+import model.LogEntry;
+import model.User;
+import service.AgpService;
+import service.AlarmService;
+import service.CalendarStatusService;
+import service.LogService;
+import service.TilePyramid;
+import service.WeekLogService;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The logbook of a made-up user, for the service tests that read real rows back from the test database.
+ * Each test class gets its own user id (990000 and up, which no real user has) and logs its entries far from any real
+ * data, then calls clear() after each test, which deletes the rows and drops what the services cached of them.
+ * The user's alarms are muted, so any reading can be saved through LogService without emailing a doctor.
+ */
+class TestLogbook {
+
+    private final int userId;
+    private final LogEntryDAO logEntryDAO = new LogEntryDAO();
+
+    TestLogbook(int userId) {
+        this.userId = userId;
+        AlarmService.muteAlarms(userId);
+    }
+
+    int getUserId() {
+        return userId;
+    }
+
+    /**
+     * @return The user, to save entries with through LogService. Their alarms are muted.
+     */
+    User user() {
+        User user = new User();
+        user.setId(userId);
+        user.setName("Test User " + userId);
+        return user;
+    }
+
+    /**
+     * @return An entry of 20 g carbs (bloodSugar 0: no reading).
+     */
+    LogEntry entry(LocalDate date, String timeOfDay, double bloodSugar) {
+        return new LogEntry(userId, date.toString(), timeOfDay, bloodSugar, 20.0, 0, null, null, 0, 0, null);
+    }
+
+    /**
+     * Writes an entry without telling the services, as if the database had been changed behind their back.
+     */
+    void insert(LogEntry entry) {
+        logEntryDAO.createLogEntry(entry);
+    }
+
+    /**
+     * Saves an entry through LogService.saveEntry, as the logbooks do.
+     */
+    void save(LogEntry entry) {
+        assertTrue(LogService.saveEntry(entry, user()));
+    }
+
+    /**
+     * Deletes the user's entries, however they were saved, and drops the cached figures of their days.
+     * LogService cannot delete entries, so the rows are deleted behind its back and each service is told directly.
+     */
+    void clear() throws SQLException {
+        List<String> dates = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement select = conn.prepareStatement("SELECT DISTINCT date FROM logentry WHERE userId = ?");
+             PreparedStatement delete = conn.prepareStatement("DELETE FROM logentry WHERE userId = ?")) {
+            select.setInt(1, userId);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    dates.add(rs.getString("date"));
+                }
+            }
+            delete.setInt(1, userId);
+            delete.executeUpdate();
+        }
+        for (String date : dates) {
+            LogEntry deleted = new LogEntry(userId, date, "Lunch Pre", 0, 0, 0, null, null, 0, 0, null);
+            AgpService.entrySaved(deleted);
+            TilePyramid.entrySaved(deleted);
+            CalendarStatusService.entrySaved(deleted);
+            WeekLogService.entrySaved(deleted);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package serviceTest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import service.GlycemicStatistics;
+import service.LogService;
+import service.TilePyramid;
+import service.TilePyramid.Bucket;
+import service.TilePyramid.Resolution;
+
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TilePyramidTest {
+
+    private static final int USER_ID = 990040;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2032, 1, 1);
+
+    private final TestLogbook logbook = new TestLogbook(USER_ID);
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        logbook.clear();
+    }
+
+    /**
+     * Verifies that every resolution maps days to buckets and back consistently, before and after the epoch.
+     */
+    @Test
+    void testResolution_BucketBoundaries() {
+        for (LocalDate day : new LocalDate[]{LocalDate.of(1969, 12, 28), LocalDate.of(1970, 1, 1), LocalDate.of(2024, 2, 29), LocalDate.of(2031, 12, 31)}) {
+            for (Resolution resolution : Resolution.values()) {
+                long index = resolution.indexOf(day);
+                assertFalse(resolution.startOf(index).isAfter(day), resolution + " " + day);
+                assertFalse(resolution.endOf(index).isBefore(day), resolution + " " + day);
+                assertEquals(index + 1, resolution.indexOf(resolution.endOf(index).plusDays(1)));
+            }
+            assertEquals(DayOfWeek.MONDAY, Resolution.WEEK.startOf(Resolution.WEEK.indexOf(day)).getDayOfWeek());
+        }
+        assertEquals(LocalDate.of(2024, 4, 1), Resolution.QUARTER.startOf(Resolution.QUARTER.indexOf(LocalDate.of(2024, 5, 17))));
+        assertEquals(LocalDate.of(2024, 2, 29), Resolution.MONTH.endOf(Resolution.MONTH.indexOf(LocalDate.of(2024, 2, 3))));
+    }
+
+    /**
+     * Verifies that the finest resolution that fits the budget is chosen.
+     */
+    @Test
+    void testResolution_ForRange() {
+        LocalDate end = LocalDate.of(2025, 12, 31);
+        assertEquals(Resolution.DAY, Resolution.forRange(end.minusDays(99), end, 100));
+        assertEquals(Resolution.WEEK, Resolution.forRange(end.minusDays(400), end, 100));
+        assertEquals(Resolution.MONTH, Resolution.forRange(end.minusYears(5), end, 100));
+        assertEquals(Resolution.QUARTER, Resolution.forRange(end.minusYears(20), end, 100));
+        assertEquals(Resolution.QUARTER, Resolution.forRange(end.minusYears(200), end, 100)); // Nothing coarser
+    }
+
+    /**
+     * Verifies that buckets aggregate the days they contain and that a range gets no more buckets than asked for.
+     */
+    @Test
+    void testGetBuckets_AggregatesDays() {
+        logbook.save(logbook.entry(FIRST_DAY, "Breakfast Pre", 5.0));
+        logbook.save(logbook.entry(FIRST_DAY, "Dinner Pre", 9.0));
+        logbook.save(logbook.entry(FIRST_DAY.plusDays(40), "Lunch Pre", 12.0)); // February
+
+        List<Bucket> buckets = TilePyramid.getBuckets(USER_ID, FIRST_DAY, FIRST_DAY.plusYears(2).minusDays(1), 30);
+
+        assertEquals(24, buckets.size()); // Two years by month
+        Bucket january = buckets.get(0);
+        assertEquals(FIRST_DAY, january.getStartDate());
+        assertEquals(7.0, january.getMeanBloodSugar(), 1e-9);
+        assertEquals(5.0, january.getMinBloodSugar(), 1e-9);
+        assertEquals(9.0, january.getMaxBloodSugar(), 1e-9);
+        assertEquals(40.0, january.getAverageDailyCarbs(), 1e-9); // One day with two entries of 20 g
+        assertEquals(12.0, buckets.get(1).getMaxBloodSugar(), 1e-9);
+        assertFalse(buckets.get(2).hasReadings());
+        assertTrue(Double.isNaN(buckets.get(2).getAverageDailyCarbs())); // A gap, not zero
+
+        GlycemicStatistics statistics = new GlycemicStatistics();
+        for (Bucket bucket : buckets) {
+            bucket.addTo(statistics);
+        }
+        assertEquals(3, statistics.getCount());
+        assertEquals(26.0 / 3, statistics.getMean(), 1e-9);
+    }
+
+    /**
+     * Verifies that saving an entry through LogService updates the cached buckets of its day at every resolution.
+     */
+    @Test
+    void testEntrySaved_UpdatesCachedBuckets() {
+        logbook.save(logbook.entry(FIRST_DAY, "Breakfast Pre", 5.0));
+        LocalDate end = FIRST_DAY.plusDays(9);
+        assertEquals(5.0, TilePyramid.getBuckets(USER_ID, FIRST_DAY, end, 100).get(0).getMeanBloodSugar(), 1e-9); // By day
+        assertEquals(5.0, TilePyramid.getBuckets(USER_ID, FIRST_DAY, end, 1).get(0).getMeanBloodSugar(), 1e-9); // By month
+
+        assertTrue(LogService.saveEntry(logbook.entry(FIRST_DAY, "Breakfast Pre", 8.0), logbook.user())); // Same slot, so the reading is replaced
+
+        assertEquals(8.0, TilePyramid.getBuckets(USER_ID, FIRST_DAY, end, 100).get(0).getMeanBloodSugar(), 1e-9);
+        assertEquals(8.0, TilePyramid.getBuckets(USER_ID, FIRST_DAY, end, 1).get(0).getMeanBloodSugar(), 1e-9);
+    }
+}
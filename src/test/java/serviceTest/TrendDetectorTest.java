@@ -0,0 +1,107 @@
+package serviceTest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.TrendDetector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrendDetectorTest {
+
+    private TrendDetector detector; // Fresh detector per test so windows do not leak between tests
+
+    @BeforeEach
+    void setUp() {
+        detector = new TrendDetector();
+    }
+
+    /**
+     * Verifies that a steady fall which is still in range is reported as a predicted low.
+     */
+    @Test
+    void testRecord_PredictedLowWhileStillInRange() {
+        assertNull(detector.record(1, "2025-01-10", "Breakfast Pre", 7.5)); // 07:00
+        assertNull(detector.record(1, "2025-01-10", "Breakfast Post", 6.0)); // 09:00, only two readings so far
+
+        TrendDetector.TrendAlert alert = detector.record(1, "2025-01-10", "Lunch Pre", 4.5); // 12:00
+        assertNotNull(alert);
+        assertEquals(TrendDetector.TrendType.PREDICTED_LOW, alert.getType());
+        assertEquals(4.5, alert.getLatest(), 1e-9);
+        assertTrue(alert.getSlopePerHour() < 0);
+        assertEquals(3, alert.getReadings());
+    }
+
+    /**
+     * Verifies that checking a reading reports its trend without adding it to the window.
+     */
+    @Test
+    void testCheck_DoesNotRecord() {
+        detector.record(1, "2025-01-10", "Breakfast Pre", 7.5);
+        detector.record(1, "2025-01-10", "Breakfast Post", 6.0);
+
+        TrendDetector.TrendAlert checked = detector.check(1, "2025-01-10", "Lunch Pre", 4.5);
+        assertNotNull(checked);
+        assertEquals(TrendDetector.TrendType.PREDICTED_LOW, checked.getType());
+
+        // Still two readings in the window: checking again, then recording, sees the same three
+        assertEquals(3, detector.check(1, "2025-01-10", "Lunch Pre", 4.5).getReadings());
+        assertEquals(3, detector.record(1, "2025-01-10", "Lunch Pre", 4.5).getReadings());
+        assertNull(detector.check(1, "2025-01-10", "Lunch Pre", 4.5)); // Recorded now, so a re-save does not extend the trend
+    }
+
+    /**
+     * Verifies that a sharp fall between two readings is reported even when no hypo is predicted.
+     */
+    @Test
+    void testRecord_RapidDrop() {
+        detector.record(1, "2025-01-10", "Breakfast Pre", 12.0);
+        detector.record(1, "2025-01-10", "Breakfast Post", 13.0);
+
+        TrendDetector.TrendAlert alert = detector.record(1, "2025-01-10", "Lunch Pre", 8.0); // -5 mmol/L over 3 hours
+        assertNotNull(alert);
+        assertEquals(TrendDetector.TrendType.RAPID_DROP, alert.getType());
+    }
+
+    /**
+     * Verifies that a full window of swinging readings is reported as high variability.
+     */
+    @Test
+    void testRecord_HighVariability() {
+        String[] slots = {"Breakfast Pre", "Breakfast Post", "Lunch Pre", "Lunch Post", "Dinner Pre", "Dinner Post"};
+        double[] values = {4.5, 15.0, 5.0, 16.0, 6.0, 17.0};
+        TrendDetector.TrendAlert alert = null;
+        for (int i = 0; i < slots.length; i++) {
+            alert = detector.record(1, "2025-01-10", slots[i], values[i]);
+        }
+        assertNotNull(alert);
+        assertEquals(TrendDetector.TrendType.HIGH_VARIABILITY, alert.getType());
+        assertTrue(alert.getCoefficientOfVariation() > 0.36);
+    }
+
+    /**
+     * Verifies that stable readings, out-of-order readings and readings without a date never raise a trend.
+     */
+    @Test
+    void testRecord_NoTrendForStableOrUnplaceableReadings() {
+        assertNull(detector.record(1, "2025-01-10", "Breakfast Pre", 6.0));
+        assertNull(detector.record(1, "2025-01-10", "Breakfast Post", 6.2));
+        assertNull(detector.record(1, "2025-01-10", "Lunch Pre", 6.1));
+        assertNull(detector.record(1, "2025-01-09", "Lunch Pre", 2.0)); // older than the window, ignored
+        assertNull(detector.record(1, null, "Lunch Post", 2.0)); // no date
+        assertNull(detector.record(1, "2025-01-10", "Snack", 2.0)); // unknown slot
+    }
+
+    /**
+     * Verifies that readings of different users, and readings separated by a long gap, are not combined.
+     */
+    @Test
+    void testRecord_WindowsAreSeparatedByUserAndGap() {
+        detector.record(1, "2025-01-10", "Breakfast Pre", 7.5);
+        detector.record(2, "2025-01-10", "Breakfast Post", 6.0);
+        assertNull(detector.record(1, "2025-01-10", "Lunch Pre", 4.5)); // user 1 only has two readings
+
+        detector.record(3, "2025-01-01", "Breakfast Pre", 7.5);
+        detector.record(3, "2025-01-01", "Breakfast Post", 6.0);
+        assertNull(detector.record(3, "2025-01-05", "Lunch Pre", 4.5)); // four days later, the window restarted
+    }
+}
@@ -0,0 +1,105 @@
+package serviceTest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.UserCache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserCacheTest {
+
+    private UserCache<String, String> cache; // Fresh cache per test so values do not leak between tests
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserCache<>(2);
+    }
+
+    /**
+     * Verifies that a loaded value is cached per user, so the loader runs only once.
+     */
+    @Test
+    void testGet_LoadsOncePerUser() {
+        int[] loads = {0};
+        assertEquals("a", cache.get(1, "a", key -> { loads[0]++; return key; }));
+        assertEquals("a", cache.get(1, "a", key -> { loads[0]++; return key; }));
+        assertEquals(1, loads[0]);
+
+        assertNull(cache.get(2, "a")); // Another user's value is separate
+    }
+
+    /**
+     * Verifies that a value loaded before a save is not cached, as it may miss the saved entry.
+     */
+    @Test
+    void testPutIfCurrent_IgnoresValueFromBeforeASave() {
+        int version = cache.version(1);
+        cache.invalidate(1); // A save while the query runs
+        cache.putIfCurrent(1, "a", "stale", version);
+        assertNull(cache.get(1, "a"));
+
+        cache.putIfCurrent(1, "a", "fresh", cache.version(1));
+        assertEquals("fresh", cache.get(1, "a"));
+    }
+
+    /**
+     * Verifies that the least recently used value is evicted beyond the bound, across users.
+     */
+    @Test
+    void testGet_EvictsLeastRecentlyUsed() {
+        cache.get(1, "a", key -> "a");
+        cache.get(2, "b", key -> "b");
+        cache.get(1, "a"); // "a" is now the most recently used
+        cache.get(1, "c", key -> "c");
+
+        assertEquals("a", cache.get(1, "a"));
+        assertNull(cache.get(2, "b"));
+        assertEquals("c", cache.get(1, "c"));
+    }
+
+    /**
+     * Verifies that invalidating a key drops only that key's value.
+     */
+    @Test
+    void testInvalidate_DropsOnlyThatKey() {
+        cache.get(1, "a", key -> "a");
+        cache.get(1, "b", key -> "b");
+        cache.invalidate(1, "a");
+
+        assertNull(cache.get(1, "a"));
+        assertEquals("b", cache.get(1, "b"));
+    }
+
+    /**
+     * Verifies that update replaces or drops a cached value, and leaves a missing one missing.
+     */
+    @Test
+    void testUpdate_ReplacesOrDrops() {
+        cache.get(1, "a", key -> "a");
+        cache.update(1, "a", value -> value + "!");
+        assertEquals("a!", cache.get(1, "a"));
+
+        cache.update(1, "a", value -> null);
+        assertNull(cache.get(1, "a"));
+
+        cache.update(1, "b", value -> "never");
+        assertNull(cache.get(1, "b"));
+    }
+
+    /**
+     * Verifies that replaceIfCurrent applies figures queried after its version, and drops the value if the user's
+     * entries changed again meanwhile.
+     */
+    @Test
+    void testReplaceIfCurrent_DropsWhenChangedAgain() {
+        cache.get(1, "a", key -> "a");
+        int version = cache.invalidate(1);
+        cache.replaceIfCurrent(1, "a", version, value -> value + "1");
+        assertEquals("a1", cache.get(1, "a"));
+
+        version = cache.invalidate(1);
+        cache.invalidate(1); // Another save while the query runs
+        cache.replaceIfCurrent(1, "a", version, value -> value + "2");
+        assertNull(cache.get(1, "a"));
+    }
+}
@@ -0,0 +1,92 @@
+package serviceTest;
+
+import model.LogEntry;
+import model.MealSlot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import service.LogService;
+import service.WeekLogService;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeekLogServiceTest {
+
+    private static final int USER_ID = 990050;
+    private static final LocalDate WEEK = LocalDate.of(2033, 3, 14); // A Monday
+
+    private final TestLogbook logbook = new TestLogbook(USER_ID);
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        logbook.clear();
+    }
+
+    /**
+     * Verifies that any day of a week leads to its Monday.
+     */
+    @Test
+    void testWeekOf() {
+        assertEquals(WEEK, WeekLogService.weekOf(WEEK));
+        assertEquals(WEEK, WeekLogService.weekOf(WEEK.plusDays(3)));
+        assertEquals(WEEK, WeekLogService.weekOf(WEEK.plusDays(6))); // Sunday ends the week
+    }
+
+    /**
+     * Verifies that a week's entries are placed by day and meal slot, and that other weeks are left out.
+     */
+    @Test
+    void testGetWeek_PlacesEntries() {
+        logbook.save(logbook.entry(WEEK, "Breakfast Pre", 6.0));
+        logbook.save(logbook.entry(WEEK.plusDays(2), "Lunch Post", 9.4));
+        logbook.save(logbook.entry(WEEK.plusDays(6), "Bedtime Pre", 7.1)); // Quick log label, placed in the Bedtime row
+        logbook.save(logbook.entry(WEEK.plusDays(7), "Lunch Pre", 5.5)); // Next week
+
+        Map<LocalDate, Map<MealSlot, LogEntry>> week = WeekLogService.getWeek(USER_ID, WEEK);
+
+        assertEquals(3, week.size());
+        assertEquals(6.0, week.get(WEEK).get(MealSlot.BREAKFAST_PRE).getBloodSugar(), 1e-9);
+        assertEquals(9.4, week.get(WEEK.plusDays(2)).get(MealSlot.LUNCH_POST).getBloodSugar(), 1e-9);
+        assertEquals(7.1, week.get(WEEK.plusDays(6)).get(MealSlot.BEDTIME).getBloodSugar(), 1e-9);
+        assertSame(week, WeekLogService.getCachedWeek(USER_ID, WEEK)); // Cached, no second query
+    }
+
+    /**
+     * Verifies that saving an entry through LogService drops the cached week of its day, and only that week.
+     */
+    @Test
+    void testEntrySaved_DropsWeek() {
+        logbook.save(logbook.entry(WEEK.plusDays(1), "Dinner Pre", 6.0));
+        WeekLogService.getWeek(USER_ID, WEEK);
+        WeekLogService.getWeek(USER_ID, WEEK.plusWeeks(1));
+
+        assertTrue(LogService.saveEntry(logbook.entry(WEEK.plusDays(1), "Dinner Pre", 7.5), logbook.user())); // Same slot, so the reading is replaced
+
+        assertNull(WeekLogService.getCachedWeek(USER_ID, WEEK));
+        assertNotNull(WeekLogService.getCachedWeek(USER_ID, WEEK.plusWeeks(1)));
+        assertEquals(7.5, WeekLogService.getWeek(USER_ID, WEEK).get(WEEK.plusDays(1)).get(MealSlot.DINNER_PRE).getBloodSugar(), 1e-9);
+    }
+
+    /**
+     * Verifies that the weeks either side of the shown one are loaded in the background.
+     */
+    @Test
+    void testPrefetchAround_LoadsNeighbours() throws InterruptedException {
+        logbook.save(logbook.entry(WEEK.minusDays(1), "Lunch Post", 11.0)); // The Sunday before
+
+        WeekLogService.prefetchAround(USER_ID, WEEK);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((WeekLogService.getCachedWeek(USER_ID, WEEK.minusWeeks(1)) == null
+                || WeekLogService.getCachedWeek(USER_ID, WEEK.plusWeeks(1)) == null)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(11.0, WeekLogService.getCachedWeek(USER_ID, WEEK.minusWeeks(1)).get(WEEK.minusDays(1)).get(MealSlot.LUNCH_POST).getBloodSugar(), 1e-9);
+        assertTrue(WeekLogService.getCachedWeek(USER_ID, WEEK.plusWeeks(1)).isEmpty());
+        assertNull(WeekLogService.getCachedWeek(USER_ID, WEEK)); // Only the neighbours
+    }
+}
@@ -0,0 +1,65 @@
+package uiTest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ui.RowDirtyTracker;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RowDirtyTrackerTest {
+
+    private RowDirtyTracker tracker; // Fresh tracker per test so rows do not leak between tests
+
+    @BeforeEach
+    void setUp() {
+        tracker = new RowDirtyTracker();
+        tracker.setSaved("Breakfast Pre", List.of("6.0", "30"));
+    }
+
+    /**
+     * Verifies that only rows whose values differ from the saved ones are dirty, and that unknown rows always are.
+     */
+    @Test
+    void testIsDirty() {
+        assertFalse(tracker.isDirty("Breakfast Pre", List.of("6.0", "30")));
+        assertTrue(tracker.isDirty("Breakfast Pre", List.of("6.5", "30")));
+        assertTrue(tracker.isDirty("Lunch Pre", List.of("", ""))); // Never recorded
+    }
+
+    /**
+     * Verifies that a row whose save failed stays dirty, so the next "Save all" tries it again.
+     */
+    @Test
+    void testSaveFinished_FailedSaveStaysDirty() {
+        List<String> edited = List.of("7.2", "30");
+        tracker.savePending("Breakfast Pre", edited);
+        tracker.saveFinished("Breakfast Pre", false);
+
+        assertTrue(tracker.isDirty("Breakfast Pre", edited));
+        assertFalse(tracker.isDirty("Breakfast Pre", List.of("6.0", "30"))); // Still the values from before the edit
+    }
+
+    /**
+     * Verifies that a successful save makes the saved values the new baseline.
+     */
+    @Test
+    void testSaveFinished_SuccessfulSaveBecomesBaseline() {
+        List<String> edited = List.of("7.2", "45");
+        tracker.savePending("Breakfast Pre", edited);
+        tracker.saveFinished("Breakfast Pre", true);
+
+        assertFalse(tracker.isDirty("Breakfast Pre", edited));
+        assertTrue(tracker.isDirty("Breakfast Pre", List.of("6.0", "30")));
+    }
+
+    /**
+     * Verifies that a save that was never marked pending changes nothing, even if reported as successful.
+     */
+    @Test
+    void testSaveFinished_WithoutPendingValues() {
+        tracker.saveFinished("Lunch Pre", true);
+        assertTrue(tracker.isDirty("Lunch Pre", List.of("", "")));
+    }
+}